@@ -0,0 +1,51 @@
+package com.halliday.ai.common.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 把音频缓冲区直接编码为 Base64（标准字母表，带填充）写入目标数组，用于拼装推送给前端的 JSON 消息。
+ * <p>
+ * 与 {@link java.util.Base64.Encoder} 不同，输入可以是只读或直接缓冲区，编码结果不经过中间数组或字符串。
+ */
+public final class AudioBase64 {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+
+    private AudioBase64() {
+    }
+
+    /**
+     * 编码 {@code length} 字节所需的输出长度。
+     */
+    public static int encodedLength(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * 编码 {@code source} 的剩余内容写入 {@code target} 的 {@code offset} 处，返回写入的字节数；{@code source} 的位置不变。
+     */
+    public static int encode(ByteBuffer source, byte[] target, int offset) {
+        int position = source.position();
+        int limit = source.limit();
+        int whole = position + (limit - position) / 3 * 3;
+        int out = offset;
+        for (int i = position; i < whole; i += 3) {
+            int bits = (source.get(i) & 0xFF) << 16 | (source.get(i + 1) & 0xFF) << 8 | (source.get(i + 2) & 0xFF);
+            target[out++] = ALPHABET[bits >>> 18];
+            target[out++] = ALPHABET[bits >>> 12 & 0x3F];
+            target[out++] = ALPHABET[bits >>> 6 & 0x3F];
+            target[out++] = ALPHABET[bits & 0x3F];
+        }
+        int rest = limit - whole;
+        if (rest > 0) {
+            int bits = (source.get(whole) & 0xFF) << 16 | (rest == 2 ? (source.get(whole + 1) & 0xFF) << 8 : 0);
+            target[out++] = ALPHABET[bits >>> 18];
+            target[out++] = ALPHABET[bits >>> 12 & 0x3F];
+            target[out++] = rest == 2 ? ALPHABET[bits >>> 6 & 0x3F] : (byte) '=';
+            target[out++] = '=';
+        }
+        return out - offset;
+    }
+}
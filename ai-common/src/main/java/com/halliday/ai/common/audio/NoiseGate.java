@@ -0,0 +1,240 @@
+package com.halliday.ai.common.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Objects;
+
+/**
+ * 面向实时音频流的噪声门：在转发给上游识别服务之前裁掉静音与低能量背景噪声。
+ * <p>
+ * 按 20ms 窗口计算 RMS，超过阈值时开门并补发最近 {@code prerollMs} 的音频（避免吞掉起音），
+ * 连续 {@code hangoverMs} 静音后关门。关门期间每累计 {@code keepaliveIntervalMs} 的被抑制音频，
+ * 输出一段 {@code keepaliveFrameMs} 的数字静音，保证识别端的连接与端点检测不会因断流而超时。
+ * <p>
+ * 非线程安全，每个音频流使用独立实例。
+ */
+public final class NoiseGate {
+
+    private static final Logger log = LoggerFactory.getLogger(NoiseGate.class);
+
+    /**
+     * 计算能量时使用的窗口长度，毫秒。
+     */
+    private static final int WINDOW_MS = 20;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final AudioFormat format;
+    private final int threshold;
+    private final int windowBytes;
+    private final int hangoverWindows;
+    private final int prerollWindows;
+    private final long keepaliveIntervalBytes;
+    private final byte[] keepaliveFrame;
+    private final byte[] pending;
+    private final ArrayDeque<byte[]> preroll = new ArrayDeque<>();
+    private final NoiseGateStats stats;
+
+    private int pendingLength;
+    private boolean open;
+    private int quietWindows;
+    private long suppressedSinceKeepalive;
+    private long bytesIn;
+    private long bytesOut;
+
+    /**
+     * @param format              音频格式，仅支持 16-bit PCM
+     * @param threshold           判定为语音的 RMS 幅度下限（0~32767）
+     * @param hangoverMs          语音结束后保持开门的时长，毫秒
+     * @param prerollMs           开门时补发的历史音频时长，毫秒
+     * @param keepaliveIntervalMs 关门期间输出保活静音的间隔，毫秒；小于等于 0 表示完全丢弃
+     * @param keepaliveFrameMs    单次保活静音的时长，毫秒
+     */
+    public NoiseGate(AudioFormat format, int threshold, long hangoverMs, long prerollMs,
+                     long keepaliveIntervalMs, long keepaliveFrameMs) {
+        this(format, threshold, hangoverMs, prerollMs, keepaliveIntervalMs, keepaliveFrameMs, new NoiseGateStats());
+    }
+
+    /**
+     * @param stats 共享的累计统计
+     */
+    public NoiseGate(AudioFormat format, int threshold, long hangoverMs, long prerollMs,
+                     long keepaliveIntervalMs, long keepaliveFrameMs, NoiseGateStats stats) {
+        this.format = Objects.requireNonNull(format, "format");
+        this.stats = Objects.requireNonNull(stats, "stats");
+        if (format.bitDepth() != 16) {
+            log.error("【噪声门】仅支持 16-bit PCM，实际位深：{}", format.bitDepth());
+            throw new IllegalArgumentException("NoiseGate supports 16-bit PCM only");
+        }
+        this.threshold = Math.max(0, threshold);
+        this.windowBytes = Math.max(format.frameSizeBytes(), align(bytesFor(WINDOW_MS)));
+        this.hangoverWindows = (int) Math.max(1, Math.max(0, hangoverMs) / WINDOW_MS);
+        this.prerollWindows = (int) (Math.max(0, prerollMs) / WINDOW_MS);
+        this.keepaliveIntervalBytes = keepaliveIntervalMs > 0 ? align(bytesFor(keepaliveIntervalMs)) : 0;
+        this.keepaliveFrame = keepaliveIntervalMs > 0
+                ? new byte[Math.max(format.frameSizeBytes(), align(bytesFor(Math.max(0, keepaliveFrameMs))))]
+                : EMPTY;
+        this.pending = new byte[windowBytes];
+        log.debug("【噪声门】初始化完成，阈值：{}，窗口：{} 字节，hangover：{} 窗口，preroll：{} 窗口，保活间隔：{} 字节",
+                this.threshold, windowBytes, hangoverWindows, prerollWindows, keepaliveIntervalBytes);
+    }
+
+    /**
+     * 处理一段客户端音频，返回应转发给识别服务的字节；可能为空数组。
+     *
+     * @param chunk 原始 PCM 片段，长度不必与窗口或帧对齐
+     * @return 待转发的音频
+     */
+    public byte[] process(byte[] chunk) {
+        Objects.requireNonNull(chunk, "chunk");
+        bytesIn += chunk.length;
+        stats.onInput(chunk.length);
+        ByteArrayOutputStream out = null;
+        int offset = 0;
+        while (offset < chunk.length) {
+            int copy = Math.min(windowBytes - pendingLength, chunk.length - offset);
+            System.arraycopy(chunk, offset, pending, pendingLength, copy);
+            pendingLength += copy;
+            offset += copy;
+            if (pendingLength == windowBytes) {
+                stats.onFrame();
+                out = gate(pending.clone(), out);
+                pendingLength = 0;
+            }
+        }
+        return drain(out);
+    }
+
+    /**
+     * 流结束时调用：门处于打开状态时输出尚未凑满窗口的尾部音频，否则丢弃。
+     *
+     * @return 待转发的音频
+     */
+    public byte[] flush() {
+        byte[] tail = EMPTY;
+        int length = align(pendingLength);
+        if (open && length > 0) {
+            tail = new byte[length];
+            System.arraycopy(pending, 0, tail, 0, length);
+            bytesOut += length;
+        } else if (pendingLength > 0) {
+            stats.onGated(0, pendingLength);
+        }
+        pendingLength = 0;
+        preroll.forEach(window -> stats.onGated(1, window.length));
+        preroll.clear();
+        log.debug("【噪声门】流结束，输入：{} 字节，转发：{} 字节，节省：{} 字节", bytesIn, bytesOut, bytesSaved());
+        return tail;
+    }
+
+    private ByteArrayOutputStream gate(byte[] window, ByteArrayOutputStream out) {
+        boolean voiced = rms(window) > threshold;
+        if (voiced) {
+            quietWindows = 0;
+            if (!open) {
+                open = true;
+                log.trace("【噪声门】检测到语音，开门并补发 {} 个窗口", preroll.size());
+                while (!preroll.isEmpty()) {
+                    out = write(out, preroll.pollFirst());
+                }
+                suppressedSinceKeepalive = 0;
+            }
+            return write(out, window);
+        }
+        if (open) {
+            if (++quietWindows <= hangoverWindows) {
+                return write(out, window);
+            }
+            open = false;
+            log.trace("【噪声门】连续 {} 个静音窗口，关门", quietWindows);
+        }
+        if (prerollWindows > 0) {
+            if (preroll.size() == prerollWindows) {
+                byte[] dropped = preroll.pollFirst();
+                stats.onGated(1, dropped.length);
+            }
+            preroll.addLast(window);
+        } else {
+            stats.onGated(1, window.length);
+        }
+        if (keepaliveIntervalBytes > 0) {
+            suppressedSinceKeepalive += window.length;
+            if (suppressedSinceKeepalive >= keepaliveIntervalBytes) {
+                suppressedSinceKeepalive = 0;
+                stats.onKeepalive(keepaliveFrame.length);
+                out = write(out, keepaliveFrame);
+            }
+        }
+        return out;
+    }
+
+    private ByteArrayOutputStream write(ByteArrayOutputStream out, byte[] data) {
+        ByteArrayOutputStream target = ensure(out);
+        target.write(data, 0, data.length);
+        bytesOut += data.length;
+        return target;
+    }
+
+    private ByteArrayOutputStream ensure(ByteArrayOutputStream out) {
+        return out != null ? out : new ByteArrayOutputStream(windowBytes * Math.max(2, prerollWindows + 1));
+    }
+
+    private byte[] drain(ByteArrayOutputStream out) {
+        return out == null || out.size() == 0 ? EMPTY : out.toByteArray();
+    }
+
+    private long rms(byte[] window) {
+        boolean little = format.endianness() == AudioFormat.Endianness.LITTLE;
+        long sum = 0;
+        int samples = 0;
+        for (int i = 0; i + 1 < window.length; i += 2) {
+            int sample = little
+                    ? (short) ((window[i] & 0xFF) | (window[i + 1] << 8))
+                    : (short) ((window[i] << 8) | (window[i + 1] & 0xFF));
+            sum += (long) sample * sample;
+            samples++;
+        }
+        return samples == 0 ? 0 : (long) Math.sqrt((double) sum / samples);
+    }
+
+    private int bytesFor(long millis) {
+        long bytes = (long) format.sampleRate() * format.frameSizeBytes() * millis / 1000L;
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private int align(int bytes) {
+        int frame = format.frameSizeBytes();
+        return bytes - bytes % frame;
+    }
+
+    /**
+     * 当前是否处于开门（转发语音）状态。
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * 累计输入字节数。
+     */
+    public long bytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * 累计转发字节数（含补发与保活静音）。
+     */
+    public long bytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * 累计节省的字节数，即输入与转发之差，最小为 0。
+     */
+    public long bytesSaved() {
+        return Math.max(0, bytesIn - bytesOut);
+    }
+}
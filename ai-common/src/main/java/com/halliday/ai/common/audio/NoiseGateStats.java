@@ -0,0 +1,53 @@
+package com.halliday.ai.common.audio;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 噪声门的累计统计，由所有会话的噪声门共享，线程安全：输入的 20ms 窗口数与字节数、最终被丢弃（未转发）的窗口数与字节数，
+ * 以及输出的保活静音字节数。
+ */
+public final class NoiseGateStats {
+
+    private final LongAdder framesIn = new LongAdder();
+    private final LongAdder framesGated = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesGated = new LongAdder();
+    private final LongAdder keepaliveBytes = new LongAdder();
+
+    void onInput(int bytes) {
+        bytesIn.add(bytes);
+    }
+
+    void onFrame() {
+        framesIn.increment();
+    }
+
+    void onGated(int frames, int bytes) {
+        framesGated.add(frames);
+        bytesGated.add(bytes);
+    }
+
+    void onKeepalive(int bytes) {
+        keepaliveBytes.add(bytes);
+    }
+
+    public long framesIn() {
+        return framesIn.sum();
+    }
+
+    public long framesGated() {
+        return framesGated.sum();
+    }
+
+    public long bytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long bytesGated() {
+        return bytesGated.sum();
+    }
+
+    public long keepaliveBytes() {
+        return keepaliveBytes.sum();
+    }
+}
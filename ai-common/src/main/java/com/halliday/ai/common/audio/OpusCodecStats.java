@@ -0,0 +1,108 @@
+package com.halliday.ai.common.audio;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opus 编解码的累计统计，由所有会话的编码器与解码器共享，线程安全：帧数、CPU 耗时、编解码前后的字节数与失败次数，
+ * 以及当前存活的编码器与解码器数量。
+ */
+public final class OpusCodecStats {
+
+    private final LongAdder encodedFrames = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder encodePcmBytes = new LongAdder();
+    private final LongAdder encodeOpusBytes = new LongAdder();
+    private final LongAdder encodeErrors = new LongAdder();
+    private final LongAdder decodedFrames = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder decodeOpusBytes = new LongAdder();
+    private final LongAdder decodePcmBytes = new LongAdder();
+    private final LongAdder decodeErrors = new LongAdder();
+    private final AtomicInteger encoders = new AtomicInteger();
+    private final AtomicInteger decoders = new AtomicInteger();
+
+    void onEncoded(long nanos, int pcmBytes, int opusBytes) {
+        encodedFrames.increment();
+        encodeNanos.add(nanos);
+        encodePcmBytes.add(pcmBytes);
+        encodeOpusBytes.add(opusBytes);
+    }
+
+    void onDecoded(long nanos, int opusBytes, int pcmBytes) {
+        decodedFrames.increment();
+        decodeNanos.add(nanos);
+        decodeOpusBytes.add(opusBytes);
+        decodePcmBytes.add(pcmBytes);
+    }
+
+    void onEncodeError() {
+        encodeErrors.increment();
+    }
+
+    void onDecodeError() {
+        decodeErrors.increment();
+    }
+
+    void onOpened(boolean encoder) {
+        (encoder ? encoders : decoders).incrementAndGet();
+    }
+
+    void onClosed(boolean encoder) {
+        (encoder ? encoders : decoders).decrementAndGet();
+    }
+
+    public long encodedFrames() {
+        return encodedFrames.sum();
+    }
+
+    /**
+     * 编码累计耗用的 CPU 时间（调用线程的墙钟时间），纳秒。
+     */
+    public long encodeNanos() {
+        return encodeNanos.sum();
+    }
+
+    public long encodePcmBytes() {
+        return encodePcmBytes.sum();
+    }
+
+    public long encodeOpusBytes() {
+        return encodeOpusBytes.sum();
+    }
+
+    public long encodeErrors() {
+        return encodeErrors.sum();
+    }
+
+    public long decodedFrames() {
+        return decodedFrames.sum();
+    }
+
+    /**
+     * 解码累计耗用的 CPU 时间（调用线程的墙钟时间），纳秒。
+     */
+    public long decodeNanos() {
+        return decodeNanos.sum();
+    }
+
+    public long decodeOpusBytes() {
+        return decodeOpusBytes.sum();
+    }
+
+    public long decodePcmBytes() {
+        return decodePcmBytes.sum();
+    }
+
+    public long decodeErrors() {
+        return decodeErrors.sum();
+    }
+
+    public int encoders() {
+        return encoders.get();
+    }
+
+    public int decoders() {
+        return decoders.get();
+    }
+}
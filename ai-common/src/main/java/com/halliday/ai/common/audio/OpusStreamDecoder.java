@@ -0,0 +1,76 @@
+package com.halliday.ai.common.audio;
+
+import com.halliday.ai.common.exception.AiServiceException;
+import io.github.jaredmdobson.concentus.OpusDecoder;
+import io.github.jaredmdobson.concentus.OpusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 把客户端上传的 Opus 包解码为 16-bit 小端 PCM，解码器为纯 Java 实现（Concentus），每个音频流一个实例以保留解码状态。
+ * 每个包最长 120ms；样本缓冲区在构造时按最长包分配并复用。非线程安全。
+ */
+public final class OpusStreamDecoder implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OpusStreamDecoder.class);
+
+    private final AudioFormat format;
+    private final int maxFrameSamples;
+    private final OpusDecoder decoder;
+    private final OpusCodecStats stats;
+    private final short[] samples;
+    private boolean closed;
+
+    /**
+     * @param format 解码输出的 PCM 格式，须与客户端编码时一致，采样率为 Opus 支持的值
+     * @param stats  共享的统计
+     */
+    public OpusStreamDecoder(AudioFormat format, OpusCodecStats stats) {
+        OpusStreamEncoder.requireSupported(format);
+        this.format = format;
+        this.maxFrameSamples = format.sampleRate() / 1_000 * 120;
+        this.samples = new short[maxFrameSamples * format.channels()];
+        this.stats = stats;
+        try {
+            this.decoder = new OpusDecoder(format.sampleRate(), format.channels());
+        } catch (OpusException ex) {
+            throw new AiServiceException("Failed to create Opus decoder", ex);
+        }
+        stats.onOpened(false);
+        log.debug("【Opus 解码】创建解码器：{}Hz/{} 声道", format.sampleRate(), format.channels());
+    }
+
+    /**
+     * 解码一个 Opus 包，返回 PCM 字节；包损坏时抛出 {@link AiServiceException}。
+     */
+    public byte[] decode(byte[] packet, int offset, int length) {
+        long start = System.nanoTime();
+        int decoded;
+        try {
+            decoded = decoder.decode(packet, offset, length, samples, 0, maxFrameSamples, false);
+        } catch (OpusException ex) {
+            stats.onDecodeError();
+            throw new AiServiceException("Opus decode failed", ex);
+        }
+        int count = decoded * format.channels();
+        byte[] pcm = new byte[2 * count];
+        for (int i = 0; i < count; i++) {
+            pcm[2 * i] = (byte) samples[i];
+            pcm[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        stats.onDecoded(System.nanoTime() - start, length, pcm.length);
+        return pcm;
+    }
+
+    public AudioFormat format() {
+        return format;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            stats.onClosed(false);
+        }
+    }
+}
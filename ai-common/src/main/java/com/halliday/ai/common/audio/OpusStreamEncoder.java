@@ -0,0 +1,164 @@
+package com.halliday.ai.common.audio;
+
+import com.halliday.ai.common.exception.AiServiceException;
+import io.github.jaredmdobson.concentus.OpusApplication;
+import io.github.jaredmdobson.concentus.OpusEncoder;
+import io.github.jaredmdobson.concentus.OpusException;
+import io.github.jaredmdobson.concentus.OpusSignal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 把连续的 16-bit 小端 PCM 流编码为 Opus 包，编码器为纯 Java 实现（Concentus），每个音频流一个实例以保留编码状态。
+ * <p>
+ * 输入片段可以是任意长度，凑满一帧（{@code frameMs}）即编码并通过回调输出一个包；包以只读视图提供，只在回调期间有效。
+ * 不足一帧的样本留到下一个片段，{@link #flush} 以静音补足最后一帧。帧缓冲区与包缓冲区在构造时分配，编码过程中不再分配。
+ * 非线程安全。
+ */
+public final class OpusStreamEncoder implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OpusStreamEncoder.class);
+
+    /**
+     * Opus 支持的采样率。
+     */
+    public static final Set<Integer> SAMPLE_RATES = Set.of(8_000, 12_000, 16_000, 24_000, 48_000);
+
+    private static final Set<Integer> FRAME_MS = Set.of(10, 20, 40, 60);
+    private static final int MAX_PACKET_BYTES = 4_000;
+
+    private final AudioFormat format;
+    private final int frameMs;
+    private final int frameSamples;
+    private final OpusEncoder encoder;
+    private final OpusCodecStats stats;
+    private final short[] frame;
+    private final byte[] packet = new byte[MAX_PACKET_BYTES];
+    private final ByteBuffer packetView = ByteBuffer.wrap(packet).asReadOnlyBuffer();
+    private int filled;
+    private int pendingByte = -1;
+    private boolean closed;
+
+    /**
+     * @param format     输入 PCM 格式，采样率须为 {@link #SAMPLE_RATES} 之一，单声道或双声道
+     * @param bitrate    目标码率，bit/s
+     * @param complexity 编码复杂度 0~10，越高音质越好、CPU 开销越大
+     * @param frameMs    每个包的时长，10、20、40 或 60 毫秒
+     * @param stats      共享的统计
+     */
+    public OpusStreamEncoder(AudioFormat format, int bitrate, int complexity, int frameMs, OpusCodecStats stats) {
+        requireSupported(format);
+        if (!FRAME_MS.contains(frameMs)) {
+            throw new IllegalArgumentException("Unsupported Opus frame duration: " + frameMs + "ms");
+        }
+        this.format = format;
+        this.frameMs = frameMs;
+        this.frameSamples = format.sampleRate() / 1_000 * frameMs;
+        this.frame = new short[frameSamples * format.channels()];
+        this.stats = stats;
+        try {
+            this.encoder = new OpusEncoder(format.sampleRate(), format.channels(), OpusApplication.OPUS_APPLICATION_VOIP);
+        } catch (OpusException ex) {
+            throw new AiServiceException("Failed to create Opus encoder", ex);
+        }
+        encoder.setBitrate(bitrate);
+        encoder.setComplexity(Math.max(0, Math.min(10, complexity)));
+        encoder.setSignalType(OpusSignal.OPUS_SIGNAL_VOICE);
+        stats.onOpened(true);
+        log.debug("【Opus 编码】创建编码器：{}Hz/{} 声道，码率：{}bps，复杂度：{}，帧长：{}ms",
+                format.sampleRate(), format.channels(), bitrate, complexity, frameMs);
+    }
+
+    /**
+     * 是否可以编码该格式：16-bit 小端、Opus 支持的采样率、单声道或双声道。
+     */
+    public static boolean supports(AudioFormat format) {
+        return format.bitDepth() == 16 && format.endianness() == AudioFormat.Endianness.LITTLE
+                && SAMPLE_RATES.contains(format.sampleRate()) && format.channels() >= 1 && format.channels() <= 2;
+    }
+
+    static void requireSupported(AudioFormat format) {
+        if (!supports(format)) {
+            throw new IllegalArgumentException("Unsupported Opus PCM format: " + format);
+        }
+    }
+
+    /**
+     * 编码一个 PCM 片段，每凑满一帧输出一个包，返回输出的包数；输入缓冲区的位置不变。
+     */
+    public int encode(ByteBuffer pcm, Consumer<ByteBuffer> onPacket) {
+        int packets = 0;
+        int index = pcm.position();
+        int limit = pcm.limit();
+        if (pendingByte >= 0 && index < limit) {
+            packets += append((short) (pendingByte | pcm.get(index++) << 8), onPacket);
+            pendingByte = -1;
+        }
+        for (; index + 1 < limit; index += 2) {
+            packets += append((short) ((pcm.get(index) & 0xFF) | pcm.get(index + 1) << 8), onPacket);
+        }
+        if (index < limit) {
+            pendingByte = pcm.get(index) & 0xFF;
+        }
+        return packets;
+    }
+
+    /**
+     * 以静音补足未满的一帧并输出，返回输出的包数（0 或 1）；不足一个样本的遗留字节被丢弃。
+     */
+    public int flush(Consumer<ByteBuffer> onPacket) {
+        pendingByte = -1;
+        if (filled == 0) {
+            return 0;
+        }
+        while (filled < frame.length) {
+            frame[filled++] = 0;
+        }
+        encodeFrame(onPacket);
+        return 1;
+    }
+
+    private int append(short sample, Consumer<ByteBuffer> onPacket) {
+        frame[filled++] = sample;
+        if (filled < frame.length) {
+            return 0;
+        }
+        encodeFrame(onPacket);
+        return 1;
+    }
+
+    private void encodeFrame(Consumer<ByteBuffer> onPacket) {
+        filled = 0;
+        long start = System.nanoTime();
+        int length;
+        try {
+            length = encoder.encode(frame, 0, frameSamples, packet, 0, packet.length);
+        } catch (OpusException ex) {
+            stats.onEncodeError();
+            throw new AiServiceException("Opus encode failed", ex);
+        }
+        stats.onEncoded(System.nanoTime() - start, 2 * frame.length, length);
+        packetView.clear().limit(length);
+        onPacket.accept(packetView);
+    }
+
+    public AudioFormat format() {
+        return format;
+    }
+
+    public int frameMs() {
+        return frameMs;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            stats.onClosed(true);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.halliday.ai.common.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 把任意长度的 16-bit PCM 片段对齐到整帧：片段末尾不足一帧的字节留到下一个片段之前输出。
+ * <p>
+ * 没有遗留字节时返回输入片段的只读视图，不复制数据；有遗留字节时把遗留字节与本片段的对齐部分复制到一个新数组。
+ * 非线程安全，每个音频流使用独立实例。
+ */
+public final class Pcm16FrameAligner {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+    private final int frameBytes;
+    private final byte[] carry;
+    private int carried;
+
+    /**
+     * @param channels 声道数，一帧为 {@code 2 * channels} 字节
+     */
+    public Pcm16FrameAligner(int channels) {
+        this.frameBytes = 2 * Math.max(1, channels);
+        this.carry = new byte[frameBytes - 1];
+    }
+
+    /**
+     * 对齐一个片段，返回只读的整帧数据，可能为空；输入缓冲区的位置不变。
+     */
+    public ByteBuffer align(ByteBuffer chunk) {
+        ByteBuffer source = chunk.slice();
+        int length = source.remaining();
+        if (carried == 0) {
+            int aligned = length - length % frameBytes;
+            keepTail(source, aligned);
+            return aligned == 0 ? EMPTY : source.limit(aligned).slice().asReadOnlyBuffer();
+        }
+        int total = carried + length;
+        int aligned = total - total % frameBytes;
+        if (aligned == 0) {
+            keepTail(source, 0);
+            return EMPTY;
+        }
+        byte[] frames = new byte[aligned];
+        System.arraycopy(carry, 0, frames, 0, carried);
+        int taken = aligned - carried;
+        source.get(0, frames, carried, taken);
+        carried = 0;
+        keepTail(source, taken);
+        return ByteBuffer.wrap(frames).asReadOnlyBuffer();
+    }
+
+    private void keepTail(ByteBuffer source, int from) {
+        for (int i = from; i < source.limit(); i++) {
+            carry[carried++] = source.get(i);
+        }
+    }
+
+    /**
+     * 尚未输出的遗留字节数，始终小于一帧。
+     */
+    public int pending() {
+        return carried;
+    }
+
+    /**
+     * 丢弃遗留字节，返回丢弃的字节数。
+     */
+    public int reset() {
+        int dropped = carried;
+        carried = 0;
+        return dropped;
+    }
+}
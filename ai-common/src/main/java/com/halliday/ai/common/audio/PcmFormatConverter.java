@@ -0,0 +1,198 @@
+package com.halliday.ai.common.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 逐片段把 16-bit 小端 PCM 从一种采样率与声道数转换为另一种，用于按客户端要求的格式推送合成音频。
+ * <p>
+ * 声道减少时先混音再重采样，声道增加时先重采样再复制声道，重采样始终在较少的声道上进行。混音规则：
+ * 输出单声道时取所有输入声道的平均值，否则输出声道 {@code c} 取输入声道 {@code c % 输入声道数}。
+ * <p>
+ * 片段末尾不足一帧的字节留到下一个片段。中间与输出缓冲区按需增长后复用，稳定运行时处理片段不分配内存；
+ * {@link #convert} 返回的只读视图在下一次调用前有效。非线程安全，每个音频流使用独立实例。
+ */
+public final class PcmFormatConverter {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+    private final AudioFormat source;
+    private final AudioFormat target;
+    private final PcmResampler resampler;
+    private final boolean mixFirst;
+    private final int sourceFrameBytes;
+    private final byte[] carry;
+    private final ByteBuffer carryView;
+    private int carried;
+    private byte[] middle = new byte[0];
+    private ByteBuffer middleView = ByteBuffer.wrap(middle);
+    private byte[] output = new byte[0];
+    private ByteBuffer outputView = ByteBuffer.wrap(output).asReadOnlyBuffer();
+
+    public PcmFormatConverter(AudioFormat source, AudioFormat target) {
+        this(source, target, PcmResampler.DEFAULT_TAPS);
+    }
+
+    /**
+     * @param source 输入格式，须为 16-bit 小端
+     * @param target 输出格式，须为 16-bit 小端
+     * @param taps   重采样滤波器每个相位的抽头数
+     */
+    public PcmFormatConverter(AudioFormat source, AudioFormat target, int taps) {
+        requirePcm16(source);
+        requirePcm16(target);
+        this.source = source;
+        this.target = target;
+        this.mixFirst = target.channels() < source.channels();
+        this.resampler = source.sampleRate() == target.sampleRate() ? null
+                : new PcmResampler(source.sampleRate(), target.sampleRate(),
+                Math.min(source.channels(), target.channels()), taps);
+        this.sourceFrameBytes = 2 * source.channels();
+        this.carry = new byte[sourceFrameBytes];
+        this.carryView = ByteBuffer.wrap(carry);
+    }
+
+    private static void requirePcm16(AudioFormat format) {
+        if (format.bitDepth() != 16 || format.endianness() != AudioFormat.Endianness.LITTLE) {
+            throw new IllegalArgumentException("Only 16-bit little-endian PCM is supported: " + format);
+        }
+    }
+
+    /**
+     * 转换一个片段，返回只读的输出视图，可能为空；输入缓冲区的位置不变。
+     */
+    public ByteBuffer convert(ByteBuffer chunk) {
+        int from = chunk.position();
+        int to = chunk.limit();
+        int frames = (carried + to - from) / sourceFrameBytes;
+        if (frames == 0) {
+            while (from < to) {
+                carry[carried++] = chunk.get(from++);
+            }
+            return EMPTY;
+        }
+        ensureCapacity(frames);
+        int written = 0;
+        if (carried > 0) {
+            while (carried < sourceFrameBytes) {
+                carry[carried++] = chunk.get(from++);
+            }
+            written += convertFrames(carryView, 0, sourceFrameBytes, written);
+            carried = 0;
+        }
+        int whole = from + (to - from) / sourceFrameBytes * sourceFrameBytes;
+        written += convertFrames(chunk, from, whole, written);
+        for (int i = whole; i < to; i++) {
+            carry[carried++] = chunk.get(i);
+        }
+        return view(written);
+    }
+
+    /**
+     * 输出重采样器中剩余的样本，丢弃不足一帧的遗留字节；之后可继续转换新的音频。
+     */
+    public ByteBuffer flush() {
+        carried = 0;
+        if (resampler == null) {
+            return EMPTY;
+        }
+        ensureCapacity(resampler.latencyFrames());
+        if (mixFirst || source.channels() == target.channels()) {
+            return view(resampler.flush(output, 0));
+        }
+        int resampled = resampler.flush(middle, 0);
+        return view(mix(middleView, 0, resampled, source.channels(), output, 0, target.channels()));
+    }
+
+    /**
+     * 清空滤波状态与遗留字节，下一个片段视为新音频流的开始。
+     */
+    public void reset() {
+        carried = 0;
+        if (resampler != null) {
+            resampler.reset();
+        }
+    }
+
+    private int convertFrames(ByteBuffer input, int from, int to, int offset) {
+        if (from >= to) {
+            return 0;
+        }
+        if (resampler == null) {
+            return mix(input, from, to, source.channels(), output, offset, target.channels());
+        }
+        if (source.channels() == target.channels()) {
+            return resampler.process(input, from, to, output, offset);
+        }
+        if (mixFirst) {
+            int mixed = mix(input, from, to, source.channels(), middle, 0, target.channels());
+            return resampler.process(middleView, 0, mixed, output, offset);
+        }
+        int resampled = resampler.process(input, from, to, middle, 0);
+        return mix(middleView, 0, resampled, source.channels(), output, offset, target.channels());
+    }
+
+    /**
+     * 按声道规则转换 {@code [from, to)} 范围内的整帧，返回写入的字节数。
+     */
+    private static int mix(ByteBuffer input, int from, int to, int inChannels, byte[] output, int offset,
+                           int outChannels) {
+        int inFrameBytes = 2 * inChannels;
+        int out = offset;
+        for (int i = from; i + inFrameBytes <= to; i += inFrameBytes) {
+            if (outChannels == 1) {
+                int sum = 0;
+                for (int c = 0; c < inChannels; c++) {
+                    sum += (short) ((input.get(i + 2 * c) & 0xFF) | input.get(i + 2 * c + 1) << 8);
+                }
+                int value = sum / inChannels;
+                output[out++] = (byte) value;
+                output[out++] = (byte) (value >> 8);
+            } else {
+                for (int c = 0; c < outChannels; c++) {
+                    int index = i + 2 * (c % inChannels);
+                    output[out++] = input.get(index);
+                    output[out++] = input.get(index + 1);
+                }
+            }
+        }
+        return out - offset;
+    }
+
+    /**
+     * 为 {@code frames} 个输入帧（含一个遗留帧）预留中间与输出缓冲区。
+     */
+    private void ensureCapacity(int frames) {
+        int outFrames = resampler == null ? frames : resampler.maxOutputFrames(frames);
+        int channels = Math.max(source.channels(), target.channels());
+        int middleBytes = 2 * channels * Math.max(frames, outFrames);
+        if (middle.length < middleBytes) {
+            middle = new byte[Math.max(middleBytes, 2 * middle.length)];
+            middleView = ByteBuffer.wrap(middle);
+        }
+        int outputBytes = 2 * target.channels() * outFrames;
+        if (output.length < outputBytes) {
+            output = new byte[Math.max(outputBytes, 2 * output.length)];
+            outputView = ByteBuffer.wrap(output).asReadOnlyBuffer();
+        }
+    }
+
+    private ByteBuffer view(int length) {
+        outputView.clear().limit(length);
+        return outputView;
+    }
+
+    /**
+     * 输出相对输入的算法延迟，毫秒。
+     */
+    public double latencyMs() {
+        return resampler == null ? 0 : 1_000.0 * resampler.latencyFrames() / source.sampleRate();
+    }
+
+    public AudioFormat source() {
+        return source;
+    }
+
+    public AudioFormat target() {
+        return target;
+    }
+}
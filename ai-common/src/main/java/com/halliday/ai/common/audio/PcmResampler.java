@@ -0,0 +1,213 @@
+package com.halliday.ai.common.audio;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 流式多相重采样器，处理 16-bit 小端交错 PCM。
+ * <p>
+ * 采样率之比约分为 {@code L/M}，原型滤波器为 Blackman 窗 sinc，截止频率取两侧奈奎斯特频率中较低者的 92%，
+ * 按 {@code L} 个相位预先展开为系数表，每个输出样本只做 {@code taps} 次乘加。每个声道保留最近 {@code taps}
+ * 个输入样本作为历史，片段之间的滤波状态连续，与一次性处理整段音频的结果一致。
+ * <p>
+ * 输出样本与输入在时间上对齐，但需要 {@code taps / 2} 个输入帧的前瞻，即 {@link #latencyFrames()}；
+ * 流结束时调用 {@link #flush} 输出剩余样本。处理过程中不分配内存，非线程安全，每个音频流使用独立实例。
+ */
+public final class PcmResampler {
+
+    /**
+     * 默认每个相位的抽头数。
+     */
+    public static final int DEFAULT_TAPS = 32;
+
+    private static final int MAX_PHASES = 4_096;
+    private static final double CUTOFF = 0.92;
+
+    private final int inputRate;
+    private final int outputRate;
+    private final int channels;
+    private final int taps;
+    private final int half;
+    private final int up;
+    private final int down;
+    private final float[][] coefficients;
+    private final float[][] history;
+    private int head;
+    private long pushed;
+    private long next;
+
+    public PcmResampler(int inputRate, int outputRate, int channels) {
+        this(inputRate, outputRate, channels, DEFAULT_TAPS);
+    }
+
+    /**
+     * @param inputRate  输入采样率
+     * @param outputRate 输出采样率
+     * @param channels   声道数
+     * @param taps       每个相位的抽头数，取偶数；越大过渡带越窄，计算量与前瞻等比增加
+     */
+    public PcmResampler(int inputRate, int outputRate, int channels, int taps) {
+        if (inputRate <= 0 || outputRate <= 0) {
+            throw new IllegalArgumentException("sample rates must be positive");
+        }
+        if (channels <= 0) {
+            throw new IllegalArgumentException("channels must be positive");
+        }
+        int gcd = gcd(inputRate, outputRate);
+        this.up = outputRate / gcd;
+        this.down = inputRate / gcd;
+        if (up > MAX_PHASES) {
+            throw new IllegalArgumentException("Unsupported resampling ratio " + inputRate + " -> " + outputRate);
+        }
+        this.inputRate = inputRate;
+        this.outputRate = outputRate;
+        this.channels = channels;
+        this.taps = Math.max(2, taps + (taps & 1));
+        this.half = this.taps / 2;
+        this.coefficients = design(up, down, this.taps);
+        this.history = new float[channels][2 * this.taps];
+    }
+
+    private static float[][] design(int up, int down, int taps) {
+        int half = taps / 2;
+        double cutoff = CUTOFF * Math.min(1.0, (double) up / down);
+        float[][] table = new float[up][taps];
+        for (int phase = 0; phase < up; phase++) {
+            double frac = (double) phase / up;
+            double sum = 0;
+            double[] values = new double[taps];
+            for (int j = 0; j < taps; j++) {
+                double distance = j - half + 1 - frac;
+                double x = Math.PI * cutoff * distance;
+                double sinc = x == 0 ? 1.0 : Math.sin(x) / x;
+                double w = Math.PI * distance / half;
+                double window = Math.abs(distance) >= half ? 0 : 0.42 + 0.5 * Math.cos(w) + 0.08 * Math.cos(2 * w);
+                values[j] = sinc * window;
+                sum += values[j];
+            }
+            for (int j = 0; j < taps; j++) {
+                // 每个相位单独归一化，直流增益恒为 1
+                table[phase][j] = (float) (values[j] / sum);
+            }
+        }
+        return table;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * 处理 {@code inputFrames} 个输入帧最多产生的输出帧数。
+     */
+    public int maxOutputFrames(int inputFrames) {
+        return (int) (((long) inputFrames * up + down - 1) / down) + 1;
+    }
+
+    /**
+     * 处理 {@code input} 中 {@code [from, to)} 范围内的整帧（按绝对下标读取，不改变缓冲区位置），
+     * 输出写入 {@code output} 的 {@code offset} 处，返回写入的字节数。调用方按 {@link #maxOutputFrames} 预留空间。
+     */
+    public int process(ByteBuffer input, int from, int to, byte[] output, int offset) {
+        int frameBytes = 2 * channels;
+        int end = to - (to - from) % frameBytes;
+        int out = offset;
+        for (int i = from; i < end; i += frameBytes) {
+            for (int c = 0; c < channels; c++) {
+                int index = i + 2 * c;
+                short sample = (short) ((input.get(index) & 0xFF) | input.get(index + 1) << 8);
+                push(c, sample);
+            }
+            out = advance(output, out);
+        }
+        return out - offset;
+    }
+
+    /**
+     * 以静音补足前瞻，输出流末尾剩余的样本，返回写入的字节数；之后可继续处理新的音频。
+     */
+    public int flush(byte[] output, int offset) {
+        int out = offset;
+        for (int i = 0; i < half; i++) {
+            for (int c = 0; c < channels; c++) {
+                push(c, (short) 0);
+            }
+            out = advance(output, out);
+        }
+        return out - offset;
+    }
+
+    /**
+     * 清空历史，下一次处理视为新音频流的开始。
+     */
+    public void reset() {
+        for (float[] channel : history) {
+            Arrays.fill(channel, 0f);
+        }
+        head = 0;
+        pushed = 0;
+        next = 0;
+    }
+
+    private void push(int channel, short sample) {
+        float[] line = history[channel];
+        line[head] = sample;
+        line[head + taps] = sample;
+    }
+
+    /**
+     * 一帧写入历史后推进时钟，输出所有窗口已经凑齐的样本。
+     */
+    private int advance(byte[] output, int out) {
+        head = head + 1 == taps ? 0 : head + 1;
+        long newest = pushed++;
+        while (next / up + half <= newest) {
+            float[] coefficient = coefficients[(int) (next % up)];
+            for (int c = 0; c < channels; c++) {
+                float[] line = history[c];
+                float acc = 0f;
+                for (int j = 0; j < taps; j++) {
+                    acc += line[head + j] * coefficient[j];
+                }
+                int value = Math.round(acc);
+                if (value > Short.MAX_VALUE) {
+                    value = Short.MAX_VALUE;
+                } else if (value < Short.MIN_VALUE) {
+                    value = Short.MIN_VALUE;
+                }
+                output[out++] = (byte) value;
+                output[out++] = (byte) (value >> 8);
+            }
+            next += down;
+        }
+        return out;
+    }
+
+    /**
+     * 输出需要的前瞻输入帧数。
+     */
+    public int latencyFrames() {
+        return half;
+    }
+
+    public int inputRate() {
+        return inputRate;
+    }
+
+    public int outputRate() {
+        return outputRate;
+    }
+
+    public int channels() {
+        return channels;
+    }
+
+    public int taps() {
+        return taps;
+    }
+}
@@ -0,0 +1,134 @@
+package com.halliday.ai.common.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 按静音边界切分较长的 PCM16 音频，供分段并行识别使用。
+ * <p>
+ * 只按绝对下标读取缓冲区，不修改 position/limit，可直接作用于内存映射文件。
+ */
+public final class PcmSilenceSplitter {
+
+    private static final Logger log = LoggerFactory.getLogger(PcmSilenceSplitter.class);
+
+    /**
+     * 计算能量时使用的窗口长度，毫秒。
+     */
+    private static final int WINDOW_MS = 20;
+
+    private final AudioFormat format;
+    private final long targetSegmentMs;
+    private final long maxSegmentMs;
+    private final int silenceThreshold;
+
+    /**
+     * @param format           音频格式，仅支持 16-bit PCM
+     * @param targetSegmentMs  期望的分段时长，到达后开始寻找静音点
+     * @param maxSegmentMs     单段最大时长，找不到静音时在最安静的位置强制切分
+     * @param silenceThreshold 判定为静音的 RMS 幅度上限（0~32767）
+     */
+    public PcmSilenceSplitter(AudioFormat format, long targetSegmentMs, long maxSegmentMs, int silenceThreshold) {
+        this.format = Objects.requireNonNull(format, "format");
+        if (format.bitDepth() != 16) {
+            log.error("【静音切分】仅支持 16-bit PCM，实际位深：{}", format.bitDepth());
+            throw new IllegalArgumentException("PcmSilenceSplitter supports 16-bit PCM only");
+        }
+        if (targetSegmentMs <= 0 || maxSegmentMs < targetSegmentMs) {
+            log.error("【静音切分】分段参数非法：target={}ms，max={}ms", targetSegmentMs, maxSegmentMs);
+            throw new IllegalArgumentException("maxSegmentMs must be >= targetSegmentMs > 0");
+        }
+        this.targetSegmentMs = targetSegmentMs;
+        this.maxSegmentMs = maxSegmentMs;
+        this.silenceThreshold = Math.max(0, silenceThreshold);
+    }
+
+    /**
+     * 计算切分结果，偏移量相对于 {@code pcm.position()}。
+     *
+     * @param pcm 待切分音频
+     * @return 按时间顺序排列的分段列表，至少包含一个元素（空输入除外）
+     */
+    public List<Segment> split(ByteBuffer pcm) {
+        Objects.requireNonNull(pcm, "pcm");
+        ByteBuffer view = pcm.duplicate().order(format.endianness() == AudioFormat.Endianness.LITTLE
+                ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int base = view.position();
+        int total = align(view.remaining());
+        int windowBytes = Math.max(format.frameSizeBytes(), align(bytesFor(WINDOW_MS)));
+        int targetBytes = Math.max(windowBytes, align(bytesFor(targetSegmentMs)));
+        int maxBytes = Math.max(targetBytes, align(bytesFor(maxSegmentMs)));
+
+        List<Segment> segments = new ArrayList<>();
+        int start = 0;
+        while (total - start > maxBytes) {
+            int searchTo = start + maxBytes;
+            int cut = -1;
+            long quietest = Long.MAX_VALUE;
+            int quietestCut = searchTo;
+            for (int pos = start + targetBytes; pos + windowBytes <= searchTo; pos += windowBytes) {
+                long rms = rms(view, base + pos, windowBytes);
+                int candidate = pos + align(windowBytes / 2);
+                if (rms <= silenceThreshold) {
+                    cut = candidate;
+                    break;
+                }
+                if (rms < quietest) {
+                    quietest = rms;
+                    quietestCut = candidate;
+                }
+            }
+            if (cut < 0) {
+                log.trace("【静音切分】未找到静音窗口，使用最安静位置切分，RMS={}", quietest);
+                cut = quietestCut;
+            }
+            segments.add(new Segment(start, cut - start));
+            start = cut;
+        }
+        if (start < total) {
+            segments.add(new Segment(start, total - start));
+        }
+        log.debug("【静音切分】切分完成，总字节数：{}，分段数：{}", total, segments.size());
+        return segments;
+    }
+
+    private long rms(ByteBuffer view, int offset, int length) {
+        long sum = 0;
+        int samples = 0;
+        for (int i = offset; i + 1 < offset + length; i += 2) {
+            int sample = view.getShort(i);
+            sum += (long) sample * sample;
+            samples++;
+        }
+        return samples == 0 ? 0 : (long) Math.sqrt((double) sum / samples);
+    }
+
+    private int bytesFor(long millis) {
+        long bytes = (long) format.sampleRate() * format.frameSizeBytes() * millis / 1000L;
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private int align(int bytes) {
+        int frame = format.frameSizeBytes();
+        return bytes - bytes % frame;
+    }
+
+    /**
+     * 单个分段，偏移量相对于切分时缓冲区的 position。
+     */
+    public record Segment(int offset, int length) {
+
+        /**
+         * 返回与原缓冲区共享内容的只读切片。
+         */
+        public ByteBuffer slice(ByteBuffer source) {
+            return source.slice(source.position() + offset, length).asReadOnlyBuffer();
+        }
+    }
+}
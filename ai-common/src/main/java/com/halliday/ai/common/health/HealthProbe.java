@@ -0,0 +1,42 @@
+package com.halliday.ai.common.health;
+
+import java.time.Duration;
+
+/**
+ * 可被后台探测的上游服务。
+ * <p>
+ * 实现类使用合成请求（静音音频、单 token 补全、极短文本合成等）测量连接与首个响应的耗时，
+ * 调用方负责调度频率并根据结果维护 {@link ProviderHealth}。
+ */
+public interface HealthProbe {
+
+    /**
+     * 探测目标标识，格式为 {@code 类别:提供者}，例如 {@code stt:sherpa}、{@code llm:ollama}。
+     */
+    String probeTarget();
+
+    /**
+     * 执行一次探测。实现需在 {@code timeout} 内返回，不应抛出异常。
+     *
+     * @param timeout 探测超时
+     * @return 探测结果
+     */
+    ProbeResult probe(Duration timeout);
+
+    /**
+     * 装饰器的探测目标：被装饰的客户端支持探测时沿用其标识，否则返回 {@code fallback}。
+     */
+    static String targetOf(Object delegate, String fallback) {
+        return delegate instanceof HealthProbe probe ? probe.probeTarget() : fallback;
+    }
+
+    /**
+     * 装饰器的探测：转发给被装饰的客户端，不支持探测时返回失败结果。
+     */
+    static ProbeResult forward(Object delegate, Duration timeout) {
+        if (delegate instanceof HealthProbe probe) {
+            return probe.probe(timeout);
+        }
+        return ProbeResult.failure(0, 0, "delegate does not support probing");
+    }
+}
@@ -0,0 +1,20 @@
+package com.halliday.ai.common.health;
+
+/**
+ * 一次健康探测的结果。
+ *
+ * @param success         探测是否成功
+ * @param connectMs       建立连接耗时，毫秒；复用连接或未知时为 0
+ * @param firstResponseMs 从发起请求到收到首个响应（首字节、首条消息或关闭握手）的耗时，毫秒
+ * @param error           失败原因，成功时为 {@code null}
+ */
+public record ProbeResult(boolean success, long connectMs, long firstResponseMs, String error) {
+
+    public static ProbeResult success(long connectMs, long firstResponseMs) {
+        return new ProbeResult(true, connectMs, firstResponseMs, null);
+    }
+
+    public static ProbeResult failure(long connectMs, long elapsedMs, String error) {
+        return new ProbeResult(false, connectMs, elapsedMs, error == null ? "unknown" : error);
+    }
+}
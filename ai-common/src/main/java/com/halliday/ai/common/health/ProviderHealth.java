@@ -0,0 +1,158 @@
+package com.halliday.ai.common.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * 单个上游服务的健康状态：成功率与首响应耗时的 EWMA，以及一个简单的熔断器。
+ * <p>
+ * 连续失败达到阈值后熔断（OPEN），经过冷却时间进入半开（HALF_OPEN），
+ * 下一次成功即恢复（CLOSED），失败则重新熔断。健康分数位于 [0, 1]，熔断时为 0。
+ */
+public final class ProviderHealth {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderHealth.class);
+
+    /**
+     * 熔断器状态。
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String target;
+    private final double alpha;
+    private final int failureThreshold;
+    private final long openMs;
+    private final double referenceLatencyMs;
+    private final LongSupplier clock;
+
+    private double successEwma = 1.0;
+    private double latencyEwma = Double.NaN;
+    private int consecutiveFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long lastUpdatedAt;
+    private String lastError;
+
+    /**
+     * @param target             探测目标标识
+     * @param alpha              EWMA 平滑系数，(0, 1]，越大越偏向最近一次结果
+     * @param failureThreshold   触发熔断的连续失败次数
+     * @param openMs             熔断后的冷却时间，毫秒
+     * @param referenceLatencyMs 参考耗时，首响应耗时等于该值时延迟因子为 0.5
+     * @param clock              毫秒时钟，便于测试注入
+     */
+    public ProviderHealth(String target, double alpha, int failureThreshold, long openMs,
+                          long referenceLatencyMs, LongSupplier clock) {
+        this.target = Objects.requireNonNull(target, "target");
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(0, openMs);
+        this.referenceLatencyMs = Math.max(1, referenceLatencyMs);
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public ProviderHealth(String target, double alpha, int failureThreshold, long openMs, long referenceLatencyMs) {
+        this(target, alpha, failureThreshold, openMs, referenceLatencyMs, System::currentTimeMillis);
+    }
+
+    public String target() {
+        return target;
+    }
+
+    /**
+     * 记录一次探测或真实调用的结果。
+     */
+    public void record(ProbeResult result) {
+        Objects.requireNonNull(result, "result");
+        if (result.success()) {
+            recordSuccess(result.firstResponseMs());
+        } else {
+            recordFailure(result.error());
+        }
+    }
+
+    public synchronized void recordSuccess(long latencyMs) {
+        lastUpdatedAt = clock.getAsLong();
+        successEwma = alpha + (1 - alpha) * successEwma;
+        double latency = Math.max(0, latencyMs);
+        latencyEwma = Double.isNaN(latencyEwma) ? latency : alpha * latency + (1 - alpha) * latencyEwma;
+        consecutiveFailures = 0;
+        lastError = null;
+        if (currentState() != State.CLOSED) {
+            log.info("【健康检查】{} 探测成功，熔断器恢复", target);
+            state = State.CLOSED;
+        }
+    }
+
+    public synchronized void recordFailure(String error) {
+        lastUpdatedAt = clock.getAsLong();
+        successEwma = (1 - alpha) * successEwma;
+        consecutiveFailures++;
+        lastError = error;
+        State current = currentState();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("【健康检查】{} 连续失败 {} 次，熔断 {}ms，原因：{}", target, consecutiveFailures, openMs, error);
+            state = State.OPEN;
+            openedAt = lastUpdatedAt;
+        }
+    }
+
+    public synchronized State state() {
+        return currentState();
+    }
+
+    /**
+     * 是否可以承接新的请求：仅熔断器关闭时返回 {@code true}。
+     */
+    public synchronized boolean available() {
+        return currentState() == State.CLOSED;
+    }
+
+    /**
+     * 健康分数 = 成功率 EWMA × 延迟因子，熔断时为 0。
+     */
+    public synchronized double score() {
+        if (currentState() != State.CLOSED) {
+            return 0.0;
+        }
+        double latencyFactor = Double.isNaN(latencyEwma) ? 1.0 : referenceLatencyMs / (referenceLatencyMs + latencyEwma);
+        return successEwma * latencyFactor;
+    }
+
+    /**
+     * 首响应耗时的 EWMA，毫秒；尚无成功样本时返回 NaN。
+     */
+    public synchronized double latencyMs() {
+        return latencyEwma;
+    }
+
+    public synchronized double successRate() {
+        return successEwma;
+    }
+
+    public synchronized long lastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+
+    public synchronized String lastError() {
+        return lastError;
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMs) {
+            log.debug("【健康检查】{} 熔断冷却结束，进入半开状态", target);
+            state = State.HALF_OPEN;
+        }
+        return state;
+    }
+}
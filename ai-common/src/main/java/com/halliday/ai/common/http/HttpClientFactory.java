@@ -0,0 +1,194 @@
+package com.halliday.ai.common.http;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 所有上游客户端共享的 OkHttp 工厂：一个连接池、一个虚拟线程执行器，以及按用途区分的两个调度器。
+ * <p>
+ * 普通 HTTP 请求与 WebSocket 使用不同的 {@link Dispatcher}：OkHttp 的 WebSocket 在连接存续期间一直占用调度器中的
+ * 运行名额，若与 HTTP 共用一个调度器，长连接会挤占同一主机的短请求并发。两个调度器共享同一个执行器与连接池。
+ * <p>
+ * {@link #newClient} 与 {@link #newWebSocketClient} 基于 {@code newBuilder()} 派生，只覆盖超时设置，
+ * 因此派生出的客户端仍共享连接池、调度器与线程资源。启用 HTTP/2 时通过 TLS ALPN 协商，明文连接保持 HTTP/1.1。
+ */
+public final class HttpClientFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientFactory.class);
+
+    private static volatile HttpClientFactory shared;
+
+    private final Settings settings;
+    private final ConnectionPool connectionPool;
+    private final ExecutorService executor;
+    private final Dispatcher httpDispatcher;
+    private final Dispatcher webSocketDispatcher;
+    private final OkHttpClient httpBase;
+    private final OkHttpClient webSocketBase;
+
+    public HttpClientFactory(Settings settings) {
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.connectionPool = new ConnectionPool(settings.maxIdleConnections(), settings.keepAliveMs(), TimeUnit.MILLISECONDS);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("okhttp-shared-", 0).factory());
+        this.httpDispatcher = new Dispatcher(executor);
+        httpDispatcher.setMaxRequests(settings.maxRequests());
+        httpDispatcher.setMaxRequestsPerHost(settings.maxRequestsPerHost());
+        this.webSocketDispatcher = new Dispatcher(executor);
+        webSocketDispatcher.setMaxRequests(Math.max(settings.maxWebSocketsPerHost(), settings.maxRequests()));
+        webSocketDispatcher.setMaxRequestsPerHost(settings.maxWebSocketsPerHost());
+        List<Protocol> protocols = settings.http2()
+                ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : List.of(Protocol.HTTP_1_1);
+        this.httpBase = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(httpDispatcher)
+                .protocols(protocols)
+                .build();
+        // WebSocket 升级只能走 HTTP/1.1
+        this.webSocketBase = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(webSocketDispatcher)
+                .protocols(List.of(Protocol.HTTP_1_1))
+                .build();
+        log.info("【HTTP 客户端】初始化共享连接池，最大空闲连接：{}，保活：{}ms，最大并发：{}，单主机并发：{}，单主机 WebSocket：{}，HTTP/2：{}",
+                settings.maxIdleConnections(), settings.keepAliveMs(), settings.maxRequests(),
+                settings.maxRequestsPerHost(), settings.maxWebSocketsPerHost(), settings.http2());
+    }
+
+    /**
+     * 进程级默认实例，供未显式注入工厂的客户端构造函数使用。
+     */
+    public static HttpClientFactory shared() {
+        HttpClientFactory instance = shared;
+        if (instance == null) {
+            synchronized (HttpClientFactory.class) {
+                instance = shared;
+                if (instance == null) {
+                    log.debug("【HTTP 客户端】创建默认共享实例");
+                    instance = new HttpClientFactory(Settings.DEFAULTS);
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 派生一个用于普通 HTTP 请求的客户端。
+     *
+     * @param connectTimeoutMs 连接超时，毫秒
+     * @param readTimeoutMs    读取超时，毫秒；0 表示不限
+     * @param writeTimeoutMs   写入超时，毫秒；0 表示不限
+     */
+    public OkHttpClient newClient(long connectTimeoutMs, long readTimeoutMs, long writeTimeoutMs) {
+        return derive(httpBase, connectTimeoutMs, readTimeoutMs, writeTimeoutMs);
+    }
+
+    /**
+     * 派生一个用于 WebSocket 的客户端，并发受 {@code maxWebSocketsPerHost} 约束。
+     *
+     * @param connectTimeoutMs 连接超时，毫秒
+     * @param readTimeoutMs    读取超时，毫秒；0 表示不限
+     * @param writeTimeoutMs   写入超时，毫秒；0 表示不限
+     */
+    public OkHttpClient newWebSocketClient(long connectTimeoutMs, long readTimeoutMs, long writeTimeoutMs) {
+        return derive(webSocketBase, connectTimeoutMs, readTimeoutMs, writeTimeoutMs);
+    }
+
+    private OkHttpClient derive(OkHttpClient base, long connectTimeoutMs, long readTimeoutMs, long writeTimeoutMs) {
+        log.debug("【HTTP 客户端】派生客户端，连接超时：{}ms，读取超时：{}ms，写入超时：{}ms",
+                connectTimeoutMs, readTimeoutMs, writeTimeoutMs);
+        return base.newBuilder()
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * 连接池中的连接总数（含空闲）。
+     */
+    public int connectionCount() {
+        return connectionPool.connectionCount();
+    }
+
+    public int idleConnectionCount() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    /**
+     * 正在执行的 HTTP 请求数（含同步调用）。
+     */
+    public int runningCalls() {
+        return httpDispatcher.runningCallsCount();
+    }
+
+    /**
+     * 因并发上限而排队等待的 HTTP 请求数。
+     */
+    public int queuedCalls() {
+        return httpDispatcher.queuedCallsCount();
+    }
+
+    public int runningWebSockets() {
+        return webSocketDispatcher.runningCallsCount();
+    }
+
+    public int queuedWebSockets() {
+        return webSocketDispatcher.queuedCallsCount();
+    }
+
+    /**
+     * 取消所有请求并释放连接与线程资源。
+     */
+    public void shutdown() {
+        log.info("【HTTP 客户端】关闭共享连接池，当前连接数：{}", connectionCount());
+        httpDispatcher.cancelAll();
+        webSocketDispatcher.cancelAll();
+        executor.shutdown();
+        connectionPool.evictAll();
+    }
+
+    /**
+     * 共享客户端的调优参数。
+     *
+     * @param maxIdleConnections   连接池最多保留的空闲连接数
+     * @param keepAliveMs          空闲连接的保活时长，毫秒
+     * @param maxRequests          异步 HTTP 请求的全局并发上限
+     * @param maxRequestsPerHost   异步 HTTP 请求的单主机并发上限
+     * @param maxWebSocketsPerHost 单主机同时存在的 WebSocket 上限
+     * @param http2                是否在 TLS 连接上协商 HTTP/2
+     */
+    public record Settings(int maxIdleConnections,
+                           long keepAliveMs,
+                           int maxRequests,
+                           int maxRequestsPerHost,
+                           int maxWebSocketsPerHost,
+                           boolean http2) {
+
+        public static final Settings DEFAULTS = new Settings(32, 300_000, 256, 64, 512, true);
+
+        public Settings {
+            if (maxIdleConnections < 0 || keepAliveMs <= 0) {
+                throw new IllegalArgumentException("maxIdleConnections must be >= 0 and keepAliveMs > 0");
+            }
+            if (maxRequests < 1 || maxRequestsPerHost < 1 || maxWebSocketsPerHost < 1) {
+                throw new IllegalArgumentException("request limits must be >= 1");
+            }
+        }
+    }
+}
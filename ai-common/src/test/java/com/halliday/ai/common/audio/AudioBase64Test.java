@@ -0,0 +1,32 @@
+package com.halliday.ai.common.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioBase64Test {
+
+    @Test
+    void matchesJdkEncoderForAllTailLengths() {
+        Random random = new Random(7);
+        for (int length = 0; length < 10; length++) {
+            byte[] audio = new byte[length];
+            random.nextBytes(audio);
+            ByteBuffer source = ByteBuffer.allocateDirect(length + 2).position(1);
+            source.put(audio).flip().position(1);
+            byte[] target = new byte[2 + AudioBase64.encodedLength(length)];
+
+            int written = AudioBase64.encode(source.asReadOnlyBuffer(), target, 2);
+
+            assertEquals(AudioBase64.encodedLength(length), written);
+            assertEquals(Base64.getEncoder().encodeToString(audio),
+                    new String(target, 2, written, StandardCharsets.US_ASCII));
+            assertEquals(1, source.position());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.halliday.ai.common.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoiseGateTest {
+
+    private static final AudioFormat FORMAT = AudioFormat.PCM16_MONO_16K;
+
+    @Test
+    void dropsLeadingSilenceAndReplaysPreroll() {
+        NoiseGate gate = new NoiseGate(FORMAT, 200, 100, 40, 0, 0);
+
+        assertEquals(0, gate.process(pcm(500, 0)).length);
+        assertFalse(gate.isOpen());
+
+        byte[] out = gate.process(pcm(200, 8_000));
+        assertTrue(gate.isOpen());
+        // 200ms 语音 + 40ms 预录
+        assertEquals(bytes(240), out.length);
+        assertEquals(bytes(700), gate.bytesIn());
+        assertEquals(bytes(460), gate.bytesSaved());
+    }
+
+    @Test
+    void sharedStatsCountGatedFramesAndBytes() {
+        NoiseGateStats stats = new NoiseGateStats();
+        NoiseGate gate = new NoiseGate(FORMAT, 200, 100, 40, 0, 0, stats);
+
+        gate.process(pcm(500, 0));
+        gate.process(pcm(200, 8_000));
+
+        assertEquals(35, stats.framesIn());
+        // 500ms 静音中最后 40ms 作为预录补发，其余 23 个窗口被丢弃
+        assertEquals(23, stats.framesGated());
+        assertEquals(bytes(460), stats.bytesGated());
+        assertEquals(gate.bytesSaved(), stats.bytesGated());
+    }
+
+    @Test
+    void keepsHangoverThenClosesAndSendsKeepalive() {
+        NoiseGate gate = new NoiseGate(FORMAT, 200, 100, 0, 500, 20);
+        gate.process(pcm(100, 8_000));
+
+        byte[] out = gate.process(pcm(1_000, 0));
+        assertFalse(gate.isOpen());
+        // 100ms hangover + 900ms 被抑制音频中的 1 个 20ms 保活帧
+        assertEquals(bytes(120), out.length);
+        assertEquals(0, out[out.length - 1]);
+    }
+
+    @Test
+    void handlesChunksNotAlignedToWindows() {
+        NoiseGate gate = new NoiseGate(FORMAT, 200, 100, 0, 0, 0);
+        byte[] speech = pcm(100, 8_000);
+        int forwarded = 0;
+        for (int offset = 0; offset < speech.length; offset += 333) {
+            byte[] chunk = new byte[Math.min(333, speech.length - offset)];
+            System.arraycopy(speech, offset, chunk, 0, chunk.length);
+            forwarded += gate.process(chunk).length;
+        }
+        forwarded += gate.flush().length;
+        assertEquals(speech.length, forwarded);
+        assertEquals(0, gate.bytesSaved());
+    }
+
+    private static byte[] pcm(int millis, int amplitude) {
+        byte[] data = new byte[bytes(millis)];
+        for (int i = 0; i + 1 < data.length; i += 2) {
+            short sample = (short) ((i / 2) % 2 == 0 ? amplitude : -amplitude);
+            data[i] = (byte) sample;
+            data[i + 1] = (byte) (sample >> 8);
+        }
+        return data;
+    }
+
+    private static int bytes(int millis) {
+        return FORMAT.sampleRate() * FORMAT.frameSizeBytes() * millis / 1000;
+    }
+}
@@ -0,0 +1,94 @@
+package com.halliday.ai.common.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpusStreamCodecTest {
+
+    private static final AudioFormat MONO_16K = AudioFormat.PCM16_MONO_16K;
+
+    @Test
+    void arbitraryChunksAreFramedAndRoundTrip() {
+        OpusCodecStats stats = new OpusCodecStats();
+        OpusStreamEncoder encoder = new OpusStreamEncoder(MONO_16K, 24_000, 5, 20, stats);
+        OpusStreamDecoder decoder = new OpusStreamDecoder(MONO_16K, stats);
+        assertEquals(2, stats.encoders() + stats.decoders());
+
+        // 110ms 正弦波，按奇数长度切片送入
+        byte[] pcm = sine(1_760, 440, 8_000);
+        List<byte[]> packets = new ArrayList<>();
+        int offset = 0;
+        int[] sizes = {333, 1, 1_000, 77};
+        for (int i = 0; offset < pcm.length; i++) {
+            int size = Math.min(sizes[i % sizes.length], pcm.length - offset);
+            encoder.encode(ByteBuffer.wrap(pcm, offset, size), packet -> {
+                assertTrue(packet.isReadOnly());
+                byte[] copy = new byte[packet.remaining()];
+                packet.get(copy);
+                packets.add(copy);
+            });
+            offset += size;
+        }
+        assertEquals(5, packets.size(), "five whole 20ms frames");
+        assertEquals(1, encoder.flush(packet -> packets.add(new byte[packet.remaining()])));
+        assertEquals(0, encoder.flush(packet -> fail("nothing left to flush")));
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        for (int i = 0; i < 5; i++) {
+            decoded.writeBytes(decoder.decode(packets.get(i), 0, packets.get(i).length));
+        }
+        byte[] audio = decoded.toByteArray();
+        assertEquals(2 * 1_600, audio.length);
+        // 有损编码只比较能量：跳过编码器起始延迟后与原始信号的 RMS 相差不大
+        double expected = rms(pcm, 800, 1_600);
+        double actual = rms(audio, 800, 1_600);
+        assertTrue(Math.abs(actual - expected) < 0.25 * expected, "rms " + actual + " vs " + expected);
+
+        assertEquals(6, stats.encodedFrames());
+        assertEquals(5, stats.decodedFrames());
+        assertEquals(6 * 640, stats.encodePcmBytes());
+        assertEquals(audio.length, stats.decodePcmBytes());
+        assertTrue(stats.encodeOpusBytes() > 0);
+        encoder.close();
+        encoder.close();
+        decoder.close();
+        assertEquals(0, stats.encoders() + stats.decoders());
+    }
+
+    @Test
+    void unsupportedFormatsAreRejected() {
+        OpusCodecStats stats = new OpusCodecStats();
+        AudioFormat cd = new AudioFormat(44_100, 2, 16, AudioFormat.Endianness.LITTLE);
+        assertFalse(OpusStreamEncoder.supports(cd));
+        assertTrue(OpusStreamEncoder.supports(new AudioFormat(48_000, 2, 16, AudioFormat.Endianness.LITTLE)));
+        assertThrows(IllegalArgumentException.class, () -> new OpusStreamEncoder(cd, 24_000, 5, 20, stats));
+        assertThrows(IllegalArgumentException.class, () -> new OpusStreamEncoder(MONO_16K, 24_000, 5, 25, stats));
+        assertThrows(IllegalArgumentException.class, () -> new OpusStreamDecoder(cd, stats));
+        assertEquals(0, stats.encoders() + stats.decoders());
+    }
+
+    private static byte[] sine(int samples, double frequency, int amplitude) {
+        byte[] pcm = new byte[2 * samples];
+        for (int i = 0; i < samples; i++) {
+            int value = (int) Math.round(amplitude * Math.sin(2 * Math.PI * frequency * i / MONO_16K.sampleRate()));
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+
+    private static double rms(byte[] pcm, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            short sample = (short) ((pcm[2 * i] & 0xFF) | pcm[2 * i + 1] << 8);
+            sum += (double) sample * sample;
+        }
+        return Math.sqrt(sum / (to - from));
+    }
+}
@@ -0,0 +1,52 @@
+package com.halliday.ai.common.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Pcm16FrameAlignerTest {
+
+    @Test
+    void alignedChunksAreReturnedAsViews() {
+        byte[] audio = {1, 2, 3, 4};
+        ByteBuffer chunk = ByteBuffer.wrap(audio);
+        ByteBuffer aligned = new Pcm16FrameAligner(1).align(chunk);
+
+        assertTrue(aligned.isReadOnly());
+        assertEquals(4, aligned.remaining());
+        audio[0] = 9;
+        assertEquals(9, aligned.get(0), "no copy for whole frames");
+        assertEquals(0, chunk.position(), "input position untouched");
+    }
+
+    @Test
+    void oddBytesAreCarriedToTheNextChunk() {
+        Pcm16FrameAligner aligner = new Pcm16FrameAligner(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] sizes = {3, 1, 6, 2, 5};
+        byte next = 0;
+        for (int size : sizes) {
+            byte[] chunk = new byte[size];
+            for (int i = 0; i < size; i++) {
+                chunk[i] = next++;
+            }
+            ByteBuffer aligned = aligner.align(ByteBuffer.wrap(chunk));
+            assertEquals(0, aligned.remaining() % 4);
+            byte[] copy = new byte[aligned.remaining()];
+            aligned.get(copy);
+            out.writeBytes(copy);
+        }
+
+        assertEquals(1, aligner.pending());
+        byte[] expected = new byte[16];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+        assertArrayEquals(expected, out.toByteArray());
+        assertEquals(1, aligner.reset());
+        assertEquals(0, aligner.pending());
+    }
+}
@@ -0,0 +1,85 @@
+package com.halliday.ai.common.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PcmFormatConverterTest {
+
+    private static final AudioFormat MONO_24K = new AudioFormat(24_000, 1, 16, AudioFormat.Endianness.LITTLE);
+    private static final AudioFormat STEREO_24K = new AudioFormat(24_000, 2, 16, AudioFormat.Endianness.LITTLE);
+    private static final AudioFormat STEREO_48K = new AudioFormat(48_000, 2, 16, AudioFormat.Endianness.LITTLE);
+
+    @Test
+    void channelsAreMixedWithoutResampling() {
+        PcmFormatConverter down = new PcmFormatConverter(STEREO_24K, MONO_24K);
+        ByteBuffer mono = down.convert(ByteBuffer.wrap(frames(100, 300, -200, -400)));
+        assertArrayEquals(frames(200, -300), bytes(mono));
+        assertEquals(0.0, down.latencyMs(), 1e-9);
+
+        PcmFormatConverter up = new PcmFormatConverter(MONO_24K, STEREO_24K);
+        // 奇数字节留到下一个片段
+        assertEquals(0, up.convert(ByteBuffer.wrap(new byte[]{7})).remaining());
+        ByteBuffer stereo = up.convert(ByteBuffer.wrap(new byte[]{0, 9, 1}));
+        assertArrayEquals(frames(0x0007, 0x0007, 0x0109, 0x0109), bytes(stereo));
+        assertTrue(stereo.isReadOnly());
+    }
+
+    @Test
+    void monoIsResampledThenDuplicatedAndOutputBufferIsReused() {
+        PcmFormatConverter converter = new PcmFormatConverter(MONO_24K, STEREO_48K);
+        short[] level = new short[2_400];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = 5_000;
+        }
+        byte[] input = frames(level);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer first = null;
+        for (int offset = 0; offset < input.length; offset += 480) {
+            ByteBuffer chunk = converter.convert(ByteBuffer.wrap(input, offset, 480));
+            if (first == null) {
+                first = chunk;
+            } else {
+                assertSame(first, chunk, "steady-state chunks reuse one view");
+            }
+            out.writeBytes(bytes(chunk));
+        }
+        out.writeBytes(bytes(converter.flush()));
+
+        byte[] converted = out.toByteArray();
+        assertEquals(2 * 2 * 4_800, converted.length, "0.1s of 48kHz stereo");
+        for (int i = 200; i < 4_600; i++) {
+            short left = (short) ((converted[4 * i] & 0xFF) | converted[4 * i + 1] << 8);
+            short right = (short) ((converted[4 * i + 2] & 0xFF) | converted[4 * i + 3] << 8);
+            assertEquals(5_000, left, 1);
+            assertEquals(left, right);
+        }
+        assertEquals(16 / 24.0, converter.latencyMs(), 1e-9);
+    }
+
+    private static byte[] frames(int... samples) {
+        byte[] bytes = new byte[2 * samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            bytes[2 * i] = (byte) samples[i];
+            bytes[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        return bytes;
+    }
+
+    private static byte[] frames(short[] samples) {
+        int[] values = new int[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            values[i] = samples[i];
+        }
+        return frames(values);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,105 @@
+package com.halliday.ai.common.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量 {@link PcmFormatConverter} 转换一个 20ms 合成音频片段的耗时，并以线性插值（浏览器端常见做法）作为基准。
+ * 音质由 {@code PcmResamplerTest} 校验：通带内正弦波信噪比约 88dB（接近 16-bit 量化上限），
+ * 输出奈奎斯特频率以上的镜像衰减 40dB 以上；算法延迟为 {@link PcmResampler#latencyFrames()} 个输入帧。
+ * <p>
+ * 建议配合 {@code -prof gc} 确认稳定运行时每个片段不分配内存。运行方式：
+ * {@code mvn -pl ai-common test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.halliday.ai.common.audio.PcmResamplerBenchmark}，或在 IDE 中直接运行 {@link #main}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PcmResamplerBenchmark {
+
+    /**
+     * 输入采样率:输出采样率:输出声道数，输入均为单声道。
+     */
+    @Param({"24000:16000:1", "24000:48000:1", "24000:48000:2", "44100:16000:1"})
+    public String conversion;
+
+    private PcmFormatConverter converter;
+    private ByteBuffer chunk;
+    private int inputRate;
+    private int outputRate;
+    private byte[] linearOutput;
+    private double linearPosition;
+
+    @Setup
+    public void setUp() {
+        String[] parts = conversion.split(":");
+        inputRate = Integer.parseInt(parts[0]);
+        outputRate = Integer.parseInt(parts[1]);
+        int channels = Integer.parseInt(parts[2]);
+        converter = new PcmFormatConverter(
+                new AudioFormat(inputRate, 1, 16, AudioFormat.Endianness.LITTLE),
+                new AudioFormat(outputRate, channels, 16, AudioFormat.Endianness.LITTLE));
+        int frames = inputRate / 50;
+        byte[] audio = new byte[2 * frames];
+        Random random = new Random(42);
+        for (int i = 0; i < frames; i++) {
+            double voice = 6_000 * Math.sin(2 * Math.PI * 220 * i / inputRate)
+                    + 3_000 * Math.sin(2 * Math.PI * 1_760 * i / inputRate);
+            int value = (int) Math.round(voice + random.nextGaussian() * 500);
+            audio[2 * i] = (byte) value;
+            audio[2 * i + 1] = (byte) (value >> 8);
+        }
+        chunk = ByteBuffer.wrap(audio).asReadOnlyBuffer();
+        linearOutput = new byte[2 * (outputRate / 50 + 2)];
+    }
+
+    @Benchmark
+    public ByteBuffer polyphase() {
+        return converter.convert(chunk);
+    }
+
+    @Benchmark
+    public byte[] linearInterpolation() {
+        double step = (double) inputRate / outputRate;
+        int frames = chunk.remaining() / 2;
+        int out = 0;
+        double position = linearPosition;
+        while (position < frames - 1 && out + 2 <= linearOutput.length) {
+            int index = (int) position;
+            double frac = position - index;
+            short a = (short) ((chunk.get(2 * index) & 0xFF) | chunk.get(2 * index + 1) << 8);
+            short b = (short) ((chunk.get(2 * index + 2) & 0xFF) | chunk.get(2 * index + 3) << 8);
+            int value = (int) Math.round(a + (b - a) * frac);
+            linearOutput[out++] = (byte) value;
+            linearOutput[out++] = (byte) (value >> 8);
+            position += step;
+        }
+        linearPosition = position - (frames - 1);
+        return linearOutput;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PcmResamplerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
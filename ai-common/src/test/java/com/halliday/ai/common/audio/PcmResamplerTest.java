@@ -0,0 +1,96 @@
+package com.halliday.ai.common.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PcmResamplerTest {
+
+    @Test
+    void chunkedProcessingMatchesOneShot() {
+        byte[] audio = sine(24_000, 440, 12_000, 4_800);
+        PcmResampler whole = new PcmResampler(24_000, 16_000, 1);
+        byte[] expected = new byte[2 * (whole.maxOutputFrames(audio.length / 2) + whole.maxOutputFrames(16))];
+        int length = whole.process(ByteBuffer.wrap(audio), 0, audio.length, expected, 0);
+        length += whole.flush(expected, length);
+
+        PcmResampler chunked = new PcmResampler(24_000, 16_000, 1);
+        byte[] actual = new byte[expected.length];
+        Random random = new Random(3);
+        int written = 0;
+        for (int offset = 0; offset < audio.length; ) {
+            int size = Math.min(audio.length - offset, 2 * (1 + random.nextInt(200)));
+            written += chunked.process(ByteBuffer.wrap(audio), offset, offset + size, actual, written);
+            offset += size;
+        }
+        written += chunked.flush(actual, written);
+
+        assertEquals(3_200 * 2, length, "0.2s at 16kHz");
+        assertArrayEquals(Arrays.copyOf(expected, length), Arrays.copyOf(actual, written));
+    }
+
+    @Test
+    void downsampledToneKeepsShapeAndRejectsAliases() {
+        assertTrue(snrDb(24_000, 16_000, 1_000) > 50, "1kHz tone survives 24k -> 16k");
+        assertTrue(snrDb(16_000, 48_000, 1_000) > 50, "1kHz tone survives 16k -> 48k");
+        assertTrue(snrDb(44_100, 16_000, 3_000) > 50, "3kHz tone survives 44.1k -> 16k");
+
+        byte[] alias = sine(24_000, 11_000, 12_000, 24_000);
+        PcmResampler resampler = new PcmResampler(24_000, 16_000, 1);
+        byte[] out = new byte[2 * resampler.maxOutputFrames(alias.length / 2)];
+        int length = resampler.process(ByteBuffer.wrap(alias), 0, alias.length, out, 0);
+        double rms = 0;
+        for (int i = 64; i < length / 2; i++) {
+            double sample = (short) ((out[2 * i] & 0xFF) | out[2 * i + 1] << 8);
+            rms += sample * sample;
+        }
+        rms = Math.sqrt(rms / (length / 2 - 64));
+        assertTrue(rms < 12_000 / Math.sqrt(2) * 0.01, "11kHz tone above the 8kHz Nyquist is attenuated by 40dB, rms=" + rms);
+    }
+
+    @Test
+    void latencyIsHalfTheFilter() {
+        PcmResampler resampler = new PcmResampler(24_000, 48_000, 2);
+        byte[] out = new byte[1_024];
+        byte[] frames = new byte[4 * 15];
+        assertEquals(0, resampler.process(ByteBuffer.wrap(frames), 0, frames.length, out, 0),
+                "no output until the look-ahead is filled");
+        assertEquals(2 * 4, resampler.process(ByteBuffer.wrap(frames), 0, 8, out, 0),
+                "the 17th frame releases output for the first input frame");
+        assertEquals(16, resampler.latencyFrames());
+    }
+
+    /**
+     * 重采样一段正弦波，与目标采样率下的理想正弦波比较，返回信噪比。
+     */
+    private static double snrDb(int inputRate, int outputRate, int frequency) {
+        int amplitude = 12_000;
+        byte[] audio = sine(inputRate, frequency, amplitude, inputRate / 2);
+        PcmResampler resampler = new PcmResampler(inputRate, outputRate, 1);
+        byte[] out = new byte[2 * resampler.maxOutputFrames(audio.length / 2)];
+        int frames = resampler.process(ByteBuffer.wrap(audio), 0, audio.length, out, 0) / 2;
+        double signal = 0;
+        double noise = 0;
+        for (int i = 64; i < frames; i++) {
+            double expected = amplitude * Math.sin(2 * Math.PI * frequency * i / outputRate);
+            double actual = (short) ((out[2 * i] & 0xFF) | out[2 * i + 1] << 8);
+            signal += expected * expected;
+            noise += (actual - expected) * (actual - expected);
+        }
+        return 10 * Math.log10(signal / noise);
+    }
+
+    private static byte[] sine(int sampleRate, int frequency, int amplitude, int frames) {
+        byte[] audio = new byte[2 * frames];
+        for (int i = 0; i < frames; i++) {
+            int value = (int) Math.round(amplitude * Math.sin(2 * Math.PI * frequency * i / sampleRate));
+            audio[2 * i] = (byte) value;
+            audio[2 * i + 1] = (byte) (value >> 8);
+        }
+        return audio;
+    }
+}
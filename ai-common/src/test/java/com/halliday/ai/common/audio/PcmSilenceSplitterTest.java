@@ -0,0 +1,71 @@
+package com.halliday.ai.common.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PcmSilenceSplitterTest {
+
+    private static final AudioFormat FORMAT = AudioFormat.PCM16_MONO_16K;
+
+    @Test
+    void keepsShortAudioInOneSegment() {
+        ByteBuffer pcm = tone(2_000, 0);
+        List<PcmSilenceSplitter.Segment> segments = new PcmSilenceSplitter(FORMAT, 1_000, 3_000, 200).split(pcm);
+        assertEquals(1, segments.size());
+        assertEquals(pcm.remaining(), segments.get(0).length());
+    }
+
+    @Test
+    void cutsInsideSilenceGap() {
+        // 1.5s 语音 + 0.2s 静音 + 1.5s 语音
+        ByteBuffer pcm = ByteBuffer.allocate(bytes(3_200)).order(ByteOrder.LITTLE_ENDIAN);
+        fill(pcm, 0, bytes(1_500), 8_000);
+        fill(pcm, bytes(1_700), bytes(3_200), 8_000);
+
+        List<PcmSilenceSplitter.Segment> segments = new PcmSilenceSplitter(FORMAT, 1_000, 2_500, 200).split(pcm);
+
+        assertEquals(2, segments.size());
+        int cut = segments.get(0).length();
+        assertTrue(cut >= bytes(1_500) && cut <= bytes(1_700), "cut should fall inside the silence gap: " + cut);
+        assertEquals(pcm.remaining(), segments.get(0).length() + segments.get(1).length());
+        assertEquals(cut, segments.get(1).offset());
+    }
+
+    @Test
+    void forcesCutWhenNoSilence() {
+        ByteBuffer pcm = tone(5_000, 8_000);
+        List<PcmSilenceSplitter.Segment> segments = new PcmSilenceSplitter(FORMAT, 1_000, 2_000, 200).split(pcm);
+        assertTrue(segments.size() >= 3);
+        segments.forEach(segment -> {
+            assertTrue(segment.length() <= bytes(2_000));
+            assertEquals(0, segment.length() % FORMAT.frameSizeBytes());
+        });
+    }
+
+    @Test
+    void rejectsNon16BitAudio() {
+        AudioFormat eightBit = new AudioFormat(16_000, 1, 8, AudioFormat.Endianness.LITTLE);
+        assertThrows(IllegalArgumentException.class, () -> new PcmSilenceSplitter(eightBit, 1_000, 2_000, 200));
+    }
+
+    private static ByteBuffer tone(int millis, int amplitude) {
+        ByteBuffer pcm = ByteBuffer.allocate(bytes(millis)).order(ByteOrder.LITTLE_ENDIAN);
+        fill(pcm, 0, pcm.capacity(), amplitude);
+        return pcm;
+    }
+
+    private static void fill(ByteBuffer pcm, int from, int to, int amplitude) {
+        for (int i = from; i + 1 < to; i += 2) {
+            pcm.putShort(i, (short) (((i / 2) % 2 == 0) ? amplitude : -amplitude));
+        }
+    }
+
+    private static int bytes(int millis) {
+        return FORMAT.sampleRate() * FORMAT.frameSizeBytes() * millis / 1000;
+    }
+}
@@ -0,0 +1,50 @@
+package com.halliday.ai.common.health;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderHealthTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final ProviderHealth health = new ProviderHealth("stt:test", 0.5, 2, 10_000, 500, now::get);
+
+    @Test
+    void scoreDropsAsLatencyGrows() {
+        health.recordSuccess(100);
+        double fast = health.score();
+        health.recordSuccess(2_000);
+        health.recordSuccess(2_000);
+        assertTrue(health.score() < fast);
+        assertTrue(health.available());
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRecoversThroughHalfOpen() {
+        health.recordSuccess(100);
+        health.record(ProbeResult.failure(0, 3_000, "timeout"));
+        assertEquals(ProviderHealth.State.CLOSED, health.state());
+        health.record(ProbeResult.failure(0, 3_000, "timeout"));
+        assertEquals(ProviderHealth.State.OPEN, health.state());
+        assertEquals(0.0, health.score(), 0.0);
+        assertFalse(health.available());
+
+        now.addAndGet(10_000);
+        assertEquals(ProviderHealth.State.HALF_OPEN, health.state());
+        health.recordFailure("still down");
+        assertEquals(ProviderHealth.State.OPEN, health.state());
+
+        now.addAndGet(10_000);
+        health.record(ProbeResult.success(5, 120));
+        assertEquals(ProviderHealth.State.CLOSED, health.state());
+        assertTrue(health.score() > 0);
+        assertNull(health.lastError());
+    }
+
+    @Test
+    void rejectsInvalidAlpha() {
+        assertThrows(IllegalArgumentException.class, () -> new ProviderHealth("x", 0, 1, 1, 1));
+    }
+}
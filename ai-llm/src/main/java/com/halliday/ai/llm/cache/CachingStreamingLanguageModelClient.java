@@ -0,0 +1,421 @@
+package com.halliday.ai.llm.cache;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.llm.config.LlmCacheProperties;
+import com.halliday.ai.llm.core.BufferedChatStream;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import com.halliday.ai.llm.core.ChatStream;
+import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 为流式 LLM 客户端增加回复缓存的装饰器。
+ * <p>
+ * 命中时把缓存的回复按词切分为增量重新下发，下游 TTS 分句逻辑与真实调用时一致；未命中时调用上游并在正常结束后写入缓存。
+ * 开启 single-flight 后，并发的相同请求共享同一次上游调用：后加入者先收到已生成的增量，再与首个请求同步接收后续增量。
+ * 所有参与者都取消后才会中止上游请求。
+ * <p>
+ * 补全元数据中的 {@code cache} 字段标记本次结果来源：{@code hit}、{@code miss}、{@code coalesced} 或 {@code bypass}。
+ */
+public class CachingStreamingLanguageModelClient implements StreamingLanguageModelClient, HealthProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingStreamingLanguageModelClient.class);
+
+    private static final int FANOUT_CAPACITY = 256;
+    private static final int MAX_PIECE_CHARS = 8;
+
+    private final StreamingLanguageModelClient delegate;
+    private final LlmCacheProperties properties;
+    private final String model;
+    private final String systemPrompt;
+    private final ResponseCache cache;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * @param delegate     实际调用上游的客户端
+     * @param properties   缓存配置
+     * @param model        模型名称，参与缓存键计算
+     * @param systemPrompt 上游使用的系统提示词，参与缓存键计算
+     */
+    public CachingStreamingLanguageModelClient(StreamingLanguageModelClient delegate,
+                                               LlmCacheProperties properties,
+                                               String model,
+                                               String systemPrompt) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.properties = Objects.requireNonNull(properties, "properties");
+        this.model = model;
+        this.systemPrompt = systemPrompt;
+        this.cache = new ResponseCache(properties.getMaxEntries(), properties.getMaxTotalChars(), properties.getTtlMs());
+        log.info("【LLM 缓存】初始化，最大条目：{}，总字符上限：{}，TTL：{}ms，上下文条数：{}，single-flight：{}",
+                properties.getMaxEntries(), properties.getMaxTotalChars(), properties.getTtlMs(),
+                properties.getContextMessages(), properties.isSingleFlight());
+    }
+
+    @Override
+    public void streamChat(List<ConversationMessage> history,
+                           Consumer<String> onDelta,
+                           Consumer<StreamingLanguageModelClient.Completion> onComplete) {
+        streamChatAsync(history).drain(onDelta, onComplete);
+    }
+
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history) {
+        return streamChatAsync(history, ChatRequestOptions.DEFAULT);
+    }
+
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history, ChatRequestOptions options) {
+        String key = ResponseCache.keyOf(model, systemPrompt, history, properties.getContextMessages());
+        if (key == null) {
+            bypassed.increment();
+            log.debug("【LLM 缓存】最后一条不是用户消息，跳过缓存");
+            return delegate.streamChatAsync(history, options);
+        }
+        while (true) {
+            ResponseCache.Entry entry = cache.get(key);
+            if (entry != null) {
+                hits.increment();
+                log.info("【LLM 缓存】命中缓存，回复长度：{}，缓存时长：{}ms",
+                        entry.text().length(), System.currentTimeMillis() - entry.storedAtMs());
+                return replay(entry);
+            }
+            if (!properties.isSingleFlight()) {
+                misses.increment();
+                Flight flight = new Flight(key, false);
+                BufferedChatStream stream = flight.join();
+                flight.start(history, options);
+                return stream;
+            }
+            Flight created = new Flight(key, true);
+            Flight existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                misses.increment();
+                log.debug("【LLM 缓存】未命中，发起上游请求");
+                BufferedChatStream stream = created.join();
+                created.start(history, options);
+                return stream;
+            }
+            BufferedChatStream follower = existing.join();
+            if (follower != null) {
+                coalesced.increment();
+                log.info("【LLM 缓存】合并到进行中的相同请求");
+                return follower;
+            }
+            // 进行中的请求恰好结束，重新查找缓存
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history) {
+        return delegate.prefill(history);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history, ChatRequestOptions options) {
+        return delegate.prefill(history, options);
+    }
+
+    private ChatStream replay(ResponseCache.Entry entry) {
+        List<String> pieces = replayPieces(entry.text());
+        BufferedChatStream stream = new BufferedChatStream(pieces.size() + 1, () -> { });
+        for (String piece : pieces) {
+            stream.emit(piece);
+        }
+        stream.complete(new StreamingLanguageModelClient.Completion(entry.text(), tagged(entry.metadata(), "hit")));
+        return stream;
+    }
+
+    /**
+     * 把完整回复切成按词（空白处）断开、每段不超过 {@value #MAX_PIECE_CHARS} 个字符的增量，模拟上游的逐段输出。
+     */
+    static List<String> replayPieces(String text) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        int index = 0;
+        int length = text.length();
+        while (index < length) {
+            int codePoint = text.codePointAt(index);
+            int next = index + Character.charCount(codePoint);
+            boolean wordEnd = Character.isWhitespace(codePoint)
+                    && (next >= length || !Character.isWhitespace(text.codePointAt(next)));
+            if (wordEnd || next - start >= MAX_PIECE_CHARS) {
+                pieces.add(text.substring(start, next));
+                start = next;
+            }
+            index = next;
+        }
+        if (start < length) {
+            pieces.add(text.substring(start));
+        }
+        return pieces;
+    }
+
+    private boolean cacheable(StreamingLanguageModelClient.Completion completion) {
+        String text = completion.text();
+        if (text == null || text.isBlank() || text.length() > properties.getMaxEntryChars()) {
+            return false;
+        }
+        Map<String, Object> metadata = completion.metadata();
+        Object finish = metadata == null ? null : metadata.get("finish_reason");
+        // 因长度截断或内容过滤结束的回复不缓存
+        return finish == null || "stop".equals(finish);
+    }
+
+    private static Map<String, Object> tagged(Map<String, Object> metadata, String source) {
+        Map<String, Object> copy = metadata == null ? new LinkedHashMap<>() : new LinkedHashMap<>(metadata);
+        copy.put("cache", source);
+        return copy;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * 合并到进行中相同请求的次数。
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 不可缓存（最后一条不是用户消息）而直接转发的次数。
+     */
+    public long bypassed() {
+        return bypassed.sum();
+    }
+
+    /**
+     * 命中率：缓存命中与合并请求之和占可缓存请求的比例。
+     */
+    public double hitRatio() {
+        long served = hits() + coalesced();
+        long total = served + misses();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long totalChars() {
+        return cache.totalChars();
+    }
+
+    public long evictions() {
+        return cache.evictions();
+    }
+
+    public void clear() {
+        log.info("【LLM 缓存】清空缓存，条目数：{}", cache.size());
+        cache.clear();
+    }
+
+    @Override
+    public String probeTarget() {
+        return HealthProbe.targetOf(delegate, "llm:cache");
+    }
+
+    @Override
+    public ProbeResult probe(Duration timeout) {
+        return HealthProbe.forward(delegate, timeout);
+    }
+
+    /**
+     * 一次上游调用及其全部参与者。新增量与参与者快照在 {@code lock} 内一起取得，写入缓冲则在释放锁之后进行，
+     * 与 TTS 缓存的 follow 一致：后加入者在锁内回放已有增量，之后的增量只会出现在它加入之后的快照中，因此不会乱序或重复。
+     * {@code delivery} 只在上游回调与结束通知之间串行，保证最后一个增量先于完成信号写入。
+     */
+    private final class Flight implements Flow.Subscriber<String> {
+
+        private final String key;
+        private final boolean shared;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock delivery = new ReentrantLock();
+        private final List<String> deltas = new ArrayList<>();
+        private final List<BufferedChatStream> participants = new ArrayList<>();
+        private BufferedChatStream leader;
+        private ChatStream upstream;
+        private boolean finished;
+
+        Flight(String key, boolean shared) {
+            this.key = key;
+            this.shared = shared;
+        }
+
+        /**
+         * 加入本次调用；调用已结束时返回 {@code null}。
+         */
+        BufferedChatStream join() {
+            lock.lock();
+            try {
+                if (finished) {
+                    return null;
+                }
+                AtomicReference<BufferedChatStream> self = new AtomicReference<>();
+                BufferedChatStream stream = new BufferedChatStream(deltas.size() + FANOUT_CAPACITY,
+                        () -> leave(self.get()));
+                self.set(stream);
+                for (String delta : deltas) {
+                    stream.emit(delta);
+                }
+                participants.add(stream);
+                if (leader == null) {
+                    leader = stream;
+                }
+                return stream;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void start(List<ConversationMessage> history, ChatRequestOptions options) {
+            ChatStream stream;
+            try {
+                stream = delegate.streamChatAsync(history, options);
+            } catch (RuntimeException ex) {
+                finish(null, ex);
+                return;
+            }
+            lock.lock();
+            try {
+                upstream = stream;
+                if (finished) {
+                    stream.cancel();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            stream.completion().whenComplete(this::finish);
+            stream.subscribe(this);
+        }
+
+        private void leave(BufferedChatStream stream) {
+            ChatStream toCancel = null;
+            lock.lock();
+            try {
+                participants.remove(stream);
+                if (participants.isEmpty() && !finished) {
+                    finished = true;
+                    release();
+                    toCancel = upstream;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (toCancel != null) {
+                log.debug("【LLM 缓存】所有参与者均已取消，中止上游请求");
+                toCancel.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String delta) {
+            delivery.lock();
+            try {
+                List<BufferedChatStream> targets;
+                lock.lock();
+                try {
+                    if (finished) {
+                        return;
+                    }
+                    deltas.add(delta);
+                    targets = List.copyOf(participants);
+                } finally {
+                    lock.unlock();
+                }
+                for (BufferedChatStream participant : targets) {
+                    participant.emit(delta);
+                }
+            } finally {
+                delivery.unlock();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        private void finish(StreamingLanguageModelClient.Completion completion, Throwable throwable) {
+            List<BufferedChatStream> remaining;
+            BufferedChatStream first;
+            delivery.lock();
+            lock.lock();
+            try {
+                boolean alreadyFinished = finished;
+                finished = true;
+                release();
+                remaining = List.copyOf(participants);
+                participants.clear();
+                first = leader;
+                if (alreadyFinished && remaining.isEmpty()) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+                delivery.unlock();
+            }
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                if (!(cause instanceof CancellationException)) {
+                    log.warn("【LLM 缓存】上游调用失败，通知 {} 个参与者：{}", remaining.size(), cause.getMessage());
+                }
+                remaining.forEach(participant -> participant.fail(cause));
+                return;
+            }
+            if (cacheable(completion)) {
+                cache.put(key, completion.text(), completion.metadata());
+                log.debug("【LLM 缓存】写入缓存，回复长度：{}，当前条目：{}", completion.text().length(), cache.size());
+            }
+            for (BufferedChatStream participant : remaining) {
+                String source = participant == first ? "miss" : "coalesced";
+                participant.complete(new StreamingLanguageModelClient.Completion(completion.text(),
+                        tagged(completion.metadata(), source)));
+            }
+        }
+
+        private void release() {
+            if (shared) {
+                inFlight.remove(key, this);
+            }
+        }
+    }
+}
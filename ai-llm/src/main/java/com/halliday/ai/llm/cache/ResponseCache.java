@@ -0,0 +1,194 @@
+package com.halliday.ai.llm.cache;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.common.conversation.ConversationRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * 有界的 LLM 回复缓存：按访问顺序做 LRU 淘汰，同时限制条目数、总字符数与存活时长。
+ * <p>
+ * 键由 {@link #keyOf} 生成，对系统提示词、上下文（默认完整历史）与当前用户输入做归一化（NFKC、小写、合并空白、
+ * 去掉末尾标点）后取 SHA-256，使 "Hello!" 与 "hello" 命中同一条目，且键长不随历史增长。
+ * 所有操作在同一把锁内完成，条目数量有限，锁持有时间很短。
+ */
+public final class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\p{Punct}\\p{IsPunctuation}\\s]+$");
+    private static final char SEPARATOR = '\u0001';
+
+    private final int maxEntries;
+    private final long maxTotalChars;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder evictions = new LongAdder();
+    private long totalChars;
+
+    public ResponseCache(int maxEntries, long maxTotalChars, long ttlMs) {
+        this(maxEntries, maxTotalChars, ttlMs, System::currentTimeMillis);
+    }
+
+    ResponseCache(int maxEntries, long maxTotalChars, long ttlMs, LongSupplier clock) {
+        if (maxEntries < 1 || maxTotalChars < 1 || ttlMs < 1) {
+            throw new IllegalArgumentException("maxEntries, maxTotalChars and ttlMs must be >= 1");
+        }
+        this.maxEntries = maxEntries;
+        this.maxTotalChars = maxTotalChars;
+        this.ttlMs = ttlMs;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * 生成缓存键。
+     *
+     * @param model           模型名称，不同模型的回复互不共享
+     * @param systemPrompt    系统提示词，可为空
+     * @param history         完整对话历史，最后一条必须是用户消息
+     * @param contextMessages 除当前用户输入外参与计算的最近消息条数，负数表示完整历史
+     * @return 缓存键；最后一条不是非空用户消息时返回 {@code null}，表示不可缓存
+     */
+    public static String keyOf(String model, String systemPrompt, List<ConversationMessage> history, int contextMessages) {
+        if (history == null || history.isEmpty()) {
+            return null;
+        }
+        ConversationMessage last = history.get(history.size() - 1);
+        if (last == null || last.role() != ConversationRole.USER || last.content().isBlank()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(256);
+        key.append(normalize(systemPrompt)).append(SEPARATOR);
+        int from = contextMessages < 0 ? 0 : Math.max(0, history.size() - 1 - contextMessages);
+        for (int i = from; i < history.size(); i++) {
+            ConversationMessage message = history.get(i);
+            if (message == null || message.content().isBlank()) {
+                continue;
+            }
+            key.append(switch (message.role()) {
+                case SYSTEM -> 's';
+                case USER -> 'u';
+                case ASSISTANT -> 'a';
+            }).append(':').append(normalize(message.content())).append(SEPARATOR);
+        }
+        return (model == null ? "" : model) + SEPARATOR + sha256(key);
+    }
+
+    private static String sha256(CharSequence text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 不可用", ex);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+        return TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+
+    /**
+     * 查找未过期的条目，命中时刷新其 LRU 位置；过期条目会被顺带删除。
+     */
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.storedAtMs() >= ttlMs) {
+            log.debug("【LLM 缓存】条目已过期，存活：{}ms", clock.getAsLong() - entry.storedAtMs());
+            remove(key);
+            evictions.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 写入条目并按 LRU 顺序淘汰，直到条目数与总字符数都回到上限以内；单条超过总字符上限时不写入。
+     */
+    public synchronized void put(String key, String text, Map<String, Object> metadata) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(text, "text");
+        if (text.length() > maxTotalChars) {
+            log.debug("【LLM 缓存】回复长度 {} 超过总容量 {}，不缓存", text.length(), maxTotalChars);
+            return;
+        }
+        remove(key);
+        Map<String, Object> snapshot = metadata == null
+                ? Map.of()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(metadata));
+        entries.put(key, new Entry(text, snapshot, clock.getAsLong()));
+        totalChars += text.length();
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalChars > maxTotalChars) && eldest.hasNext()) {
+            Map.Entry<String, Entry> victim = eldest.next();
+            if (victim.getKey().equals(key)) {
+                continue;
+            }
+            totalChars -= victim.getValue().text().length();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalChars = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalChars() {
+        return totalChars;
+    }
+
+    /**
+     * 因容量或过期被淘汰的条目累计数。
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalChars -= removed.text().length();
+        }
+    }
+
+    /**
+     * 缓存条目。
+     *
+     * @param text       完整回复
+     * @param metadata   原始补全元数据（只读副本）
+     * @param storedAtMs 写入时间
+     */
+    public record Entry(String text, Map<String, Object> metadata, long storedAtMs) {
+    }
+}
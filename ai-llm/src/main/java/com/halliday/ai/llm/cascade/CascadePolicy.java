@@ -0,0 +1,152 @@
+package com.halliday.ai.llm.cascade;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.common.conversation.ConversationRole;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 模型级联的路由规则：判断本轮用户输入交给小模型还是直接交给大模型。
+ * <p>
+ * 依次检查：最后一条不是用户消息 → 大模型；命中简单短语（"yes"、"thanks"、"repeat that" 等）→ 小模型；
+ * 超过字数或词数上限 → 大模型；包含升级关键词 → 大模型；复杂度分数不低于阈值 → 大模型；其余 → 小模型。
+ * 复杂度分数由可替换的分类器给出，默认使用 {@link #heuristicScore(String)}。
+ */
+public final class CascadePolicy {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EDGE_PUNCTUATION = Pattern.compile("^[\\p{Punct}\\p{IsPunctuation}\\s]+|[\\p{Punct}\\p{IsPunctuation}\\s]+$");
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{Punct}\\p{IsPunctuation}]");
+    private static final Set<String> QUESTION_WORDS = Set.of(
+            "what", "why", "how", "when", "where", "who", "which", "explain");
+    private static final List<String> CJK_QUESTION_WORDS = List.of("为什么", "怎么", "如何");
+
+    private final int maxChars;
+    private final int maxWords;
+    private final Set<String> simplePhrases;
+    private final List<String> escalateKeywords;
+    private final double classifierThreshold;
+    private final ToDoubleFunction<String> classifier;
+
+    /**
+     * @param maxChars            小模型可处理的最大字符数
+     * @param maxWords            小模型可处理的最大词数
+     * @param simplePhrases       始终交给小模型的短语（归一化后整句匹配）
+     * @param escalateKeywords    出现即交给大模型的关键词（不区分大小写）
+     * @param classifierThreshold 复杂度分数达到该值时交给大模型
+     * @param classifier          复杂度分类器，返回 [0, 1]；为 {@code null} 时使用启发式分数
+     */
+    public CascadePolicy(int maxChars, int maxWords, List<String> simplePhrases, List<String> escalateKeywords,
+                         double classifierThreshold, ToDoubleFunction<String> classifier) {
+        this.maxChars = Math.max(1, maxChars);
+        this.maxWords = Math.max(1, maxWords);
+        this.simplePhrases = simplePhrases == null ? Set.of()
+                : simplePhrases.stream().map(CascadePolicy::normalize).filter(p -> !p.isEmpty()).collect(Collectors.toSet());
+        this.escalateKeywords = escalateKeywords == null ? List.of()
+                : escalateKeywords.stream().map(CascadePolicy::normalize).filter(k -> !k.isEmpty()).toList();
+        this.classifierThreshold = classifierThreshold;
+        this.classifier = classifier == null ? CascadePolicy::heuristicScore : classifier;
+    }
+
+    /**
+     * 根据对话历史的最后一条用户消息做出路由决定。
+     */
+    public Decision decide(List<ConversationMessage> history) {
+        if (history == null || history.isEmpty()) {
+            return Decision.large("empty", 0);
+        }
+        ConversationMessage last = history.get(history.size() - 1);
+        if (last == null || last.role() != ConversationRole.USER) {
+            return Decision.large("not_user", 0);
+        }
+        String text = normalize(last.content());
+        if (text.isEmpty()) {
+            return Decision.large("empty", 0);
+        }
+        if (simplePhrases.contains(text)) {
+            return Decision.small("phrase", 0);
+        }
+        int words = WHITESPACE.split(text).length;
+        if (text.length() > maxChars || words > maxWords) {
+            return Decision.large("length", 0);
+        }
+        String padded = " " + PUNCTUATION.matcher(text).replaceAll(" ") + " ";
+        for (String keyword : escalateKeywords) {
+            // 英文关键词按整词匹配，中文等无空格分词的关键词按子串匹配
+            boolean hit = isAscii(keyword) ? padded.contains(" " + keyword + " ") : text.contains(keyword);
+            if (hit) {
+                return Decision.large("keyword", 0);
+            }
+        }
+        double score = classifier.applyAsDouble(text);
+        if (score >= classifierThreshold) {
+            return Decision.large("classifier", score);
+        }
+        return Decision.small("short", score);
+    }
+
+    /**
+     * 启发式复杂度分数：词数越多越复杂；疑问词、数字与多个分句分别加分，结果截断到 [0, 1]。
+     */
+    public static double heuristicScore(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return 0;
+        }
+        String[] words = WHITESPACE.split(normalized);
+        double score = Math.min(0.4, words.length / 20.0);
+        if (QUESTION_WORDS.contains(words[0]) || CJK_QUESTION_WORDS.stream().anyMatch(normalized::contains)) {
+            score += 0.3;
+        }
+        if (normalized.chars().anyMatch(Character::isDigit)) {
+            score += 0.3;
+        }
+        // NFKC 已把全角逗号归一化为半角
+        if (normalized.contains(",") || normalized.contains(" and ")) {
+            score += 0.2;
+        }
+        return Math.min(1.0, score);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
+        return EDGE_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+
+    private static boolean isAscii(String value) {
+        return value.chars().allMatch(c -> c < 0x80);
+    }
+
+    /**
+     * 路由决定。
+     *
+     * @param small  是否交给小模型
+     * @param reason 决定依据：phrase、short、length、keyword、classifier、not_user、empty
+     * @param score  复杂度分数，未计算时为 0
+     */
+    public record Decision(boolean small, String reason, double score) {
+
+        public Decision {
+            Objects.requireNonNull(reason, "reason");
+        }
+
+        static Decision small(String reason, double score) {
+            return new Decision(true, reason, score);
+        }
+
+        static Decision large(String reason, double score) {
+            return new Decision(false, reason, score);
+        }
+    }
+}
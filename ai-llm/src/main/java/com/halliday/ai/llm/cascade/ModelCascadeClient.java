@@ -0,0 +1,347 @@
+package com.halliday.ai.llm.cascade;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.llm.core.BufferedChatStream;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import com.halliday.ai.llm.core.ChatStream;
+import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 模型级联：由 {@link CascadePolicy} 把简短、简单的输入交给小模型，其余直接交给大模型。
+ * <p>
+ * 小模型被要求在无法简短回答时只输出升级标记。为此小模型开头的增量会先暂存，直到能确定回复是否以升级标记开头
+ * （开头的空推理块 {@code <think></think>} 会被跳过）：是则取消小模型并改用大模型，否则原样下发。
+ * 小模型在下发任何内容之前失败时同样回退到大模型。
+ * <p>
+ * 补全元数据中的 {@code cascade} 字段标记本次结果来源：{@code small}、{@code large}、{@code escalated} 或 {@code fallback}。
+ */
+public class ModelCascadeClient implements StreamingLanguageModelClient, HealthProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelCascadeClient.class);
+
+    private static final int RELAY_CAPACITY = 256;
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+    private static final int MAX_HELD_CHARS = 4_096;
+
+    private final StreamingLanguageModelClient small;
+    private final StreamingLanguageModelClient large;
+    private final CascadePolicy policy;
+    private final String escalationToken;
+    private final LongAdder smallRequests = new LongAdder();
+    private final LongAdder largeRequests = new LongAdder();
+    private final LongAdder escalations = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * @param small           小模型客户端
+     * @param large           大模型客户端，同时负责健康探测
+     * @param policy          路由规则
+     * @param escalationToken 小模型表示需要升级的标记
+     */
+    public ModelCascadeClient(StreamingLanguageModelClient small,
+                              StreamingLanguageModelClient large,
+                              CascadePolicy policy,
+                              String escalationToken) {
+        this.small = Objects.requireNonNull(small, "small");
+        this.large = Objects.requireNonNull(large, "large");
+        this.policy = Objects.requireNonNull(policy, "policy");
+        if (escalationToken == null || escalationToken.isBlank()) {
+            throw new IllegalArgumentException("escalationToken must not be blank");
+        }
+        this.escalationToken = escalationToken.strip();
+        log.info("【模型级联】初始化完成，升级标记：{}", this.escalationToken);
+    }
+
+    @Override
+    public void streamChat(List<ConversationMessage> history,
+                           Consumer<String> onDelta,
+                           Consumer<StreamingLanguageModelClient.Completion> onComplete) {
+        streamChatAsync(history).drain(onDelta, onComplete);
+    }
+
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history) {
+        return streamChatAsync(history, ChatRequestOptions.DEFAULT);
+    }
+
+    /**
+     * 升级与回退发起的大模型请求以 {@link ChatRequestOptions#asContinuation()} 提交，排队时优先于新轮次。
+     */
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history, ChatRequestOptions options) {
+        CascadePolicy.Decision decision = policy.decide(history);
+        Relay relay = new Relay(history, options == null ? ChatRequestOptions.DEFAULT : options, decision);
+        if (decision.small()) {
+            smallRequests.increment();
+            log.debug("【模型级联】交给小模型，依据：{}，分数：{}", decision.reason(), decision.score());
+            relay.start(true, "small", relay.options);
+        } else {
+            largeRequests.increment();
+            log.debug("【模型级联】交给大模型，依据：{}，分数：{}", decision.reason(), decision.score());
+            relay.start(false, "large", relay.options);
+        }
+        return relay.out;
+    }
+
+    /**
+     * 只预填充大模型：下一句话交给哪个模型尚不可知，而小模型的前缀计算本就很快。
+     */
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history) {
+        return large.prefill(history);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history, ChatRequestOptions options) {
+        return large.prefill(history, options);
+    }
+
+    /**
+     * 判断暂存的小模型开头是否为升级标记：是返回 1，不是返回 0，还需更多输入返回 -1。
+     */
+    static int escalationState(CharSequence held, String token, boolean end) {
+        String visible = held.toString().stripLeading();
+        if (visible.startsWith(THINK_OPEN)) {
+            int close = visible.indexOf(THINK_CLOSE);
+            if (close < 0) {
+                return end || held.length() > MAX_HELD_CHARS ? 0 : -1;
+            }
+            visible = visible.substring(close + THINK_CLOSE.length()).stripLeading();
+        } else if (THINK_OPEN.startsWith(visible) && !visible.isEmpty() && !end) {
+            return -1;
+        }
+        if (visible.length() >= token.length()) {
+            return visible.startsWith(token) ? 1 : 0;
+        }
+        if (end) {
+            return 0;
+        }
+        return token.startsWith(visible) ? -1 : 0;
+    }
+
+    /**
+     * 直接交给小模型的请求数。
+     */
+    public long small() {
+        return smallRequests.sum();
+    }
+
+    /**
+     * 直接交给大模型的请求数。
+     */
+    public long large() {
+        return largeRequests.sum();
+    }
+
+    /**
+     * 小模型输出升级标记、改由大模型回答的次数。
+     */
+    public long escalated() {
+        return escalations.sum();
+    }
+
+    /**
+     * 小模型失败、回退到大模型的次数。
+     */
+    public long fallback() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public String probeTarget() {
+        return HealthProbe.targetOf(large, "llm:cascade");
+    }
+
+    @Override
+    public ProbeResult probe(Duration timeout) {
+        return HealthProbe.forward(large, timeout);
+    }
+
+    private static Map<String, Object> tagged(Map<String, Object> metadata, String source, String reason) {
+        Map<String, Object> copy = metadata == null ? new LinkedHashMap<>() : new LinkedHashMap<>(metadata);
+        copy.put("cascade", source);
+        copy.put("cascade_reason", reason);
+        return copy;
+    }
+
+    /**
+     * 一次级联请求：对外的输出流与当前正在转发的上游调用。同一时刻只有一个上游调用有效，切换时先替换再取消旧调用，
+     * 旧调用随后到达的事件会被忽略。
+     */
+    private final class Relay {
+
+        private final List<ConversationMessage> history;
+        private final ChatRequestOptions options;
+        private final CascadePolicy.Decision decision;
+        private final BufferedChatStream out;
+        private volatile Leg current;
+
+        Relay(List<ConversationMessage> history, ChatRequestOptions options, CascadePolicy.Decision decision) {
+            this.history = history;
+            this.options = options;
+            this.decision = decision;
+            this.out = new BufferedChatStream(RELAY_CAPACITY, () -> {
+                Leg leg = current;
+                if (leg != null && leg.stream != null) {
+                    leg.stream.cancel();
+                }
+            });
+        }
+
+        void start(boolean useSmall, String source, ChatRequestOptions requestOptions) {
+            Leg leg = new Leg(useSmall, source);
+            current = leg;
+            ChatStream stream;
+            try {
+                stream = (useSmall ? small : large).streamChatAsync(history, requestOptions);
+            } catch (RuntimeException ex) {
+                leg.onFailure(ex);
+                return;
+            }
+            leg.stream = stream;
+            if (out.isCancelled() || current != leg) {
+                stream.cancel();
+                return;
+            }
+            stream.completion().whenComplete((completion, throwable) -> {
+                if (throwable != null) {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    leg.onFailure(cause);
+                } else {
+                    leg.onDone(completion);
+                }
+            });
+            stream.subscribe(leg);
+        }
+
+        private void switchToLarge(Leg from, String source) {
+            if (out.isCancelled()) {
+                return;
+            }
+            start(false, source, options.asContinuation());
+            if (from.stream != null) {
+                from.stream.cancel();
+            }
+        }
+
+        /**
+         * 一次上游调用。小模型的调用在确定不是升级标记之前暂存增量。
+         */
+        private final class Leg implements Flow.Subscriber<String> {
+
+            private final boolean screening;
+            private final String source;
+            private final StringBuilder held = new StringBuilder();
+            private volatile ChatStream stream;
+            private boolean deciding;
+            private boolean forwarded;
+
+            Leg(boolean screening, String source) {
+                this.screening = screening;
+                this.source = source;
+                this.deciding = screening;
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String delta) {
+                if (current != this) {
+                    return;
+                }
+                if (!deciding) {
+                    forward(delta);
+                    return;
+                }
+                held.append(delta);
+                int state = escalationState(held, escalationToken, false);
+                if (state > 0) {
+                    escalate();
+                } else if (state == 0) {
+                    release();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+
+            void onDone(StreamingLanguageModelClient.Completion completion) {
+                if (current != this) {
+                    return;
+                }
+                if (deciding) {
+                    if (escalationState(held, escalationToken, true) > 0) {
+                        escalate();
+                        return;
+                    }
+                    release();
+                }
+                out.complete(new StreamingLanguageModelClient.Completion(completion.text(),
+                        tagged(completion.metadata(), source, decision.reason())));
+            }
+
+            void onFailure(Throwable cause) {
+                if (current != this) {
+                    return;
+                }
+                if (cause instanceof CancellationException) {
+                    out.fail(cause);
+                    return;
+                }
+                if (screening && !forwarded) {
+                    fallbacks.increment();
+                    log.warn("【模型级联】小模型调用失败，回退到大模型：{}", cause.getMessage());
+                    switchToLarge(this, "fallback");
+                    return;
+                }
+                out.fail(cause);
+            }
+
+            private void escalate() {
+                deciding = false;
+                escalations.increment();
+                log.info("【模型级联】小模型请求升级，改用大模型，路由依据：{}", decision.reason());
+                switchToLarge(this, "escalated");
+            }
+
+            private void release() {
+                deciding = false;
+                if (!held.isEmpty()) {
+                    forward(held.toString());
+                    held.setLength(0);
+                }
+            }
+
+            private void forward(String delta) {
+                forwarded = true;
+                out.emit(delta);
+            }
+        }
+    }
+}
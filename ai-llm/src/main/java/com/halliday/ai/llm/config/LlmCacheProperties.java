@@ -0,0 +1,132 @@
+package com.halliday.ai.llm.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * LLM 回复缓存配置。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.llm.cache")
+public class LlmCacheProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmCacheProperties.class);
+
+    /**
+     * 是否启用回复缓存；默认关闭，按需显式开启。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 最多缓存的回复条数。
+     */
+    private int maxEntries = 1_000;
+
+    /**
+     * 所有缓存回复的总字符数上限。
+     */
+    private long maxTotalChars = 2_000_000;
+
+    /**
+     * 单条回复超过该长度时不缓存。
+     */
+    private int maxEntryChars = 4_000;
+
+    /**
+     * 条目存活时长，毫秒。
+     */
+    private long ttlMs = 3_600_000;
+
+    /**
+     * 除当前用户输入外参与缓存键计算的最近消息条数，负数表示完整历史，0 表示只看当前输入。
+     */
+    private int contextMessages = -1;
+
+    /**
+     * 是否合并并发的相同请求，只向上游发送一次。
+     */
+    private boolean singleFlight = true;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【LLM 缓存配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【LLM 缓存配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public int getMaxEntries() {
+        int value = maxEntries();
+        log.debug("【LLM 缓存配置】读取 maxEntries：{}", value);
+        return value;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        log.debug("【LLM 缓存配置】设置 maxEntries：{}", maxEntries);
+        maxEntries(maxEntries);
+    }
+
+    public long getMaxTotalChars() {
+        long value = maxTotalChars();
+        log.debug("【LLM 缓存配置】读取 maxTotalChars：{}", value);
+        return value;
+    }
+
+    public void setMaxTotalChars(long maxTotalChars) {
+        log.debug("【LLM 缓存配置】设置 maxTotalChars：{}", maxTotalChars);
+        maxTotalChars(maxTotalChars);
+    }
+
+    public int getMaxEntryChars() {
+        int value = maxEntryChars();
+        log.debug("【LLM 缓存配置】读取 maxEntryChars：{}", value);
+        return value;
+    }
+
+    public void setMaxEntryChars(int maxEntryChars) {
+        log.debug("【LLM 缓存配置】设置 maxEntryChars：{}", maxEntryChars);
+        maxEntryChars(maxEntryChars);
+    }
+
+    public long getTtlMs() {
+        long value = ttlMs();
+        log.debug("【LLM 缓存配置】读取 ttlMs：{}", value);
+        return value;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        log.debug("【LLM 缓存配置】设置 ttlMs：{}", ttlMs);
+        ttlMs(ttlMs);
+    }
+
+    public int getContextMessages() {
+        int value = contextMessages();
+        log.debug("【LLM 缓存配置】读取 contextMessages：{}", value);
+        return value;
+    }
+
+    public void setContextMessages(int contextMessages) {
+        log.debug("【LLM 缓存配置】设置 contextMessages：{}", contextMessages);
+        contextMessages(contextMessages);
+    }
+
+    public boolean isSingleFlight() {
+        boolean value = singleFlight();
+        log.debug("【LLM 缓存配置】读取 singleFlight：{}", value);
+        return value;
+    }
+
+    public void setSingleFlight(boolean singleFlight) {
+        log.debug("【LLM 缓存配置】设置 singleFlight：{}", singleFlight);
+        singleFlight(singleFlight);
+    }
+}
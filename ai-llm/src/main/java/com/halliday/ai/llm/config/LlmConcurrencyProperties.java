@@ -0,0 +1,164 @@
+package com.halliday.ai.llm.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * LLM 调用的自适应并发控制与公平排队配置。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.llm.concurrency")
+public class LlmConcurrencyProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmConcurrencyProperties.class);
+
+    /**
+     * 是否启用自适应并发控制。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 初始并发上限。
+     */
+    private int initialLimit = 4;
+
+    /**
+     * 并发上限的下界。
+     */
+    private int minLimit = 1;
+
+    /**
+     * 并发上限的上界。
+     */
+    private int maxLimit = 32;
+
+    /**
+     * 首 token 耗时相对长期平均值可容忍的放大倍数，超过后开始收缩并发上限。
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * 每个样本对并发上限的调整权重。
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * 请求失败时并发上限乘以的系数。
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * 等待队列总长度上限，超出时直接拒绝。
+     */
+    private int maxQueueSize = 256;
+
+    /**
+     * 单个请求最长排队时间，毫秒。
+     */
+    private long maxQueueWaitMs = 10_000;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【LLM 并发配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【LLM 并发配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public int getInitialLimit() {
+        int value = initialLimit();
+        log.debug("【LLM 并发配置】读取 initialLimit：{}", value);
+        return value;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        log.debug("【LLM 并发配置】设置 initialLimit：{}", initialLimit);
+        initialLimit(initialLimit);
+    }
+
+    public int getMinLimit() {
+        int value = minLimit();
+        log.debug("【LLM 并发配置】读取 minLimit：{}", value);
+        return value;
+    }
+
+    public void setMinLimit(int minLimit) {
+        log.debug("【LLM 并发配置】设置 minLimit：{}", minLimit);
+        minLimit(minLimit);
+    }
+
+    public int getMaxLimit() {
+        int value = maxLimit();
+        log.debug("【LLM 并发配置】读取 maxLimit：{}", value);
+        return value;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        log.debug("【LLM 并发配置】设置 maxLimit：{}", maxLimit);
+        maxLimit(maxLimit);
+    }
+
+    public double getRttTolerance() {
+        double value = rttTolerance();
+        log.debug("【LLM 并发配置】读取 rttTolerance：{}", value);
+        return value;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        log.debug("【LLM 并发配置】设置 rttTolerance：{}", rttTolerance);
+        rttTolerance(rttTolerance);
+    }
+
+    public double getSmoothing() {
+        double value = smoothing();
+        log.debug("【LLM 并发配置】读取 smoothing：{}", value);
+        return value;
+    }
+
+    public void setSmoothing(double smoothing) {
+        log.debug("【LLM 并发配置】设置 smoothing：{}", smoothing);
+        smoothing(smoothing);
+    }
+
+    public double getBackoffRatio() {
+        double value = backoffRatio();
+        log.debug("【LLM 并发配置】读取 backoffRatio：{}", value);
+        return value;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        log.debug("【LLM 并发配置】设置 backoffRatio：{}", backoffRatio);
+        backoffRatio(backoffRatio);
+    }
+
+    public int getMaxQueueSize() {
+        int value = maxQueueSize();
+        log.debug("【LLM 并发配置】读取 maxQueueSize：{}", value);
+        return value;
+    }
+
+    public void setMaxQueueSize(int maxQueueSize) {
+        log.debug("【LLM 并发配置】设置 maxQueueSize：{}", maxQueueSize);
+        maxQueueSize(maxQueueSize);
+    }
+
+    public long getMaxQueueWaitMs() {
+        long value = maxQueueWaitMs();
+        log.debug("【LLM 并发配置】读取 maxQueueWaitMs：{}", value);
+        return value;
+    }
+
+    public void setMaxQueueWaitMs(long maxQueueWaitMs) {
+        log.debug("【LLM 并发配置】设置 maxQueueWaitMs：{}", maxQueueWaitMs);
+        maxQueueWaitMs(maxQueueWaitMs);
+    }
+}
@@ -0,0 +1,172 @@
+package com.halliday.ai.llm.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模型级联配置：简短输入交给小模型，复杂输入或小模型拒答时升级到大模型。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.llm.cascade")
+public class ModelCascadeProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelCascadeProperties.class);
+
+    /**
+     * 是否启用模型级联。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 小模型名称，与大模型共用推理服务地址。
+     */
+    private String smallModel = "qwen3-4b";
+
+    /**
+     * 追加在系统提示词之后、只发给小模型的说明，要求其在无法简短回答时只输出升级标记。
+     */
+    private String smallSystemPrompt = "If the user's request needs more than a brief conversational reply, "
+            + "reply with exactly [ESCALATE] and nothing else.";
+
+    /**
+     * 小模型表示拒答、需要升级到大模型的标记。
+     */
+    private String escalationToken = "[ESCALATE]";
+
+    /**
+     * 交给小模型的最大字符数。
+     */
+    private int maxChars = 48;
+
+    /**
+     * 交给小模型的最大词数。
+     */
+    private int maxWords = 8;
+
+    /**
+     * 始终交给小模型的短语，归一化后整句匹配。
+     */
+    private List<String> simplePhrases = new ArrayList<>(List.of(
+            "yes", "no", "ok", "okay", "thanks", "thank you", "repeat that", "say that again",
+            "hello", "hi", "bye", "goodbye", "好的", "谢谢", "再说一遍"));
+
+    /**
+     * 出现即升级到大模型的关键词。
+     */
+    private List<String> escalateKeywords = new ArrayList<>(List.of(
+            "explain", "why", "how", "compare", "write", "code", "calculate", "translate", "summarize", "plan",
+            "解释", "为什么", "怎么", "翻译", "总结"));
+
+    /**
+     * 复杂度分数达到该值时升级到大模型。
+     */
+    private double classifierThreshold = 0.6;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【模型级联配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【模型级联配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public String getSmallModel() {
+        String value = smallModel();
+        log.debug("【模型级联配置】读取 smallModel：{}", value);
+        return value;
+    }
+
+    public void setSmallModel(String smallModel) {
+        log.debug("【模型级联配置】设置 smallModel：{}", smallModel);
+        smallModel(smallModel);
+    }
+
+    public String getSmallSystemPrompt() {
+        String value = smallSystemPrompt();
+        log.debug("【模型级联配置】读取 smallSystemPrompt，长度：{}", value == null ? 0 : value.length());
+        return value;
+    }
+
+    public void setSmallSystemPrompt(String smallSystemPrompt) {
+        log.debug("【模型级联配置】设置 smallSystemPrompt，长度：{}", smallSystemPrompt == null ? 0 : smallSystemPrompt.length());
+        smallSystemPrompt(smallSystemPrompt);
+    }
+
+    public String getEscalationToken() {
+        String value = escalationToken();
+        log.debug("【模型级联配置】读取 escalationToken：{}", value);
+        return value;
+    }
+
+    public void setEscalationToken(String escalationToken) {
+        log.debug("【模型级联配置】设置 escalationToken：{}", escalationToken);
+        escalationToken(escalationToken);
+    }
+
+    public int getMaxChars() {
+        int value = maxChars();
+        log.debug("【模型级联配置】读取 maxChars：{}", value);
+        return value;
+    }
+
+    public void setMaxChars(int maxChars) {
+        log.debug("【模型级联配置】设置 maxChars：{}", maxChars);
+        maxChars(maxChars);
+    }
+
+    public int getMaxWords() {
+        int value = maxWords();
+        log.debug("【模型级联配置】读取 maxWords：{}", value);
+        return value;
+    }
+
+    public void setMaxWords(int maxWords) {
+        log.debug("【模型级联配置】设置 maxWords：{}", maxWords);
+        maxWords(maxWords);
+    }
+
+    public List<String> getSimplePhrases() {
+        List<String> value = simplePhrases();
+        log.debug("【模型级联配置】读取 simplePhrases，数量：{}", value == null ? 0 : value.size());
+        return value;
+    }
+
+    public void setSimplePhrases(List<String> simplePhrases) {
+        log.debug("【模型级联配置】设置 simplePhrases，数量：{}", simplePhrases == null ? 0 : simplePhrases.size());
+        simplePhrases(simplePhrases);
+    }
+
+    public List<String> getEscalateKeywords() {
+        List<String> value = escalateKeywords();
+        log.debug("【模型级联配置】读取 escalateKeywords，数量：{}", value == null ? 0 : value.size());
+        return value;
+    }
+
+    public void setEscalateKeywords(List<String> escalateKeywords) {
+        log.debug("【模型级联配置】设置 escalateKeywords，数量：{}", escalateKeywords == null ? 0 : escalateKeywords.size());
+        escalateKeywords(escalateKeywords);
+    }
+
+    public double getClassifierThreshold() {
+        double value = classifierThreshold();
+        log.debug("【模型级联配置】读取 classifierThreshold：{}", value);
+        return value;
+    }
+
+    public void setClassifierThreshold(double classifierThreshold) {
+        log.debug("【模型级联配置】设置 classifierThreshold：{}", classifierThreshold);
+        classifierThreshold(classifierThreshold);
+    }
+}
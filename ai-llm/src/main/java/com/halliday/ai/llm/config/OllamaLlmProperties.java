@@ -1,5 +1,6 @@
 package com.halliday.ai.llm.config;
 
+import com.halliday.ai.llm.routing.RoutingStrategy;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -7,6 +8,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Chat Completions 兼容 LLM 相关配置，通过 Spring Boot 配置文件注入。
  */
@@ -58,6 +62,71 @@ public class OllamaLlmProperties {
      */
     private long readTimeoutMs = 300_000;
 
+    /**
+     * 是否在补全元数据中保留原始流式事件，仅用于排查问题，默认关闭。
+     */
+    private boolean captureRawEvents = false;
+
+    /**
+     * 开启原始事件保留时每轮最多保留的事件数，超出部分只计数。
+     */
+    private int maxCapturedEvents = 64;
+
+    /**
+     * 多个推理服务地址；为空时只使用 {@code baseUrl}。
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * 多地址时的路由策略。
+     */
+    private RoutingStrategy routing = RoutingStrategy.CONSISTENT_HASH;
+
+    /**
+     * 单个地址连续失败多少次后暂停路由。
+     */
+    private int endpointFailureThreshold = 3;
+
+    /**
+     * 地址暂停路由的冷却时间，毫秒；之后由健康探测恢复。
+     */
+    private long endpointOpenMs = 10_000;
+
+    /**
+     * 多地址时是否对迟迟未产出首个增量的请求发起对冲。
+     */
+    private boolean hedgeEnabled = true;
+
+    /**
+     * 对冲等待时间取最近首 token 耗时的该分位数。
+     */
+    private double hedgePercentile = 0.95;
+
+    /**
+     * 对冲等待时间下限，毫秒。
+     */
+    private long hedgeMinDelayMs = 300;
+
+    /**
+     * 对冲等待时间上限，毫秒；样本不足时使用该值。
+     */
+    private long hedgeMaxDelayMs = 3_000;
+
+    /**
+     * 对冲请求占全部请求的比例上限。
+     */
+    private double hedgeBudgetRatio = 0.1;
+
+    /**
+     * 是否在用户说话期间预填充对话前缀，使推理服务的前缀缓存提前就绪。
+     */
+    private boolean prefillEnabled = false;
+
+    /**
+     * 预填充后多长时间内的正式请求视为已预填充，毫秒。
+     */
+    private long prefillTtlMs = 60_000;
+
     public String getBaseUrl() {
         String value = baseUrl();
         log.debug("【Ollama 配置】读取 baseUrl：{}", value);
@@ -145,4 +214,204 @@ public class OllamaLlmProperties {
         log.debug("【Ollama 配置】设置 readTimeoutMs：{}", readTimeoutMs);
         readTimeoutMs(readTimeoutMs);
     }
+
+    public boolean isCaptureRawEvents() {
+        boolean value = captureRawEvents();
+        log.debug("【Ollama 配置】读取 captureRawEvents：{}", value);
+        return value;
+    }
+
+    public void setCaptureRawEvents(boolean captureRawEvents) {
+        log.debug("【Ollama 配置】设置 captureRawEvents：{}", captureRawEvents);
+        captureRawEvents(captureRawEvents);
+    }
+
+    public int getMaxCapturedEvents() {
+        int value = maxCapturedEvents();
+        log.debug("【Ollama 配置】读取 maxCapturedEvents：{}", value);
+        return value;
+    }
+
+    public void setMaxCapturedEvents(int maxCapturedEvents) {
+        log.debug("【Ollama 配置】设置 maxCapturedEvents：{}", maxCapturedEvents);
+        maxCapturedEvents(maxCapturedEvents);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        List<Endpoint> value = endpoints();
+        log.debug("【Ollama 配置】读取 endpoints，数量：{}", value == null ? 0 : value.size());
+        return value;
+    }
+
+    public void setEndpoints(List<Endpoint> endpoints) {
+        log.debug("【Ollama 配置】设置 endpoints，数量：{}", endpoints == null ? 0 : endpoints.size());
+        endpoints(endpoints);
+    }
+
+    public RoutingStrategy getRouting() {
+        RoutingStrategy value = routing();
+        log.debug("【Ollama 配置】读取 routing：{}", value);
+        return value;
+    }
+
+    public void setRouting(RoutingStrategy routing) {
+        log.debug("【Ollama 配置】设置 routing：{}", routing);
+        routing(routing);
+    }
+
+    public int getEndpointFailureThreshold() {
+        int value = endpointFailureThreshold();
+        log.debug("【Ollama 配置】读取 endpointFailureThreshold：{}", value);
+        return value;
+    }
+
+    public void setEndpointFailureThreshold(int endpointFailureThreshold) {
+        log.debug("【Ollama 配置】设置 endpointFailureThreshold：{}", endpointFailureThreshold);
+        endpointFailureThreshold(endpointFailureThreshold);
+    }
+
+    public long getEndpointOpenMs() {
+        long value = endpointOpenMs();
+        log.debug("【Ollama 配置】读取 endpointOpenMs：{}", value);
+        return value;
+    }
+
+    public void setEndpointOpenMs(long endpointOpenMs) {
+        log.debug("【Ollama 配置】设置 endpointOpenMs：{}", endpointOpenMs);
+        endpointOpenMs(endpointOpenMs);
+    }
+
+    public boolean isHedgeEnabled() {
+        boolean value = hedgeEnabled();
+        log.debug("【Ollama 配置】读取 hedgeEnabled：{}", value);
+        return value;
+    }
+
+    public void setHedgeEnabled(boolean hedgeEnabled) {
+        log.debug("【Ollama 配置】设置 hedgeEnabled：{}", hedgeEnabled);
+        hedgeEnabled(hedgeEnabled);
+    }
+
+    public double getHedgePercentile() {
+        double value = hedgePercentile();
+        log.debug("【Ollama 配置】读取 hedgePercentile：{}", value);
+        return value;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        log.debug("【Ollama 配置】设置 hedgePercentile：{}", hedgePercentile);
+        hedgePercentile(hedgePercentile);
+    }
+
+    public long getHedgeMinDelayMs() {
+        long value = hedgeMinDelayMs();
+        log.debug("【Ollama 配置】读取 hedgeMinDelayMs：{}", value);
+        return value;
+    }
+
+    public void setHedgeMinDelayMs(long hedgeMinDelayMs) {
+        log.debug("【Ollama 配置】设置 hedgeMinDelayMs：{}", hedgeMinDelayMs);
+        hedgeMinDelayMs(hedgeMinDelayMs);
+    }
+
+    public long getHedgeMaxDelayMs() {
+        long value = hedgeMaxDelayMs();
+        log.debug("【Ollama 配置】读取 hedgeMaxDelayMs：{}", value);
+        return value;
+    }
+
+    public void setHedgeMaxDelayMs(long hedgeMaxDelayMs) {
+        log.debug("【Ollama 配置】设置 hedgeMaxDelayMs：{}", hedgeMaxDelayMs);
+        hedgeMaxDelayMs(hedgeMaxDelayMs);
+    }
+
+    public double getHedgeBudgetRatio() {
+        double value = hedgeBudgetRatio();
+        log.debug("【Ollama 配置】读取 hedgeBudgetRatio：{}", value);
+        return value;
+    }
+
+    public void setHedgeBudgetRatio(double hedgeBudgetRatio) {
+        log.debug("【Ollama 配置】设置 hedgeBudgetRatio：{}", hedgeBudgetRatio);
+        hedgeBudgetRatio(hedgeBudgetRatio);
+    }
+
+    public boolean isPrefillEnabled() {
+        boolean value = prefillEnabled();
+        log.debug("【Ollama 配置】读取 prefillEnabled：{}", value);
+        return value;
+    }
+
+    public void setPrefillEnabled(boolean prefillEnabled) {
+        log.debug("【Ollama 配置】设置 prefillEnabled：{}", prefillEnabled);
+        prefillEnabled(prefillEnabled);
+    }
+
+    public long getPrefillTtlMs() {
+        long value = prefillTtlMs();
+        log.debug("【Ollama 配置】读取 prefillTtlMs：{}", value);
+        return value;
+    }
+
+    public void setPrefillTtlMs(long prefillTtlMs) {
+        log.debug("【Ollama 配置】设置 prefillTtlMs：{}", prefillTtlMs);
+        prefillTtlMs(prefillTtlMs);
+    }
+
+    /**
+     * 单个推理服务地址。
+     */
+    @Getter
+    @Setter
+    @Accessors(fluent = true)
+    public static class Endpoint {
+
+        /**
+         * Chat Completions 兼容接口的完整地址。
+         */
+        private String url;
+
+        /**
+         * 路由权重，按加权轮询与一致性哈希的虚拟节点数生效。
+         */
+        private int weight = 1;
+
+        /**
+         * 该地址专用的 API Key，留空时使用全局 apiKey。
+         */
+        private String apiKey = "";
+
+        public String getUrl() {
+            String value = url();
+            log.debug("【Ollama 配置】读取 endpoint url：{}", value);
+            return value;
+        }
+
+        public void setUrl(String url) {
+            log.debug("【Ollama 配置】设置 endpoint url：{}", url);
+            url(url);
+        }
+
+        public int getWeight() {
+            int value = weight();
+            log.debug("【Ollama 配置】读取 endpoint weight：{}", value);
+            return value;
+        }
+
+        public void setWeight(int weight) {
+            log.debug("【Ollama 配置】设置 endpoint weight：{}", weight);
+            weight(weight);
+        }
+
+        public String getApiKey() {
+            String value = apiKey();
+            log.debug("【Ollama 配置】读取 endpoint apiKey 是否为空：{}", value == null || value.isEmpty());
+            return value;
+        }
+
+        public void setApiKey(String apiKey) {
+            log.debug("【Ollama 配置】设置 endpoint apiKey 是否为空：{}", apiKey == null || apiKey.isEmpty());
+            apiKey(apiKey);
+        }
+    }
 }
@@ -0,0 +1,228 @@
+package com.halliday.ai.llm.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ChatStream} 的通用实现：生产者（读取上游响应的线程）调用 {@link #emit}/{@link #complete}/{@link #fail}，
+ * 订阅者按需求拉取。
+ * <p>
+ * 下发在调用 {@code emit}/{@code request} 的线程上串行执行，不额外占用线程。缓冲区满时 {@link #emit} 会阻塞
+ * 生产者，直到订阅者请求更多数据或流被取消；生产者应运行在虚拟线程上。
+ */
+public final class BufferedChatStream implements ChatStream {
+
+    private static final Logger log = LoggerFactory.getLogger(BufferedChatStream.class);
+
+    private final int capacity;
+    private final Runnable onCancel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<String> queue = new ArrayDeque<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final CompletableFuture<StreamingLanguageModelClient.Completion> completion = new CompletableFuture<>();
+
+    private volatile Flow.Subscriber<? super String> subscriber;
+    private volatile boolean terminated;
+    private volatile StreamingLanguageModelClient.Completion result;
+    private volatile Throwable error;
+    private boolean finished;
+
+    /**
+     * @param capacity 未被请求的增量最多缓冲的条数
+     * @param onCancel 取消时执行一次，用于中止上游请求
+     */
+    public BufferedChatStream(int capacity, Runnable onCancel) {
+        this.capacity = Math.max(1, capacity);
+        this.onCancel = Objects.requireNonNull(onCancel, "onCancel");
+    }
+
+    /**
+     * 写入一段增量文本；缓冲区满时阻塞等待订阅者消费。
+     *
+     * @return 流已取消时返回 {@code false}，生产者应停止读取
+     */
+    public boolean emit(String delta) {
+        if (cancelled.get()) {
+            return false;
+        }
+        lock.lock();
+        try {
+            while (queue.size() >= capacity && !cancelled.get()) {
+                notFull.await(1, TimeUnit.SECONDS);
+            }
+            if (cancelled.get()) {
+                return false;
+            }
+            queue.addLast(delta);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancel();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        drain();
+        return !cancelled.get();
+    }
+
+    /**
+     * 上游正常结束，缓冲的增量下发完毕后通知订阅者并完成 {@link #completion()}。
+     */
+    public void complete(StreamingLanguageModelClient.Completion value) {
+        result = value;
+        terminated = true;
+        drain();
+    }
+
+    /**
+     * 上游失败，缓冲的增量下发完毕后通知订阅者。
+     */
+    public void fail(Throwable throwable) {
+        error = Objects.requireNonNull(throwable, "throwable");
+        terminated = true;
+        drain();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super String> s) {
+        Objects.requireNonNull(s, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            s.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            s.onError(new IllegalStateException("ChatStream supports a single subscriber"));
+            return;
+        }
+        subscriber = s;
+        s.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    BufferedChatStream.this.cancel();
+                    s.onError(new IllegalArgumentException("request must be positive: " + n));
+                    return;
+                }
+                demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                BufferedChatStream.this.cancel();
+            }
+        });
+        drain();
+    }
+
+    @Override
+    public CompletableFuture<StreamingLanguageModelClient.Completion> completion() {
+        return completion;
+    }
+
+    @Override
+    public void cancel() {
+        if (!cancelled.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("【流式对话句柄】取消流式对话，丢弃缓冲增量：{} 条", queue.size());
+        lock.lock();
+        try {
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            onCancel.run();
+        } catch (RuntimeException ex) {
+            log.warn("【流式对话句柄】中止上游请求失败", ex);
+        }
+        completion.completeExceptionally(new CancellationException("chat stream cancelled"));
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super String> s = subscriber;
+            if (s != null) {
+                while (!finished && !cancelled.get()) {
+                    boolean done = terminated;
+                    String next = null;
+                    boolean empty;
+                    lock.lock();
+                    try {
+                        if (demand.get() > 0) {
+                            next = queue.pollFirst();
+                            if (next != null) {
+                                notFull.signal();
+                            }
+                        }
+                        empty = queue.isEmpty();
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (next == null) {
+                        if (done && empty) {
+                            finish(s);
+                        }
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    try {
+                        s.onNext(next);
+                    } catch (RuntimeException ex) {
+                        log.warn("【流式对话句柄】订阅者处理增量失败，取消流式对话", ex);
+                        finished = true;
+                        completion.completeExceptionally(ex);
+                        cancel();
+                    }
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void finish(Flow.Subscriber<? super String> s) {
+        finished = true;
+        Throwable failure = error;
+        if (failure != null) {
+            s.onError(failure);
+            completion.completeExceptionally(failure);
+        } else {
+            s.onComplete();
+            completion.complete(result);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.halliday.ai.llm.core;
+
+import java.util.Objects;
+
+/**
+ * 随一次流式对话请求传递的调度信息。
+ *
+ * @param sessionKey   公平调度所用的会话（或租户）标识，同一标识的请求按到达顺序排队
+ * @param continuation 是否为已开始的轮次的后续请求（如级联升级），排队时优先于新轮次
+ */
+public record ChatRequestOptions(String sessionKey, boolean continuation) {
+
+    /**
+     * 未指定会话时使用的默认选项，所有此类请求共享同一个队列。
+     */
+    public static final ChatRequestOptions DEFAULT = new ChatRequestOptions("default", false);
+
+    public ChatRequestOptions {
+        Objects.requireNonNull(sessionKey, "sessionKey");
+    }
+
+    public static ChatRequestOptions forSession(String sessionKey) {
+        return new ChatRequestOptions(sessionKey, false);
+    }
+
+    /**
+     * 同一会话的后续请求。
+     */
+    public ChatRequestOptions asContinuation() {
+        return continuation ? this : new ChatRequestOptions(sessionKey, true);
+    }
+}
@@ -0,0 +1,72 @@
+package com.halliday.ai.llm.core;
+
+import com.halliday.ai.common.exception.AiServiceException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * 一次异步流式对话的句柄：以 {@link Flow.Publisher} 形式按需推送增量文本，并可随时取消。
+ * <p>
+ * 只允许一个订阅者，增量文本仅在订阅者通过 {@link Flow.Subscription#request(long)} 声明需求后才会下发；
+ * 缓冲区写满时上游读取会暂停，从而把背压传递到 HTTP 连接。取消（{@link #cancel()} 或
+ * {@link Flow.Subscription#cancel()}）会中止上游请求，{@link #completion()} 以
+ * {@link java.util.concurrent.CancellationException} 结束。
+ */
+public interface ChatStream extends Flow.Publisher<String> {
+
+    /**
+     * 全部增量下发完毕后完成的结果；失败或取消时异常结束。
+     * <p>
+     * 结果在订阅者收到 {@code onComplete} 之后才会完成，因此必须先订阅并持续请求数据。
+     */
+    CompletableFuture<StreamingLanguageModelClient.Completion> completion();
+
+    /**
+     * 取消本次对话并中止上游请求，可重复调用。
+     */
+    void cancel();
+
+    boolean isCancelled();
+
+    /**
+     * 订阅并阻塞到本次对话结束：增量依次交给 {@code onDelta}，完成后以结果调用 {@code onComplete}；
+     * 失败时抛出原始的运行时异常，其他异常包装为 {@link AiServiceException}。
+     * <p>
+     * 供只实现异步接口的装饰器桥接同步的 {@link StreamingLanguageModelClient#streamChat}。
+     */
+    default void drain(Consumer<String> onDelta, Consumer<StreamingLanguageModelClient.Completion> onComplete) {
+        subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String delta) {
+                onDelta.accept(delta);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        StreamingLanguageModelClient.Completion completion;
+        try {
+            completion = completion().join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new AiServiceException("Failed to stream LLM response", cause);
+        }
+        onComplete.accept(completion);
+    }
+}
@@ -6,6 +6,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 public interface StreamingLanguageModelClient {
@@ -20,6 +22,61 @@ public interface StreamingLanguageModelClient {
                     Consumer<String> onDelta,
                     Consumer<Completion> onComplete);
 
+    /**
+     * 异步流式对话，立即返回可订阅、可取消的句柄。
+     * <p>
+     * 默认实现在虚拟线程上执行阻塞的 {@link #streamChat}，取消只会停止下发，无法中止上游请求；
+     * 能够中止 HTTP 调用的实现应覆盖此方法。
+     */
+    default ChatStream streamChatAsync(List<ConversationMessage> history) {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        BufferedChatStream stream = new BufferedChatStream(256, () -> {
+            Thread thread = worker.get();
+            if (thread != null) {
+                thread.interrupt();
+            }
+        });
+        worker.set(Thread.ofVirtual().name("llm-stream-fallback").start(() -> {
+            try {
+                streamChat(history, stream::emit, stream::complete);
+            } catch (RuntimeException ex) {
+                if (!stream.isCancelled()) {
+                    log.warn("【大模型接口】流式对话失败：{}", ex.getMessage());
+                }
+                stream.fail(ex);
+            }
+        }));
+        return stream;
+    }
+
+    /**
+     * 携带调度信息的异步流式对话。
+     * <p>
+     * 默认忽略 {@code options}；装饰器应把它传给被装饰的客户端，限流实现据此做公平排队与优先级调度。
+     */
+    default ChatStream streamChatAsync(List<ConversationMessage> history, ChatRequestOptions options) {
+        return streamChatAsync(history);
+    }
+
+    /**
+     * 预填充：在用户仍在说话时，把已确定的对话前缀（系统提示词与历史）发给之后会处理本会话的推理服务，
+     * 使其前缀缓存在正式请求到达前就已就绪。
+     * <p>
+     * 默认不做任何事；返回的 future 在预填充请求成功时以 {@code true} 完成，未发出或失败时为 {@code false}，不会异常结束。
+     */
+    default CompletableFuture<Boolean> prefill(List<ConversationMessage> history) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * 携带调度信息的预填充，{@code options} 的会话标识与随后的正式请求相同，路由据此选择同一推理服务。
+     * <p>
+     * 默认忽略 {@code options}；装饰器应把它传给被装饰的客户端。
+     */
+    default CompletableFuture<Boolean> prefill(List<ConversationMessage> history, ChatRequestOptions options) {
+        return prefill(history);
+    }
+
     final class Completion {
         private static final Logger log = LoggerFactory.getLogger(Completion.class);
 
@@ -0,0 +1,237 @@
+package com.halliday.ai.llm.limit;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.llm.core.BufferedChatStream;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import com.halliday.ai.llm.core.ChatStream;
+import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import com.halliday.ai.llm.prefill.PrefillTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * 在流式 LLM 客户端之前做并发控制的装饰器：每次调用先向 {@link FairRequestScheduler} 申请名额，获得名额后才向上游发起请求，
+ * 回复结束（成功、失败或取消）时归还。
+ * <p>
+ * 首个增量的耗时作为延迟样本反馈给自适应并发上限；上游失败时收缩上限。补全元数据写入 {@code queue_wait_ms}。
+ * 多个装饰器可共享同一个调度器，使指向同一推理服务的不同模型共用并发上限；失败另有回退路径的客户端（如级联中的小模型）
+ * 可关闭 {@code dropOnFailure}，其失败只归还名额，不收缩共享上限。
+ */
+public class ConcurrencyLimitedStreamingLanguageModelClient implements StreamingLanguageModelClient, HealthProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitedStreamingLanguageModelClient.class);
+
+    private static final int RELAY_CAPACITY = 256;
+
+    private final StreamingLanguageModelClient delegate;
+    private final FairRequestScheduler scheduler;
+    private final boolean dropOnFailure;
+    private final PrefillTracker prefillTracker;
+
+    public ConcurrencyLimitedStreamingLanguageModelClient(StreamingLanguageModelClient delegate,
+                                                          FairRequestScheduler scheduler) {
+        this(delegate, scheduler, true);
+    }
+
+    /**
+     * @param dropOnFailure 上游失败是否视为丢弃并收缩并发上限；为 {@code false} 时失败只归还名额
+     */
+    public ConcurrencyLimitedStreamingLanguageModelClient(StreamingLanguageModelClient delegate,
+                                                          FairRequestScheduler scheduler, boolean dropOnFailure) {
+        this(delegate, scheduler, dropOnFailure, null);
+    }
+
+    /**
+     * @param dropOnFailure  上游失败是否视为丢弃并收缩并发上限；为 {@code false} 时失败只归还名额
+     * @param prefillTracker 被装饰客户端的预填充统计，并发已满跳过预填充时计入 skipped；可为 {@code null}
+     */
+    public ConcurrencyLimitedStreamingLanguageModelClient(StreamingLanguageModelClient delegate,
+                                                          FairRequestScheduler scheduler, boolean dropOnFailure,
+                                                          PrefillTracker prefillTracker) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.dropOnFailure = dropOnFailure;
+        this.prefillTracker = prefillTracker;
+    }
+
+    @Override
+    public void streamChat(List<ConversationMessage> history,
+                           Consumer<String> onDelta,
+                           Consumer<StreamingLanguageModelClient.Completion> onComplete) {
+        streamChatAsync(history).drain(onDelta, onComplete);
+    }
+
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history) {
+        return streamChatAsync(history, ChatRequestOptions.DEFAULT);
+    }
+
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history, ChatRequestOptions options) {
+        Call call = new Call(history, options == null ? ChatRequestOptions.DEFAULT : options);
+        call.start();
+        return call.out;
+    }
+
+    /**
+     * 预填充不占用并发名额，但已有请求排队或并发已满时不发送，避免在服务繁忙时增加负载。
+     */
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history) {
+        return prefill(history, ChatRequestOptions.DEFAULT);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history, ChatRequestOptions options) {
+        if (scheduler.queued() > 0 || scheduler.inFlight() >= scheduler.limit()) {
+            log.debug("【LLM 限流】并发已满，跳过预填充");
+            if (prefillTracker != null) {
+                prefillTracker.markSkipped();
+            }
+            return CompletableFuture.completedFuture(false);
+        }
+        return delegate.prefill(history, options);
+    }
+
+    @Override
+    public String probeTarget() {
+        return HealthProbe.targetOf(delegate, "llm:limited");
+    }
+
+    @Override
+    public ProbeResult probe(Duration timeout) {
+        // 健康探测不占用并发名额
+        return HealthProbe.forward(delegate, timeout);
+    }
+
+    /**
+     * 一次受控调用：排队、转发上游增量并在结束时归还名额。
+     */
+    private final class Call implements Flow.Subscriber<String> {
+
+        private final List<ConversationMessage> history;
+        private final ChatRequestOptions options;
+        private final BufferedChatStream out;
+        private volatile CompletableFuture<FairRequestScheduler.Permit> pending;
+        private volatile ChatStream upstream;
+        private long startNanos;
+        private volatile long firstTokenNanos;
+
+        Call(List<ConversationMessage> history, ChatRequestOptions options) {
+            this.history = history;
+            this.options = options;
+            this.out = new BufferedChatStream(RELAY_CAPACITY, () -> {
+                CompletableFuture<FairRequestScheduler.Permit> waiting = pending;
+                if (waiting != null) {
+                    waiting.cancel(false);
+                }
+                ChatStream stream = upstream;
+                if (stream != null) {
+                    stream.cancel();
+                }
+            });
+        }
+
+        void start() {
+            CompletableFuture<FairRequestScheduler.Permit> acquired = scheduler.acquire(options);
+            pending = acquired;
+            acquired.whenComplete((permit, throwable) -> {
+                if (throwable != null) {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    if (!(cause instanceof CancellationException)) {
+                        out.fail(cause);
+                    }
+                    return;
+                }
+                run(permit);
+            });
+        }
+
+        private void run(FairRequestScheduler.Permit permit) {
+            if (out.isCancelled()) {
+                permit.release();
+                return;
+            }
+            long waitMs = permit.waitNanos() / 1_000_000;
+            if (waitMs > 0) {
+                log.debug("【LLM 限流】获得并发名额，排队耗时：{}ms，会话：{}", waitMs, options.sessionKey());
+            }
+            startNanos = System.nanoTime();
+            ChatStream stream;
+            try {
+                stream = delegate.streamChatAsync(history, options);
+            } catch (RuntimeException ex) {
+                releaseFailed(permit);
+                out.fail(ex);
+                return;
+            }
+            upstream = stream;
+            if (out.isCancelled()) {
+                stream.cancel();
+            }
+            stream.completion().whenComplete((completion, throwable) -> {
+                if (throwable == null) {
+                    long rtt = (firstTokenNanos > 0 ? firstTokenNanos : System.nanoTime()) - startNanos;
+                    permit.release(rtt);
+                    Map<String, Object> metadata = completion.metadata() == null
+                            ? new LinkedHashMap<>() : new LinkedHashMap<>(completion.metadata());
+                    metadata.put("queue_wait_ms", waitMs);
+                    out.complete(new StreamingLanguageModelClient.Completion(completion.text(), metadata));
+                    return;
+                }
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                if (cause instanceof CancellationException) {
+                    permit.release();
+                } else {
+                    releaseFailed(permit);
+                }
+                out.fail(cause);
+            });
+            stream.subscribe(this);
+        }
+
+        private void releaseFailed(FairRequestScheduler.Permit permit) {
+            if (dropOnFailure) {
+                permit.releaseDropped();
+            } else {
+                permit.release();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String delta) {
+            if (firstTokenNanos == 0) {
+                firstTokenNanos = System.nanoTime();
+            }
+            out.emit(delta);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.halliday.ai.llm.limit;
+
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * LLM 调用的准入调度：并发数达到 {@link GradientConcurrencyLimit} 给出的上限后，请求进入等待队列。
+ * <p>
+ * 已开始轮次的后续请求进入优先队列，先于新轮次放行；其余请求按会话标识分别排队，放行时在会话之间轮转，
+ * 单个会话的突发请求不会挤占其他会话。队列长度与等待时长均有上限，超出时请求以 {@link AiServiceException} 失败。
+ */
+public final class FairRequestScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FairRequestScheduler.class);
+
+    private final GradientConcurrencyLimit limit;
+    private final int maxQueueSize;
+    private final long maxQueueWaitMs;
+    private final LongSupplier nanoClock;
+    private final ArrayDeque<Waiter> continuations = new ArrayDeque<>();
+    private final LinkedHashMap<String, ArrayDeque<Waiter>> sessions = new LinkedHashMap<>();
+    private int queued;
+    private int inFlight;
+    private long granted;
+    private long rejected;
+    private long timedOut;
+    private long waitCount;
+    private long waitTotalNanos;
+    private long waitMaxNanos;
+
+    /**
+     * @param limit          自适应并发上限
+     * @param maxQueueSize   等待队列总长度上限
+     * @param maxQueueWaitMs 单个请求最长等待时间，毫秒
+     */
+    public FairRequestScheduler(GradientConcurrencyLimit limit, int maxQueueSize, long maxQueueWaitMs) {
+        this(limit, maxQueueSize, maxQueueWaitMs, System::nanoTime);
+    }
+
+    FairRequestScheduler(GradientConcurrencyLimit limit, int maxQueueSize, long maxQueueWaitMs, LongSupplier nanoClock) {
+        this.limit = Objects.requireNonNull(limit, "limit");
+        this.maxQueueSize = Math.max(0, maxQueueSize);
+        this.maxQueueWaitMs = Math.max(1, maxQueueWaitMs);
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+    }
+
+    /**
+     * 申请一个并发名额。返回的 future 在获得名额时完成；取消 future 即放弃排队。
+     */
+    public CompletableFuture<Permit> acquire(ChatRequestOptions options) {
+        Objects.requireNonNull(options, "options");
+        Waiter waiter;
+        synchronized (this) {
+            if (queued == 0 && inFlight < limit.limit()) {
+                return CompletableFuture.completedFuture(grant(0));
+            }
+            if (queued >= maxQueueSize) {
+                rejected++;
+                log.warn("【LLM 限流】等待队列已满（{}），拒绝请求，会话：{}", queued, options.sessionKey());
+                return CompletableFuture.failedFuture(new AiServiceException("LLM request queue is full"));
+            }
+            waiter = new Waiter(options, nanoClock.getAsLong());
+            if (options.continuation()) {
+                continuations.addLast(waiter);
+            } else {
+                sessions.computeIfAbsent(options.sessionKey(), key -> new ArrayDeque<>()).addLast(waiter);
+            }
+            queued++;
+            log.debug("【LLM 限流】并发已达上限 {}，请求排队，队列长度：{}，会话：{}，后续请求：{}",
+                    limit.limit(), queued, options.sessionKey(), options.continuation());
+        }
+        CompletableFuture.delayedExecutor(maxQueueWaitMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (remove(waiter)) {
+                synchronized (this) {
+                    timedOut++;
+                }
+                log.warn("【LLM 限流】排队超过 {}ms，放弃请求，会话：{}", maxQueueWaitMs, waiter.options.sessionKey());
+                waiter.future.completeExceptionally(new AiServiceException("Timed out waiting for LLM capacity"));
+            }
+        });
+        // 调用方取消 future 时退出队列
+        waiter.future.whenComplete((permit, throwable) -> {
+            if (throwable != null) {
+                remove(waiter);
+            }
+        });
+        return waiter.future;
+    }
+
+    private synchronized boolean remove(Waiter waiter) {
+        boolean removed = waiter.options.continuation()
+                ? continuations.remove(waiter)
+                : removeFromSession(waiter);
+        if (removed) {
+            queued--;
+        }
+        return removed;
+    }
+
+    private boolean removeFromSession(Waiter waiter) {
+        ArrayDeque<Waiter> queue = sessions.get(waiter.options.sessionKey());
+        if (queue == null || !queue.remove(waiter)) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            sessions.remove(waiter.options.sessionKey());
+        }
+        return true;
+    }
+
+    private void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+        if (dropped) {
+            limit.onDropped();
+        } else if (rttNanos > 0) {
+            limit.onSample(rttNanos, inFlightAtStart);
+        }
+        List<Map.Entry<Waiter, Permit>> ready = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            while (inFlight < limit.limit()) {
+                Waiter next = poll();
+                if (next == null) {
+                    break;
+                }
+                queued--;
+                ready.add(Map.entry(next, grant(nanoClock.getAsLong() - next.enqueuedNanos)));
+            }
+        }
+        for (Map.Entry<Waiter, Permit> entry : ready) {
+            if (!entry.getKey().future.complete(entry.getValue())) {
+                // 等待方已超时或取消，名额立即归还
+                entry.getValue().release();
+            }
+        }
+    }
+
+    /**
+     * 取下一个放行的请求：先取后续请求，再在会话之间轮转。
+     */
+    private Waiter poll() {
+        Waiter next = continuations.pollFirst();
+        if (next != null) {
+            return next;
+        }
+        Iterator<Map.Entry<String, ArrayDeque<Waiter>>> iterator = sessions.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, ArrayDeque<Waiter>> head = iterator.next();
+        next = head.getValue().pollFirst();
+        iterator.remove();
+        if (!head.getValue().isEmpty()) {
+            // 本会话还有请求，移到队尾等待下一轮
+            sessions.put(head.getKey(), head.getValue());
+        }
+        return next;
+    }
+
+    private Permit grant(long waitNanos) {
+        inFlight++;
+        granted++;
+        waitCount++;
+        waitTotalNanos += waitNanos;
+        waitMaxNanos = Math.max(waitMaxNanos, waitNanos);
+        return new Permit(inFlight, waitNanos);
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return queued;
+    }
+
+    public synchronized long granted() {
+        return granted;
+    }
+
+    /**
+     * 因队列已满被拒绝的请求数。
+     */
+    public synchronized long rejected() {
+        return rejected;
+    }
+
+    /**
+     * 排队超时的请求数。
+     */
+    public synchronized long timedOut() {
+        return timedOut;
+    }
+
+    /**
+     * 获得名额的请求数，包含无需排队的请求，与 {@link #queueWaitTotalNanos()} 一起构成排队耗时。
+     */
+    public synchronized long queueWaitCount() {
+        return waitCount;
+    }
+
+    public synchronized long queueWaitTotalNanos() {
+        return waitTotalNanos;
+    }
+
+    /**
+     * 启动以来的最长排队耗时，毫秒。
+     */
+    public synchronized double queueWaitMaxMs() {
+        return waitMaxNanos / 1_000_000.0;
+    }
+
+    /**
+     * 一个排队中的请求；按引用比较，便于从队列中移除。
+     */
+    private static final class Waiter {
+
+        private final ChatRequestOptions options;
+        private final long enqueuedNanos;
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+        private Waiter(ChatRequestOptions options, long enqueuedNanos) {
+            this.options = options;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * 一个并发名额，必须且只会归还一次。
+     */
+    public final class Permit {
+
+        private final int inFlightAtStart;
+        private final long waitNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart, long waitNanos) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.waitNanos = waitNanos;
+        }
+
+        /**
+         * 排队耗时，纳秒。
+         */
+        public long waitNanos() {
+            return waitNanos;
+        }
+
+        /**
+         * 请求成功，以首 token 耗时更新并发上限并归还名额。
+         */
+        public void release(long rttNanos) {
+            if (released.compareAndSet(false, true)) {
+                FairRequestScheduler.this.release(rttNanos, inFlightAtStart, false);
+            }
+        }
+
+        /**
+         * 请求失败，收缩并发上限并归还名额。
+         */
+        public void releaseDropped() {
+            if (released.compareAndSet(false, true)) {
+                FairRequestScheduler.this.release(0, inFlightAtStart, true);
+            }
+        }
+
+        /**
+         * 请求被取消，不更新并发上限，只归还名额。
+         */
+        public void release() {
+            release(0);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.halliday.ai.llm.limit;
+
+/**
+ * 基于延迟梯度的自适应并发上限。
+ * <p>
+ * 以首 token 耗时作为样本，维护一条长期平均耗时作为基线。每个样本计算梯度 {@code tolerance × 长期耗时 / 本次耗时}，
+ * 截断到 [0.5, 1]：耗时接近基线时梯度为 1，上限按 {@code √limit} 加性增长；推理服务排队导致耗时上升时梯度小于 1，
+ * 上限按比例收缩。请求失败或超时按 {@code backoffRatio} 乘性减小（AIMD）。并发远低于上限时不增长，避免空闲期上限虚高。
+ */
+public final class GradientConcurrencyLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private double limit;
+    private double longRttNanos;
+    private long samples;
+
+    /**
+     * @param initialLimit 初始上限
+     * @param minLimit     上限的下界
+     * @param maxLimit     上限的上界
+     * @param tolerance    可容忍的耗时放大倍数，≥ 1
+     * @param smoothing    每个样本对上限的调整权重，(0, 1]
+     * @param backoffRatio 失败时上限乘以的系数，(0, 1)
+     */
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    double smoothing, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= max");
+        }
+        if (tolerance < 1 || smoothing <= 0 || smoothing > 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("tolerance >= 1, smoothing in (0, 1] and backoffRatio in (0, 1) required");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * 记录一次成功请求的耗时。
+     *
+     * @param rttNanos 首 token 耗时
+     * @param inFlight 请求开始时的并发数
+     */
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        samples++;
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            double alpha = 2.0 / (Math.min(samples, LONG_WINDOW) + 1);
+            longRttNanos += (rttNanos - longRttNanos) * alpha;
+        }
+        if (longRttNanos / rttNanos > 2) {
+            // 负载回落后耗时远低于基线，加速基线回落，避免上限长期偏高
+            longRttNanos *= 0.95;
+        }
+        if (inFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - smoothing) + target * smoothing);
+    }
+
+    /**
+     * 记录一次失败或超时的请求。
+     */
+    public synchronized void onDropped() {
+        limit = clamp(limit * backoffRatio);
+    }
+
+    /**
+     * 当前并发上限。
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * 长期平均首 token 耗时，毫秒。
+     */
+    public synchronized double baselineMs() {
+        return longRttNanos / 1_000_000.0;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.halliday.ai.common.conversation.ConversationMessage;
 import com.halliday.ai.common.conversation.ConversationRole;
 import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.common.http.HttpClientFactory;
 import com.halliday.ai.llm.config.OllamaLlmProperties;
 import com.halliday.ai.llm.core.LanguageModelClient;
 import okhttp3.MediaType;
@@ -22,7 +23,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 
 public class OllamaChatClient implements LanguageModelClient {
 
@@ -34,19 +34,20 @@ public class OllamaChatClient implements LanguageModelClient {
     private final OkHttpClient client;
 
     public OllamaChatClient(OllamaLlmProperties properties, ObjectMapper mapper) {
+        this(properties, mapper, HttpClientFactory.shared());
+    }
+
+    public OllamaChatClient(OllamaLlmProperties properties, ObjectMapper mapper, HttpClientFactory httpClientFactory) {
         this.properties = Objects.requireNonNull(properties, "properties");
         this.mapper = Objects.requireNonNull(mapper, "mapper");
         log.debug("【Ollama 客户端】初始化，目标地址：{}，模型：{}", properties.getBaseUrl(), properties.getModel());
-        this.client = buildClient(properties);
+        this.client = buildClient(properties, Objects.requireNonNull(httpClientFactory, "httpClientFactory"));
     }
 
-    private OkHttpClient buildClient(OllamaLlmProperties properties) {
+    private OkHttpClient buildClient(OllamaLlmProperties properties, HttpClientFactory httpClientFactory) {
         log.debug("【Ollama 客户端】构建 OkHttpClient，连接超时：{}ms，读取超时：{}ms",
                 properties.getConnectTimeoutMs(), properties.getReadTimeoutMs());
-        return new OkHttpClient.Builder()
-                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
-                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
-                .build();
+        return httpClientFactory.newClient(properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), 0);
     }
 
     @Override
@@ -1,15 +1,30 @@
 package com.halliday.ai.llm.ollama;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.halliday.ai.common.conversation.ConversationMessage;
 import com.halliday.ai.common.conversation.ConversationRole;
 import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.common.http.HttpClientFactory;
 import com.halliday.ai.llm.config.OllamaLlmProperties;
+import com.halliday.ai.llm.core.BufferedChatStream;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import com.halliday.ai.llm.core.ChatStream;
 import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import com.halliday.ai.llm.prefill.PrefillTracker;
+import com.halliday.ai.llm.routing.EndpointRouter;
+import com.halliday.ai.llm.routing.HedgePolicy;
+import com.halliday.ai.llm.routing.LlmEndpoint;
+import com.halliday.ai.llm.routing.RoutingStrategy;
+import com.halliday.ai.llm.sse.ChatCompletionChunkParser;
+import com.halliday.ai.llm.sse.SseEventReader;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.EventListener;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -17,154 +32,698 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-public class OllamaStreamingChatClient implements StreamingLanguageModelClient {
+public class OllamaStreamingChatClient implements StreamingLanguageModelClient, HealthProbe {
 
     private static final Logger log = LoggerFactory.getLogger(OllamaStreamingChatClient.class);
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final int STREAM_BUFFER_CAPACITY = 256;
 
     private final OllamaLlmProperties properties;
     private final ObjectMapper mapper;
     private final OkHttpClient client;
+    private final ChatCompletionChunkParser chunkParser;
+    private final List<LlmEndpoint> endpoints;
+    private final EndpointRouter router;
+    private final HedgePolicy hedgePolicy;
+    private final PrefillTracker prefillTracker;
+    private final String model;
+    private final String systemPrompt;
 
     public OllamaStreamingChatClient(OllamaLlmProperties properties, ObjectMapper mapper) {
+        this(properties, mapper, HttpClientFactory.shared());
+    }
+
+    public OllamaStreamingChatClient(OllamaLlmProperties properties, ObjectMapper mapper, HttpClientFactory httpClientFactory) {
+        this(properties, mapper, httpClientFactory, properties.getModel(), properties.getSystemPrompt());
+    }
+
+    /**
+     * 使用与 {@code properties} 相同的地址与调优参数，但以指定的模型和系统提示词发起请求，供模型级联中的小模型使用。
+     */
+    public OllamaStreamingChatClient(OllamaLlmProperties properties, ObjectMapper mapper, HttpClientFactory httpClientFactory,
+                                     String model, String systemPrompt) {
         this.properties = Objects.requireNonNull(properties, "properties");
         this.mapper = Objects.requireNonNull(mapper, "mapper");
-        log.debug("【Ollama 流式客户端】初始化，目标地址：{}，模型：{}", properties.getBaseUrl(), properties.getModel());
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
-                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
-                .build();
+        this.model = Objects.requireNonNull(model, "model");
+        this.systemPrompt = systemPrompt;
+        log.debug("【Ollama 流式客户端】初始化，目标地址：{}，模型：{}", properties.getBaseUrl(), model);
+        this.client = Objects.requireNonNull(httpClientFactory, "httpClientFactory")
+                .newClient(properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), 0);
+        this.chunkParser = new ChatCompletionChunkParser(mapper.getFactory());
+        this.endpoints = resolveEndpoints(properties);
+        this.router = properties.getRouting().newRouter(endpoints);
+        this.hedgePolicy = properties.isHedgeEnabled() && endpoints.size() > 1
+                ? new HedgePolicy(properties.getHedgePercentile(), properties.getHedgeMinDelayMs(),
+                properties.getHedgeMaxDelayMs(), properties.getHedgeBudgetRatio())
+                : null;
+        this.prefillTracker = new PrefillTracker(properties.getPrefillTtlMs());
+        log.info("【Ollama 流式客户端】推理服务地址：{}，路由策略：{}", endpoints, properties.getRouting());
     }
 
-    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static List<LlmEndpoint> resolveEndpoints(OllamaLlmProperties properties) {
+        List<LlmEndpoint> resolved = new ArrayList<>();
+        if (properties.getEndpoints() != null) {
+            for (OllamaLlmProperties.Endpoint endpoint : properties.getEndpoints()) {
+                if (endpoint == null || !StringUtils.hasText(endpoint.getUrl())) {
+                    log.warn("【Ollama 流式客户端】忽略未配置 url 的推理服务地址");
+                    continue;
+                }
+                String apiKey = StringUtils.hasText(endpoint.getApiKey()) ? endpoint.getApiKey() : properties.getApiKey();
+                resolved.add(new LlmEndpoint(endpoint.getUrl(), apiKey, endpoint.getWeight(),
+                        properties.getEndpointFailureThreshold(), properties.getEndpointOpenMs()));
+            }
+        }
+        if (resolved.isEmpty()) {
+            resolved.add(new LlmEndpoint(properties.getBaseUrl(), properties.getApiKey(), 1,
+                    properties.getEndpointFailureThreshold(), properties.getEndpointOpenMs()));
+        }
+        return List.copyOf(resolved);
+    }
+
+    /**
+     * 所有推理服务地址，供外部导出进行中请求数与健康指标。
+     */
+    public List<LlmEndpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 在未熔断且未被排除的地址中按路由策略选择目标；未排除任何地址而全部熔断时仍在所有地址中选择，避免直接拒绝请求，
+     * 有排除项（对冲）时返回 {@code null}。亲和键见 {@link #affinityKey}。
+     */
+    private LlmEndpoint route(String key, Collection<LlmEndpoint> excluded) {
+        if (endpoints.size() == 1 && excluded.isEmpty()) {
+            return endpoints.get(0);
+        }
+        List<LlmEndpoint> candidates = new ArrayList<>(endpoints.size());
+        for (LlmEndpoint endpoint : endpoints) {
+            if (endpoint.health().available() && !excluded.contains(endpoint)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            if (!excluded.isEmpty()) {
+                return null;
+            }
+            log.warn("【Ollama 流式客户端】所有推理服务地址均已熔断，在全部地址中选择");
+            candidates = endpoints;
+        }
+        LlmEndpoint selected = router.select(candidates, key);
+        log.debug("【Ollama 流式客户端】路由到 {}，进行中请求：{}", selected, selected.inFlight());
+        return selected;
+    }
+
+    /**
+     * 路由与预填充登记所用的亲和键：同一会话落到同一地址可复用其 KV cache。
+     * 请求带会话标识时取会话标识；否则退化为会话第一条非系统消息的哈希，历史中还没有这样的消息时为空串。
+     */
+    static String affinityKey(List<ConversationMessage> history, ChatRequestOptions options) {
+        if (options != null && !ChatRequestOptions.DEFAULT.sessionKey().equals(options.sessionKey())) {
+            return "session:" + options.sessionKey();
+        }
+        if (history != null) {
+            for (ConversationMessage message : history) {
+                if (message != null && message.role() != ConversationRole.SYSTEM && StringUtils.hasText(message.content())) {
+                    return "history:" + Integer.toHexString(message.content().hashCode());
+                }
+            }
+        }
+        return "";
+    }
 
     @Override
     public void streamChat(List<ConversationMessage> history,
                            Consumer<String> onDelta,
                            Consumer<StreamingLanguageModelClient.Completion> onComplete) {
         log.info("【Ollama 流式客户端】开始流式对话，请求历史消息数量：{}", history == null ? 0 : history.size());
+        LlmEndpoint endpoint = route(affinityKey(history, null), List.of());
+        endpoint.acquire();
+        long start = System.nanoTime();
         try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("model", properties.getModel());
-            payload.put("temperature", properties.getTemperature());
-            payload.put("top_p", properties.getTopP());
-            payload.put("stream", true);
-            Map<String, Object> streamOptions = new HashMap<>();
-            streamOptions.put("include_usage", true);
-            payload.put("stream_options", streamOptions);
-            payload.put("messages", serializeMessages(history));
+            try (Response response = client.newCall(buildStreamRequest(endpoint, history)).execute()) {
+                recordResponse(endpoint, response, start);
+                onComplete.accept(readCompletion(response, delta -> {
+                    onDelta.accept(delta);
+                    return true;
+                }));
+            }
+        } catch (IOException ex) {
+            log.error("【Ollama 流式客户端】流式调用发生 IO 异常", ex);
+            endpoint.health().recordFailure(ex.getMessage());
+            throw new AiServiceException("Failed to stream LLM response", ex);
+        } finally {
+            endpoint.release();
+        }
+    }
+
+    /**
+     * 通过 {@link Call#enqueue} 异步发起请求，响应在共享调度器的虚拟线程上读取；取消时直接 {@link Call#cancel()}
+     * 关闭底层连接，上游随即停止生成。
+     * <p>
+     * 配置了多个地址且启用对冲时，若在 {@link HedgePolicy#delayMs()} 内未收到首个增量，会向另一个地址发出相同请求，
+     * 先产出首个增量的一方胜出并继续下发，另一方立即取消。
+     */
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history) {
+        return streamChatAsync(history, ChatRequestOptions.DEFAULT);
+    }
 
-            RequestBody body = RequestBody.create(mapper.writeValueAsBytes(payload), JSON);
-            Request.Builder builder = new Request.Builder().url(properties.getBaseUrl()).post(body);
-            if (StringUtils.hasText(properties.getApiKey())) {
-                log.debug("【Ollama 流式客户端】使用 API Key 进行鉴权");
-                builder.addHeader("Authorization", "Bearer " + properties.getApiKey());
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history, ChatRequestOptions options) {
+        log.info("【Ollama 流式客户端】开始异步流式对话，请求历史消息数量：{}", history == null ? 0 : history.size());
+        String key = affinityKey(history, options);
+        HedgedCall call = new HedgedCall(history, key, prefillTracker.consume(key));
+        call.launch(route(key, List.of()), false);
+        if (hedgePolicy != null && endpoints.size() > 1) {
+            hedgePolicy.onRequest();
+            call.scheduleHedge(hedgePolicy.delayMs());
+        }
+        return call.stream;
+    }
+
+    /**
+     * 发送 {@code max_tokens=1} 的非流式请求，内容为系统提示词与已有历史，路由与正式请求相同（同一亲和键），
+     * 使该地址的前缀缓存提前就绪。首轮对话历史为空时只预填充系统提示词，会话路由到的地址未必已缓存它；
+     * 既没有会话键也没有历史时无法确定亲和键，不发送；多地址但路由策略没有会话亲和时，预填充的地址与正式请求未必相同，同样不发送。
+     */
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history) {
+        return prefill(history, ChatRequestOptions.DEFAULT);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> prefill(List<ConversationMessage> history, ChatRequestOptions options) {
+        String key = affinityKey(history, options);
+        if (!properties.isPrefillEnabled() || key.isEmpty()
+                || (endpoints.size() > 1 && properties.getRouting() != RoutingStrategy.CONSISTENT_HASH)) {
+            prefillTracker.markSkipped();
+            return CompletableFuture.completedFuture(false);
+        }
+        LlmEndpoint endpoint = route(key, List.of());
+        Request request;
+        try {
+            request = buildPrefillRequest(endpoint, history);
+        } catch (IOException ex) {
+            log.warn("【Ollama 流式客户端】构建预填充请求失败：{}", ex.getMessage());
+            prefillTracker.markFailed();
+            return CompletableFuture.completedFuture(false);
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        endpoint.acquire();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException ex) {
+                endpoint.release();
+                log.debug("【Ollama 流式客户端】预填充失败，地址：{}，原因：{}", endpoint, ex.getMessage());
+                prefillTracker.markFailed();
+                result.complete(false);
             }
 
-            try (Response response = client.newCall(builder.build()).execute()) {
-                log.debug("【Ollama 流式客户端】收到响应，HTTP 状态码：{}", response.code());
-                if (!response.isSuccessful()) {
-                    log.error("【Ollama 流式客户端】调用失败，状态码：{}", response.code());
-                    throw new AiServiceException("LLM streaming failed with status " + response.code());
-                }
-                StringBuilder complete = new StringBuilder();
-                Map<String, Object> metadata = new LinkedHashMap<>();
-                List<String> rawEvents = new ArrayList<>();
-                metadata.put("events", rawEvents);
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(Objects.requireNonNull(response.body()).byteStream(), StandardCharsets.UTF_8))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.isBlank()) {
-                            continue;
-                        }
-                        String json = line.startsWith("data:") ? line.substring(5).trim() : line.trim();
-                        if ("[DONE]".equals(json)) {
-                            log.debug("【Ollama 流式客户端】收到结束标记");
-                            break;
-                        }
-                        rawEvents.add(json);
-                        JsonNode root = mapper.readTree(json);
-                        JsonNode choices = root.path("choices");
-                        if (choices.isArray() && !choices.isEmpty()) {
-                            JsonNode delta = choices.get(0).path("delta");
-                            String content = delta.path("content").asText("");
-                            if (StringUtils.hasText(content)) {
-                                complete.append(content);
-                                log.trace("【Ollama 流式客户端】追加文本片段：{}", content);
-                                onDelta.accept(content);
-                            }
-                            String finish = choices.get(0).path("finish_reason").asText("");
-                            if (StringUtils.hasText(finish)) {
-                                metadata.put("finish_reason", finish);
-                            }
-                        }
-                        if (root.hasNonNull("usage")) {
-                            metadata.put("usage", mapper.convertValue(root.get("usage"), MAP_TYPE));
-                        }
-                        if (root.hasNonNull("created")) {
-                            metadata.put("created", root.get("created").asLong());
-                        }
-                        if (root.hasNonNull("id")) {
-                            metadata.putIfAbsent("id", root.get("id").asText());
-                        }
-                        if (root.hasNonNull("model")) {
-                            metadata.putIfAbsent("model", root.get("model").asText());
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        log.debug("【Ollama 流式客户端】预填充返回 HTTP {}，地址：{}", response.code(), endpoint);
+                        prefillTracker.markFailed();
+                        result.complete(false);
+                        return;
+                    }
+                    prefillTracker.markWarm(key);
+                    log.debug("【Ollama 流式客户端】预填充完成，地址：{}，历史消息数：{}，耗时：{}ms",
+                            endpoint, history == null ? 0 : history.size(), elapsedMs(start));
+                    result.complete(true);
+                } finally {
+                    endpoint.release();
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 预填充统计与首 token 耗时对比。
+     */
+    public PrefillTracker prefillTracker() {
+        return prefillTracker;
+    }
+
+    /**
+     * 对冲策略；未启用对冲时为 {@code null}。
+     */
+    public HedgePolicy hedgePolicy() {
+        return hedgePolicy;
+    }
+
+    /**
+     * 一次异步对话的全部尝试（原请求与可能的对冲请求）。首个产出增量的尝试通过 CAS 成为胜者，
+     * 只有胜者的增量和结果会写入 {@link #stream}。
+     */
+    private final class HedgedCall {
+
+        private final List<ConversationMessage> history;
+        private final String key;
+        private final boolean prefilled;
+        private final BufferedChatStream stream;
+        private final AtomicReference<Attempt> winner = new AtomicReference<>();
+        private final List<Attempt> attempts = new ArrayList<>();
+        private CompletableFuture<Void> hedgeTimer;
+        private boolean finished;
+
+        private volatile long firstTokenMs = -1;
+
+        HedgedCall(List<ConversationMessage> history, String key, boolean prefilled) {
+            this.history = history;
+            this.key = key;
+            this.prefilled = prefilled;
+            this.stream = new BufferedChatStream(STREAM_BUFFER_CAPACITY, this::cancelAll);
+        }
+
+        void launch(LlmEndpoint endpoint, boolean hedge) {
+            Request request;
+            try {
+                request = buildStreamRequest(endpoint, history);
+            } catch (IOException ex) {
+                log.error("【Ollama 流式客户端】构建请求失败", ex);
+                throw new AiServiceException("Failed to build LLM request", ex);
+            }
+            Attempt attempt = new Attempt(endpoint, client.newCall(request), hedge);
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                attempts.add(attempt);
+            }
+            endpoint.acquire();
+            attempt.call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call failed, IOException ex) {
+                    endpoint.release();
+                    if (stream.isCancelled() || attempt.cancelled) {
+                        log.debug("【Ollama 流式客户端】请求已取消，上游请求已中止，地址：{}", endpoint);
+                        return;
+                    }
+                    log.error("【Ollama 流式客户端】异步流式调用发生 IO 异常，地址：{}", endpoint, ex);
+                    endpoint.health().recordFailure(ex.getMessage());
+                    failed(attempt, new AiServiceException("Failed to stream LLM response", ex));
+                }
+
+                @Override
+                public void onResponse(Call succeeded, Response response) {
+                    try (response) {
+                        recordResponse(endpoint, response, attempt.startNanos);
+                        StreamingLanguageModelClient.Completion completion =
+                                readCompletion(response, delta -> onDelta(attempt, delta));
+                        if ((winner.get() == attempt || commit(attempt)) && !stream.isCancelled()) {
+                            stream.complete(tagged(completion, attempt));
                         }
-                        if (root.path("done").asBoolean(false)) {
-                            metadata.put("done", true);
-                            metadata.put("done_reason", root.path("done_reason").asText(""));
-                            if (root.hasNonNull("total_duration")) {
-                                metadata.put("total_duration", root.get("total_duration").asLong());
-                            }
-                            if (root.hasNonNull("load_duration")) {
-                                metadata.put("load_duration", root.get("load_duration").asLong());
-                            }
-                            if (root.hasNonNull("prompt_eval_count")) {
-                                metadata.put("prompt_eval_count", root.get("prompt_eval_count").asLong());
-                            }
-                            if (root.hasNonNull("prompt_eval_duration")) {
-                                metadata.put("prompt_eval_duration", root.get("prompt_eval_duration").asLong());
-                            }
-                            if (root.hasNonNull("eval_count")) {
-                                metadata.put("eval_count", root.get("eval_count").asLong());
-                            }
-                            if (root.hasNonNull("eval_duration")) {
-                                metadata.put("eval_duration", root.get("eval_duration").asLong());
-                            }
-                            log.debug("【Ollama 流式客户端】收到 done 事件，结束流式解析");
-                            break;
+                    } catch (IOException ex) {
+                        if (stream.isCancelled() || attempt.cancelled) {
+                            log.debug("【Ollama 流式客户端】请求已取消，停止读取响应，地址：{}", endpoint);
+                            return;
                         }
+                        log.error("【Ollama 流式客户端】读取流式响应发生 IO 异常，地址：{}", endpoint, ex);
+                        endpoint.health().recordFailure(ex.getMessage());
+                        failed(attempt, new AiServiceException("Failed to stream LLM response", ex));
+                    } catch (RuntimeException ex) {
+                        failed(attempt, ex);
+                    } finally {
+                        endpoint.release();
                     }
                 }
-                String result = complete.toString();
-                log.info("【Ollama 流式客户端】流式对话完成，最终文本长度：{}", result.length());
-                onComplete.accept(new StreamingLanguageModelClient.Completion(result, metadata));
+            });
+        }
+
+        void scheduleHedge(long delayMs) {
+            CompletableFuture<Void> timer = CompletableFuture.runAsync(this::hedge,
+                    CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+            synchronized (this) {
+                hedgeTimer = timer;
+            }
+        }
+
+        private void hedge() {
+            LlmEndpoint endpoint;
+            synchronized (this) {
+                if (finished || winner.get() != null || stream.isCancelled()) {
+                    return;
+                }
+                List<LlmEndpoint> used = attempts.stream().map(attempt -> attempt.endpoint).toList();
+                endpoint = route(key, used);
+                if (endpoint == null) {
+                    log.debug("【Ollama 流式客户端】没有其他可用地址，放弃对冲");
+                    return;
+                }
+                if (!hedgePolicy.tryHedge()) {
+                    log.debug("【Ollama 流式客户端】对冲预算不足，继续等待原请求");
+                    return;
+                }
+            }
+            log.info("【Ollama 流式客户端】{}ms 内未收到首个增量，向 {} 发出对冲请求",
+                    hedgePolicy.delayMs(), endpoint);
+            try {
+                launch(endpoint, true);
+            } catch (RuntimeException ex) {
+                log.warn("【Ollama 流式客户端】发起对冲请求失败：{}", ex.getMessage());
+            }
+        }
+
+        /**
+         * 尝试产出首个增量时竞争胜者；败者返回 {@code false} 停止读取。
+         */
+        private boolean onDelta(Attempt attempt, String delta) {
+            if (winner.get() != attempt && !commit(attempt)) {
+                return false;
+            }
+            return stream.emit(delta);
+        }
+
+        /**
+         * 把 {@code attempt} 定为胜者，取消其余尝试与对冲计时。
+         */
+        private boolean commit(Attempt attempt) {
+            if (!winner.compareAndSet(null, attempt)) {
+                return false;
+            }
+            long firstTokenMs = elapsedMs(attempt.startNanos);
+            this.firstTokenMs = firstTokenMs;
+            prefillTracker.recordFirstToken(prefilled, firstTokenMs);
+            List<Attempt> losers;
+            synchronized (this) {
+                finished = true;
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+                losers = attempts.stream().filter(other -> other != attempt).toList();
+            }
+            if (hedgePolicy != null) {
+                hedgePolicy.recordFirstToken(firstTokenMs);
+                if (!losers.isEmpty()) {
+                    hedgePolicy.recordWin(attempt.hedge);
+                    log.info("【Ollama 流式客户端】{}请求胜出，地址：{}，首个增量耗时：{}ms",
+                            attempt.hedge ? "对冲" : "原", attempt.endpoint, firstTokenMs);
+                }
+            }
+            losers.forEach(Attempt::cancel);
+            return true;
+        }
+
+        private void failed(Attempt attempt, RuntimeException error) {
+            synchronized (this) {
+                attempt.failed = true;
+                Attempt current = winner.get();
+                if (current != null && current != attempt) {
+                    return;
+                }
+                if (current == null && attempts.stream().anyMatch(other -> !other.failed)) {
+                    log.debug("【Ollama 流式客户端】{} 请求失败，等待其他尝试", attempt.endpoint);
+                    return;
+                }
+                finished = true;
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+            }
+            stream.fail(error);
+        }
+
+        private void cancelAll() {
+            List<Attempt> snapshot;
+            synchronized (this) {
+                finished = true;
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+                snapshot = List.copyOf(attempts);
+            }
+            snapshot.forEach(Attempt::cancel);
+        }
+
+        private StreamingLanguageModelClient.Completion tagged(StreamingLanguageModelClient.Completion completion,
+                                                               Attempt attempt) {
+            boolean hedged;
+            synchronized (this) {
+                hedged = attempts.size() > 1;
+            }
+            Map<String, Object> metadata = new LinkedHashMap<>(completion.metadata());
+            if (firstTokenMs >= 0) {
+                metadata.put("ttft_ms", firstTokenMs);
+            }
+            metadata.put("prefilled", prefilled);
+            if (hedged) {
+                metadata.put("hedged", true);
+                metadata.put("hedge_winner", attempt.hedge ? "hedge" : "primary");
+                metadata.put("endpoint", attempt.endpoint.name());
+            }
+            return new StreamingLanguageModelClient.Completion(completion.text(), metadata);
+        }
+    }
+
+    private static final class Attempt {
+        private final LlmEndpoint endpoint;
+        private final Call call;
+        private final boolean hedge;
+        private final long startNanos = System.nanoTime();
+        private volatile boolean cancelled;
+        private boolean failed;
+
+        Attempt(LlmEndpoint endpoint, Call call, boolean hedge) {
+            this.endpoint = endpoint;
+            this.call = call;
+            this.hedge = hedge;
+        }
+
+        void cancel() {
+            cancelled = true;
+            call.cancel();
+        }
+    }
+
+    /**
+     * 以收到响应头的耗时作为被动健康样本；非 2xx 记为失败。
+     */
+    private static void recordResponse(LlmEndpoint endpoint, Response response, long startNanos) {
+        if (response.isSuccessful()) {
+            endpoint.health().recordSuccess(elapsedMs(startNanos));
+        } else {
+            endpoint.health().recordFailure("HTTP " + response.code());
+        }
+    }
+
+    private Request buildStreamRequest(LlmEndpoint endpoint, List<ConversationMessage> history) throws IOException {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("model", model);
+        payload.put("temperature", properties.getTemperature());
+        payload.put("top_p", properties.getTopP());
+        payload.put("stream", true);
+        Map<String, Object> streamOptions = new HashMap<>();
+        streamOptions.put("include_usage", true);
+        payload.put("stream_options", streamOptions);
+        payload.put("messages", serializeMessages(history));
+
+        RequestBody body = RequestBody.create(mapper.writeValueAsBytes(payload), JSON);
+        Request.Builder builder = new Request.Builder().url(endpoint.url()).post(body);
+        if (StringUtils.hasText(endpoint.apiKey())) {
+            log.debug("【Ollama 流式客户端】使用 API Key 进行鉴权");
+            builder.addHeader("Authorization", "Bearer " + endpoint.apiKey());
+        }
+        return builder.build();
+    }
+
+    private Request buildPrefillRequest(LlmEndpoint endpoint, List<ConversationMessage> history) throws IOException {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("model", model);
+        payload.put("stream", false);
+        payload.put("max_tokens", 1);
+        payload.put("messages", serializeMessages(history));
+
+        Request.Builder builder = new Request.Builder()
+                .url(endpoint.url())
+                .post(RequestBody.create(mapper.writeValueAsBytes(payload), JSON));
+        if (StringUtils.hasText(endpoint.apiKey())) {
+            builder.addHeader("Authorization", "Bearer " + endpoint.apiKey());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 读取流式响应直到结束标记；{@code onDelta} 返回 {@code false} 时提前停止。
+     */
+    private StreamingLanguageModelClient.Completion readCompletion(Response response, Predicate<String> onDelta)
+            throws IOException {
+        log.debug("【Ollama 流式客户端】收到响应，HTTP 状态码：{}", response.code());
+        if (!response.isSuccessful()) {
+            log.error("【Ollama 流式客户端】调用失败，状态码：{}", response.code());
+            throw new AiServiceException("LLM streaming failed with status " + response.code());
+        }
+        StringBuilder complete = new StringBuilder();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        RawEventCapture capture = properties.isCaptureRawEvents()
+                ? new RawEventCapture(properties.getMaxCapturedEvents())
+                : null;
+        try (InputStream stream = Objects.requireNonNull(response.body()).byteStream()) {
+            new SseEventReader(stream).read((data, offset, length) -> {
+                if (SseEventReader.isDone(data, offset, length)) {
+                    log.debug("【Ollama 流式客户端】收到结束标记");
+                    return false;
+                }
+                if (capture != null) {
+                    capture.add(data, offset, length);
+                }
+                ChatCompletionChunkParser.Chunk chunk = chunkParser.parse(data, offset, length, metadata);
+                if (!chunk.content().isEmpty()) {
+                    complete.append(chunk.content());
+                    log.trace("【Ollama 流式客户端】追加文本片段：{}", chunk.content());
+                    if (!onDelta.test(chunk.content())) {
+                        log.debug("【Ollama 流式客户端】调用方停止接收，结束流式解析");
+                        return false;
+                    }
+                }
+                if (chunk.done()) {
+                    log.debug("【Ollama 流式客户端】收到 done 事件，结束流式解析");
+                    return false;
+                }
+                return true;
+            });
+        }
+        if (capture != null) {
+            capture.writeTo(metadata);
+        }
+        String result = complete.toString();
+        log.info("【Ollama 流式客户端】流式对话完成，最终文本长度：{}", result.length());
+        return new StreamingLanguageModelClient.Completion(result, metadata);
+    }
+
+    @Override
+    public String probeTarget() {
+        return "llm:ollama";
+    }
+
+    /**
+     * 逐个探测所有地址并更新各自的健康状态；任一地址成功即视为成功，耗时取成功地址中的最小值。
+     */
+    @Override
+    public ProbeResult probe(Duration timeout) {
+        ProbeResult best = null;
+        ProbeResult lastFailure = null;
+        for (LlmEndpoint endpoint : endpoints) {
+            ProbeResult result = probe(endpoint, timeout);
+            endpoint.health().record(result);
+            if (!result.success()) {
+                log.debug("【Ollama 流式客户端】探测 {} 失败：{}", endpoint, result.error());
+                lastFailure = result;
+            } else if (best == null || result.firstResponseMs() < best.firstResponseMs()) {
+                best = result;
+            }
+        }
+        return best != null ? best : lastFailure;
+    }
+
+    /**
+     * 发送 {@code max_tokens=1} 的流式补全，测量建连耗时与首个 SSE 行到达耗时。
+     */
+    private ProbeResult probe(LlmEndpoint endpoint, Duration timeout) {
+        long start = System.nanoTime();
+        AtomicLong connectStart = new AtomicLong();
+        AtomicLong connectMs = new AtomicLong();
+        OkHttpClient probeClient = client.newBuilder()
+                .callTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .eventListener(new EventListener() {
+                    @Override
+                    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+                        connectStart.set(System.nanoTime());
+                    }
+
+                    @Override
+                    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+                        connectMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart.get()));
+                    }
+                })
+                .build();
+        try {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("model", model);
+            payload.put("stream", true);
+            payload.put("max_tokens", 1);
+            payload.put("messages", List.of(messageOf(ConversationRole.USER, "ping")));
+            Request.Builder builder = new Request.Builder()
+                    .url(endpoint.url())
+                    .post(RequestBody.create(mapper.writeValueAsBytes(payload), JSON));
+            if (StringUtils.hasText(endpoint.apiKey())) {
+                builder.addHeader("Authorization", "Bearer " + endpoint.apiKey());
+            }
+            try (Response response = probeClient.newCall(builder.build()).execute()) {
+                if (!response.isSuccessful()) {
+                    return ProbeResult.failure(connectMs.get(), elapsedMs(start), "HTTP " + response.code());
+                }
+                if (Objects.requireNonNull(response.body()).source().readUtf8Line() == null) {
+                    return ProbeResult.failure(connectMs.get(), elapsedMs(start), "empty response");
+                }
+                return ProbeResult.success(connectMs.get(), elapsedMs(start));
+            }
+        } catch (IOException | RuntimeException ex) {
+            return ProbeResult.failure(connectMs.get(), elapsedMs(start), ex.getMessage());
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 有上限的原始事件记录，超出部分只计数，避免长回复把全部事件带入追踪数据。
+     */
+    private static final class RawEventCapture {
+        private final int limit;
+        private final List<String> events = new ArrayList<>();
+        private int dropped;
+
+        RawEventCapture(int limit) {
+            this.limit = Math.max(0, limit);
+        }
+
+        void add(byte[] data, int offset, int length) {
+            if (events.size() < limit) {
+                events.add(new String(data, offset, length, StandardCharsets.UTF_8));
+            } else {
+                dropped++;
+            }
+        }
+
+        void writeTo(Map<String, Object> metadata) {
+            metadata.put("events", events);
+            if (dropped > 0) {
+                metadata.put("events_dropped", dropped);
             }
-        } catch (IOException ex) {
-            log.error("【Ollama 流式客户端】流式调用发生 IO 异常", ex);
-            throw new AiServiceException("Failed to stream LLM response", ex);
         }
     }
 
     private List<Map<String, String>> serializeMessages(List<ConversationMessage> history) {
         log.debug("【Ollama 流式客户端】序列化历史消息，原始数量：{}", history == null ? 0 : history.size());
         List<Map<String, String>> messages = new ArrayList<>();
-        if (StringUtils.hasText(properties.getSystemPrompt())) {
+        if (StringUtils.hasText(systemPrompt)) {
             log.debug("【Ollama 流式客户端】添加系统提示词");
-            messages.add(messageOf(ConversationRole.SYSTEM, properties.getSystemPrompt()));
+            messages.add(messageOf(ConversationRole.SYSTEM, systemPrompt));
         }
         if (history != null) {
             for (ConversationMessage message : history) {
@@ -0,0 +1,118 @@
+package com.halliday.ai.llm.prefill;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 记录哪些会话前缀已预填充，并分别统计预填充与未预填充请求的首 token 耗时，用于评估预填充的收益。
+ * <p>
+ * 预填充成功后以亲和键登记，有效期 {@code ttlMs}；随后该会话的第一次正式请求消费登记并计入"已预填充"。
+ * 登记数超过 {@value #MAX_ENTRIES} 时顺带清理过期项。
+ */
+public final class PrefillTracker {
+
+    static final int MAX_ENTRIES = 4_096;
+
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final Map<String, Long> warmed = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder warmCount = new LongAdder();
+    private final LongAdder warmTotalMs = new LongAdder();
+    private final LongAdder coldCount = new LongAdder();
+    private final LongAdder coldTotalMs = new LongAdder();
+
+    public PrefillTracker(long ttlMs) {
+        this(ttlMs, System::currentTimeMillis);
+    }
+
+    PrefillTracker(long ttlMs, LongSupplier clock) {
+        this.ttlMs = Math.max(1, ttlMs);
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * 登记一次成功的预填充。
+     */
+    public void markWarm(String key) {
+        sent.increment();
+        long now = clock.getAsLong();
+        if (warmed.size() >= MAX_ENTRIES) {
+            warmed.values().removeIf(at -> now - at >= ttlMs);
+        }
+        warmed.put(key, now);
+    }
+
+    public void markFailed() {
+        failed.increment();
+    }
+
+    /**
+     * 记录一次未发出的预填充（未启用、无可复用前缀或服务繁忙）。
+     */
+    public void markSkipped() {
+        skipped.increment();
+    }
+
+    /**
+     * 消费登记：该前缀在有效期内预填充过时返回 {@code true}。
+     */
+    public boolean consume(String key) {
+        Long at = warmed.remove(key);
+        return at != null && clock.getAsLong() - at < ttlMs;
+    }
+
+    /**
+     * 记录一次正式请求的首 token 耗时。
+     */
+    public void recordFirstToken(boolean prefilled, long ttftMs) {
+        if (prefilled) {
+            warmCount.increment();
+            warmTotalMs.add(ttftMs);
+        } else {
+            coldCount.increment();
+            coldTotalMs.add(ttftMs);
+        }
+    }
+
+    public long sent() {
+        return sent.sum();
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * 首 token 样本数。
+     *
+     * @param prefilled 取预填充（{@code true}）或未预填充（{@code false}）请求
+     */
+    public long firstTokenCount(boolean prefilled) {
+        return prefilled ? warmCount.sum() : coldCount.sum();
+    }
+
+    /**
+     * 首 token 耗时之和，毫秒。
+     */
+    public long firstTokenTotalMs(boolean prefilled) {
+        return prefilled ? warmTotalMs.sum() : coldTotalMs.sum();
+    }
+
+    /**
+     * 平均首 token 耗时，毫秒；没有样本时为 0。
+     */
+    public double meanFirstTokenMs(boolean prefilled) {
+        long count = firstTokenCount(prefilled);
+        return count == 0 ? 0 : (double) firstTokenTotalMs(prefilled) / count;
+    }
+}
@@ -0,0 +1,65 @@
+package com.halliday.ai.llm.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一致性哈希：每个地址按权重在环上放置若干虚拟节点，亲和键顺时针找到的第一个可用地址即为目标。
+ * <p>
+ * 地址熔断时，只有原本落在该地址上的会话迁移到环上的下一个地址，其余会话保持不变。
+ * 亲和键为空时退化为最少进行中请求。
+ */
+final class ConsistentHashRouter implements EndpointRouter {
+
+    private static final int VIRTUAL_NODES_PER_WEIGHT = 100;
+
+    private final TreeMap<Long, LlmEndpoint> ring = new TreeMap<>();
+    private final EndpointRouter fallback = new LeastOutstandingRouter();
+
+    ConsistentHashRouter(List<LlmEndpoint> endpoints) {
+        for (LlmEndpoint endpoint : endpoints) {
+            int nodes = VIRTUAL_NODES_PER_WEIGHT * endpoint.weight();
+            for (int i = 0; i < nodes; i++) {
+                ring.put(hash(endpoint.url() + "#" + i), endpoint);
+            }
+        }
+    }
+
+    @Override
+    public LlmEndpoint select(List<LlmEndpoint> candidates, String affinityKey) {
+        if (affinityKey == null || affinityKey.isEmpty() || ring.isEmpty()) {
+            return fallback.select(candidates, affinityKey);
+        }
+        long point = hash(affinityKey);
+        for (Map.Entry<Long, LlmEndpoint> entry : ring.tailMap(point, true).entrySet()) {
+            if (candidates.contains(entry.getValue())) {
+                return entry.getValue();
+            }
+        }
+        for (Map.Entry<Long, LlmEndpoint> entry : ring.headMap(point, false).entrySet()) {
+            if (candidates.contains(entry.getValue())) {
+                return entry.getValue();
+            }
+        }
+        return fallback.select(candidates, affinityKey);
+    }
+
+    /**
+     * 64 位 FNV-1a，再做一次 murmur 风格的混淆，使相近的键在环上分散开。
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,16 @@
+package com.halliday.ai.llm.routing;
+
+import java.util.List;
+
+/**
+ * 从候选地址中为一次请求选择目标。实现需线程安全。
+ */
+public interface EndpointRouter {
+
+    /**
+     * @param candidates  当前可用的地址，非空
+     * @param affinityKey 会话亲和键，可为空字符串
+     * @return 选中的地址，必须来自 {@code candidates}
+     */
+    LlmEndpoint select(List<LlmEndpoint> candidates, String affinityKey);
+}
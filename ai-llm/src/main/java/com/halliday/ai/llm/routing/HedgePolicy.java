@@ -0,0 +1,147 @@
+package com.halliday.ai.llm.routing;
+
+import java.util.Arrays;
+
+/**
+ * 首 token 对冲策略：根据最近的首 token 耗时分布给出对冲等待时间，并以令牌桶限制对冲带来的额外负载。
+ * <p>
+ * 等待时间取最近 {@value #WINDOW} 个样本的指定分位数，并限制在 [{@code minDelayMs}, {@code maxDelayMs}]；
+ * 样本不足 {@value #MIN_SAMPLES} 个时使用 {@code maxDelayMs}。每个请求向令牌桶存入 {@code budgetRatio} 个令牌，
+ * 每次对冲消耗一个，长期对冲比例因此不超过 {@code budgetRatio}，桶容量限制了突发。
+ */
+public final class HedgePolicy {
+
+    static final int WINDOW = 512;
+    static final int MIN_SAMPLES = 20;
+    private static final double MAX_TOKENS = 10;
+
+    private final double percentile;
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private final double budgetRatio;
+    private final long[] samples = new long[WINDOW];
+    private int sampleCount;
+    private int nextSample;
+    private long cachedDelayMs;
+    private boolean dirty = true;
+    private double tokens = 1;
+    private long requests;
+    private long hedges;
+    private long hedgeWins;
+    private long primaryWins;
+    private long budgetRejected;
+
+    /**
+     * @param percentile  对冲等待时间所取的分位数，(0, 1]
+     * @param minDelayMs  等待时间下限，毫秒
+     * @param maxDelayMs  等待时间上限，毫秒
+     * @param budgetRatio 对冲请求占全部请求的比例上限
+     */
+    public HedgePolicy(double percentile, long minDelayMs, long maxDelayMs, double budgetRatio) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1]");
+        }
+        if (minDelayMs < 0 || maxDelayMs < minDelayMs) {
+            throw new IllegalArgumentException("delay bounds must satisfy 0 <= min <= max");
+        }
+        this.percentile = percentile;
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.budgetRatio = Math.max(0, budgetRatio);
+    }
+
+    /**
+     * 记录一次首 token 耗时。
+     */
+    public synchronized void recordFirstToken(long latencyMs) {
+        samples[nextSample] = Math.max(0, latencyMs);
+        nextSample = (nextSample + 1) % WINDOW;
+        sampleCount = Math.min(WINDOW, sampleCount + 1);
+        dirty = true;
+    }
+
+    /**
+     * 当前的对冲等待时间，毫秒。
+     */
+    public synchronized long delayMs() {
+        if (sampleCount < MIN_SAMPLES) {
+            return maxDelayMs;
+        }
+        if (dirty) {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sampleCount) - 1;
+            long value = sorted[Math.max(0, Math.min(sampleCount - 1, index))];
+            cachedDelayMs = Math.max(minDelayMs, Math.min(maxDelayMs, value));
+            dirty = false;
+        }
+        return cachedDelayMs;
+    }
+
+    /**
+     * 新请求开始，向令牌桶存入预算。
+     */
+    public synchronized void onRequest() {
+        requests++;
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    /**
+     * 申请一次对冲；预算不足时返回 {@code false}。
+     */
+    public synchronized boolean tryHedge() {
+        if (tokens >= 1) {
+            tokens -= 1;
+            hedges++;
+            return true;
+        }
+        budgetRejected++;
+        return false;
+    }
+
+    /**
+     * 记录已对冲请求的胜出方。
+     *
+     * @param hedge 是否为对冲请求先产出首 token
+     */
+    public synchronized void recordWin(boolean hedge) {
+        if (hedge) {
+            hedgeWins++;
+        } else {
+            primaryWins++;
+        }
+    }
+
+    public synchronized long requests() {
+        return requests;
+    }
+
+    public synchronized long hedges() {
+        return hedges;
+    }
+
+    /**
+     * 已对冲的请求中由对冲请求胜出的次数。
+     */
+    public synchronized long hedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * 已对冲的请求中原请求仍然先到的次数。
+     */
+    public synchronized long primaryWins() {
+        return primaryWins;
+    }
+
+    public synchronized long budgetRejected() {
+        return budgetRejected;
+    }
+
+    /**
+     * 对冲比例：已发出的对冲请求占全部请求的比例。
+     */
+    public synchronized double hedgeRate() {
+        return requests == 0 ? 0 : (double) hedges / requests;
+    }
+}
@@ -0,0 +1,29 @@
+package com.halliday.ai.llm.routing;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 选择按权重折算后进行中请求最少的地址；负载相同时从轮转的起点开始比较，避免总是落在第一个地址上。
+ */
+final class LeastOutstandingRouter implements EndpointRouter {
+
+    private final AtomicInteger offset = new AtomicInteger();
+
+    @Override
+    public LlmEndpoint select(List<LlmEndpoint> candidates, String affinityKey) {
+        int size = candidates.size();
+        int start = Math.floorMod(offset.getAndIncrement(), size);
+        LlmEndpoint best = null;
+        double bestLoad = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            LlmEndpoint endpoint = candidates.get((start + i) % size);
+            double load = (endpoint.inFlight() + 1.0) / endpoint.weight();
+            if (load < bestLoad) {
+                best = endpoint;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,93 @@
+package com.halliday.ai.llm.routing;
+
+import com.halliday.ai.common.health.ProviderHealth;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一个推理服务地址的运行时状态：进行中请求数与基于真实调用和探测结果的健康状态。
+ */
+public final class LlmEndpoint {
+
+    private static final double HEALTH_ALPHA = 0.3;
+    private static final long REFERENCE_LATENCY_MS = 1_000;
+
+    private final String name;
+    private final String url;
+    private final String apiKey;
+    private final int weight;
+    private final ProviderHealth health;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param url              Chat Completions 兼容接口地址
+     * @param apiKey           鉴权所用的 API Key，可为空
+     * @param weight           路由权重，最小为 1
+     * @param failureThreshold 连续失败多少次后暂停路由
+     * @param openMs           暂停路由的冷却时间，毫秒
+     */
+    public LlmEndpoint(String url, String apiKey, int weight, int failureThreshold, long openMs) {
+        this.url = Objects.requireNonNull(url, "url");
+        this.apiKey = apiKey == null ? "" : apiKey;
+        this.weight = Math.max(1, weight);
+        this.name = nameOf(url);
+        this.health = new ProviderHealth("llm:" + name, HEALTH_ALPHA, failureThreshold, openMs, REFERENCE_LATENCY_MS);
+    }
+
+    private static String nameOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null) {
+                return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+            }
+        } catch (IllegalArgumentException ignored) {
+            // 无法解析时直接使用原始地址
+        }
+        return url;
+    }
+
+    /**
+     * 标识名称（主机:端口），用于日志与指标标签。
+     */
+    public String name() {
+        return name;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public String apiKey() {
+        return apiKey;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public ProviderHealth health() {
+        return health;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 开始一次请求，必须与 {@link #release()} 成对调用。
+     */
+    public void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,35 @@
+package com.halliday.ai.llm.routing;
+
+import java.util.List;
+
+/**
+ * 多推理服务地址之间的路由策略。
+ */
+public enum RoutingStrategy {
+
+    /**
+     * 选择按权重折算后进行中请求最少的地址。
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * 平滑加权轮询。
+     */
+    WEIGHTED_ROUND_ROBIN,
+
+    /**
+     * 按会话前缀做一致性哈希，同一会话持续命中已缓存其提示词前缀（KV cache）的地址。
+     */
+    CONSISTENT_HASH;
+
+    /**
+     * 为给定地址集合创建路由器。
+     */
+    public EndpointRouter newRouter(List<LlmEndpoint> endpoints) {
+        return switch (this) {
+            case LEAST_OUTSTANDING -> new LeastOutstandingRouter();
+            case WEIGHTED_ROUND_ROBIN -> new WeightedRoundRobinRouter();
+            case CONSISTENT_HASH -> new ConsistentHashRouter(endpoints);
+        };
+    }
+}
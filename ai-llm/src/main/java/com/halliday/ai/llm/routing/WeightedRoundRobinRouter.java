@@ -0,0 +1,31 @@
+package com.halliday.ai.llm.routing;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 平滑加权轮询：每次为所有候选累加各自权重，选中当前值最大者并减去总权重，
+ * 权重 5:1:1 时序列为 a a b a c a a，而不是连续 5 次 a。
+ */
+final class WeightedRoundRobinRouter implements EndpointRouter {
+
+    private final Map<LlmEndpoint, Integer> current = new HashMap<>();
+
+    @Override
+    public synchronized LlmEndpoint select(List<LlmEndpoint> candidates, String affinityKey) {
+        int total = 0;
+        LlmEndpoint best = null;
+        int bestWeight = Integer.MIN_VALUE;
+        for (LlmEndpoint endpoint : candidates) {
+            int weight = current.merge(endpoint, endpoint.weight(), Integer::sum);
+            total += endpoint.weight();
+            if (weight > bestWeight) {
+                best = endpoint;
+                bestWeight = weight;
+            }
+        }
+        current.put(best, bestWeight - total);
+        return best;
+    }
+}
@@ -0,0 +1,201 @@
+package com.halliday.ai.llm.sse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Chat Completions 流式分片的流式解析器。
+ * <p>
+ * 直接在事件字节上按 token 扫描，只取 {@code choices[0].delta.content}、{@code choices[0].finish_reason}、
+ * {@code usage}，以及 {@code id}/{@code model}/{@code created} 和 Ollama 原生接口的 {@code done} 统计字段，
+ * 其余内容跳过，不构建 {@code JsonNode} 树。元数据直接写入调用方传入的 Map。
+ * <p>
+ * 只含空白的增量视为没有内容，与原先逐行解析时的过滤一致；{@code usage} 按原样整体保留，包括其中的数组字段。
+ */
+public final class ChatCompletionChunkParser {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatCompletionChunkParser.class);
+
+    private static final Set<String> DONE_STATS = Set.of(
+            "total_duration", "load_duration", "prompt_eval_count",
+            "prompt_eval_duration", "eval_count", "eval_duration");
+
+    private final JsonFactory factory;
+
+    public ChatCompletionChunkParser(JsonFactory factory) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+    }
+
+    /**
+     * 解析一个事件。
+     *
+     * @param data     事件数据
+     * @param offset   起始下标
+     * @param length   字节数
+     * @param metadata 接收 finish_reason、usage 等元数据；首个分片中的 id/model 不会被后续分片覆盖
+     * @return 本分片的增量文本与是否收到 {@code done}
+     * @throws IOException JSON 格式不合法
+     */
+    public Chunk parse(byte[] data, int offset, int length, Map<String, Object> metadata) throws IOException {
+        String content = "";
+        boolean done = false;
+        String doneReason = null;
+        Map<String, Object> doneStats = null;
+        try (JsonParser parser = factory.createParser(data, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                log.trace("【Chat 分片解析】事件不是 JSON 对象，忽略");
+                return Chunk.EMPTY;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "choices" -> content = firstChoice(parser, value, metadata);
+                    case "usage" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            metadata.put("usage", readObject(parser));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "id", "model" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            metadata.putIfAbsent(field, parser.getText());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "created" -> {
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            metadata.put("created", parser.getLongValue());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "done" -> done = value == JsonToken.VALUE_TRUE;
+                    case "done_reason" -> doneReason = value == JsonToken.VALUE_STRING ? parser.getText() : "";
+                    default -> {
+                        if (value == JsonToken.VALUE_NUMBER_INT && DONE_STATS.contains(field)) {
+                            if (doneStats == null) {
+                                doneStats = new LinkedHashMap<>();
+                            }
+                            doneStats.put(field, parser.getLongValue());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+        }
+        if (done) {
+            metadata.put("done", true);
+            metadata.put("done_reason", doneReason == null ? "" : doneReason);
+            if (doneStats != null) {
+                metadata.putAll(doneStats);
+            }
+        }
+        if (content.isBlank()) {
+            content = "";
+        }
+        return content.isEmpty() && !done ? Chunk.EMPTY : new Chunk(content, done);
+    }
+
+    private String firstChoice(JsonParser parser, JsonToken value, Map<String, Object> metadata) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+        String content = "";
+        boolean first = true;
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY && element != null) {
+            if (!first || element != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            first = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken nested = parser.nextToken();
+                if ("delta".equals(field) && nested == JsonToken.START_OBJECT) {
+                    content = deltaContent(parser);
+                } else if ("finish_reason".equals(field) && nested == JsonToken.VALUE_STRING) {
+                    String finish = parser.getText();
+                    if (!finish.isBlank()) {
+                        metadata.put("finish_reason", finish);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return content;
+    }
+
+    private String deltaContent(JsonParser parser) throws IOException {
+        String content = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("content".equals(field) && value == JsonToken.VALUE_STRING) {
+                content = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return content;
+    }
+
+    private Map<String, Object> readObject(JsonParser parser) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            map.put(field, readValue(parser, parser.nextToken()));
+        }
+        return map;
+    }
+
+    private Object readValue(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case START_OBJECT -> readObject(parser);
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_STRING -> parser.getText();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case START_ARRAY -> readArray(parser);
+            default -> null;
+        };
+    }
+
+    private List<Object> readArray(JsonParser parser) throws IOException {
+        List<Object> list = new ArrayList<>();
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY && element != null) {
+            list.add(readValue(parser, element));
+        }
+        return list;
+    }
+
+    /**
+     * 单个分片的解析结果。
+     *
+     * @param content 增量文本，缺失或只含空白时为空字符串
+     * @param done    是否为 Ollama 原生接口的 {@code done} 分片
+     */
+    public record Chunk(String content, boolean done) {
+
+        static final Chunk EMPTY = new Chunk("", false);
+    }
+}
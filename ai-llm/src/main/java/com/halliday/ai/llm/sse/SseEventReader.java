@@ -0,0 +1,194 @@
+package com.halliday.ai.llm.sse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 字节级 SSE 分帧器：直接在 UTF-8 字节上按行切分，把同一事件内的 {@code data:} 行拼接后回调，
+ * 不为每一行创建 {@code String}。
+ * <p>
+ * 读缓冲与事件缓冲均在实例内复用，回调拿到的数组只在本次回调内有效。除标准 SSE 外，
+ * 也兼容以 <code>{</code> 开头的 NDJSON 行（每行即一个事件）。{@code event:}、{@code id:}、{@code retry:}
+ * 与注释行会被忽略。非线程安全。
+ */
+public final class SseEventReader {
+
+    private static final Logger log = LoggerFactory.getLogger(SseEventReader.class);
+
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    private static final byte[] DATA = {'d', 'a', 't', 'a'};
+    private static final byte[] DONE = {'[', 'D', 'O', 'N', 'E', ']'};
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int start;
+    private int end;
+    private byte[] line;
+    private int lineLength;
+    private byte[] event;
+    private int eventLength;
+    private boolean hasData;
+
+    public SseEventReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public SseEventReader(InputStream in, int bufferSize) {
+        this.in = Objects.requireNonNull(in, "in");
+        this.buffer = new byte[Math.max(256, bufferSize)];
+        this.line = new byte[256];
+        this.event = new byte[1024];
+    }
+
+    /**
+     * 事件回调。
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * @param data   事件数据（多行 {@code data:} 以 {@code \n} 拼接）
+         * @param offset 起始下标
+         * @param length 字节数
+         * @return {@code false} 表示停止读取
+         */
+        boolean onEvent(byte[] data, int offset, int length) throws IOException;
+    }
+
+    /**
+     * 持续读取直到流结束或回调要求停止；流结束时未以空行收尾的事件也会被回调。
+     *
+     * @return 是否因回调要求而提前停止
+     */
+    public boolean read(Handler handler) throws IOException {
+        Objects.requireNonNull(handler, "handler");
+        while (true) {
+            int newline = indexOfNewline();
+            if (newline < 0) {
+                appendLine(buffer, start, end - start);
+                start = end;
+                if (!fill()) {
+                    if (lineLength > 0 && !processLine(line, 0, lineLength, handler)) {
+                        return true;
+                    }
+                    lineLength = 0;
+                    return hasData && !dispatch(handler);
+                }
+                continue;
+            }
+            boolean keepGoing;
+            if (lineLength > 0) {
+                appendLine(buffer, start, newline - start);
+                keepGoing = processLine(line, 0, lineLength, handler);
+                lineLength = 0;
+            } else {
+                keepGoing = processLine(buffer, start, newline - start, handler);
+            }
+            start = newline + 1;
+            if (!keepGoing) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 判断事件数据是否为 OpenAI 风格的结束标记 {@code [DONE]}。
+     */
+    public static boolean isDone(byte[] data, int offset, int length) {
+        return length == DONE.length && Arrays.equals(data, offset, offset + length, DONE, 0, DONE.length);
+    }
+
+    private boolean processLine(byte[] src, int offset, int length, Handler handler) throws IOException {
+        if (length > 0 && src[offset + length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return !hasData || dispatch(handler);
+        }
+        byte first = src[offset];
+        if (first == ':') {
+            return true;
+        }
+        if (first == '{') {
+            // NDJSON：整行即一个完整事件
+            if (hasData && !dispatch(handler)) {
+                return false;
+            }
+            appendEvent(src, offset, length);
+            hasData = true;
+            return dispatch(handler);
+        }
+        if (length >= DATA.length && Arrays.equals(src, offset, offset + DATA.length, DATA, 0, DATA.length)) {
+            int value = offset + DATA.length;
+            int limit = offset + length;
+            if (value == limit || src[value] == ':') {
+                if (value < limit) {
+                    value++;
+                }
+                if (value < limit && src[value] == ' ') {
+                    value++;
+                }
+                if (hasData) {
+                    appendEvent(NEWLINE, 0, 1);
+                }
+                appendEvent(src, value, limit - value);
+                hasData = true;
+                return true;
+            }
+        }
+        log.trace("【SSE 解析】忽略非 data 字段，长度：{}", length);
+        return true;
+    }
+
+    private boolean dispatch(Handler handler) throws IOException {
+        int length = eventLength;
+        eventLength = 0;
+        hasData = false;
+        return handler.onEvent(event, 0, length);
+    }
+
+    private int indexOfNewline() {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean fill() throws IOException {
+        start = 0;
+        end = 0;
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        end = read;
+        return true;
+    }
+
+    private void appendLine(byte[] src, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(src, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void appendEvent(byte[] src, int offset, int length) {
+        if (eventLength + length > event.length) {
+            event = Arrays.copyOf(event, Math.max(event.length * 2, eventLength + length));
+        }
+        System.arraycopy(src, offset, event, eventLength, length);
+        eventLength += length;
+    }
+}
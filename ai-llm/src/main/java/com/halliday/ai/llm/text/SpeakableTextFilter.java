@@ -0,0 +1,352 @@
+package com.halliday.ai.llm.text;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 逐段过滤 LLM 增量中不应朗读的内容：推理块 {@code <think>...</think>}，以及可选的代码块、Markdown 标记、URL 与 emoji。
+ * <p>
+ * 过滤是增量进行的，只在无法判断时保留很短的尾部（不完整的标签、链接或 URL），不会缓存整段回复。
+ * 未闭合的推理块与代码块在 {@link #flush()} 时直接丢弃。每轮对话使用一个新实例，非线程安全。
+ */
+public final class SpeakableTextFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SpeakableTextFilter.class);
+
+    private static final String THINK_OPEN = "<think>";
+    private static final String THINK_CLOSE = "</think>";
+    private static final String FENCE = "```";
+    private static final String[] URL_PREFIXES = {"https://", "http://", "www."};
+    private static final int MAX_LINK_CHARS = 256;
+    private static final int MAX_URL_CHARS = 2_048;
+
+    private enum State {
+        TEXT,
+        REASONING,
+        CODE
+    }
+
+    private final boolean stripReasoning;
+    private final boolean stripCodeBlocks;
+    private final boolean stripMarkdown;
+    private final boolean stripUrls;
+    private final boolean stripEmoji;
+    private final StringBuilder pending = new StringBuilder();
+    private State state = State.TEXT;
+    private boolean lineStart = true;
+    private char previous = '\n';
+    private boolean started;
+    private long droppedChars;
+
+    /**
+     * @param stripReasoning  去掉 {@code <think>} 推理块
+     * @param stripCodeBlocks 去掉 {@code ```} 围起的代码块
+     * @param stripMarkdown   去掉强调、标题、列表、引用与行内代码标记，链接只保留文字
+     * @param stripUrls       去掉裸露的 URL
+     * @param stripEmoji      去掉 emoji 及其修饰符
+     */
+    public SpeakableTextFilter(boolean stripReasoning, boolean stripCodeBlocks, boolean stripMarkdown,
+                               boolean stripUrls, boolean stripEmoji) {
+        this.stripReasoning = stripReasoning;
+        this.stripCodeBlocks = stripCodeBlocks;
+        this.stripMarkdown = stripMarkdown;
+        this.stripUrls = stripUrls;
+        this.stripEmoji = stripEmoji;
+    }
+
+    /**
+     * 输入一段增量，返回其中已确定可以朗读的文本，可能为空字符串。
+     */
+    public String accept(String delta) {
+        if (delta == null || delta.isEmpty()) {
+            return "";
+        }
+        pending.append(delta);
+        return drain(false);
+    }
+
+    /**
+     * 输入结束，返回剩余可朗读的文本；未闭合的推理块与代码块被丢弃。
+     */
+    public String flush() {
+        String tail = drain(true);
+        if (state != State.TEXT) {
+            log.debug("【朗读过滤】回复结束时仍处于 {} 块内，丢弃未闭合内容", state);
+            state = State.TEXT;
+        }
+        if (droppedChars > 0) {
+            log.debug("【朗读过滤】本轮共过滤字符数：{}", droppedChars);
+        }
+        return tail;
+    }
+
+    /**
+     * 累计被过滤掉的字符数。
+     */
+    public long droppedChars() {
+        return droppedChars;
+    }
+
+    private String drain(boolean end) {
+        StringBuilder out = new StringBuilder(pending.length());
+        int length = pending.length();
+        int i = 0;
+        while (i < length) {
+            int next = switch (state) {
+                case REASONING -> skipBlock(i, THINK_CLOSE, end);
+                case CODE -> skipBlock(i, FENCE, end);
+                case TEXT -> text(i, out, end);
+            };
+            if (next < 0) {
+                break;
+            }
+            previous = pending.charAt(next - 1);
+            i = next;
+        }
+        if (i >= length) {
+            pending.setLength(0);
+        } else {
+            pending.delete(0, i);
+        }
+        return out.toString();
+    }
+
+    /**
+     * 在块内查找结束标记，返回结束标记之后的下标；找不到时保留可能是结束标记前缀的尾部并返回 -1。
+     */
+    private int skipBlock(int from, String close, boolean end) {
+        int idx = pending.indexOf(close, from);
+        if (idx >= 0) {
+            droppedChars += idx - from + close.length();
+            state = State.TEXT;
+            return idx + close.length();
+        }
+        int keep = end ? 0 : partialSuffix(from, close);
+        droppedChars += pending.length() - from - keep;
+        pending.delete(from, pending.length() - keep);
+        return -1;
+    }
+
+    /**
+     * 处理正文中的一个位置，返回下一个下标；需要更多输入才能判断时返回 -1。
+     */
+    private int text(int i, StringBuilder out, boolean end) {
+        char c = pending.charAt(i);
+        if (c == '<' && stripReasoning) {
+            int match = match(i, THINK_OPEN, end);
+            if (match > 0) {
+                state = State.REASONING;
+                droppedChars += THINK_OPEN.length();
+                return i + THINK_OPEN.length();
+            }
+            if (match < 0) {
+                return -1;
+            }
+        }
+        if (c == '`' && (stripCodeBlocks || stripMarkdown)) {
+            int match = stripCodeBlocks ? match(i, FENCE, end) : 0;
+            if (match > 0) {
+                state = State.CODE;
+                droppedChars += FENCE.length();
+                return i + FENCE.length();
+            }
+            if (match < 0) {
+                return -1;
+            }
+            if (stripMarkdown) {
+                droppedChars++;
+                return i + 1;
+            }
+        }
+        if (stripUrls && (c == 'h' || c == 'H' || c == 'w' || c == 'W')) {
+            int skipped = url(i, end);
+            if (skipped != 0) {
+                return skipped;
+            }
+        }
+        if (stripMarkdown) {
+            int handled = markdown(i, c, out, end);
+            if (handled != 0) {
+                return handled;
+            }
+        }
+        int codePoint = Character.codePointAt(pending, i);
+        if (Character.isHighSurrogate(c) && i + 1 >= pending.length() && !end) {
+            return -1;
+        }
+        int next = i + Character.charCount(codePoint);
+        if (stripEmoji && isEmoji(codePoint)) {
+            droppedChars += next - i;
+            return next;
+        }
+        emit(out, pending, i, next);
+        return next;
+    }
+
+    /**
+     * 处理 Markdown 标记：已处理返回下一个下标，需要更多输入返回 -1，不是标记返回 0。
+     */
+    private int markdown(int i, char c, StringBuilder out, boolean end) {
+        int length = pending.length();
+        if (c == '~') {
+            if (i + 1 >= length) {
+                return end ? 0 : -1;
+            }
+            if (pending.charAt(i + 1) == '~') {
+                droppedChars += 2;
+                return i + 2;
+            }
+        }
+        if (c == '*') {
+            // 两侧都是空白的星号是乘号或行首列表符号，只有紧贴文字的才是强调标记
+            char before = i > 0 ? pending.charAt(i - 1) : previous;
+            if (Character.isWhitespace(before)) {
+                if (i + 1 >= length) {
+                    return end ? 0 : -1;
+                }
+                if (Character.isWhitespace(pending.charAt(i + 1))) {
+                    if (lineStart && pending.charAt(i + 1) == ' ') {
+                        droppedChars += 2;
+                        return i + 2;
+                    }
+                    return 0;
+                }
+            }
+            droppedChars++;
+            return i + 1;
+        }
+        if (lineStart) {
+            if (c == '#' || c == '>') {
+                int j = i;
+                while (j < length && (pending.charAt(j) == c || pending.charAt(j) == ' ')) {
+                    j++;
+                }
+                if (j >= length && !end) {
+                    return -1;
+                }
+                droppedChars += j - i;
+                return j;
+            }
+            if (c == '-' || c == '+') {
+                if (i + 1 >= length && !end) {
+                    return -1;
+                }
+                if (i + 1 < length && pending.charAt(i + 1) == ' ') {
+                    droppedChars += 2;
+                    return i + 2;
+                }
+            }
+        }
+        if (c == '[') {
+            int close = pending.indexOf("]", i + 1);
+            int newline = pending.indexOf("\n", i + 1);
+            if (close < 0 || (newline >= 0 && newline < close)) {
+                boolean undecided = close < 0 && newline < 0 && length - i < MAX_LINK_CHARS;
+                return undecided && !end ? -1 : 0;
+            }
+            if (close + 1 >= length) {
+                return end ? 0 : -1;
+            }
+            if (pending.charAt(close + 1) != '(') {
+                return 0;
+            }
+            int paren = pending.indexOf(")", close + 2);
+            if (paren < 0) {
+                return !end && length - i < MAX_LINK_CHARS ? -1 : 0;
+            }
+            emit(out, pending, i + 1, close);
+            droppedChars += (paren + 1 - i) - (close - i - 1);
+            return paren + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * 跳过 URL：已跳过返回下一个下标，需要更多输入返回 -1，不是 URL 返回 0。
+     */
+    private int url(int i, boolean end) {
+        if (i > 0 && Character.isLetterOrDigit(pending.charAt(i - 1))) {
+            return 0;
+        }
+        int length = pending.length();
+        for (String prefix : URL_PREFIXES) {
+            int available = Math.min(prefix.length(), length - i);
+            if (!pending.substring(i, i + available).equalsIgnoreCase(prefix.substring(0, available))) {
+                continue;
+            }
+            if (available < prefix.length()) {
+                return end ? 0 : -1;
+            }
+            int j = i + prefix.length();
+            while (j < length && !Character.isWhitespace(pending.charAt(j))) {
+                j++;
+            }
+            if (j >= length && !end && j - i < MAX_URL_CHARS) {
+                return -1;
+            }
+            // 句末标点属于句子而不是 URL
+            while (j > i + prefix.length() && isTrailingPunctuation(pending.charAt(j - 1))) {
+                j--;
+            }
+            droppedChars += j - i;
+            return j;
+        }
+        return 0;
+    }
+
+    /**
+     * 判断位置 {@code i} 是否为 {@code token}：完整匹配返回 1，可能匹配但输入不足返回 -1，不匹配返回 0。
+     */
+    private int match(int i, String token, boolean end) {
+        int available = Math.min(token.length(), pending.length() - i);
+        for (int k = 0; k < available; k++) {
+            if (pending.charAt(i + k) != token.charAt(k)) {
+                return 0;
+            }
+        }
+        if (available == token.length()) {
+            return 1;
+        }
+        return end ? 0 : -1;
+    }
+
+    /**
+     * 尾部可能是 {@code token} 前缀的字符数。
+     */
+    private int partialSuffix(int from, String token) {
+        int length = pending.length();
+        for (int keep = Math.min(token.length() - 1, length - from); keep > 0; keep--) {
+            if (token.startsWith(pending.substring(length - keep))) {
+                return keep;
+            }
+        }
+        return 0;
+    }
+
+    private void emit(StringBuilder out, CharSequence source, int from, int to) {
+        for (int k = from; k < to; k++) {
+            char ch = source.charAt(k);
+            if (!started && Character.isWhitespace(ch)) {
+                // 去掉推理块之后残留的前导空白
+                continue;
+            }
+            started = true;
+            out.append(ch);
+            lineStart = ch == '\n' || (lineStart && (ch == ' ' || ch == '\t'));
+        }
+    }
+
+    private static boolean isTrailingPunctuation(char c) {
+        return c == '.' || c == ',' || c == ';' || c == ':' || c == '!' || c == '?' || c == ')';
+    }
+
+    static boolean isEmoji(int codePoint) {
+        return (codePoint >= 0x1F000 && codePoint <= 0x1FAFF)
+                || (codePoint >= 0x2600 && codePoint <= 0x27BF)
+                || (codePoint >= 0x2B00 && codePoint <= 0x2BFF)
+                || (codePoint >= 0xE0020 && codePoint <= 0xE007F)
+                || codePoint == 0xFE0F
+                || codePoint == 0x200D
+                || codePoint == 0x20E3;
+    }
+}
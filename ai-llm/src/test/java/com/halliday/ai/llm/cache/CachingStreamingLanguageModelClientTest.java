@@ -0,0 +1,108 @@
+package com.halliday.ai.llm.cache;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.llm.config.LlmCacheProperties;
+import com.halliday.ai.llm.core.ChatStream;
+import com.halliday.ai.llm.core.FakeUpstream;
+import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import static com.halliday.ai.llm.core.FakeUpstream.subscribe;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingStreamingLanguageModelClientTest {
+
+    private static final List<ConversationMessage> HELLO = List.of(ConversationMessage.user("Hello!"));
+
+    @Test
+    void replaysCachedAnswerAsDeltas() {
+        FakeUpstream upstream = new FakeUpstream();
+        CachingStreamingLanguageModelClient client = newClient(upstream);
+
+        List<String> first = new ArrayList<>();
+        ChatStream miss = client.streamChatAsync(HELLO);
+        subscribe(miss, first);
+        upstream.streams.get(0).emit("Hi there, ");
+        upstream.streams.get(0).emit("how can I help?");
+        upstream.streams.get(0).complete(new StreamingLanguageModelClient.Completion("Hi there, how can I help?",
+                Map.of("finish_reason", "stop")));
+        assertEquals("miss", miss.completion().join().metadata().get("cache"));
+
+        List<String> replayed = new ArrayList<>();
+        ChatStream hit = client.streamChatAsync(List.of(ConversationMessage.user("hello")));
+        subscribe(hit, replayed);
+
+        assertEquals(1, upstream.streams.size());
+        assertTrue(replayed.size() > 1);
+        assertEquals("Hi there, how can I help?", String.join("", replayed));
+        assertEquals("hit", hit.completion().join().metadata().get("cache"));
+        assertEquals(1, client.hits());
+        assertEquals(1, client.misses());
+        assertEquals(0.5, client.hitRatio());
+    }
+
+    @Test
+    void coalescesConcurrentIdenticalRequests() {
+        FakeUpstream upstream = new FakeUpstream();
+        CachingStreamingLanguageModelClient client = newClient(upstream);
+
+        List<String> leaderItems = new ArrayList<>();
+        ChatStream leader = client.streamChatAsync(HELLO);
+        subscribe(leader, leaderItems);
+        upstream.streams.get(0).emit("Hi ");
+
+        List<String> followerItems = new ArrayList<>();
+        ChatStream follower = client.streamChatAsync(HELLO);
+        subscribe(follower, followerItems);
+        upstream.streams.get(0).emit("there");
+        upstream.streams.get(0).complete(new StreamingLanguageModelClient.Completion("Hi there", Map.of()));
+
+        assertEquals(1, upstream.streams.size());
+        assertEquals(List.of("Hi ", "there"), leaderItems);
+        assertEquals(List.of("Hi ", "there"), followerItems);
+        assertEquals("coalesced", follower.completion().join().metadata().get("cache"));
+        assertEquals(1, client.coalesced());
+    }
+
+    @Test
+    void cancelsUpstreamOnlyWhenAllParticipantsLeave() {
+        FakeUpstream upstream = new FakeUpstream();
+        CachingStreamingLanguageModelClient client = newClient(upstream);
+
+        ChatStream leader = client.streamChatAsync(HELLO);
+        ChatStream follower = client.streamChatAsync(HELLO);
+        leader.cancel();
+        assertFalse(upstream.streams.get(0).isCancelled());
+        follower.cancel();
+        assertTrue(upstream.streams.get(0).isCancelled());
+        assertThrows(CancellationException.class, () -> follower.completion().join());
+
+        client.streamChatAsync(HELLO);
+        assertEquals(2, upstream.streams.size());
+    }
+
+    @Test
+    void doesNotCacheTruncatedAnswers() {
+        FakeUpstream upstream = new FakeUpstream();
+        CachingStreamingLanguageModelClient client = newClient(upstream);
+
+        ChatStream first = client.streamChatAsync(HELLO);
+        subscribe(first, new ArrayList<>());
+        upstream.streams.get(0).complete(new StreamingLanguageModelClient.Completion("Hi th",
+                Map.of("finish_reason", "length")));
+        first.completion().join();
+
+        client.streamChatAsync(HELLO);
+        assertEquals(2, upstream.streams.size());
+        assertEquals(0, client.size());
+    }
+
+    private static CachingStreamingLanguageModelClient newClient(FakeUpstream upstream) {
+        return new CachingStreamingLanguageModelClient(upstream, new LlmCacheProperties(), "qwen", "Be brief.");
+    }
+}
@@ -0,0 +1,91 @@
+package com.halliday.ai.llm.cache;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    @Test
+    void keyIgnoresCaseWhitespaceAndTrailingPunctuation() {
+        String a = ResponseCache.keyOf("m", "Be brief.", List.of(ConversationMessage.user("Hello!")), 2);
+        String b = ResponseCache.keyOf("m", "be  brief", List.of(ConversationMessage.user("  hello ")), 2);
+        String other = ResponseCache.keyOf("m2", "Be brief.", List.of(ConversationMessage.user("Hello!")), 2);
+
+        assertNotNull(a);
+        assertEquals(a, b);
+        assertNotEquals(a, other);
+    }
+
+    @Test
+    void keyIncludesRecentContextOnly() {
+        List<ConversationMessage> first = List.of(
+                ConversationMessage.user("tell me a joke"),
+                ConversationMessage.assistant("Why did the chicken cross the road?"),
+                ConversationMessage.user("why?"));
+        List<ConversationMessage> second = List.of(
+                ConversationMessage.user("what is the weather"),
+                ConversationMessage.assistant("It is sunny."),
+                ConversationMessage.user("why?"));
+
+        assertNotEquals(ResponseCache.keyOf("m", "", first, 1), ResponseCache.keyOf("m", "", second, 1));
+        assertEquals(ResponseCache.keyOf("m", "", first, 0), ResponseCache.keyOf("m", "", second, 0));
+        assertNull(ResponseCache.keyOf("m", "", List.of(ConversationMessage.assistant("hi")), 2));
+    }
+
+    @Test
+    void negativeContextKeysOnFullHistory() {
+        List<ConversationMessage> first = List.of(
+                ConversationMessage.user("my name is alice"),
+                ConversationMessage.assistant("Nice to meet you."),
+                ConversationMessage.user("tell me a joke"),
+                ConversationMessage.assistant("Why did the chicken cross the road?"),
+                ConversationMessage.user("why?"));
+        List<ConversationMessage> second = List.of(
+                ConversationMessage.user("my name is bob"),
+                ConversationMessage.assistant("Nice to meet you."),
+                ConversationMessage.user("tell me a joke"),
+                ConversationMessage.assistant("Why did the chicken cross the road?"),
+                ConversationMessage.user("why?"));
+
+        assertEquals(ResponseCache.keyOf("m", "", first, 2), ResponseCache.keyOf("m", "", second, 2));
+        assertNotEquals(ResponseCache.keyOf("m", "", first, -1), ResponseCache.keyOf("m", "", second, -1));
+        assertEquals(ResponseCache.keyOf("m", "", first, -1), ResponseCache.keyOf("m", "", List.copyOf(first), -1));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenBoundsExceeded() {
+        ResponseCache cache = new ResponseCache(2, 100, 60_000, () -> 0);
+        cache.put("a", "aaaa", Map.of());
+        cache.put("b", "bbbb", Map.of());
+        assertNotNull(cache.get("a"));
+        cache.put("c", "cccc", Map.of());
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.evictions());
+
+        cache.put("d", "d".repeat(97), Map.of());
+        assertEquals(1, cache.size());
+        assertEquals(97, cache.totalChars());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        ResponseCache cache = new ResponseCache(10, 100, 1_000, now::get);
+        cache.put("a", "answer", Map.of("model", "m"));
+        now.set(999);
+        assertEquals("answer", cache.get("a").text());
+        now.set(1_000);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.totalChars());
+    }
+}
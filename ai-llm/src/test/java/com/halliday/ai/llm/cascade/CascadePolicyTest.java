@@ -0,0 +1,68 @@
+package com.halliday.ai.llm.cascade;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.llm.config.ModelCascadeProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CascadePolicyTest {
+
+    private final CascadePolicy policy = defaultPolicy();
+
+    @Test
+    void routesSimplePhrasesToSmallModel() {
+        assertSmall("Yes.", "phrase");
+        assertSmall("  Thanks!  ", "phrase");
+        assertSmall("Repeat that?", "phrase");
+        assertSmall("谢谢", "phrase");
+        assertSmall("sounds good to me", "short");
+    }
+
+    @Test
+    void escalatesLongOrKeywordUtterances() {
+        assertLarge("Can you tell me about the history of the Roman empire in detail please", "length");
+        assertLarge("why is the sky blue", "keyword");
+        assertLarge("write a poem", "keyword");
+        assertLarge("这个为什么不行", "keyword");
+        // 整词匹配，"however" 不命中 "how"
+        assertSmall("however you like", "short");
+    }
+
+    @Test
+    void escalatesWhenClassifierScoreReachesThreshold() {
+        assertLarge("what is 17 times 23", "classifier");
+        CascadePolicy custom = new CascadePolicy(48, 8, List.of(), List.of(), 0.5, text -> 0.9);
+        CascadePolicy.Decision decision = custom.decide(List.of(ConversationMessage.user("hi")));
+        assertFalse(decision.small());
+        assertEquals(0.9, decision.score());
+    }
+
+    @Test
+    void sendsNonUserTurnsToLargeModel() {
+        assertFalse(policy.decide(List.of()).small());
+        assertFalse(policy.decide(List.of(ConversationMessage.user("hi"), ConversationMessage.assistant("hello")))
+                .small());
+        assertTrue(CascadePolicy.heuristicScore("yes") < CascadePolicy.heuristicScore("what about tomorrow, at 5"));
+    }
+
+    private void assertSmall(String text, String reason) {
+        CascadePolicy.Decision decision = policy.decide(List.of(ConversationMessage.user(text)));
+        assertTrue(decision.small(), text);
+        assertEquals(reason, decision.reason(), text);
+    }
+
+    private void assertLarge(String text, String reason) {
+        CascadePolicy.Decision decision = policy.decide(List.of(ConversationMessage.user(text)));
+        assertFalse(decision.small(), text);
+        assertEquals(reason, decision.reason(), text);
+    }
+
+    private static CascadePolicy defaultPolicy() {
+        ModelCascadeProperties properties = new ModelCascadeProperties();
+        return new CascadePolicy(properties.getMaxChars(), properties.getMaxWords(), properties.getSimplePhrases(),
+                properties.getEscalateKeywords(), properties.getClassifierThreshold(), null);
+    }
+}
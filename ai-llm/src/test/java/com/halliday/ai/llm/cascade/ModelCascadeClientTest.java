@@ -0,0 +1,96 @@
+package com.halliday.ai.llm.cascade;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.llm.core.ChatStream;
+import com.halliday.ai.llm.core.FakeUpstream;
+import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.halliday.ai.llm.core.FakeUpstream.subscribe;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelCascadeClientTest {
+
+    private static final List<ConversationMessage> THANKS = List.of(ConversationMessage.user("thanks"));
+
+    @Test
+    void answersSimpleUtteranceWithSmallModel() {
+        FakeUpstream small = new FakeUpstream();
+        FakeUpstream large = new FakeUpstream();
+        ModelCascadeClient client = newClient(small, large);
+
+        List<String> items = new ArrayList<>();
+        ChatStream stream = client.streamChatAsync(THANKS);
+        subscribe(stream, items);
+        small.streams.get(0).emit("[");
+        assertTrue(items.isEmpty());
+        small.streams.get(0).emit("You're welcome");
+        small.streams.get(0).emit("!");
+        small.streams.get(0).complete(new StreamingLanguageModelClient.Completion("[You're welcome!", Map.of()));
+
+        assertEquals(List.of("[You're welcome", "!"), items);
+        assertEquals("small", stream.completion().join().metadata().get("cascade"));
+        assertTrue(large.streams.isEmpty());
+        assertEquals(1, client.small());
+    }
+
+    @Test
+    void escalatesWhenSmallModelDeclines() {
+        FakeUpstream small = new FakeUpstream();
+        FakeUpstream large = new FakeUpstream();
+        ModelCascadeClient client = newClient(small, large);
+
+        List<String> items = new ArrayList<>();
+        ChatStream stream = client.streamChatAsync(THANKS);
+        subscribe(stream, items);
+        small.streams.get(0).emit("<think>\n\n</think>\n\n[ESC");
+        small.streams.get(0).emit("ALATE]");
+
+        assertTrue(small.streams.get(0).isCancelled());
+        assertEquals(1, large.streams.size());
+        large.streams.get(0).emit("Sure.");
+        large.streams.get(0).complete(new StreamingLanguageModelClient.Completion("Sure.", Map.of()));
+
+        assertEquals(List.of("Sure."), items);
+        assertEquals("escalated", stream.completion().join().metadata().get("cascade"));
+        assertEquals(1, client.escalated());
+    }
+
+    @Test
+    void fallsBackToLargeModelWhenSmallModelFails() {
+        FakeUpstream small = new FakeUpstream();
+        FakeUpstream large = new FakeUpstream();
+        ModelCascadeClient client = newClient(small, large);
+
+        ChatStream stream = client.streamChatAsync(THANKS);
+        subscribe(stream, new ArrayList<>());
+        small.streams.get(0).fail(new IllegalStateException("boom"));
+        large.streams.get(0).complete(new StreamingLanguageModelClient.Completion("OK.", Map.of()));
+
+        assertEquals("fallback", stream.completion().join().metadata().get("cascade"));
+        assertEquals(1, client.fallback());
+    }
+
+    @Test
+    void sendsComplexUtteranceStraightToLargeModelAndCancelsIt() {
+        FakeUpstream small = new FakeUpstream();
+        FakeUpstream large = new FakeUpstream();
+        ModelCascadeClient client = newClient(small, large);
+
+        ChatStream stream = client.streamChatAsync(List.of(ConversationMessage.user("explain quantum tunnelling")));
+        assertTrue(small.streams.isEmpty());
+        assertEquals(1, large.streams.size());
+        stream.cancel();
+        assertTrue(large.streams.get(0).isCancelled());
+        assertEquals(1, client.large());
+    }
+
+    private static ModelCascadeClient newClient(FakeUpstream small, FakeUpstream large) {
+        CascadePolicy policy = new CascadePolicy(48, 8, List.of("thanks"), List.of("explain"), 0.6, null);
+        return new ModelCascadeClient(small, large, policy, "[ESCALATE]");
+    }
+}
@@ -0,0 +1,134 @@
+package com.halliday.ai.llm.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedChatStreamTest {
+
+    @Test
+    void deliversOnlyRequestedItemsThenCompletes() {
+        BufferedChatStream stream = new BufferedChatStream(8, () -> { });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        stream.subscribe(subscriber);
+        stream.emit("a");
+        stream.emit("b");
+        stream.complete(new StreamingLanguageModelClient.Completion("ab", Map.of()));
+
+        assertEquals(List.of(), subscriber.items);
+        subscriber.subscription.request(1);
+        assertEquals(List.of("a"), subscriber.items);
+        assertFalse(stream.completion().isDone());
+
+        subscriber.subscription.request(5);
+        assertEquals(List.of("a", "b"), subscriber.items);
+        assertTrue(subscriber.completed);
+        assertEquals("ab", stream.completion().join().text());
+    }
+
+    @Test
+    void drainBlocksUntilCompletionAndRethrowsFailures() {
+        BufferedChatStream stream = new BufferedChatStream(8, () -> { });
+        stream.emit("a");
+        stream.emit("b");
+        stream.complete(new StreamingLanguageModelClient.Completion("ab", Map.of()));
+        List<String> items = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        stream.drain(items::add, completion -> texts.add(completion.text()));
+        assertEquals(List.of("a", "b"), items);
+        assertEquals(List.of("ab"), texts);
+
+        BufferedChatStream failing = new BufferedChatStream(8, () -> { });
+        failing.fail(new IllegalStateException("boom"));
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> failing.drain(item -> { }, completion -> fail("must not complete")));
+        assertEquals("boom", ex.getMessage());
+    }
+
+    @Test
+    void cancelAbortsUpstreamAndUnblocksProducer() throws Exception {
+        AtomicInteger aborted = new AtomicInteger();
+        BufferedChatStream stream = new BufferedChatStream(1, aborted::incrementAndGet);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        stream.subscribe(subscriber);
+        stream.emit("first");
+
+        CountDownLatch producerDone = new CountDownLatch(1);
+        AtomicBoolean accepted = new AtomicBoolean(true);
+        Thread producer = Thread.ofVirtual().start(() -> {
+            accepted.set(stream.emit("blocked"));
+            producerDone.countDown();
+        });
+        assertFalse(producerDone.await(100, TimeUnit.MILLISECONDS), "producer should block on a full buffer");
+
+        subscriber.subscription.cancel();
+        assertTrue(producerDone.await(1, TimeUnit.SECONDS));
+        producer.join();
+        assertFalse(accepted.get());
+        assertEquals(1, aborted.get());
+        assertTrue(stream.isCancelled());
+        assertThrows(CancellationException.class, () -> stream.completion().join());
+        stream.cancel();
+        assertEquals(1, aborted.get());
+    }
+
+    @Test
+    void propagatesFailureAfterBufferedItems() {
+        BufferedChatStream stream = new BufferedChatStream(8, () -> { });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        stream.subscribe(subscriber);
+        stream.emit("partial");
+        stream.fail(new IllegalStateException("boom"));
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(List.of("partial"), subscriber.items);
+        assertInstanceOf(IllegalStateException.class, subscriber.error);
+        assertTrue(stream.completion().isCompletedExceptionally());
+    }
+
+    @Test
+    void rejectsSecondSubscriber() {
+        BufferedChatStream stream = new BufferedChatStream(8, () -> { });
+        stream.subscribe(new RecordingSubscriber());
+        RecordingSubscriber second = new RecordingSubscriber();
+        stream.subscribe(second);
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<String> {
+        private final List<String> items = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(String item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.halliday.ai.llm.core;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * 测试用上游客户端：每次异步请求创建一个 {@link BufferedChatStream} 并记录在 {@link #streams} 中，由测试手动推送增量与结果。
+ */
+public final class FakeUpstream implements StreamingLanguageModelClient {
+
+    public final List<BufferedChatStream> streams = new ArrayList<>();
+
+    @Override
+    public void streamChat(List<ConversationMessage> history,
+                           Consumer<String> onDelta,
+                           Consumer<Completion> onComplete) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ChatStream streamChatAsync(List<ConversationMessage> history) {
+        BufferedChatStream stream = new BufferedChatStream(64, () -> { });
+        streams.add(stream);
+        return stream;
+    }
+
+    /**
+     * 订阅并请求全部增量，收到的增量依次写入 {@code sink}。
+     */
+    public static void subscribe(ChatStream stream, List<String> sink) {
+        stream.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String item) {
+                sink.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.halliday.ai.llm.limit;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.llm.core.BufferedChatStream;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import com.halliday.ai.llm.core.ChatStream;
+import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import com.halliday.ai.llm.prefill.PrefillTracker;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitedStreamingLanguageModelClientTest {
+
+    private static final StreamingLanguageModelClient FAILING = new StreamingLanguageModelClient() {
+        @Override
+        public void streamChat(List<ConversationMessage> history,
+                               Consumer<String> onDelta,
+                               Consumer<Completion> onComplete) {
+            throw new AiServiceException("model not found");
+        }
+
+        @Override
+        public ChatStream streamChatAsync(List<ConversationMessage> history) {
+            BufferedChatStream stream = new BufferedChatStream(1, () -> { });
+            stream.fail(new AiServiceException("model not found"));
+            return stream;
+        }
+    };
+
+    @Test
+    void failuresShrinkTheSharedLimitOnlyWhenDropping() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 1, 40, 1.5, 0.2, 0.5);
+        FairRequestScheduler scheduler = new FairRequestScheduler(limit, 16, 60_000);
+
+        StreamingLanguageModelClient fallbackable = new ConcurrencyLimitedStreamingLanguageModelClient(FAILING,
+                scheduler, false);
+        assertThrows(CompletionException.class, () -> drain(fallbackable.streamChatAsync(List.of(),
+                ChatRequestOptions.DEFAULT)));
+        assertEquals(20, scheduler.limit());
+        assertEquals(0, scheduler.inFlight());
+
+        StreamingLanguageModelClient dropping = new ConcurrencyLimitedStreamingLanguageModelClient(FAILING, scheduler);
+        assertThrows(CompletionException.class, () -> drain(dropping.streamChatAsync(List.of(),
+                ChatRequestOptions.DEFAULT)));
+        assertTrue(scheduler.limit() < 20);
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void prefillIsSkippedAndCountedWhenSaturated() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(1, 1, 1, 1.5, 0.2, 0.5);
+        FairRequestScheduler scheduler = new FairRequestScheduler(limit, 16, 60_000);
+        PrefillTracker tracker = new PrefillTracker(60_000);
+        StreamingLanguageModelClient client = new ConcurrencyLimitedStreamingLanguageModelClient(FAILING,
+                scheduler, true, tracker);
+
+        FairRequestScheduler.Permit permit = scheduler.acquire(ChatRequestOptions.DEFAULT).join();
+        assertFalse(client.prefill(List.of(), ChatRequestOptions.DEFAULT).join());
+        assertEquals(1, tracker.skipped());
+        permit.release();
+    }
+
+    private static void drain(ChatStream stream) {
+        stream.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        stream.completion().orTimeout(5, TimeUnit.SECONDS).join();
+    }
+}
@@ -0,0 +1,100 @@
+package com.halliday.ai.llm.limit;
+
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairRequestSchedulerTest {
+
+    @Test
+    void rotatesBetweenSessionsWhenSaturated() {
+        FairRequestScheduler scheduler = newScheduler(1, 16);
+        FairRequestScheduler.Permit running = scheduler.acquire(ChatRequestOptions.forSession("a")).join();
+
+        List<String> order = new ArrayList<>();
+        ArrayDeque<FairRequestScheduler.Permit> granted = new ArrayDeque<>();
+        for (String key : List.of("a", "a", "a", "b", "c")) {
+            scheduler.acquire(ChatRequestOptions.forSession(key)).thenAccept(permit -> {
+                order.add(key);
+                granted.add(permit);
+            });
+        }
+        assertEquals(5, scheduler.queued());
+
+        running.release();
+        while (!granted.isEmpty()) {
+            granted.poll().release();
+        }
+        assertEquals(List.of("a", "b", "c", "a", "a"), order);
+        assertEquals(0, scheduler.queued());
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void continuationsJumpTheQueue() {
+        FairRequestScheduler scheduler = newScheduler(1, 16);
+        FairRequestScheduler.Permit running = scheduler.acquire(ChatRequestOptions.forSession("a")).join();
+        CompletableFuture<FairRequestScheduler.Permit> fresh = scheduler.acquire(ChatRequestOptions.forSession("b"));
+        CompletableFuture<FairRequestScheduler.Permit> continuation =
+                scheduler.acquire(ChatRequestOptions.forSession("c").asContinuation());
+
+        running.release();
+        assertTrue(continuation.isDone());
+        assertFalse(fresh.isDone());
+        continuation.join().release();
+        assertTrue(fresh.isDone());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFullAndSkipsCancelledWaiters() {
+        FairRequestScheduler scheduler = newScheduler(1, 1);
+        FairRequestScheduler.Permit running = scheduler.acquire(ChatRequestOptions.forSession("a")).join();
+        CompletableFuture<FairRequestScheduler.Permit> queued = scheduler.acquire(ChatRequestOptions.forSession("b"));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> scheduler.acquire(ChatRequestOptions.forSession("c")).join());
+        assertInstanceOf(AiServiceException.class, ex.getCause());
+        assertEquals(1, scheduler.rejected());
+
+        queued.cancel(false);
+        assertEquals(0, scheduler.queued());
+        running.release();
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void adaptsLimitToLatency() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(4, 1, 32, 1.5, 0.5, 0.9);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(100_000_000L, limit.limit());
+        }
+        int grown = limit.limit();
+        assertTrue(grown > 4, "steady latency should let the limit grow: " + grown);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(600_000_000L, limit.limit());
+        }
+        assertTrue(limit.limit() < grown, "rising latency should shrink the limit");
+
+        int beforeDrop = limit.limit();
+        limit.onDropped();
+        assertTrue(limit.limit() <= beforeDrop);
+
+        GradientConcurrencyLimit idle = new GradientConcurrencyLimit(8, 1, 32, 1.5, 0.5, 0.9);
+        idle.onSample(100_000_000L, 1);
+        assertEquals(8, idle.limit());
+    }
+
+    private static FairRequestScheduler newScheduler(int limit, int maxQueueSize) {
+        return new FairRequestScheduler(new GradientConcurrencyLimit(limit, limit, limit, 1.5, 0.2, 0.9),
+                maxQueueSize, 60_000);
+    }
+}
@@ -0,0 +1,40 @@
+package com.halliday.ai.llm.ollama;
+
+import com.halliday.ai.common.conversation.ConversationMessage;
+import com.halliday.ai.common.conversation.ConversationRole;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaStreamingChatClientTest {
+
+    private static final List<ConversationMessage> HELLO = List.of(
+            new ConversationMessage(ConversationRole.SYSTEM, "You are helpful."),
+            new ConversationMessage(ConversationRole.USER, "hello"));
+
+    @Test
+    void sessionKeyDecidesAffinityRegardlessOfOpeningWords() {
+        String first = OllamaStreamingChatClient.affinityKey(HELLO, ChatRequestOptions.forSession("ws-1"));
+        String second = OllamaStreamingChatClient.affinityKey(HELLO, ChatRequestOptions.forSession("ws-2"));
+        assertNotEquals(first, second, "same opening words, different sessions");
+
+        List<ConversationMessage> later = List.of(HELLO.get(0), HELLO.get(1),
+                new ConversationMessage(ConversationRole.ASSISTANT, "Hi!"),
+                new ConversationMessage(ConversationRole.USER, "what time is it?"));
+        assertEquals(first, OllamaStreamingChatClient.affinityKey(later, ChatRequestOptions.forSession("ws-1")));
+        assertEquals(first, OllamaStreamingChatClient.affinityKey(List.of(), ChatRequestOptions.forSession("ws-1")),
+                "first turn already has a key");
+    }
+
+    @Test
+    void withoutSessionKeyFallsBackToHistoryHash() {
+        String key = OllamaStreamingChatClient.affinityKey(HELLO, ChatRequestOptions.DEFAULT);
+        assertFalse(key.isEmpty());
+        assertFalse(key.contains("hello"), "key is a hash, not the user's words");
+        assertEquals(key, OllamaStreamingChatClient.affinityKey(HELLO, null));
+        assertEquals("", OllamaStreamingChatClient.affinityKey(List.of(HELLO.get(0)), null));
+    }
+}
@@ -0,0 +1,39 @@
+package com.halliday.ai.llm.prefill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefillTrackerTest {
+
+    @Test
+    void warmPrefixIsConsumedOnceWithinTtl() {
+        AtomicLong now = new AtomicLong(1_000);
+        PrefillTracker tracker = new PrefillTracker(5_000, now::get);
+
+        tracker.markWarm("hello");
+        now.addAndGet(4_000);
+        assertTrue(tracker.consume("hello"));
+        assertFalse(tracker.consume("hello"));
+
+        tracker.markWarm("bye");
+        now.addAndGet(5_000);
+        assertFalse(tracker.consume("bye"));
+        assertEquals(2, tracker.sent());
+    }
+
+    @Test
+    void separatesFirstTokenLatencyByPrefill() {
+        PrefillTracker tracker = new PrefillTracker(5_000);
+        tracker.recordFirstToken(true, 100);
+        tracker.recordFirstToken(true, 200);
+        tracker.recordFirstToken(false, 900);
+
+        assertEquals(2, tracker.firstTokenCount(true));
+        assertEquals(150.0, tracker.meanFirstTokenMs(true));
+        assertEquals(900.0, tracker.meanFirstTokenMs(false));
+        assertEquals(0, tracker.skipped());
+    }
+}
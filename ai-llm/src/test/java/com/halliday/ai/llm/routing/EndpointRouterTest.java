@@ -0,0 +1,67 @@
+package com.halliday.ai.llm.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointRouterTest {
+
+    private final LlmEndpoint a = new LlmEndpoint("http://a:3000/v1/chat/completions", "", 5, 3, 10_000);
+    private final LlmEndpoint b = new LlmEndpoint("http://b:3000/v1/chat/completions", "", 1, 3, 10_000);
+    private final LlmEndpoint c = new LlmEndpoint("http://c:3000/v1/chat/completions", "", 1, 3, 10_000);
+
+    @Test
+    void weightedRoundRobinInterleavesByWeight() {
+        EndpointRouter router = RoutingStrategy.WEIGHTED_ROUND_ROBIN.newRouter(List.of(a, b, c));
+        StringBuilder sequence = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            sequence.append(router.select(List.of(a, b, c), "").name().charAt(0));
+        }
+        assertEquals("aabacaa", sequence.toString());
+    }
+
+    @Test
+    void leastOutstandingPrefersLessLoadedEndpoint() {
+        EndpointRouter router = RoutingStrategy.LEAST_OUTSTANDING.newRouter(List.of(b, c));
+        b.acquire();
+        b.acquire();
+        c.acquire();
+        for (int i = 0; i < 4; i++) {
+            assertSame(c, router.select(List.of(b, c), ""));
+        }
+        b.release();
+        b.release();
+        assertSame(b, router.select(List.of(b, c), ""));
+    }
+
+    @Test
+    void consistentHashKeepsAffinityAndMovesOnlyFailedKeys() {
+        EndpointRouter router = RoutingStrategy.CONSISTENT_HASH.newRouter(List.of(a, b, c));
+        Map<String, LlmEndpoint> before = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            String key = "conversation-" + i;
+            before.put(key, router.select(List.of(a, b, c), key));
+            assertSame(before.get(key), router.select(List.of(a, b, c), key));
+        }
+        assertTrue(before.containsValue(b));
+
+        for (Map.Entry<String, LlmEndpoint> entry : before.entrySet()) {
+            LlmEndpoint after = router.select(List.of(a, c), entry.getKey());
+            if (entry.getValue() != b) {
+                assertSame(entry.getValue(), after);
+            } else {
+                assertNotSame(b, after);
+            }
+        }
+    }
+
+    @Test
+    void endpointNameUsesHostAndPort() {
+        assertEquals("a:3000", a.name());
+        assertEquals("llm:a:3000", a.health().target());
+    }
+}
@@ -0,0 +1,59 @@
+package com.halliday.ai.llm.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgePolicyTest {
+
+    @Test
+    void usesMaxDelayUntilEnoughSamples() {
+        HedgePolicy policy = new HedgePolicy(0.95, 100, 3_000, 0.1);
+        for (int i = 0; i < HedgePolicy.MIN_SAMPLES - 1; i++) {
+            policy.recordFirstToken(200);
+        }
+        assertEquals(3_000, policy.delayMs());
+        policy.recordFirstToken(200);
+        assertEquals(200, policy.delayMs());
+    }
+
+    @Test
+    void delayTracksPercentileWithinBounds() {
+        HedgePolicy policy = new HedgePolicy(0.95, 100, 3_000, 0.1);
+        for (int i = 1; i <= 100; i++) {
+            policy.recordFirstToken(i * 10L);
+        }
+        assertEquals(950, policy.delayMs());
+
+        HedgePolicy clamped = new HedgePolicy(0.95, 500, 800, 0.1);
+        for (int i = 0; i < 50; i++) {
+            clamped.recordFirstToken(50);
+        }
+        assertEquals(500, clamped.delayMs());
+        for (int i = 0; i < 50; i++) {
+            clamped.recordFirstToken(5_000);
+        }
+        assertEquals(800, clamped.delayMs());
+    }
+
+    @Test
+    void budgetLimitsHedgeRate() {
+        HedgePolicy policy = new HedgePolicy(0.95, 100, 3_000, 0.1);
+        int granted = 0;
+        for (int i = 0; i < 1_000; i++) {
+            policy.onRequest();
+            if (policy.tryHedge()) {
+                granted++;
+            }
+        }
+        assertTrue(granted <= 101, "granted " + granted);
+        assertEquals(granted, policy.hedges());
+        assertEquals(1_000 - granted, policy.budgetRejected());
+        assertTrue(policy.hedgeRate() <= 0.101);
+
+        policy.recordWin(true);
+        policy.recordWin(false);
+        assertEquals(1, policy.hedgeWins());
+        assertEquals(1, policy.primaryWins());
+    }
+}
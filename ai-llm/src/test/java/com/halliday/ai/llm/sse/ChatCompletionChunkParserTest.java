@@ -0,0 +1,92 @@
+package com.halliday.ai.llm.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatCompletionChunkParserTest {
+
+    private final ChatCompletionChunkParser parser = new ChatCompletionChunkParser(new ObjectMapper().getFactory());
+
+    @Test
+    void extractsDeltaContentAndKeepsFirstId() throws IOException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        ChatCompletionChunkParser.Chunk chunk = parse("{\"id\":\"a\",\"model\":\"m\",\"created\":5,"
+                + "\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"你好\"},\"finish_reason\":null},"
+                + "{\"index\":1,\"delta\":{\"content\":\"ignored\"}}]}", metadata);
+        assertEquals("你好", chunk.content());
+        assertFalse(chunk.done());
+        parse("{\"id\":\"b\",\"choices\":[{\"delta\":{\"content\":\"!\"}}]}", metadata);
+        assertEquals("a", metadata.get("id"));
+        assertEquals("m", metadata.get("model"));
+        assertEquals(5L, metadata.get("created"));
+        assertFalse(metadata.containsKey("finish_reason"));
+    }
+
+    @Test
+    void readsFinishReasonAndUsage() throws IOException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        assertEquals("", parse("{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}", metadata).content());
+        parse("{\"choices\":[],\"usage\":{\"prompt_tokens\":3,\"completion_tokens\":4,"
+                + "\"prompt_tokens_details\":{\"cached_tokens\":0}}}", metadata);
+        assertEquals("stop", metadata.get("finish_reason"));
+        Map<?, ?> usage = (Map<?, ?>) metadata.get("usage");
+        assertEquals(3, ((Number) usage.get("prompt_tokens")).intValue());
+        assertEquals(4, ((Number) usage.get("completion_tokens")).intValue());
+        assertEquals(0, ((Number) ((Map<?, ?>) usage.get("prompt_tokens_details")).get("cached_tokens")).intValue());
+    }
+
+    @Test
+    void skipsWhitespaceOnlyDeltas() throws IOException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        ChatCompletionChunkParser.Chunk chunk = parse("{\"choices\":[{\"delta\":{\"content\":\" \\n\"}}]}", metadata);
+        assertEquals("", chunk.content());
+        assertFalse(chunk.done());
+        assertEquals(" a", parse("{\"choices\":[{\"delta\":{\"content\":\" a\"}}]}", metadata).content());
+    }
+
+    @Test
+    void keepsUsageFromFinalChunkWithNestedArrays() throws IOException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        parse("{\"choices\":[{\"delta\":{\"content\":\"hi\"}}],\"usage\":null}", metadata);
+        assertFalse(metadata.containsKey("usage"));
+        ChatCompletionChunkParser.Chunk chunk = parse("{\"choices\":[{\"delta\":{\"content\":\" \"},"
+                + "\"finish_reason\":\"stop\"}],\"usage\":{\"total_tokens\":7,"
+                + "\"completion_tokens_details\":{\"accepted_prediction_tokens\":[1,2]}}}", metadata);
+        assertEquals("", chunk.content());
+        assertEquals("stop", metadata.get("finish_reason"));
+        Map<?, ?> usage = (Map<?, ?>) metadata.get("usage");
+        assertEquals(7, ((Number) usage.get("total_tokens")).intValue());
+        assertEquals(List.of(1, 2), ((Map<?, ?>) usage.get("completion_tokens_details")).get("accepted_prediction_tokens"));
+    }
+
+    @Test
+    void recordsOllamaDoneStatistics() throws IOException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        ChatCompletionChunkParser.Chunk chunk = parse("{\"model\":\"llama3.1\",\"done\":true,\"done_reason\":\"stop\","
+                + "\"eval_count\":12,\"eval_duration\":3400,\"context\":[1,2,3]}", metadata);
+        assertTrue(chunk.done());
+        assertEquals(true, metadata.get("done"));
+        assertEquals("stop", metadata.get("done_reason"));
+        assertEquals(12L, metadata.get("eval_count"));
+        assertEquals(3400L, metadata.get("eval_duration"));
+    }
+
+    @Test
+    void parsesWithinOffsetWindow() throws IOException {
+        byte[] framed = "xx{\"choices\":[{\"delta\":{\"content\":\"ok\"}}]}yy".getBytes(StandardCharsets.UTF_8);
+        assertEquals("ok", parser.parse(framed, 2, framed.length - 4, new LinkedHashMap<>()).content());
+    }
+
+    private ChatCompletionChunkParser.Chunk parse(String json, Map<String, Object> metadata) throws IOException {
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(data, 0, data.length, metadata);
+    }
+}
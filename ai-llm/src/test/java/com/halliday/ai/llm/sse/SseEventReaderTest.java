@@ -0,0 +1,76 @@
+package com.halliday.ai.llm.sse;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseEventReaderTest {
+
+    @Test
+    void joinsMultiLineDataAndIgnoresOtherFields() throws IOException {
+        String stream = ": keep-alive\r\nevent: message\r\nid: 7\r\ndata: first\r\ndata:second\r\n\r\ndata: {\"a\":1}\n\n";
+        assertEquals(List.of("first\nsecond", "{\"a\":1}"), readAll(new ByteArrayInputStream(bytes(stream)), 256));
+    }
+
+    @Test
+    void handlesLinesSplitAcrossReads() throws IOException {
+        StringBuilder stream = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String payload = "{\"content\":\"片段-" + i + "-" + "x".repeat(i * 13) + "\"}";
+            expected.add(payload);
+            stream.append("data: ").append(payload).append("\n\n");
+        }
+        // 每次只返回 7 个字节，强制行跨越多次读取
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(bytes(stream.toString()))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(7, len));
+            }
+        };
+        assertEquals(expected, readAll(trickle, 256));
+    }
+
+    @Test
+    void acceptsNdjsonAndUnterminatedTrailingEvent() throws IOException {
+        String stream = "{\"done\":false}\n{\"done\":true}\ndata: tail";
+        assertEquals(List.of("{\"done\":false}", "{\"done\":true}", "tail"),
+                readAll(new ByteArrayInputStream(bytes(stream)), 256));
+    }
+
+    @Test
+    void stopsWhenHandlerReturnsFalse() throws IOException {
+        byte[] stream = bytes("data: one\n\ndata: [DONE]\n\ndata: never\n\n");
+        List<String> events = new ArrayList<>();
+        boolean stopped = new SseEventReader(new ByteArrayInputStream(stream)).read((data, offset, length) -> {
+            if (SseEventReader.isDone(data, offset, length)) {
+                return false;
+            }
+            events.add(new String(data, offset, length, StandardCharsets.UTF_8));
+            return true;
+        });
+        assertTrue(stopped);
+        assertEquals(List.of("one"), events);
+    }
+
+    private static List<String> readAll(InputStream in, int bufferSize) throws IOException {
+        List<String> events = new ArrayList<>();
+        new SseEventReader(in, bufferSize).read((data, offset, length) -> {
+            events.add(new String(data, offset, length, StandardCharsets.UTF_8));
+            return true;
+        });
+        return events;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,124 @@
+package com.halliday.ai.llm.sse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比流式补全的两种解析方式：旧的 {@code BufferedReader.readLine} + {@code readTree}（并保留全部原始事件），
+ * 与 {@link SseEventReader} + {@link ChatCompletionChunkParser} 的字节级解析。
+ * <p>
+ * 输入为 {@code src/test/resources/sse} 下录制的流；建议配合 {@code -prof gc} 观察每轮分配量。运行方式：
+ * {@code mvn -pl ai-llm test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.halliday.ai.llm.sse.SseParserBenchmark}，或在 IDE 中直接运行 {@link #main}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseParserBenchmark {
+
+    @Param({"chat-completion-stream.txt"})
+    public String recording;
+
+    private ObjectMapper mapper;
+    private ChatCompletionChunkParser parser;
+    private byte[] stream;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper();
+        parser = new ChatCompletionChunkParser(mapper.getFactory());
+        try (InputStream in = Objects.requireNonNull(
+                SseParserBenchmark.class.getResourceAsStream("/sse/" + recording), recording)) {
+            stream = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public String readLineTreeModel() throws IOException {
+        StringBuilder complete = new StringBuilder();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        List<String> rawEvents = new ArrayList<>();
+        metadata.put("events", rawEvents);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(stream), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String json = line.startsWith("data:") ? line.substring(5).trim() : line.trim();
+                if ("[DONE]".equals(json)) {
+                    break;
+                }
+                rawEvents.add(json);
+                JsonNode root = mapper.readTree(json);
+                JsonNode choices = root.path("choices");
+                if (choices.isArray() && !choices.isEmpty()) {
+                    String content = choices.get(0).path("delta").path("content").asText("");
+                    if (!content.isEmpty()) {
+                        complete.append(content);
+                    }
+                    String finish = choices.get(0).path("finish_reason").asText("");
+                    if (!finish.isEmpty()) {
+                        metadata.put("finish_reason", finish);
+                    }
+                }
+                if (root.hasNonNull("usage")) {
+                    metadata.put("usage", mapper.convertValue(root.get("usage"), Map.class));
+                }
+            }
+        }
+        return complete.toString();
+    }
+
+    @Benchmark
+    public String byteLevel() throws IOException {
+        StringBuilder complete = new StringBuilder();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        new SseEventReader(new ByteArrayInputStream(stream)).read((data, offset, length) -> {
+            if (SseEventReader.isDone(data, offset, length)) {
+                return false;
+            }
+            ChatCompletionChunkParser.Chunk chunk = parser.parse(data, offset, length, metadata);
+            complete.append(chunk.content());
+            return !chunk.done();
+        });
+        return complete.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SseParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.halliday.ai.llm.text;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeakableTextFilterTest {
+
+    @Test
+    void stripsReasoningSplitAcrossDeltas() {
+        SpeakableTextFilter filter = new SpeakableTextFilter(true, true, true, true, true);
+        StringBuilder out = new StringBuilder();
+        out.append(filter.accept("<thi"));
+        out.append(filter.accept("nk>The user greets me.</th"));
+        assertEquals("", out.toString());
+        out.append(filter.accept("ink>\n\nHello **world**"));
+        out.append(filter.accept("! How are you?"));
+        out.append(filter.flush());
+        assertEquals("Hello world! How are you?", out.toString());
+        assertTrue(filter.droppedChars() > 0);
+    }
+
+    @Test
+    void dropsCodeBlocksMarkdownUrlsAndEmoji() {
+        SpeakableTextFilter filter = new SpeakableTextFilter(true, true, true, true, true);
+        String input = "# Title\n- item one\nRead [the docs](http://x.y/z) or see https://example.com/a now.\n"
+                + "```java\nint x = 1;\n```\nGreat job 👍🏽!";
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < input.length(); i += 3) {
+            out.append(filter.accept(input.substring(i, Math.min(input.length(), i + 3))));
+        }
+        out.append(filter.flush());
+        assertEquals("Title\nitem one\nRead the docs or see  now.\n\nGreat job !", out.toString());
+    }
+
+    @Test
+    void flushReleasesHeldPrefixesAndDropsUnclosedBlocks() {
+        SpeakableTextFilter filter = new SpeakableTextFilter(true, true, false, false, false);
+        assertEquals("a ", filter.accept("a <"));
+        assertEquals("<", filter.flush());
+
+        SpeakableTextFilter unclosed = new SpeakableTextFilter(true, true, false, false, false);
+        assertEquals("Sure. ", unclosed.accept("Sure. <think>never closed"));
+        assertEquals("", unclosed.flush());
+    }
+
+    @Test
+    void keepsMarkdownWhenOnlyReasoningIsStripped() {
+        SpeakableTextFilter filter = new SpeakableTextFilter(true, false, false, false, false);
+        String text = "Use **bold** and `code` at https://example.com 😀";
+        assertEquals(text, filter.accept(text) + filter.flush());
+    }
+
+    @Test
+    void stripsStrikethroughAndEmphasisButKeepsMultiplication() {
+        SpeakableTextFilter filter = new SpeakableTextFilter(true, true, true, true, true);
+        String input = "Was ~~ten~~ nine, *really* **sure**. 2 * 3 is 6.\n* item";
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < input.length(); i++) {
+            out.append(filter.accept(input.substring(i, i + 1)));
+        }
+        out.append(filter.flush());
+        assertEquals("Was ten nine, really sure. 2 * 3 is 6.\nitem", out.toString());
+
+        SpeakableTextFilter whole = new SpeakableTextFilter(false, false, true, false, false);
+        assertEquals("~5 min, 2 * 3", whole.accept("~5 min, 2 * 3") + whole.flush());
+    }
+}
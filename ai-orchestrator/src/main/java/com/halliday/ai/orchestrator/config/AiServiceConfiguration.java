@@ -1,11 +1,26 @@
 package com.halliday.ai.orchestrator.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halliday.ai.common.audio.NoiseGateStats;
+import com.halliday.ai.common.audio.OpusCodecStats;
+import com.halliday.ai.common.http.HttpClientFactory;
+import com.halliday.ai.llm.cache.CachingStreamingLanguageModelClient;
+import com.halliday.ai.llm.cascade.CascadePolicy;
+import com.halliday.ai.llm.cascade.ModelCascadeClient;
+import com.halliday.ai.llm.config.LlmCacheProperties;
+import com.halliday.ai.llm.config.LlmConcurrencyProperties;
+import com.halliday.ai.llm.config.ModelCascadeProperties;
 import com.halliday.ai.llm.config.OllamaLlmProperties;
 import com.halliday.ai.llm.core.LanguageModelClient;
 import com.halliday.ai.llm.ollama.OllamaChatClient;
 import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import com.halliday.ai.llm.limit.ConcurrencyLimitedStreamingLanguageModelClient;
+import com.halliday.ai.llm.limit.FairRequestScheduler;
+import com.halliday.ai.llm.limit.GradientConcurrencyLimit;
 import com.halliday.ai.llm.ollama.OllamaStreamingChatClient;
+import com.halliday.ai.llm.prefill.PrefillTracker;
+import com.halliday.ai.llm.routing.HedgePolicy;
+import com.halliday.ai.llm.routing.LlmEndpoint;
 import com.halliday.ai.stt.azure.AzureStreamingSpeechToTextClient;
 import com.halliday.ai.stt.config.AzureSttProperties;
 import com.halliday.ai.stt.config.SherpaSttProperties;
@@ -13,11 +28,19 @@ import com.halliday.ai.stt.core.SpeechToTextClient;
 import com.halliday.ai.stt.core.StreamingSpeechToTextClient;
 import com.halliday.ai.stt.sherpa.SherpaSpeechToTextClient;
 import com.halliday.ai.stt.sherpa.SherpaStreamingSpeechToTextClient;
+import com.halliday.ai.tts.cache.CachingStreamingTextToSpeechClient;
 import com.halliday.ai.tts.config.KokoroTtsProperties;
+import com.halliday.ai.tts.config.TtsCacheProperties;
+import com.halliday.ai.tts.core.AdaptiveSentenceBatcher;
 import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
 import com.halliday.ai.tts.core.TextToSpeechClient;
+import com.halliday.ai.tts.hedge.HedgingStreamingTextToSpeechClient;
 import com.halliday.ai.tts.kokoro.KokoroStreamingTextToSpeechClient;
 import com.halliday.ai.tts.kokoro.KokoroTextToSpeechClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -25,52 +48,428 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableConfigurationProperties({
         SherpaSttProperties.class,
         AzureSttProperties.class,
         OllamaLlmProperties.class,
-        KokoroTtsProperties.class
+        LlmCacheProperties.class,
+        ModelCascadeProperties.class,
+        LlmConcurrencyProperties.class,
+        KokoroTtsProperties.class,
+        TtsCacheProperties.class,
+        SttJobProperties.class,
+        UpstreamHealthProperties.class,
+        NoiseGateProperties.class,
+        SpeakableTextProperties.class,
+        VoicePromptProperties.class,
+        HttpClientProperties.class,
+        OpusProperties.class
 })
 public class AiServiceConfiguration {
 
     private static final Logger log = LoggerFactory.getLogger(AiServiceConfiguration.class);
 
+    @Bean(destroyMethod = "shutdown")
+    public HttpClientFactory httpClientFactory(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        log.info("【服务配置】初始化共享 HttpClientFactory");
+        HttpClientFactory factory = new HttpClientFactory(properties.toSettings());
+        Gauge.builder("http.client.connections", factory, HttpClientFactory::connectionCount)
+                .tag("state", "total")
+                .register(meterRegistry);
+        Gauge.builder("http.client.connections", factory, HttpClientFactory::idleConnectionCount)
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("http.client.calls", factory, HttpClientFactory::runningCalls)
+                .tags("type", "http", "state", "running")
+                .register(meterRegistry);
+        Gauge.builder("http.client.calls", factory, HttpClientFactory::queuedCalls)
+                .tags("type", "http", "state", "queued")
+                .register(meterRegistry);
+        Gauge.builder("http.client.calls", factory, HttpClientFactory::runningWebSockets)
+                .tags("type", "websocket", "state", "running")
+                .register(meterRegistry);
+        Gauge.builder("http.client.calls", factory, HttpClientFactory::queuedWebSockets)
+                .tags("type", "websocket", "state", "queued")
+                .register(meterRegistry);
+        return factory;
+    }
+
     @Bean
-    public SpeechToTextClient speechToTextClient(SherpaSttProperties properties, ObjectMapper objectMapper) {
+    public SpeechToTextClient speechToTextClient(SherpaSttProperties properties, ObjectMapper objectMapper,
+                                                 HttpClientFactory httpClientFactory) {
         log.info("【服务配置】初始化 SherpaSpeechToTextClient");
-        return new SherpaSpeechToTextClient(properties, objectMapper);
+        return new SherpaSpeechToTextClient(properties, objectMapper, httpClientFactory);
     }
 
     @Bean
-    public LanguageModelClient languageModelClient(OllamaLlmProperties properties, ObjectMapper objectMapper) {
+    public LanguageModelClient languageModelClient(OllamaLlmProperties properties, ObjectMapper objectMapper,
+                                                   HttpClientFactory httpClientFactory) {
         log.info("【服务配置】初始化 OllamaChatClient");
-        return new OllamaChatClient(properties, objectMapper);
+        return new OllamaChatClient(properties, objectMapper, httpClientFactory);
     }
 
     @Bean
-    public TextToSpeechClient textToSpeechClient(KokoroTtsProperties properties, ObjectMapper objectMapper) {
+    public TextToSpeechClient textToSpeechClient(KokoroTtsProperties properties, ObjectMapper objectMapper,
+                                                 HttpClientFactory httpClientFactory) {
         log.info("【服务配置】初始化 KokoroTextToSpeechClient");
-        return new KokoroTextToSpeechClient(properties, objectMapper);
+        return new KokoroTextToSpeechClient(properties, objectMapper, httpClientFactory);
     }
 
     @Bean
-    public StreamingLanguageModelClient streamingLanguageModelClient(OllamaLlmProperties properties, ObjectMapper mapper) {
+    public StreamingLanguageModelClient streamingLanguageModelClient(OllamaLlmProperties properties, ObjectMapper mapper,
+                                                                     HttpClientFactory httpClientFactory,
+                                                                     LlmCacheProperties cacheProperties,
+                                                                     ModelCascadeProperties cascadeProperties,
+                                                                     LlmConcurrencyProperties concurrencyProperties,
+                                                                     MeterRegistry meterRegistry) {
         log.info("【服务配置】初始化 OllamaStreamingChatClient");
-        return new OllamaStreamingChatClient(properties, mapper);
+        OllamaStreamingChatClient client = new OllamaStreamingChatClient(properties, mapper, httpClientFactory);
+        for (LlmEndpoint endpoint : client.endpoints()) {
+            Gauge.builder("llm.endpoint.inflight", endpoint, LlmEndpoint::inFlight)
+                    .tag("endpoint", endpoint.name())
+                    .register(meterRegistry);
+            Gauge.builder("llm.endpoint.health.score", endpoint, e -> e.health().score())
+                    .tag("endpoint", endpoint.name())
+                    .register(meterRegistry);
+            Gauge.builder("llm.endpoint.circuit.open", endpoint, e -> e.health().available() ? 0 : 1)
+                    .tag("endpoint", endpoint.name())
+                    .register(meterRegistry);
+        }
+        HedgePolicy hedgePolicy = client.hedgePolicy();
+        if (hedgePolicy != null) {
+            FunctionCounter.builder("llm.hedge.requests", hedgePolicy, HedgePolicy::requests)
+                    .register(meterRegistry);
+            FunctionCounter.builder("llm.hedge.fired", hedgePolicy, HedgePolicy::hedges)
+                    .register(meterRegistry);
+            FunctionCounter.builder("llm.hedge.wins", hedgePolicy, HedgePolicy::hedgeWins)
+                    .tag("winner", "hedge")
+                    .register(meterRegistry);
+            FunctionCounter.builder("llm.hedge.wins", hedgePolicy, HedgePolicy::primaryWins)
+                    .tag("winner", "primary")
+                    .register(meterRegistry);
+            FunctionCounter.builder("llm.hedge.budget.rejected", hedgePolicy, HedgePolicy::budgetRejected)
+                    .register(meterRegistry);
+            Gauge.builder("llm.hedge.rate", hedgePolicy, HedgePolicy::hedgeRate)
+                    .register(meterRegistry);
+            Gauge.builder("llm.hedge.delay", hedgePolicy, HedgePolicy::delayMs)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+        PrefillTracker prefill = client.prefillTracker();
+        for (boolean prefilled : new boolean[]{true, false}) {
+            FunctionTimer.builder("llm.ttft", prefill, p -> p.firstTokenCount(prefilled),
+                            p -> p.firstTokenTotalMs(prefilled), TimeUnit.MILLISECONDS)
+                    .tag("prefill", String.valueOf(prefilled))
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("llm.prefill.requests", prefill, PrefillTracker::sent)
+                .tag("result", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.prefill.requests", prefill, PrefillTracker::failed)
+                .tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.prefill.requests", prefill, PrefillTracker::skipped)
+                .tag("result", "skipped")
+                .register(meterRegistry);
+        FairRequestScheduler scheduler = concurrencyProperties.isEnabled()
+                ? llmScheduler(concurrencyProperties, meterRegistry) : null;
+        StreamingLanguageModelClient upstream = limited(client, scheduler, true, prefill);
+        if (cascadeProperties.isEnabled()) {
+            upstream = modelCascade(properties, mapper, httpClientFactory, upstream, scheduler, cascadeProperties,
+                    meterRegistry);
+        }
+        if (!cacheProperties.isEnabled()) {
+            log.info("【服务配置】LLM 回复缓存未启用");
+            return upstream;
+        }
+        log.info("【服务配置】为流式 LLM 客户端启用回复缓存");
+        CachingStreamingLanguageModelClient cached = new CachingStreamingLanguageModelClient(upstream, cacheProperties,
+                properties.getModel(), properties.getSystemPrompt());
+        FunctionCounter.builder("llm.cache.requests", cached, CachingStreamingLanguageModelClient::hits)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.cache.requests", cached, CachingStreamingLanguageModelClient::misses)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.cache.requests", cached, CachingStreamingLanguageModelClient::coalesced)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.cache.requests", cached, CachingStreamingLanguageModelClient::bypassed)
+                .tag("result", "bypass")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.cache.evictions", cached, CachingStreamingLanguageModelClient::evictions)
+                .register(meterRegistry);
+        Gauge.builder("llm.cache.hit.ratio", cached, CachingStreamingLanguageModelClient::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("llm.cache.entries", cached, CachingStreamingLanguageModelClient::size)
+                .register(meterRegistry);
+        Gauge.builder("llm.cache.chars", cached, CachingStreamingLanguageModelClient::totalChars)
+                .register(meterRegistry);
+        return cached;
+    }
+
+    private FairRequestScheduler llmScheduler(LlmConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        log.info("【服务配置】启用 LLM 自适应并发控制，初始上限：{}，范围：{}～{}，队列上限：{}",
+                properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getMaxQueueSize());
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(properties.getInitialLimit(),
+                properties.getMinLimit(), properties.getMaxLimit(), properties.getRttTolerance(),
+                properties.getSmoothing(), properties.getBackoffRatio());
+        FairRequestScheduler scheduler = new FairRequestScheduler(limit, properties.getMaxQueueSize(),
+                properties.getMaxQueueWaitMs());
+        Gauge.builder("llm.limiter.limit", scheduler, FairRequestScheduler::limit)
+                .register(meterRegistry);
+        Gauge.builder("llm.limiter.inflight", scheduler, FairRequestScheduler::inFlight)
+                .register(meterRegistry);
+        Gauge.builder("llm.limiter.queue.size", scheduler, FairRequestScheduler::queued)
+                .register(meterRegistry);
+        FunctionTimer.builder("llm.limiter.queue.wait", scheduler, FairRequestScheduler::queueWaitCount,
+                        FairRequestScheduler::queueWaitTotalNanos, TimeUnit.NANOSECONDS)
+                .register(meterRegistry);
+        Gauge.builder("llm.limiter.queue.wait.max", scheduler, FairRequestScheduler::queueWaitMaxMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.limiter.rejected", scheduler, FairRequestScheduler::rejected)
+                .tag("cause", "queue_full")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.limiter.rejected", scheduler, FairRequestScheduler::timedOut)
+                .tag("cause", "timeout")
+                .register(meterRegistry);
+        return scheduler;
+    }
+
+    private static StreamingLanguageModelClient limited(StreamingLanguageModelClient client,
+                                                        FairRequestScheduler scheduler, boolean dropOnFailure,
+                                                        PrefillTracker prefillTracker) {
+        return scheduler == null ? client
+                : new ConcurrencyLimitedStreamingLanguageModelClient(client, scheduler, dropOnFailure, prefillTracker);
+    }
+
+    private ModelCascadeClient modelCascade(OllamaLlmProperties properties, ObjectMapper mapper,
+                                            HttpClientFactory httpClientFactory, StreamingLanguageModelClient large,
+                                            FairRequestScheduler scheduler, ModelCascadeProperties cascadeProperties,
+                                            MeterRegistry meterRegistry) {
+        log.info("【服务配置】启用模型级联，小模型：{}", cascadeProperties.getSmallModel());
+        String basePrompt = properties.getSystemPrompt();
+        String smallPrompt = cascadeProperties.getSmallSystemPrompt();
+        String systemPrompt = basePrompt == null || basePrompt.isBlank() ? smallPrompt
+                : smallPrompt == null || smallPrompt.isBlank() ? basePrompt : basePrompt + "\n\n" + smallPrompt;
+        OllamaStreamingChatClient small = new OllamaStreamingChatClient(properties, mapper, httpClientFactory,
+                cascadeProperties.getSmallModel(), systemPrompt);
+        CascadePolicy policy = new CascadePolicy(cascadeProperties.getMaxChars(), cascadeProperties.getMaxWords(),
+                cascadeProperties.getSimplePhrases(), cascadeProperties.getEscalateKeywords(),
+                cascadeProperties.getClassifierThreshold(), null);
+        // 小模型失败（如未部署）会回退到大模型，只归还名额，不收缩与大模型共享的并发上限
+        ModelCascadeClient cascade = new ModelCascadeClient(limited(small, scheduler, false, null), large, policy,
+                cascadeProperties.getEscalationToken());
+        FunctionCounter.builder("llm.cascade.requests", cascade, ModelCascadeClient::small)
+                .tag("route", "small")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.cascade.requests", cascade, ModelCascadeClient::large)
+                .tag("route", "large")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.cascade.escalations", cascade, ModelCascadeClient::escalated)
+                .tag("cause", "declined")
+                .register(meterRegistry);
+        FunctionCounter.builder("llm.cascade.escalations", cascade, ModelCascadeClient::fallback)
+                .tag("cause", "failure")
+                .register(meterRegistry);
+        return cascade;
     }
 
     @Bean
-    public StreamingTextToSpeechClient streamingTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper) {
+    public StreamingTextToSpeechClient streamingTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper,
+                                                                   HttpClientFactory httpClientFactory,
+                                                                   TtsCacheProperties cacheProperties,
+                                                                   TextToSpeechClient textToSpeechClient,
+                                                                   MeterRegistry meterRegistry) {
         log.info("【服务配置】初始化 KokoroStreamingTextToSpeechClient");
-        return new KokoroStreamingTextToSpeechClient(properties, mapper);
+        KokoroStreamingTextToSpeechClient client = new KokoroStreamingTextToSpeechClient(properties, mapper,
+                httpClientFactory);
+        for (boolean reused : new boolean[]{true, false}) {
+            FunctionTimer.builder("tts.first.chunk", client, c -> c.firstChunkCount(reused),
+                            c -> c.firstChunkTotalNanos(reused), TimeUnit.NANOSECONDS)
+                    .tag("connection", reused ? "reused" : "new")
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("tts.ws.connections", client, KokoroStreamingTextToSpeechClient::connectionsOpened)
+                .tag("result", "opened")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.ws.connections", client, KokoroStreamingTextToSpeechClient::connectionsReused)
+                .tag("result", "reused")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.ws.connections", client, KokoroStreamingTextToSpeechClient::reconnects)
+                .tag("result", "reconnected")
+                .register(meterRegistry);
+        Gauge.builder("tts.ws.idle", client, KokoroStreamingTextToSpeechClient::idleConnections)
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.deadline.exceeded", client, KokoroStreamingTextToSpeechClient::firstChunkTimeouts)
+                .tag("kind", "first_chunk")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.deadline.exceeded", client, KokoroStreamingTextToSpeechClient::chunkGapTimeouts)
+                .tag("kind", "chunk_gap")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.deadline.exceeded", client, KokoroStreamingTextToSpeechClient::totalTimeouts)
+                .tag("kind", "total")
+                .register(meterRegistry);
+        StreamingTextToSpeechClient streaming = client;
+        if (properties.isHedgeEnabled()) {
+            log.info("【服务配置】启用流式合成与 HTTP 合成对冲");
+            HedgingStreamingTextToSpeechClient hedging = new HedgingStreamingTextToSpeechClient(client,
+                    textToSpeechClient, properties.getHedgeAfterMs(), properties.getHedgeBudgetRatio());
+            FunctionCounter.builder("tts.hedge.requests", hedging, HedgingStreamingTextToSpeechClient::requests)
+                    .register(meterRegistry);
+            FunctionCounter.builder("tts.hedge.fired", hedging, HedgingStreamingTextToSpeechClient::hedges)
+                    .register(meterRegistry);
+            FunctionCounter.builder("tts.hedge.budget.rejected", hedging, HedgingStreamingTextToSpeechClient::budgetRejected)
+                    .register(meterRegistry);
+            for (HedgingStreamingTextToSpeechClient.Lane lane : HedgingStreamingTextToSpeechClient.Lane.values()) {
+                FunctionCounter.builder("tts.hedge.wins", hedging, h -> h.wins(lane))
+                        .tag("winner", lane.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+            streaming = hedging;
+        }
+        if (!cacheProperties.isEnabled()) {
+            return streaming;
+        }
+        log.info("【服务配置】启用合成音频缓存");
+        CachingStreamingTextToSpeechClient cached = new CachingStreamingTextToSpeechClient(streaming, cacheProperties,
+                properties);
+        FunctionCounter.builder("tts.cache.requests", cached, CachingStreamingTextToSpeechClient::heapHits)
+                .tag("result", "hit_heap")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.cache.requests", cached, CachingStreamingTextToSpeechClient::diskHits)
+                .tag("result", "hit_disk")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.cache.requests", cached, CachingStreamingTextToSpeechClient::misses)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.cache.requests", cached, CachingStreamingTextToSpeechClient::coalesced)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("tts.cache.hit.ratio", cached, CachingStreamingTextToSpeechClient::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("tts.cache.entries", cached, CachingStreamingTextToSpeechClient::heapEntries)
+                .tag("tier", "heap")
+                .register(meterRegistry);
+        Gauge.builder("tts.cache.entries", cached, CachingStreamingTextToSpeechClient::diskEntries)
+                .tag("tier", "disk")
+                .register(meterRegistry);
+        Gauge.builder("tts.cache.bytes", cached, CachingStreamingTextToSpeechClient::heapBytes)
+                .tag("tier", "heap")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("tts.cache.bytes", cached, CachingStreamingTextToSpeechClient::diskBytes)
+                .tag("tier", "disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.cache.evictions", cached, CachingStreamingTextToSpeechClient::heapEvictions)
+                .tag("tier", "heap")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.cache.evictions", cached, CachingStreamingTextToSpeechClient::diskEvictions)
+                .tag("tier", "disk")
+                .register(meterRegistry);
+        return cached;
+    }
+
+    @Bean
+    public AdaptiveSentenceBatcher adaptiveSentenceBatcher(KokoroTtsProperties properties, MeterRegistry meterRegistry) {
+        log.info("【服务配置】初始化 AdaptiveSentenceBatcher，启用：{}", properties.isSegmentAdaptive());
+        AdaptiveSentenceBatcher batcher = new AdaptiveSentenceBatcher(properties.getSegmentMinChars(),
+                properties.getSegmentMaxChars(), properties.getSegmentTargetLatencyMs(),
+                properties.getSegmentQueueThreshold());
+        FunctionCounter.builder("tts.batch.segments", batcher, AdaptiveSentenceBatcher::batches)
+                .tag("decision", "submitted")
+                .register(meterRegistry);
+        FunctionCounter.builder("tts.batch.segments", batcher, AdaptiveSentenceBatcher::merged)
+                .tag("decision", "merged")
+                .register(meterRegistry);
+        Gauge.builder("tts.batch.target.chars", batcher, AdaptiveSentenceBatcher::targetChars)
+                .register(meterRegistry);
+        Gauge.builder("tts.batch.queue.depth", batcher, AdaptiveSentenceBatcher::queued)
+                .register(meterRegistry);
+        Gauge.builder("tts.batch.latency", batcher, AdaptiveSentenceBatcher::latencyMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return batcher;
+    }
+
+    @Bean
+    public NoiseGateStats noiseGateStats(MeterRegistry meterRegistry) {
+        log.info("【服务配置】初始化噪声门统计");
+        NoiseGateStats stats = new NoiseGateStats();
+        FunctionCounter.builder("audio.gate.frames", stats, NoiseGateStats::framesIn)
+                .tag("outcome", "input")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.gate.frames", stats, NoiseGateStats::framesGated)
+                .tag("outcome", "gated")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.gate.bytes", stats, NoiseGateStats::bytesIn)
+                .tag("outcome", "input")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.gate.bytes", stats, NoiseGateStats::bytesGated)
+                .tag("outcome", "gated")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.gate.bytes", stats, NoiseGateStats::keepaliveBytes)
+                .tag("outcome", "keepalive")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return stats;
+    }
+
+    @Bean
+    public OpusCodecStats opusCodecStats(MeterRegistry meterRegistry) {
+        log.info("【服务配置】初始化 Opus 编解码统计");
+        OpusCodecStats stats = new OpusCodecStats();
+        FunctionTimer.builder("audio.opus.encode", stats, OpusCodecStats::encodedFrames,
+                        OpusCodecStats::encodeNanos, TimeUnit.NANOSECONDS)
+                .register(meterRegistry);
+        FunctionTimer.builder("audio.opus.decode", stats, OpusCodecStats::decodedFrames,
+                        OpusCodecStats::decodeNanos, TimeUnit.NANOSECONDS)
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.opus.bytes", stats, OpusCodecStats::encodePcmBytes)
+                .tags("direction", "encode", "format", "pcm")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.opus.bytes", stats, OpusCodecStats::encodeOpusBytes)
+                .tags("direction", "encode", "format", "opus")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.opus.bytes", stats, OpusCodecStats::decodeOpusBytes)
+                .tags("direction", "decode", "format", "opus")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.opus.bytes", stats, OpusCodecStats::decodePcmBytes)
+                .tags("direction", "decode", "format", "pcm")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.opus.errors", stats, OpusCodecStats::encodeErrors)
+                .tag("direction", "encode")
+                .register(meterRegistry);
+        FunctionCounter.builder("audio.opus.errors", stats, OpusCodecStats::decodeErrors)
+                .tag("direction", "decode")
+                .register(meterRegistry);
+        Gauge.builder("audio.opus.codecs", stats, OpusCodecStats::encoders)
+                .tag("direction", "encode")
+                .register(meterRegistry);
+        Gauge.builder("audio.opus.codecs", stats, OpusCodecStats::decoders)
+                .tag("direction", "decode")
+                .register(meterRegistry);
+        return stats;
     }
 
     @Bean(name = "sherpa")
     public StreamingSpeechToTextClient sherpaStreamingSpeechToTextClient(SherpaSttProperties sherpaProperties,
-                                                                         ObjectMapper mapper) {
+                                                                         ObjectMapper mapper,
+                                                                         HttpClientFactory httpClientFactory) {
         log.info("【服务配置】初始化 SherpaStreamingSpeechToTextClient");
-        return new SherpaStreamingSpeechToTextClient(sherpaProperties, mapper);
+        return new SherpaStreamingSpeechToTextClient(sherpaProperties, mapper, httpClientFactory);
     }
 
     @Bean(name = "azure")
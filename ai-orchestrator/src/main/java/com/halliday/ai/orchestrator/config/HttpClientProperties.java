@@ -0,0 +1,125 @@
+package com.halliday.ai.orchestrator.config;
+
+import com.halliday.ai.common.http.HttpClientFactory;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 上游客户端共享 HTTP 连接池与调度器的配置项。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.http")
+public class HttpClientProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientProperties.class);
+
+    /**
+     * 连接池最多保留的空闲连接数。
+     */
+    private int maxIdleConnections = 32;
+
+    /**
+     * 空闲连接的保活时长，毫秒。
+     */
+    private long keepAliveMs = 300_000;
+
+    /**
+     * 异步 HTTP 请求的全局并发上限。
+     */
+    private int maxRequests = 256;
+
+    /**
+     * 异步 HTTP 请求的单主机并发上限，OkHttp 默认仅为 5。
+     */
+    private int maxRequestsPerHost = 64;
+
+    /**
+     * 单主机同时存在的 WebSocket 上限；WebSocket 使用独立调度器，不占用 HTTP 并发名额。
+     */
+    private int maxWebSocketsPerHost = 512;
+
+    /**
+     * 是否在 TLS 连接上通过 ALPN 协商 HTTP/2；明文连接与 WebSocket 始终使用 HTTP/1.1。
+     */
+    private boolean http2 = true;
+
+    /**
+     * 转换为 {@link HttpClientFactory.Settings}。
+     */
+    public HttpClientFactory.Settings toSettings() {
+        return new HttpClientFactory.Settings(getMaxIdleConnections(), getKeepAliveMs(), getMaxRequests(),
+                getMaxRequestsPerHost(), getMaxWebSocketsPerHost(), isHttp2());
+    }
+
+    public int getMaxIdleConnections() {
+        int value = maxIdleConnections();
+        log.debug("【HTTP 客户端配置】读取 maxIdleConnections：{}", value);
+        return value;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        log.debug("【HTTP 客户端配置】设置 maxIdleConnections：{}", maxIdleConnections);
+        maxIdleConnections(maxIdleConnections);
+    }
+
+    public long getKeepAliveMs() {
+        long value = keepAliveMs();
+        log.debug("【HTTP 客户端配置】读取 keepAliveMs：{}", value);
+        return value;
+    }
+
+    public void setKeepAliveMs(long keepAliveMs) {
+        log.debug("【HTTP 客户端配置】设置 keepAliveMs：{}", keepAliveMs);
+        keepAliveMs(keepAliveMs);
+    }
+
+    public int getMaxRequests() {
+        int value = maxRequests();
+        log.debug("【HTTP 客户端配置】读取 maxRequests：{}", value);
+        return value;
+    }
+
+    public void setMaxRequests(int maxRequests) {
+        log.debug("【HTTP 客户端配置】设置 maxRequests：{}", maxRequests);
+        maxRequests(maxRequests);
+    }
+
+    public int getMaxRequestsPerHost() {
+        int value = maxRequestsPerHost();
+        log.debug("【HTTP 客户端配置】读取 maxRequestsPerHost：{}", value);
+        return value;
+    }
+
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        log.debug("【HTTP 客户端配置】设置 maxRequestsPerHost：{}", maxRequestsPerHost);
+        maxRequestsPerHost(maxRequestsPerHost);
+    }
+
+    public int getMaxWebSocketsPerHost() {
+        int value = maxWebSocketsPerHost();
+        log.debug("【HTTP 客户端配置】读取 maxWebSocketsPerHost：{}", value);
+        return value;
+    }
+
+    public void setMaxWebSocketsPerHost(int maxWebSocketsPerHost) {
+        log.debug("【HTTP 客户端配置】设置 maxWebSocketsPerHost：{}", maxWebSocketsPerHost);
+        maxWebSocketsPerHost(maxWebSocketsPerHost);
+    }
+
+    public boolean isHttp2() {
+        boolean value = http2();
+        log.debug("【HTTP 客户端配置】读取 http2：{}", value);
+        return value;
+    }
+
+    public void setHttp2(boolean http2) {
+        log.debug("【HTTP 客户端配置】设置 http2：{}", http2);
+        http2(http2);
+    }
+}
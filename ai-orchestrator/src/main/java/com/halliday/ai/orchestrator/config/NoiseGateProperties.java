@@ -0,0 +1,116 @@
+package com.halliday.ai.orchestrator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 实时对话音频噪声门的配置项：在音频进入流式 STT 之前裁掉静音与背景噪声。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.stt.gate")
+public class NoiseGateProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(NoiseGateProperties.class);
+
+    /**
+     * 是否在转发给 STT 之前启用噪声门。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 判定为语音的 RMS 幅度下限（0~32767），低于该值的 20ms 窗口视为静音或背景噪声。
+     */
+    private int threshold = 400;
+
+    /**
+     * 语音结束后继续转发的时长，毫秒，避免截断字尾与句间短停顿。
+     */
+    private long hangoverMs = 800;
+
+    /**
+     * 检测到语音时补发的历史音频时长，毫秒，避免吞掉起音。
+     */
+    private long prerollMs = 300;
+
+    /**
+     * 静音期间输出保活帧的间隔，毫秒；小于等于 0 表示静音完全不转发。
+     */
+    private long keepaliveIntervalMs = 1000;
+
+    /**
+     * 单个保活帧（数字静音）的时长，毫秒。
+     */
+    private long keepaliveFrameMs = 100;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【噪声门配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【噪声门配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public int getThreshold() {
+        int value = threshold();
+        log.debug("【噪声门配置】读取 threshold：{}", value);
+        return value;
+    }
+
+    public void setThreshold(int threshold) {
+        log.debug("【噪声门配置】设置 threshold：{}", threshold);
+        threshold(threshold);
+    }
+
+    public long getHangoverMs() {
+        long value = hangoverMs();
+        log.debug("【噪声门配置】读取 hangoverMs：{}", value);
+        return value;
+    }
+
+    public void setHangoverMs(long hangoverMs) {
+        log.debug("【噪声门配置】设置 hangoverMs：{}", hangoverMs);
+        hangoverMs(hangoverMs);
+    }
+
+    public long getPrerollMs() {
+        long value = prerollMs();
+        log.debug("【噪声门配置】读取 prerollMs：{}", value);
+        return value;
+    }
+
+    public void setPrerollMs(long prerollMs) {
+        log.debug("【噪声门配置】设置 prerollMs：{}", prerollMs);
+        prerollMs(prerollMs);
+    }
+
+    public long getKeepaliveIntervalMs() {
+        long value = keepaliveIntervalMs();
+        log.debug("【噪声门配置】读取 keepaliveIntervalMs：{}", value);
+        return value;
+    }
+
+    public void setKeepaliveIntervalMs(long keepaliveIntervalMs) {
+        log.debug("【噪声门配置】设置 keepaliveIntervalMs：{}", keepaliveIntervalMs);
+        keepaliveIntervalMs(keepaliveIntervalMs);
+    }
+
+    public long getKeepaliveFrameMs() {
+        long value = keepaliveFrameMs();
+        log.debug("【噪声门配置】读取 keepaliveFrameMs：{}", value);
+        return value;
+    }
+
+    public void setKeepaliveFrameMs(long keepaliveFrameMs) {
+        log.debug("【噪声门配置】设置 keepaliveFrameMs：{}", keepaliveFrameMs);
+        keepaliveFrameMs(keepaliveFrameMs);
+    }
+}
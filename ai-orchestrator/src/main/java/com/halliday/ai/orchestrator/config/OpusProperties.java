@@ -0,0 +1,84 @@
+package com.halliday.ai.orchestrator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 实时对话 Opus 音频帧的配置项：客户端在 start 消息中协商后，上行音频按 Opus 包解码，下行合成音频编码为 Opus 包。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.audio.opus")
+public class OpusProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(OpusProperties.class);
+
+    /**
+     * 是否允许客户端协商 Opus；关闭时忽略协商请求，始终使用 PCM。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 下行编码的目标码率，bit/s。
+     */
+    private int bitrate = 24_000;
+
+    /**
+     * 下行编码复杂度 0~10，越高音质越好、CPU 开销越大。
+     */
+    private int complexity = 5;
+
+    /**
+     * 下行每个 Opus 包的时长，毫秒，取 10、20、40 或 60。
+     */
+    private int frameMs = 20;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【Opus 配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【Opus 配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public int getBitrate() {
+        int value = bitrate();
+        log.debug("【Opus 配置】读取 bitrate：{}", value);
+        return value;
+    }
+
+    public void setBitrate(int bitrate) {
+        log.debug("【Opus 配置】设置 bitrate：{}", bitrate);
+        bitrate(bitrate);
+    }
+
+    public int getComplexity() {
+        int value = complexity();
+        log.debug("【Opus 配置】读取 complexity：{}", value);
+        return value;
+    }
+
+    public void setComplexity(int complexity) {
+        log.debug("【Opus 配置】设置 complexity：{}", complexity);
+        complexity(complexity);
+    }
+
+    public int getFrameMs() {
+        int value = frameMs();
+        log.debug("【Opus 配置】读取 frameMs：{}", value);
+        return value;
+    }
+
+    public void setFrameMs(int frameMs) {
+        log.debug("【Opus 配置】设置 frameMs：{}", frameMs);
+        frameMs(frameMs);
+    }
+}
@@ -0,0 +1,116 @@
+package com.halliday.ai.orchestrator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * LLM 增量进入分句与 TTS 之前的朗读过滤配置。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.llm.speakable")
+public class SpeakableTextProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(SpeakableTextProperties.class);
+
+    /**
+     * 是否启用朗读过滤；关闭后增量原样进入分句与历史。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 去掉 {@code <think>...</think>} 推理块。
+     */
+    private boolean stripReasoning = true;
+
+    /**
+     * 去掉 ``` 围起的代码块。
+     */
+    private boolean stripCodeBlocks = true;
+
+    /**
+     * 去掉 Markdown 强调、标题、列表与行内代码标记，链接只保留文字。
+     */
+    private boolean stripMarkdown = true;
+
+    /**
+     * 去掉裸露的 URL。
+     */
+    private boolean stripUrls = true;
+
+    /**
+     * 去掉 emoji。
+     */
+    private boolean stripEmoji = true;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【朗读过滤配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【朗读过滤配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public boolean isStripReasoning() {
+        boolean value = stripReasoning();
+        log.debug("【朗读过滤配置】读取 stripReasoning：{}", value);
+        return value;
+    }
+
+    public void setStripReasoning(boolean stripReasoning) {
+        log.debug("【朗读过滤配置】设置 stripReasoning：{}", stripReasoning);
+        stripReasoning(stripReasoning);
+    }
+
+    public boolean isStripCodeBlocks() {
+        boolean value = stripCodeBlocks();
+        log.debug("【朗读过滤配置】读取 stripCodeBlocks：{}", value);
+        return value;
+    }
+
+    public void setStripCodeBlocks(boolean stripCodeBlocks) {
+        log.debug("【朗读过滤配置】设置 stripCodeBlocks：{}", stripCodeBlocks);
+        stripCodeBlocks(stripCodeBlocks);
+    }
+
+    public boolean isStripMarkdown() {
+        boolean value = stripMarkdown();
+        log.debug("【朗读过滤配置】读取 stripMarkdown：{}", value);
+        return value;
+    }
+
+    public void setStripMarkdown(boolean stripMarkdown) {
+        log.debug("【朗读过滤配置】设置 stripMarkdown：{}", stripMarkdown);
+        stripMarkdown(stripMarkdown);
+    }
+
+    public boolean isStripUrls() {
+        boolean value = stripUrls();
+        log.debug("【朗读过滤配置】读取 stripUrls：{}", value);
+        return value;
+    }
+
+    public void setStripUrls(boolean stripUrls) {
+        log.debug("【朗读过滤配置】设置 stripUrls：{}", stripUrls);
+        stripUrls(stripUrls);
+    }
+
+    public boolean isStripEmoji() {
+        boolean value = stripEmoji();
+        log.debug("【朗读过滤配置】读取 stripEmoji：{}", value);
+        return value;
+    }
+
+    public void setStripEmoji(boolean stripEmoji) {
+        log.debug("【朗读过滤配置】设置 stripEmoji：{}", stripEmoji);
+        stripEmoji(stripEmoji);
+    }
+}
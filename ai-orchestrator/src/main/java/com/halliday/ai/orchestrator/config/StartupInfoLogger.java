@@ -31,5 +31,6 @@ public class StartupInfoLogger implements ApplicationListener<ApplicationReadyEv
         int port = webContext.getWebServer().getPort();
         String baseUrl = "http://localhost:" + port;
         log.info("【启动日志】会话接口可用: {}{}", baseUrl, "/api/conversation");
+        log.info("【启动日志】离线转写任务接口可用: {}{}", baseUrl, "/api/stt/jobs");
     }
 }
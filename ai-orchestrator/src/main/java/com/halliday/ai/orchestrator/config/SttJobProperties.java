@@ -0,0 +1,129 @@
+package com.halliday.ai.orchestrator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 离线批量转写任务的配置项。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.stt.jobs")
+public class SttJobProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(SttJobProperties.class);
+
+    /**
+     * 等待执行的任务上限，超过后新提交的任务会被拒绝。
+     */
+    private int queueCapacity = 200;
+
+    /**
+     * 未单独配置时，每个 STT 提供者允许同时执行的任务数。
+     */
+    private int defaultProviderConcurrency = 2;
+
+    /**
+     * 按提供者 ID 覆盖并发上限，例如 {@code sherpa: 4}。
+     */
+    private Map<String, Integer> providerConcurrency = new LinkedHashMap<>();
+
+    /**
+     * 上传音频落盘目录，为空时使用系统临时目录。
+     */
+    private String storageDir;
+
+    /**
+     * 单个上传文件的最大字节数，0 表示不限制。
+     */
+    private long maxUploadBytes = 512L * 1024 * 1024;
+
+    /**
+     * 已结束任务的保留时长，毫秒；超时后结果不可再查询。
+     */
+    private long retentionMs = 3_600_000;
+
+    public int getQueueCapacity() {
+        int value = queueCapacity();
+        log.debug("【转写任务配置】读取 queueCapacity：{}", value);
+        return value;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        log.debug("【转写任务配置】设置 queueCapacity：{}", queueCapacity);
+        queueCapacity(queueCapacity);
+    }
+
+    public int getDefaultProviderConcurrency() {
+        int value = defaultProviderConcurrency();
+        log.debug("【转写任务配置】读取 defaultProviderConcurrency：{}", value);
+        return value;
+    }
+
+    public void setDefaultProviderConcurrency(int defaultProviderConcurrency) {
+        log.debug("【转写任务配置】设置 defaultProviderConcurrency：{}", defaultProviderConcurrency);
+        defaultProviderConcurrency(defaultProviderConcurrency);
+    }
+
+    public Map<String, Integer> getProviderConcurrency() {
+        Map<String, Integer> value = providerConcurrency();
+        log.debug("【转写任务配置】读取 providerConcurrency：{}", value);
+        return value;
+    }
+
+    public void setProviderConcurrency(Map<String, Integer> providerConcurrency) {
+        log.debug("【转写任务配置】设置 providerConcurrency：{}", providerConcurrency);
+        providerConcurrency(providerConcurrency == null ? new LinkedHashMap<>() : providerConcurrency);
+    }
+
+    public String getStorageDir() {
+        String value = storageDir();
+        log.debug("【转写任务配置】读取 storageDir：{}", value);
+        return value;
+    }
+
+    public void setStorageDir(String storageDir) {
+        log.debug("【转写任务配置】设置 storageDir：{}", storageDir);
+        storageDir(storageDir);
+    }
+
+    public long getMaxUploadBytes() {
+        long value = maxUploadBytes();
+        log.debug("【转写任务配置】读取 maxUploadBytes：{}", value);
+        return value;
+    }
+
+    public void setMaxUploadBytes(long maxUploadBytes) {
+        log.debug("【转写任务配置】设置 maxUploadBytes：{}", maxUploadBytes);
+        maxUploadBytes(maxUploadBytes);
+    }
+
+    public long getRetentionMs() {
+        long value = retentionMs();
+        log.debug("【转写任务配置】读取 retentionMs：{}", value);
+        return value;
+    }
+
+    public void setRetentionMs(long retentionMs) {
+        log.debug("【转写任务配置】设置 retentionMs：{}", retentionMs);
+        retentionMs(retentionMs);
+    }
+
+    /**
+     * 解析指定提供者的并发上限，至少为 1。
+     */
+    public int concurrencyFor(String providerId) {
+        Integer configured = providerConcurrency().get(providerId);
+        int value = Math.max(1, configured == null ? defaultProviderConcurrency() : configured);
+        log.debug("【转写任务配置】提供者 {} 的并发上限：{}", providerId, value);
+        return value;
+    }
+}
@@ -0,0 +1,164 @@
+package com.halliday.ai.orchestrator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 上游服务健康探测与熔断的配置项。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.health")
+public class UpstreamHealthProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamHealthProperties.class);
+
+    /**
+     * 是否启用后台健康探测；探测会向 LLM 与 TTS 发送真实的合成请求，默认关闭。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 两次探测之间的间隔，毫秒。
+     */
+    private long intervalMs = 15_000;
+
+    /**
+     * 应用启动后首次探测的延迟，毫秒。
+     */
+    private long initialDelayMs = 2_000;
+
+    /**
+     * 单次探测超时，毫秒。
+     */
+    private long timeoutMs = 3_000;
+
+    /**
+     * EWMA 平滑系数，(0, 1]，越大越偏向最近一次结果。
+     */
+    private double ewmaAlpha = 0.3;
+
+    /**
+     * 触发熔断的连续失败次数。
+     */
+    private int failureThreshold = 3;
+
+    /**
+     * 熔断后的冷却时间，毫秒；冷却结束后进入半开状态等待下一次探测。
+     */
+    private long openMs = 30_000;
+
+    /**
+     * 计算健康分数的参考耗时，毫秒；首响应耗时等于该值时延迟因子为 0.5。
+     */
+    private long referenceLatencyMs = 500;
+
+    /**
+     * 尚无探测结果的提供者参与选择时使用的中性分数，默认与首响应耗时等于参考耗时的健康提供者相同。
+     */
+    private double unknownScore = 0.5;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【健康检查配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【健康检查配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public long getIntervalMs() {
+        long value = intervalMs();
+        log.debug("【健康检查配置】读取 intervalMs：{}", value);
+        return value;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        log.debug("【健康检查配置】设置 intervalMs：{}", intervalMs);
+        intervalMs(intervalMs);
+    }
+
+    public long getInitialDelayMs() {
+        long value = initialDelayMs();
+        log.debug("【健康检查配置】读取 initialDelayMs：{}", value);
+        return value;
+    }
+
+    public void setInitialDelayMs(long initialDelayMs) {
+        log.debug("【健康检查配置】设置 initialDelayMs：{}", initialDelayMs);
+        initialDelayMs(initialDelayMs);
+    }
+
+    public long getTimeoutMs() {
+        long value = timeoutMs();
+        log.debug("【健康检查配置】读取 timeoutMs：{}", value);
+        return value;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        log.debug("【健康检查配置】设置 timeoutMs：{}", timeoutMs);
+        timeoutMs(timeoutMs);
+    }
+
+    public double getEwmaAlpha() {
+        double value = ewmaAlpha();
+        log.debug("【健康检查配置】读取 ewmaAlpha：{}", value);
+        return value;
+    }
+
+    public void setEwmaAlpha(double ewmaAlpha) {
+        log.debug("【健康检查配置】设置 ewmaAlpha：{}", ewmaAlpha);
+        ewmaAlpha(ewmaAlpha);
+    }
+
+    public int getFailureThreshold() {
+        int value = failureThreshold();
+        log.debug("【健康检查配置】读取 failureThreshold：{}", value);
+        return value;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        log.debug("【健康检查配置】设置 failureThreshold：{}", failureThreshold);
+        failureThreshold(failureThreshold);
+    }
+
+    public long getOpenMs() {
+        long value = openMs();
+        log.debug("【健康检查配置】读取 openMs：{}", value);
+        return value;
+    }
+
+    public void setOpenMs(long openMs) {
+        log.debug("【健康检查配置】设置 openMs：{}", openMs);
+        openMs(openMs);
+    }
+
+    public long getReferenceLatencyMs() {
+        long value = referenceLatencyMs();
+        log.debug("【健康检查配置】读取 referenceLatencyMs：{}", value);
+        return value;
+    }
+
+    public void setReferenceLatencyMs(long referenceLatencyMs) {
+        log.debug("【健康检查配置】设置 referenceLatencyMs：{}", referenceLatencyMs);
+        referenceLatencyMs(referenceLatencyMs);
+    }
+
+    public double getUnknownScore() {
+        double value = unknownScore();
+        log.debug("【健康检查配置】读取 unknownScore：{}", value);
+        return value;
+    }
+
+    public void setUnknownScore(double unknownScore) {
+        log.debug("【健康检查配置】设置 unknownScore：{}", unknownScore);
+        unknownScore(unknownScore);
+    }
+}
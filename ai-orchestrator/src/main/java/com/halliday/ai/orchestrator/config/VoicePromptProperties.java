@@ -0,0 +1,136 @@
+package com.halliday.ai.orchestrator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预合成语音提示配置：启动预热的常用短语、连接就绪时的问候语、等待首句时的填充语与失败时的致歉语。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.tts.prompts")
+public class VoicePromptProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(VoicePromptProperties.class);
+
+    /**
+     * 是否启用语音提示。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 是否在应用就绪后把全部短语预合成到 TTS 缓存；未启用 TTS 缓存时预合成没有意义，会被跳过。
+     */
+    private boolean warmUp = true;
+
+    /**
+     * 连接就绪后播放的问候语，为空时不播放。
+     */
+    private String greeting = "Hi, I'm listening.";
+
+    /**
+     * LLM 迟迟没有产出首句时播放的填充语，每次随机选一条；为空时不播放。
+     */
+    private List<String> fillers = new ArrayList<>(List.of("Hmm.", "Okay.", "Let me think."));
+
+    /**
+     * 从开始请求 LLM 到播放填充语的等待时间，毫秒；在此之前已开始合成回复时不播放。
+     */
+    private long fillerDelayMs = 700;
+
+    /**
+     * LLM 调用失败且本轮尚未播放回复时的致歉语，为空时不播放。
+     */
+    private String apology = "Sorry, something went wrong. Please try again.";
+
+    /**
+     * 额外预合成的常用短语；问候语、填充语与致歉语总会参与预合成。
+     */
+    private List<String> phrases = new ArrayList<>(List.of(
+            "One moment, please.", "Sorry, I didn't catch that. Could you say it again?"));
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【语音提示配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【语音提示配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public boolean isWarmUp() {
+        boolean value = warmUp();
+        log.debug("【语音提示配置】读取 warmUp：{}", value);
+        return value;
+    }
+
+    public void setWarmUp(boolean warmUp) {
+        log.debug("【语音提示配置】设置 warmUp：{}", warmUp);
+        warmUp(warmUp);
+    }
+
+    public String getGreeting() {
+        String value = greeting();
+        log.debug("【语音提示配置】读取 greeting：{}", value);
+        return value;
+    }
+
+    public void setGreeting(String greeting) {
+        log.debug("【语音提示配置】设置 greeting：{}", greeting);
+        greeting(greeting);
+    }
+
+    public List<String> getFillers() {
+        List<String> value = fillers();
+        log.debug("【语音提示配置】读取 fillers，数量：{}", value == null ? 0 : value.size());
+        return value;
+    }
+
+    public void setFillers(List<String> fillers) {
+        log.debug("【语音提示配置】设置 fillers，数量：{}", fillers == null ? 0 : fillers.size());
+        fillers(fillers);
+    }
+
+    public long getFillerDelayMs() {
+        long value = fillerDelayMs();
+        log.debug("【语音提示配置】读取 fillerDelayMs：{}", value);
+        return value;
+    }
+
+    public void setFillerDelayMs(long fillerDelayMs) {
+        log.debug("【语音提示配置】设置 fillerDelayMs：{}", fillerDelayMs);
+        fillerDelayMs(fillerDelayMs);
+    }
+
+    public String getApology() {
+        String value = apology();
+        log.debug("【语音提示配置】读取 apology：{}", value);
+        return value;
+    }
+
+    public void setApology(String apology) {
+        log.debug("【语音提示配置】设置 apology：{}", apology);
+        apology(apology);
+    }
+
+    public List<String> getPhrases() {
+        List<String> value = phrases();
+        log.debug("【语音提示配置】读取 phrases，数量：{}", value == null ? 0 : value.size());
+        return value;
+    }
+
+    public void setPhrases(List<String> phrases) {
+        log.debug("【语音提示配置】设置 phrases，数量：{}", phrases == null ? 0 : phrases.size());
+        phrases(phrases);
+    }
+}
@@ -39,6 +39,13 @@ public class ConversationService {
         log.debug("【会话服务】ConversationService 初始化完成");
     }
 
+    /**
+     * 处理一次完整对话。音频随 JSON 请求体解码后已在堆内，因此直接走 {@code byte[]} 转写：长音频的静音切分、
+     * 并行识别与中断取消同样生效，只是不经过文件映射；大文件离线转写请使用 {@link SttJobService}。
+     *
+     * @param input 对话输入
+     * @return 对话结果，无法识别用户输入时为空
+     */
     public Optional<ConversationResult> converse(ConversationInput input) {
         log.info("【会话服务】开始处理一次对话请求，历史消息数量：{}", input.history().size());
         Optional<String> maybeUserText = resolveUserText(input);
@@ -0,0 +1,164 @@
+package com.halliday.ai.orchestrator.service;
+
+import com.halliday.ai.common.audio.AudioFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 一次离线转写任务的状态。状态流转通过 CAS 完成，保证取消与执行结束之间不会相互覆盖。
+ */
+public final class SttJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SttJob.class);
+
+    /**
+     * 任务状态。
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED;
+
+        public boolean terminal() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String provider;
+    private final AudioFormat format;
+    private final Path audioFile;
+    private final long audioBytes;
+    private final Instant createdAt = Instant.now();
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String text;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    SttJob(String id, String provider, AudioFormat format, Path audioFile, long audioBytes) {
+        this.id = id;
+        this.provider = provider;
+        this.format = format;
+        this.audioFile = audioFile;
+        this.audioBytes = audioBytes;
+        log.debug("【转写任务】创建任务 {}，提供者：{}，字节数：{}", id, provider, audioBytes);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String provider() {
+        return provider;
+    }
+
+    public AudioFormat format() {
+        return format;
+    }
+
+    public long audioBytes() {
+        return audioBytes;
+    }
+
+    public Status status() {
+        return status.get();
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public Optional<Instant> startedAt() {
+        return Optional.ofNullable(startedAt);
+    }
+
+    public Optional<Instant> finishedAt() {
+        return Optional.ofNullable(finishedAt);
+    }
+
+    public Optional<String> text() {
+        return Optional.ofNullable(text);
+    }
+
+    public Optional<String> error() {
+        return Optional.ofNullable(error);
+    }
+
+    /**
+     * 音频时长，毫秒。
+     */
+    public long audioDurationMs() {
+        long bytesPerSecond = (long) format.sampleRate() * format.frameSizeBytes();
+        return bytesPerSecond <= 0 ? 0 : audioBytes * 1000L / bytesPerSecond;
+    }
+
+    Path audioFile() {
+        return audioFile;
+    }
+
+    void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    boolean markRunning() {
+        if (!status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            return false;
+        }
+        startedAt = Instant.now();
+        log.debug("【转写任务】任务 {} 开始执行", id);
+        return true;
+    }
+
+    boolean markSucceeded(String text) {
+        this.text = text;
+        return finish(Status.SUCCEEDED);
+    }
+
+    boolean markFailed(String error) {
+        this.error = error;
+        return finish(Status.FAILED);
+    }
+
+    /**
+     * 取消任务。
+     *
+     * @return 取消前的状态；若任务已结束则返回当前终态
+     */
+    Status cancel() {
+        while (true) {
+            Status current = status.get();
+            if (current.terminal()) {
+                return current;
+            }
+            if (status.compareAndSet(current, Status.CANCELLED)) {
+                finishedAt = Instant.now();
+                Future<?> running = future;
+                if (running != null) {
+                    running.cancel(current == Status.RUNNING);
+                }
+                log.info("【转写任务】任务 {} 已取消，取消前状态：{}", id, current);
+                return current;
+            }
+        }
+    }
+
+    private boolean finish(Status terminal) {
+        if (!status.compareAndSet(Status.RUNNING, terminal)) {
+            log.debug("【转写任务】任务 {} 已被取消，忽略结束状态 {}", id, terminal);
+            return false;
+        }
+        finishedAt = Instant.now();
+        log.debug("【转写任务】任务 {} 结束，状态：{}", id, terminal);
+        return true;
+    }
+}
@@ -0,0 +1,348 @@
+package com.halliday.ai.orchestrator.service;
+
+import com.halliday.ai.common.audio.AudioFormat;
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.common.spi.NamedService;
+import com.halliday.ai.orchestrator.config.SttJobProperties;
+import com.halliday.ai.stt.core.SpeechToTextClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 离线批量转写任务调度：上传音频先落盘，再按提供者分别排队执行。
+ * <p>
+ * 全局等待队列有上限，超过后拒绝新任务；每个提供者使用独立的固定并发执行器，
+ * 避免某个慢速提供者占满所有执行线程。
+ */
+@Service
+public class SttJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SttJobService.class);
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final SttJobProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ProviderLane> lanes;
+    private final String defaultProvider;
+    private final Path storageDir;
+    private final Map<String, SttJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    public SttJobService(Map<String, SpeechToTextClient> sttClients,
+                         SttJobProperties properties,
+                         MeterRegistry meterRegistry) {
+        Objects.requireNonNull(sttClients, "sttClients");
+        this.properties = Objects.requireNonNull(properties, "properties");
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry");
+        Map<String, ProviderLane> laneMap = new LinkedHashMap<>();
+        sttClients.forEach((beanName, client) -> {
+            String id = providerId(beanName, client);
+            if (laneMap.containsKey(id)) {
+                log.warn("【转写任务】检测到重复的 STT 提供者 ID {}，保留第一个实例", id);
+                return;
+            }
+            laneMap.put(id, new ProviderLane(id, client, properties.concurrencyFor(id)));
+        });
+        if (laneMap.isEmpty()) {
+            throw new IllegalStateException("No STT clients configured for transcription jobs");
+        }
+        this.lanes = Collections.unmodifiableMap(laneMap);
+        this.defaultProvider = laneMap.containsKey("sherpa") ? "sherpa" : laneMap.keySet().iterator().next();
+        this.storageDir = resolveStorageDir(properties.getStorageDir());
+        this.rejectedCounter = Counter.builder("stt.jobs.rejected")
+                .description("Transcription jobs rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("stt.jobs.queue.depth", queued, AtomicInteger::get)
+                .description("Transcription jobs waiting for a worker")
+                .register(meterRegistry);
+        log.info("【转写任务】初始化完成，提供者：{}，默认提供者：{}，队列上限：{}，落盘目录：{}",
+                lanes.keySet(), defaultProvider, properties.getQueueCapacity(), storageDir);
+    }
+
+    /**
+     * 可用的提供者 ID 列表。
+     */
+    public List<String> providers() {
+        return List.copyOf(lanes.keySet());
+    }
+
+    /**
+     * 提交转写任务：边读边写将音频落盘后入队。
+     *
+     * @param provider 提供者 ID，为空时使用默认提供者
+     * @param format   音频格式
+     * @param body     原始 PCM 数据流，由调用方负责关闭
+     * @return 已入队的任务
+     * @throws IllegalArgumentException   提供者未知或上传内容为空
+     * @throws UploadTooLargeException    上传超过配置的大小上限
+     * @throws RejectedExecutionException 等待队列已满
+     */
+    public SttJob submit(String provider, AudioFormat format, InputStream body) {
+        Objects.requireNonNull(format, "format");
+        Objects.requireNonNull(body, "body");
+        purgeExpired();
+        ProviderLane lane = resolveLane(provider);
+        if (queued.incrementAndGet() > properties.getQueueCapacity()) {
+            queued.decrementAndGet();
+            rejectedCounter.increment();
+            log.warn("【转写任务】等待队列已满（{}），拒绝新任务", properties.getQueueCapacity());
+            throw new RejectedExecutionException("Transcription queue is full");
+        }
+        SttJob job;
+        try {
+            String id = UUID.randomUUID().toString();
+            Path file = Files.createTempFile(storageDir, "stt-job-", ".pcm");
+            long bytes = spoolToDisk(body, file);
+            job = new SttJob(id, lane.id, format, file, bytes);
+        } catch (RuntimeException ex) {
+            queued.decrementAndGet();
+            throw ex;
+        } catch (IOException ex) {
+            queued.decrementAndGet();
+            log.error("【转写任务】音频落盘失败", ex);
+            throw new AiServiceException("Failed to store uploaded audio", ex);
+        }
+        jobs.put(job.id(), job);
+        lane.queued.incrementAndGet();
+        lane.submitted.increment();
+        try {
+            job.attach(lane.executor.submit(() -> execute(lane, job)));
+        } catch (RejectedExecutionException ex) {
+            lane.queued.decrementAndGet();
+            queued.decrementAndGet();
+            jobs.remove(job.id());
+            deleteQuietly(job.audioFile());
+            throw ex;
+        }
+        log.info("【转写任务】任务 {} 已入队，提供者：{}，音频时长：{}ms，当前排队：{}",
+                job.id(), lane.id, job.audioDurationMs(), queued.get());
+        return job;
+    }
+
+    public Optional<SttJob> find(String id) {
+        purgeExpired();
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * 取消任务：排队中的任务直接移出，执行中的任务会中断执行线程。
+     */
+    public Optional<SttJob> cancel(String id) {
+        SttJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        SttJob.Status previous = job.cancel();
+        if (previous == SttJob.Status.QUEUED) {
+            ProviderLane lane = lanes.get(job.provider());
+            lane.queued.decrementAndGet();
+            queued.decrementAndGet();
+            lane.completed(SttJob.Status.CANCELLED).increment();
+            deleteQuietly(job.audioFile());
+        }
+        return Optional.of(job);
+    }
+
+    private void execute(ProviderLane lane, SttJob job) {
+        if (!job.markRunning()) {
+            return;
+        }
+        lane.queued.decrementAndGet();
+        queued.decrementAndGet();
+        lane.running.incrementAndGet();
+        lane.queueWait.record(Duration.between(job.createdAt(), Instant.now()));
+        long started = System.nanoTime();
+        String text = null;
+        RuntimeException failure = null;
+        try {
+            text = lane.client.transcribe(job.audioFile(), job.format());
+        } catch (RuntimeException ex) {
+            failure = ex;
+        } finally {
+            lane.processing.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            lane.running.decrementAndGet();
+            deleteQuietly(job.audioFile());
+        }
+        if (failure == null) {
+            if (job.markSucceeded(text == null ? "" : text.trim())) {
+                lane.audioSeconds.increment(job.audioDurationMs() / 1000.0);
+            }
+        } else if (job.status() == SttJob.Status.CANCELLED) {
+            log.debug("【转写任务】任务 {} 在执行中被取消", job.id());
+        } else {
+            log.error("【转写任务】任务 {} 执行失败", job.id(), failure);
+            job.markFailed(failure.getMessage() == null ? failure.getClass().getSimpleName() : failure.getMessage());
+        }
+        lane.completed(job.status()).increment();
+        log.info("【转写任务】任务 {} 结束，状态：{}，耗时：{}ms",
+                job.id(), job.status(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private long spoolToDisk(InputStream body, Path file) throws IOException {
+        long limit = properties.getMaxUploadBytes();
+        long total = 0;
+        byte[] buffer = new byte[COPY_BUFFER_BYTES];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (limit > 0 && total > limit) {
+                    log.warn("【转写任务】上传音频超过上限：{} 字节", limit);
+                    throw new UploadTooLargeException(limit);
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException ex) {
+            deleteQuietly(file);
+            throw ex;
+        }
+        if (total == 0) {
+            deleteQuietly(file);
+            throw new IllegalArgumentException("Uploaded audio is empty");
+        }
+        log.debug("【转写任务】音频已落盘：{}，字节数：{}", file, total);
+        return total;
+    }
+
+    private ProviderLane resolveLane(String provider) {
+        if (!StringUtils.hasText(provider)) {
+            return lanes.get(defaultProvider);
+        }
+        ProviderLane lane = lanes.get(provider.trim().toLowerCase(Locale.ROOT));
+        if (lane == null) {
+            log.warn("【转写任务】请求的提供者不存在：{}", provider);
+            throw new IllegalArgumentException("Unsupported STT provider: " + provider);
+        }
+        return lane;
+    }
+
+    private void purgeExpired() {
+        long retentionMs = properties.getRetentionMs();
+        if (retentionMs <= 0) {
+            return;
+        }
+        Instant cutoff = Instant.now().minusMillis(retentionMs);
+        jobs.values().removeIf(job -> job.status().terminal()
+                && job.finishedAt().map(at -> at.isBefore(cutoff)).orElse(false));
+    }
+
+    private String providerId(String beanName, SpeechToTextClient client) {
+        if (client instanceof NamedService named && StringUtils.hasText(named.id())) {
+            return named.id().trim().toLowerCase(Locale.ROOT);
+        }
+        return beanName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Path resolveStorageDir(String configured) {
+        Path dir = StringUtils.hasText(configured)
+                ? Path.of(configured)
+                : Path.of(System.getProperty("java.io.tmpdir"), "halliday-stt-jobs");
+        try {
+            return Files.createDirectories(dir);
+        } catch (IOException ex) {
+            log.error("【转写任务】无法创建落盘目录：{}", dir, ex);
+            throw new IllegalStateException("Cannot create transcription job storage dir " + dir, ex);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("【转写任务】删除临时音频失败：{}", file, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("【转写任务】关闭任务执行器，未结束任务数：{}",
+                jobs.values().stream().filter(job -> !job.status().terminal()).count());
+        lanes.values().forEach(lane -> lane.executor.shutdownNow());
+        jobs.values().forEach(job -> deleteQuietly(job.audioFile()));
+    }
+
+    /**
+     * 上传内容超过大小上限。
+     */
+    public static class UploadTooLargeException extends IllegalArgumentException {
+
+        public UploadTooLargeException(long limit) {
+            super("Uploaded audio exceeds " + limit + " bytes");
+        }
+    }
+
+    /**
+     * 单个提供者的执行通道与指标。
+     */
+    private final class ProviderLane {
+
+        private final String id;
+        private final SpeechToTextClient client;
+        private final ExecutorService executor;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final Counter submitted;
+        private final Counter audioSeconds;
+        private final Timer queueWait;
+        private final Timer processing;
+        private final Map<SttJob.Status, Counter> completedCounters = new ConcurrentHashMap<>();
+
+        private ProviderLane(String id, SpeechToTextClient client, int concurrency) {
+            this.id = id;
+            this.client = client;
+            this.executor = Executors.newFixedThreadPool(concurrency,
+                    Thread.ofVirtual().name("stt-job-" + id + "-", 0).factory());
+            Gauge.builder("stt.jobs.provider.queued", queued, AtomicInteger::get)
+                    .tag("provider", id)
+                    .register(meterRegistry);
+            Gauge.builder("stt.jobs.provider.running", running, AtomicInteger::get)
+                    .tag("provider", id)
+                    .register(meterRegistry);
+            this.submitted = Counter.builder("stt.jobs.submitted").tag("provider", id).register(meterRegistry);
+            this.audioSeconds = Counter.builder("stt.jobs.audio.seconds")
+                    .description("Seconds of audio transcribed successfully")
+                    .tag("provider", id)
+                    .register(meterRegistry);
+            this.queueWait = Timer.builder("stt.jobs.queue.wait").tag("provider", id).register(meterRegistry);
+            this.processing = Timer.builder("stt.jobs.processing").tag("provider", id).register(meterRegistry);
+            log.info("【转写任务】注册提供者 {}，并发上限：{}", id, concurrency);
+        }
+
+        private Counter completed(SttJob.Status status) {
+            return completedCounters.computeIfAbsent(status, key -> Counter.builder("stt.jobs.completed")
+                    .tag("provider", id)
+                    .tag("status", key.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.halliday.ai.orchestrator.service;
+
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.common.health.ProviderHealth;
+import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import com.halliday.ai.orchestrator.config.UpstreamHealthProperties;
+import com.halliday.ai.stt.core.StreamingSpeechToTextClient;
+import com.halliday.ai.tts.core.TextToSpeechClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上游服务健康监控：后台定期使用合成请求探测 STT/LLM/TTS，维护 EWMA 健康分数与熔断状态，
+ * 供流式会话在新一轮对话开始时选择最健康的提供者。
+ * <p>
+ * 只探测实现了 {@link HealthProbe} 的客户端；其余提供者以及尚无探测结果的提供者视为"未知"，按中性分数
+ * {@code ai.health.unknownScore} 参与选择。未启用探测时始终使用默认提供者。
+ */
+@Service
+public class UpstreamHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamHealthMonitor.class);
+
+    private final UpstreamHealthProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HealthProbe> probes = new LinkedHashMap<>();
+    private final Map<String, ProviderHealth> health = new ConcurrentHashMap<>();
+    private final Map<String, Counter> probeSuccesses = new ConcurrentHashMap<>();
+    private final Map<String, Counter> probeFailures = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService probeExecutor;
+
+    public UpstreamHealthMonitor(Map<String, StreamingSpeechToTextClient> sttClients,
+                                 StreamingLanguageModelClient llmClient,
+                                 TextToSpeechClient ttsClient,
+                                 UpstreamHealthProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.properties = Objects.requireNonNull(properties, "properties");
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry");
+        List<Object> candidates = new ArrayList<>(sttClients.values());
+        candidates.add(llmClient);
+        candidates.add(ttsClient);
+        candidates.stream()
+                .filter(HealthProbe.class::isInstance)
+                .map(HealthProbe.class::cast)
+                .forEach(this::register);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "upstream-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.probeExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("upstream-probe-", 0).factory());
+        if (properties.isEnabled() && !probes.isEmpty()) {
+            scheduler.scheduleWithFixedDelay(this::probeAll,
+                    properties.getInitialDelayMs(), Math.max(1, properties.getIntervalMs()), TimeUnit.MILLISECONDS);
+        }
+        log.info("【健康检查】初始化完成，探测目标：{}，启用：{}，间隔：{}ms",
+                probes.keySet(), properties.isEnabled(), properties.getIntervalMs());
+    }
+
+    private void register(HealthProbe probe) {
+        String target = probe.probeTarget();
+        if (probes.putIfAbsent(target, probe) != null) {
+            log.warn("【健康检查】重复的探测目标 {}，保留第一个实例", target);
+            return;
+        }
+        ProviderHealth providerHealth = new ProviderHealth(target, properties.getEwmaAlpha(),
+                properties.getFailureThreshold(), properties.getOpenMs(), properties.getReferenceLatencyMs());
+        health.put(target, providerHealth);
+        Gauge.builder("upstream.health.score", providerHealth, ProviderHealth::score)
+                .tag("target", target)
+                .register(meterRegistry);
+        Gauge.builder("upstream.health.latency", providerHealth, ProviderHealth::latencyMs)
+                .tag("target", target)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("upstream.health.circuit.open", providerHealth, h -> h.available() ? 0 : 1)
+                .tag("target", target)
+                .register(meterRegistry);
+        probeSuccesses.put(target, probeCounter(target, "success"));
+        probeFailures.put(target, probeCounter(target, "failure"));
+    }
+
+    private Counter probeCounter(String target, String outcome) {
+        return Counter.builder("upstream.probe")
+                .tag("target", target)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 对所有目标发起一轮探测；上一轮尚未返回的目标会被跳过。
+     */
+    void probeAll() {
+        probes.forEach((target, probe) -> {
+            if (inFlight.add(target)) {
+                probeExecutor.execute(() -> runProbe(target, probe));
+            } else {
+                log.debug("【健康检查】{} 上一次探测尚未结束，跳过本轮", target);
+            }
+        });
+    }
+
+    private void runProbe(String target, HealthProbe probe) {
+        try {
+            ProbeResult result;
+            try {
+                result = probe.probe(Duration.ofMillis(properties.getTimeoutMs()));
+            } catch (RuntimeException ex) {
+                result = ProbeResult.failure(0, 0, ex.getMessage());
+            }
+            ProviderHealth providerHealth = health.get(target);
+            providerHealth.record(result);
+            (result.success() ? probeSuccesses : probeFailures).get(target).increment();
+            if (result.success()) {
+                log.debug("【健康检查】{} 探测成功，连接：{}ms，首响应：{}ms，分数：{}",
+                        target, result.connectMs(), result.firstResponseMs(), providerHealth.score());
+            } else {
+                log.warn("【健康检查】{} 探测失败：{}，熔断状态：{}", target, result.error(), providerHealth.state());
+            }
+        } finally {
+            inFlight.remove(target);
+        }
+    }
+
+    public Optional<ProviderHealth> health(String target) {
+        return Optional.ofNullable(health.get(target));
+    }
+
+    /**
+     * 记录一次真实调用的失败，未探测的目标会被忽略。
+     */
+    public void recordFailure(String target, String error) {
+        ProviderHealth providerHealth = health.get(target);
+        if (providerHealth != null) {
+            providerHealth.recordFailure(error);
+        }
+    }
+
+    /**
+     * 在候选提供者中选出健康分数最高的一个。
+     * <p>
+     * 熔断器关闭的提供者按健康分数比较，未探测或尚无结果的提供者按中性分数比较，熔断的提供者不参与；
+     * 分数相同时优先 {@code fallback}，没有可选提供者或未启用探测时返回 {@code fallback}。
+     *
+     * @param category    目标类别，例如 {@code stt}
+     * @param providerIds 候选提供者 ID
+     * @param fallback    默认提供者
+     * @return 选中的提供者 ID
+     */
+    public String pickHealthiest(String category, Collection<String> providerIds, String fallback) {
+        if (!properties.isEnabled()) {
+            return fallback;
+        }
+        String best = null;
+        double bestScore = -1;
+        for (String id : providerIds) {
+            ProviderHealth providerHealth = health.get(category + ":" + id);
+            double score;
+            if (providerHealth == null || providerHealth.lastUpdatedAt() == 0) {
+                score = properties.getUnknownScore();
+            } else if (!providerHealth.available()) {
+                continue;
+            } else {
+                score = providerHealth.score();
+            }
+            if (score > bestScore || (score == bestScore && id.equals(fallback))) {
+                best = id;
+                bestScore = score;
+            }
+        }
+        String chosen = best != null ? best : fallback;
+        if (!Objects.equals(chosen, fallback)) {
+            log.info("【健康检查】{} 路由到 {}（默认 {}），分数：{}", category, chosen, fallback, bestScore);
+        }
+        return chosen;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("【健康检查】停止后台探测");
+        scheduler.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
+}
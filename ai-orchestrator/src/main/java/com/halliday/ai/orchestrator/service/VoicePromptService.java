@@ -0,0 +1,169 @@
+package com.halliday.ai.orchestrator.service;
+
+import com.halliday.ai.orchestrator.config.VoicePromptProperties;
+import com.halliday.ai.tts.cache.CachingStreamingTextToSpeechClient;
+import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 预合成语音提示：应用就绪后把问候语、填充语、致歉语与常用短语逐条合成一遍写入 TTS 缓存，
+ * 之后流式会话播放这些短语时直接命中缓存，不必等待合成服务。
+ * <p>
+ * 短语通过同一个流式 TTS 客户端合成，未启用 TTS 缓存时跳过预合成，播放时按普通合成处理。
+ */
+@Service
+public class VoicePromptService implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(VoicePromptService.class);
+
+    private final StreamingTextToSpeechClient ttsClient;
+    private final VoicePromptProperties properties;
+    private final Map<String, Counter> played;
+    private final AtomicInteger warmed = new AtomicInteger();
+
+    public VoicePromptService(StreamingTextToSpeechClient ttsClient,
+                              VoicePromptProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.ttsClient = Objects.requireNonNull(ttsClient, "ttsClient");
+        this.properties = Objects.requireNonNull(properties, "properties");
+        Objects.requireNonNull(meterRegistry, "meterRegistry");
+        this.played = Map.of(
+                "greeting", playedCounter("greeting", meterRegistry),
+                "filler", playedCounter("filler", meterRegistry),
+                "apology", playedCounter("apology", meterRegistry));
+        Gauge.builder("tts.prompts.warmed", warmed, AtomicInteger::get)
+                .register(meterRegistry);
+        log.info("【语音提示】初始化完成，启用：{}，短语数量：{}", properties.isEnabled(), library().size());
+    }
+
+    private static Counter playedCounter(String kind, MeterRegistry meterRegistry) {
+        return Counter.builder("tts.prompts.played")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!properties.isEnabled() || !properties.isWarmUp()) {
+            return;
+        }
+        if (!(ttsClient instanceof CachingStreamingTextToSpeechClient)) {
+            log.warn("【语音提示】未启用 TTS 缓存，跳过短语预合成");
+            return;
+        }
+        List<String> phrases = library();
+        Thread.ofVirtual().name("tts-prompt-warmup").start(() -> warmUp(phrases));
+    }
+
+    private void warmUp(List<String> phrases) {
+        long start = System.currentTimeMillis();
+        for (String phrase : phrases) {
+            try {
+                int[] bytes = {0};
+                ttsClient.streamSynthesize(phrase, null, chunk -> bytes[0] += chunk.length, () -> {
+                });
+                warmed.incrementAndGet();
+                log.debug("【语音提示】预合成完成：{}，字节数：{}", phrase, bytes[0]);
+            } catch (Exception ex) {
+                log.warn("【语音提示】预合成失败：{}，原因：{}", phrase, ex.getMessage());
+            }
+        }
+        log.info("【语音提示】短语预合成结束，成功：{}/{}，耗时：{}ms",
+                warmed.get(), phrases.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 需要预合成的全部短语，去掉空白与重复项。
+     */
+    public List<String> library() {
+        Set<String> phrases = new LinkedHashSet<>();
+        addPhrase(phrases, properties.getGreeting());
+        if (properties.getFillers() != null) {
+            properties.getFillers().forEach(filler -> addPhrase(phrases, filler));
+        }
+        addPhrase(phrases, properties.getApology());
+        if (properties.getPhrases() != null) {
+            properties.getPhrases().forEach(phrase -> addPhrase(phrases, phrase));
+        }
+        return new ArrayList<>(phrases);
+    }
+
+    private static void addPhrase(Set<String> phrases, String phrase) {
+        if (StringUtils.hasText(phrase)) {
+            phrases.add(phrase.strip());
+        }
+    }
+
+    /**
+     * 会话首轮开始时的问候语；未启用或未配置时返回 {@code null}。
+     */
+    public String greeting() {
+        return properties.isEnabled() && StringUtils.hasText(properties.getGreeting())
+                ? properties.getGreeting().strip() : null;
+    }
+
+    /**
+     * 随机选取一条填充语；未启用或未配置时返回 {@code null}。
+     */
+    public String nextFiller() {
+        List<String> fillers = properties.getFillers();
+        if (!properties.isEnabled() || fillers == null || fillers.isEmpty()) {
+            return null;
+        }
+        String filler = fillers.get(ThreadLocalRandom.current().nextInt(fillers.size()));
+        return StringUtils.hasText(filler) ? filler.strip() : null;
+    }
+
+    public long fillerDelayMs() {
+        return Math.max(0, properties.getFillerDelayMs());
+    }
+
+    /**
+     * LLM 失败时的致歉语；未启用或未配置时返回 {@code null}。
+     */
+    public String apology() {
+        return properties.isEnabled() && StringUtils.hasText(properties.getApology())
+                ? properties.getApology().strip() : null;
+    }
+
+    /**
+     * 合成并输出一条短语，方法在音频全部输出后返回。
+     *
+     * @param kind    提示类型，用于指标标签：{@code greeting}、{@code filler} 或 {@code apology}，其他类型不计数
+     * @param phrase  短语文本
+     * @param onChunk 音频回调
+     */
+    public void play(String kind, String phrase, Consumer<byte[]> onChunk) {
+        Counter counter = played.get(kind);
+        if (counter != null) {
+            counter.increment();
+        }
+        ttsClient.streamSynthesize(phrase, null, onChunk, () -> {
+        });
+    }
+
+    /**
+     * 已成功预合成的短语数。
+     */
+    public int warmed() {
+        return warmed.get();
+    }
+}
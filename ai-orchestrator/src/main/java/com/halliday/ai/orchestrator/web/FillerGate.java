@@ -0,0 +1,60 @@
+package com.halliday.ai.orchestrator.web;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 单轮填充语（或首轮问候语）与正式回复之间的互斥：二者谁先到谁生效，填充语已开始播放时，正式回复等待其播放结束；
+ * 本轮被取消时，正在播放的填充语通过 {@link #stopped()} 得知并停止输出。
+ */
+final class FillerGate {
+
+    private final AtomicBoolean decided = new AtomicBoolean();
+    private final CompletableFuture<Void> played = new CompletableFuture<>();
+    private volatile boolean stopped;
+
+    /**
+     * 填充语任务抢占播放权，成功后必须调用 {@link #release()}。
+     */
+    boolean claim() {
+        return decided.compareAndSet(false, true);
+    }
+
+    void release() {
+        played.complete(null);
+    }
+
+    /**
+     * 本轮已取消：阻止尚未开始的填充语，并让正在播放的填充语停止输出，不等待其结束。
+     */
+    void cancel() {
+        stopped = true;
+        if (claim()) {
+            release();
+        }
+    }
+
+    /**
+     * 正式回复即将输出：阻止尚未开始的填充语；若填充语已开始播放，则等待其结束。
+     */
+    void settle() {
+        if (claim()) {
+            release();
+        }
+        played.join();
+    }
+
+    /**
+     * 提示语是否已开始播放且尚未结束。
+     */
+    boolean playing() {
+        return decided.get() && !played.isDone();
+    }
+
+    /**
+     * 填充语是否应停止输出。
+     */
+    boolean stopped() {
+        return stopped;
+    }
+}
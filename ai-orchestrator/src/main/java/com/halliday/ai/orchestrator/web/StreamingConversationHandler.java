@@ -5,16 +5,35 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.halliday.ai.common.audio.AudioBase64;
 import com.halliday.ai.common.audio.AudioFormat;
+import com.halliday.ai.common.audio.NoiseGate;
+import com.halliday.ai.common.audio.NoiseGateStats;
+import com.halliday.ai.common.audio.OpusCodecStats;
+import com.halliday.ai.common.audio.OpusStreamDecoder;
+import com.halliday.ai.common.audio.OpusStreamEncoder;
+import com.halliday.ai.common.audio.PcmFormatConverter;
 import com.halliday.ai.common.conversation.ConversationMessage;
 import com.halliday.ai.common.conversation.ConversationRole;
+import com.halliday.ai.common.exception.AiServiceException;
 import com.halliday.ai.common.spi.NamedService;
 import com.halliday.ai.common.stt.SttResult;
+import com.halliday.ai.llm.core.ChatRequestOptions;
+import com.halliday.ai.llm.core.ChatStream;
 import com.halliday.ai.llm.core.StreamingLanguageModelClient;
+import com.halliday.ai.llm.text.SpeakableTextFilter;
+import com.halliday.ai.orchestrator.config.NoiseGateProperties;
+import com.halliday.ai.orchestrator.config.OpusProperties;
+import com.halliday.ai.orchestrator.config.SpeakableTextProperties;
+import com.halliday.ai.orchestrator.service.UpstreamHealthMonitor;
+import com.halliday.ai.orchestrator.service.VoicePromptService;
 import com.halliday.ai.stt.core.StreamingSpeechToTextClient;
 import com.halliday.ai.tts.config.KokoroTtsProperties;
+import com.halliday.ai.tts.core.AdaptiveSentenceBatcher;
 import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
+import com.halliday.ai.tts.core.TextSegmenter;
 import com.halliday.ai.tts.core.TextToSpeechClient;
+import com.halliday.ai.tts.core.TextToSpeechSession;
 import com.halliday.ai.trace.persistence.entity.AiTraceErrorEntity;
 import com.halliday.ai.trace.persistence.entity.AiTraceEventEntity;
 import com.halliday.ai.trace.persistence.entity.AiTraceLlmEntity;
@@ -37,6 +56,8 @@ import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -51,14 +72,20 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 /**
  * WebSocket 端流式对话处理器：统筹语音输入、语言模型应答与语音合成输出。
@@ -69,7 +96,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class StreamingConversationHandler extends TextWebSocketHandler {
 
     private static final Logger log = LoggerFactory.getLogger(StreamingConversationHandler.class);
-    private static final String SENTENCE_BOUNDARY = "。！？.!?";
+    private static final Set<Integer> OUTPUT_SAMPLE_RATES =
+            Set.of(8_000, 11_025, 12_000, 16_000, 22_050, 24_000, 32_000, 44_100, 48_000);
 
     private final ObjectMapper mapper;
     private final Map<String, StreamingSpeechToTextClient> sttClients;
@@ -81,6 +109,14 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
     private final TextToSpeechClient blockingTtsClient;
     private final KokoroTtsProperties ttsProperties;
     private final TraceRecordService traceRecordService;
+    private final UpstreamHealthMonitor healthMonitor;
+    private final NoiseGateProperties noiseGateProperties;
+    private final NoiseGateStats noiseGateStats;
+    private final SpeakableTextProperties speakableTextProperties;
+    private final VoicePromptService voicePrompts;
+    private final AdaptiveSentenceBatcher sentenceBatcher;
+    private final OpusProperties opusProperties;
+    private final OpusCodecStats opusStats;
     private final String streamingTtsEngineName;
     private final String blockingTtsEngineName;
     private final ZoneId traceZoneId = ZoneOffset.UTC;
@@ -96,7 +132,15 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
                                         StreamingTextToSpeechClient streamingTtsClient,
                                         TextToSpeechClient blockingTtsClient,
                                         KokoroTtsProperties ttsProperties,
-                                        TraceRecordService traceRecordService) {
+                                        TraceRecordService traceRecordService,
+                                        UpstreamHealthMonitor healthMonitor,
+                                        NoiseGateProperties noiseGateProperties,
+                                        NoiseGateStats noiseGateStats,
+                                        SpeakableTextProperties speakableTextProperties,
+                                        VoicePromptService voicePrompts,
+                                        AdaptiveSentenceBatcher sentenceBatcher,
+                                        OpusProperties opusProperties,
+                                        OpusCodecStats opusStats) {
         this.mapper = Objects.requireNonNull(mapper, "mapper");
         Objects.requireNonNull(sttClients, "sttClients");
         Map<String, StreamingSpeechToTextClient> clientMap = new LinkedHashMap<>();
@@ -127,6 +171,15 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         this.blockingTtsClient = Objects.requireNonNull(blockingTtsClient, "blockingTtsClient");
         this.ttsProperties = Objects.requireNonNull(ttsProperties, "ttsProperties");
         this.traceRecordService = Objects.requireNonNull(traceRecordService, "traceRecordService");
+        this.healthMonitor = Objects.requireNonNull(healthMonitor, "healthMonitor");
+        this.noiseGateProperties = Objects.requireNonNull(noiseGateProperties, "noiseGateProperties");
+        this.noiseGateStats = Objects.requireNonNull(noiseGateStats, "noiseGateStats");
+        this.speakableTextProperties = Objects.requireNonNull(speakableTextProperties, "speakableTextProperties");
+        this.voicePrompts = Objects.requireNonNull(voicePrompts, "voicePrompts");
+        this.sentenceBatcher = ttsProperties.isSegmentAdaptive()
+                ? Objects.requireNonNull(sentenceBatcher, "sentenceBatcher") : null;
+        this.opusProperties = Objects.requireNonNull(opusProperties, "opusProperties");
+        this.opusStats = Objects.requireNonNull(opusStats, "opusStats");
         this.streamingTtsEngineName = determineEngineName(streamingTtsClient);
         this.blockingTtsEngineName = determineEngineName(blockingTtsClient);
         ThreadFactory virtualThreadFactory = Thread.ofVirtual().name("streaming-convo-", 0).factory();
@@ -181,7 +234,8 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         if (ctx != null) {
             ctx.dispose();
             finalizeSession(ctx);
-            log.info("【流式会话】完成会话清理，traceId={}", ctx.traceId);
+            log.info("【流式会话】完成会话清理，traceId={}，音频输入：{} 字节，转发 STT：{} 字节，噪声门节省：{} 字节",
+                    ctx.traceId, ctx.audioBytesIn, ctx.audioBytesForwarded, ctx.audioBytesIn - ctx.audioBytesForwarded);
         }
         log.debug("【流式会话】WebSocket 会话关闭，ID={}，状态码={}", session.getId(), status.getCode());
     }
@@ -218,10 +272,35 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
             sendJson(session, error("TURN_IN_PROGRESS", "上一轮对话尚未完成"));
             return;
         }
+        FillerGate greeting = ctx.greetingGate;
+        if (greeting != null) {
+            greeting.cancel();
+            ctx.greetingGate = null;
+        }
         ctx.resetTurn();
         ctx.inputFormat = parseAudioFormat(node);
         log.debug("【流式会话】解析客户端音频参数：sampleRate={}Hz, channels={}, bitDepth={}",
                 ctx.inputFormat.sampleRate(), ctx.inputFormat.channels(), ctx.inputFormat.bitDepth());
+        ctx.outputFormat = parseOutputFormat(node);
+        if (wantsOpus(node, "inputCodec")) {
+            if (!OpusStreamEncoder.supports(ctx.inputFormat)) {
+                log.warn("【流式会话】客户端音频格式不支持 Opus：{}Hz/{} 声道/{} 位", ctx.inputFormat.sampleRate(),
+                        ctx.inputFormat.channels(), ctx.inputFormat.bitDepth());
+                sendJson(session, error("UNSUPPORTED_AUDIO_CODEC", "Opus 不支持该音频格式: "
+                        + ctx.inputFormat.sampleRate() + "Hz/" + ctx.inputFormat.channels() + " 声道"));
+                ctx.turnActive.set(false);
+                ctx.capturing.set(false);
+                return;
+            }
+            ctx.inputDecoder = new OpusStreamDecoder(ctx.inputFormat, opusStats);
+        }
+        if (wantsOpus(node, "outputCodec")) {
+            AudioFormat opusFormat = opusOutputFormat(ctx.outputFormat);
+            if (opusFormat != null) {
+                ctx.outputFormat = opusFormat;
+                ctx.opusOutput = true;
+            }
+        }
         node.path("history").forEach(item -> parseConversationMessage(item).ifPresent(ctx.history::add));
         log.debug("【流式会话】载入客户端历史消息，共 {} 条", ctx.history.size());
         String requestedProvider = node.path("sttProvider").asText("");
@@ -248,32 +327,126 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         ObjectNode listening = event("listening");
         listening.put("sttProvider", ctx.sttProvider);
         listening.put("sttProviderName", sttDisplayNames.getOrDefault(ctx.sttProvider, ctx.sttProvider));
+        listening.put("outputSampleRate",
+                ctx.outputFormat != null ? ctx.outputFormat.sampleRate() : ttsProperties.getSampleRate());
+        listening.put("outputChannels",
+                ctx.outputFormat != null ? ctx.outputFormat.channels() : ttsProperties.getChannels());
+        listening.put("inputCodec", ctx.inputDecoder != null ? "opus" : "pcm");
+        listening.put("outputCodec", ctx.opusOutput ? "opus" : "pcm");
+        if (ctx.opusOutput) {
+            listening.put("frameMs", opusProperties.getFrameMs());
+        }
         sendJson(session, listening);
+        if (!ctx.greeted) {
+            ctx.greeted = true;
+            ctx.greetingGate = playGreeting(session, ctx);
+        }
         startStreamingStt(session, ctx);
+        prefillPrompt(session, ctx);
+    }
+
+    /**
+     * 会话的首个 {@code start} 协商好输出格式后播放问候语，整句使用本轮的格式与编码器。
+     * 本轮回复把问候语当作填充语等待其播完；下一个 {@code start} 或会话关闭时停止输出。
+     */
+    private FillerGate playGreeting(WebSocketSession session, SessionContext ctx) {
+        String greeting = voicePrompts.greeting();
+        if (greeting == null) {
+            return null;
+        }
+        FillerGate gate = new FillerGate();
+        gate.claim();
+        executor.execute(() -> {
+            try {
+                playPrompt(session, "greeting", greeting, gate::stopped);
+                if (!gate.stopped()) {
+                    flushOpusOutput(session, ctx);
+                }
+            } finally {
+                gate.release();
+            }
+        });
+        return gate;
+    }
+
+    /**
+     * 用户说话期间预填充已确定的对话前缀（系统提示词与历史），正式请求到达时推理服务的前缀缓存已就绪；
+     * 首轮历史为空时预填充系统提示词。是否真正发送由 LLM 客户端按配置、路由与负载决定。
+     */
+    private void prefillPrompt(WebSocketSession session, SessionContext ctx) {
+        String traceId = ctx.traceId;
+        llmClient.prefill(new ArrayList<>(ctx.history), ChatRequestOptions.forSession(session.getId())).thenAccept(sent -> {
+            if (sent) {
+                log.debug("【流式会话】对话前缀预填充完成，历史消息数={}，traceId={}", ctx.history.size(), traceId);
+            }
+        });
     }
 
     /**
-     * 实时写入音频片段，提供给后台 STT 流式识别。
+     * 实时写入音频片段，提供给后台 STT 流式识别。协商了 Opus 时，{@code chunk} 为单个 Opus 包，
+     * 或以 {@code packets} 数组一次上传多个包，解码为 PCM 后再进入噪声门与识别管道。
      */
     private void handleAudio(SessionContext ctx, JsonNode node) {
         if (!ctx.capturing.get()) {
             log.trace("【流式会话】忽略音频片段：当前未处于采集状态");
             return;
         }
+        OpusStreamDecoder decoder = ctx.inputDecoder;
+        JsonNode packets = node.path("packets");
+        if (decoder != null && packets.isArray()) {
+            for (JsonNode packet : packets) {
+                writeAudio(ctx, decodeOpus(ctx, decoder, Base64.getDecoder().decode(packet.asText(""))));
+            }
+            return;
+        }
         String chunkBase64 = node.path("chunk").asText("");
         if (!StringUtils.hasText(chunkBase64)) {
             log.trace("【流式会话】收到空的音频片段，忽略");
             return;
         }
         byte[] bytes = Base64.getDecoder().decode(chunkBase64);
+        writeAudio(ctx, decoder != null ? decodeOpus(ctx, decoder, bytes) : bytes);
+    }
+
+    /**
+     * 解码一个上行 Opus 包；空包或损坏的包返回空数组并丢弃，不中断采集。
+     */
+    private byte[] decodeOpus(SessionContext ctx, OpusStreamDecoder decoder, byte[] packet) {
+        if (packet.length == 0) {
+            return packet;
+        }
+        try {
+            return decoder.decode(packet, 0, packet.length);
+        } catch (AiServiceException ex) {
+            log.warn("【流式会话】丢弃无法解码的 Opus 包，长度={} 字节，traceId={}，原因：{}", packet.length, ctx.traceId,
+                    ex.getMessage());
+            return new byte[0];
+        }
+    }
+
+    /**
+     * 经噪声门把 PCM 写入识别管道。
+     */
+    private void writeAudio(SessionContext ctx, byte[] bytes) {
+        if (bytes.length == 0) {
+            return;
+        }
         PipedOutputStream output = ctx.audioOutput;
         if (output == null) {
             log.warn("【流式会话】音频输出管道尚未就绪，丢弃当前片段");
             return;
         }
+        // 噪声门裁掉静音与背景噪声，只把语音（及少量保活静音）送入上游识别
+        byte[] forward = ctx.noiseGate != null ? ctx.noiseGate.process(bytes) : bytes;
+        ctx.audioBytesIn += bytes.length;
+        ctx.audioBytesForwarded += forward.length;
+        if (forward.length == 0) {
+            log.trace("【流式会话】噪声门抑制音频片段，长度={} 字节", bytes.length);
+            return;
+        }
         try {
-            output.write(bytes);
-            log.trace("【流式会话】写入音频片段成功，长度={} 字节", bytes.length);
+            output.write(forward);
+            log.trace("【流式会话】写入音频片段成功，输入={} 字节，转发={} 字节", bytes.length, forward.length);
         } catch (IOException ex) {
             log.warn("【流式会话】写入音频片段失败", ex);
             ctx.capturing.set(false);
@@ -289,11 +462,17 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
             return;
         }
         try {
+            if (ctx.noiseGate != null) {
+                byte[] tail = ctx.noiseGate.flush();
+                ctx.audioBytesForwarded += tail.length;
+                ctx.audioOutput.write(tail);
+            }
             ctx.audioOutput.flush();
             ctx.audioOutput.close();
         } catch (IOException ignored) {
         }
         ctx.audioOutput = null;
+        sendNoiseGateSummary(session, ctx);
         log.debug("【流式会话】客户端触发 stop，traceId={}，等待转写收尾", ctx.traceId);
         // STT callback will handle final transcript
         executor.execute(() -> {
@@ -325,7 +504,8 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
             return;
         }
         ctx.initAudioPipe();
-        log.debug("【流式会话】音频管道初始化完成，traceId={}", ctx.traceId);
+        ctx.noiseGate = createNoiseGate(ctx.inputFormat);
+        log.debug("【流式会话】音频管道初始化完成，traceId={}，噪声门：{}", ctx.traceId, ctx.noiseGate != null);
         ctx.asrStartMs = System.currentTimeMillis();
         if (ctx.traceContext != null) {
             ctx.traceContext.recordSttStreamStart(Instant.ofEpochMilli(ctx.asrStartMs));
@@ -343,6 +523,7 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
                 sttClient.streamRecognize(ctx.audioInput, result -> handleSttResult(session, ctx, result));
             } catch (Exception ex) {
                 log.warn("【流式会话】语音识别流程出现异常", ex);
+                healthMonitor.recordFailure("stt:" + ctx.sttProvider, ex.getMessage());
                 long end = System.currentTimeMillis();
                 if (ctx.traceContext != null) {
                     ctx.traceContext.recordError("stt", "STT_ERROR", ex.getMessage(), ex, Instant.ofEpochMilli(end));
@@ -361,6 +542,62 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         });
     }
 
+    /**
+     * 按配置为本轮音频创建噪声门；未启用或音频不是 16-bit PCM 时返回 {@code null}，音频原样转发。
+     */
+    private NoiseGate createNoiseGate(AudioFormat format) {
+        if (!noiseGateProperties.isEnabled()) {
+            return null;
+        }
+        if (format.bitDepth() != 16) {
+            log.debug("【流式会话】音频位深为 {}，跳过噪声门", format.bitDepth());
+            return null;
+        }
+        return new NoiseGate(format,
+                noiseGateProperties.getThreshold(),
+                noiseGateProperties.getHangoverMs(),
+                noiseGateProperties.getPrerollMs(),
+                noiseGateProperties.getKeepaliveIntervalMs(),
+                noiseGateProperties.getKeepaliveFrameMs(),
+                noiseGateStats);
+    }
+
+    /**
+     * 按配置为本轮 LLM 回复创建朗读过滤器；未启用时返回 {@code null}，增量原样进入分句。
+     */
+    private SpeakableTextFilter createSpeakableFilter() {
+        if (!speakableTextProperties.isEnabled()) {
+            return null;
+        }
+        return new SpeakableTextFilter(
+                speakableTextProperties.isStripReasoning(),
+                speakableTextProperties.isStripCodeBlocks(),
+                speakableTextProperties.isStripMarkdown(),
+                speakableTextProperties.isStripUrls(),
+                speakableTextProperties.isStripEmoji());
+    }
+
+    /**
+     * 采集结束后推送本轮与会话累计的噪声门统计，便于前端调试面板观察节省的上行带宽。
+     */
+    private void sendNoiseGateSummary(WebSocketSession session, SessionContext ctx) {
+        NoiseGate gate = ctx.noiseGate;
+        ctx.noiseGate = null;
+        if (gate == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        ObjectNode extra = mapper.createObjectNode();
+        extra.put("bytesIn", gate.bytesIn());
+        extra.put("bytesForwarded", gate.bytesOut());
+        extra.put("bytesSaved", gate.bytesSaved());
+        extra.put("sessionBytesIn", ctx.audioBytesIn);
+        extra.put("sessionBytesSaved", ctx.audioBytesIn - ctx.audioBytesForwarded);
+        sendDebug(session, "asr", "gate", "Noise gate summary", ctx.asrStartMs, now, extra);
+        log.debug("【流式会话】噪声门统计，traceId={}，本轮输入：{} 字节，转发：{} 字节，节省：{} 字节",
+                ctx.traceId, gate.bytesIn(), gate.bytesOut(), gate.bytesSaved());
+    }
+
     /**
      * 接收 STT 回调的增量或最终结果，并回推转写文本。
      */
@@ -432,8 +669,13 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
     private void streamAssistant(WebSocketSession session, SessionContext ctx, String userText) {
         executor.execute(() -> {
             StringBuilder accumulated = new StringBuilder();
-            StringBuilder pendingSentence = new StringBuilder();
+            SpeakableTextFilter speakableFilter = createSpeakableFilter();
+            TextToSpeechSession speech = openSpeechSession(session, ctx);
             ctx.llmStartMs = System.currentTimeMillis();
+            ctx.llmFirstDeltaMs = 0L;
+            FillerGate greeting = ctx.greetingGate;
+            ctx.greetingGate = null;
+            ctx.fillerGate = greeting != null && greeting.playing() ? greeting : scheduleFiller(session, ctx);
             log.info("【流式会话】开始进入 LLM 流程，历史消息数={}，traceId={}", ctx.history.size(), ctx.traceId);
             ObjectNode llmStartExtra = mapper.createObjectNode();
             llmStartExtra.put("historySize", ctx.history.size());
@@ -445,156 +687,318 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
                 ctx.traceContext.recordLlmStart(new ArrayList<>(ctx.history), Instant.ofEpochMilli(ctx.llmStartMs));
             }
             try {
-                llmClient.streamChat(new ArrayList<>(ctx.history), delta -> {
-                    if (!StringUtils.hasText(delta)) {
-                        return;
+                // 以 WebSocket 会话为单位公平排队，单个会话的连续轮次不会挤占其他会话
+                ChatStream stream = llmClient.streamChatAsync(new ArrayList<>(ctx.history),
+                        ChatRequestOptions.forSession(session.getId()));
+                ctx.llmStream = stream;
+                stream.subscribe(new Flow.Subscriber<>() {
+                    private Flow.Subscription subscription;
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
                     }
-                    accumulated.append(delta);
-                    pendingSentence.append(delta);
-                    sendSafely(session, assistantDelta(delta));
-                    emitSentences(session, ctx, pendingSentence);
-                }, completion -> {
-                    String done = completion.text();
-                    String finalText = StringUtils.hasText(done) ? done : accumulated.toString();
-                    if (StringUtils.hasText(finalText)) {
-                        emitResidualSentence(session, ctx, pendingSentence);
-                        ctx.history.add(new ConversationMessage(ConversationRole.ASSISTANT, finalText));
+
+                    @Override
+                    public void onNext(String delta) {
+                        if (ctx.llmFirstDeltaMs == 0L) {
+                            ctx.llmFirstDeltaMs = System.currentTimeMillis();
+                        }
+                        String speakable = speakableFilter == null ? delta : speakableFilter.accept(delta);
+                        if (StringUtils.hasText(speakable)) {
+                            accumulated.append(speakable);
+                            sendSafely(session, assistantDelta(speakable));
+                            speech.append(speakable);
+                        } else if (speakableFilter != null && !speakable.isEmpty()) {
+                            // 过滤后只剩空白时仍需保留，避免相邻词被粘连
+                            accumulated.append(speakable);
+                            speech.append(speakable);
+                        }
+                        // 处理完一段再请求下一段，下游变慢时背压传递到上游读取
+                        subscription.request(1);
                     }
-                    long llmEnd = System.currentTimeMillis();
-                    log.info("【流式会话】LLM 推理结束，回复长度={}，traceId={}", finalText.length(), ctx.traceId);
-                    ObjectNode llmExtra = mapper.createObjectNode();
-                    llmExtra.put("finalTextLength", finalText.length());
-                    llmExtra.put("responseText", finalText);
-                    if (completion.metadata() != null && !completion.metadata().isEmpty()) {
-                        llmExtra.set("metadata", mapper.valueToTree(completion.metadata()));
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        log.debug("【流式会话】LLM 流式订阅收到错误：{}", throwable.getMessage());
                     }
-                    sendDebug(session, "llm", "complete", "LLM streaming finished", ctx.llmStartMs, llmEnd, llmExtra);
-                    if (ctx.traceContext != null) {
-                        Instant completionTime = Instant.ofEpochMilli(llmEnd);
-                        ctx.traceContext.recordLlmCompletion(finalText, completion.metadata(), completionTime);
-                        ctx.traceContext.recordAssistantMessage(finalText, completionTime);
+
+                    @Override
+                    public void onComplete() {
+                        log.trace("【流式会话】LLM 流式订阅结束，traceId={}", ctx.traceId);
                     }
-                    ctx.ttsChain.whenComplete((ignored, throwable) -> {
-                        if (throwable != null) {
-                            ObjectNode ttsErrorExtra = mapper.createObjectNode();
-                            ttsErrorExtra.put("message", throwable.getMessage());
-                            sendDebug(session, "tts", "error", "TTS chain failed", ctx.ttsStartMs, System.currentTimeMillis(), ttsErrorExtra);
-                            if (ctx.traceContext != null) {
-                                Instant errorTime = Instant.now();
-                                ctx.traceContext.recordError("tts", "TTS_CHAIN_ERROR", throwable.getMessage(), throwable, errorTime);
-                                if (ctx.traceContext.completeFailure(errorTime, throwable.getMessage())) {
-                                    ctx.traceContext = null;
-                                }
-                            }
-                            sendSafely(session, error("TTS_ERROR", throwable.getMessage()));
-                        }
-                        long ttsEnd = System.currentTimeMillis();
-                        ObjectNode complete = event("tts_complete");
-                        complete.set("history", toHistoryArray(ctx.history));
-                        complete.put("sampleRate", ttsProperties.getSampleRate());
-                        complete.put("channels", ttsProperties.getChannels());
-                        sendSafely(session, complete);
-                        if (ctx.ttsStartMs > 0) {
-                            ObjectNode ttsExtra = mapper.createObjectNode();
-                            ttsExtra.put("sentences", ctx.ttsIndex.get());
-                            sendDebug(session, "tts", "complete", "TTS playback finished", ctx.ttsStartMs, ttsEnd, ttsExtra);
-                        }
-                        if (throwable == null && ctx.traceContext != null) {
-                            if (ctx.traceContext.completeSuccess(Instant.ofEpochMilli(ttsEnd))) {
-                                ctx.traceContext = null;
-                            }
+                });
+                stream.completion().whenComplete((completion, throwable) -> {
+                    if (ctx.llmStream == stream) {
+                        ctx.llmStream = null;
+                    }
+                    if (throwable == null) {
+                        handleLlmCompletion(session, ctx, completion, accumulated, speech, speakableFilter);
+                        return;
+                    }
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    if (cause instanceof CancellationException) {
+                        speech.cancel();
+                        FillerGate fillerGate = ctx.fillerGate;
+                        if (fillerGate != null) {
+                            fillerGate.cancel();
                         }
-                        ctx.turnActive.set(false);
-                        ctx.processing.set(false);
-                    });
+                        log.info("【流式会话】LLM 流式对话已取消，已中止上游生成，traceId={}", ctx.traceId);
+                        return;
+                    }
+                    handleLlmFailure(session, ctx, cause);
                 });
             } catch (Exception ex) {
-                ObjectNode errExtra = mapper.createObjectNode();
-                errExtra.put("message", ex.getMessage());
-                sendDebug(session, "llm", "error", "LLM streaming failed", ctx.llmStartMs, System.currentTimeMillis(), errExtra);
+                handleLlmFailure(session, ctx, ex);
+            }
+        });
+    }
+
+    /**
+     * LLM 正常结束：补发剩余句子、写入历史与追踪，并在 TTS 链条结束后通知前端。
+     */
+    private void handleLlmCompletion(WebSocketSession session,
+                                     SessionContext ctx,
+                                     StreamingLanguageModelClient.Completion completion,
+                                     StringBuilder accumulated,
+                                     TextToSpeechSession speech,
+                                     SpeakableTextFilter speakableFilter) {
+        String done = completion.text();
+        String finalText;
+        if (speakableFilter != null) {
+            String tail = speakableFilter.flush();
+            accumulated.append(tail);
+            speech.append(tail);
+            // 历史与朗读使用过滤后的文本，原始回复只写入追踪
+            finalText = accumulated.toString().strip();
+            log.debug("【流式会话】朗读过滤移除字符数={}，traceId={}", speakableFilter.droppedChars(), ctx.traceId);
+        } else {
+            finalText = StringUtils.hasText(done) ? done : accumulated.toString();
+        }
+        // 回复没有可朗读的文本时，等正在播放的填充语结束后再通知前端
+        FillerGate fillerGate = ctx.fillerGate;
+        ctx.ttsChain = fillerGate == null
+                ? speech.finish()
+                : speech.finish().thenRunAsync(fillerGate::settle, executor);
+        if (StringUtils.hasText(finalText)) {
+            ctx.history.add(new ConversationMessage(ConversationRole.ASSISTANT, finalText));
+        }
+        long llmEnd = System.currentTimeMillis();
+        log.info("【流式会话】LLM 推理结束，回复长度={}，traceId={}", finalText.length(), ctx.traceId);
+        ObjectNode llmExtra = mapper.createObjectNode();
+        llmExtra.put("finalTextLength", finalText.length());
+        llmExtra.put("responseText", finalText);
+        if (ctx.llmFirstDeltaMs > 0) {
+            // 含排队与级联在内的首个增量耗时；模型侧首 token 耗时与是否预填充见 metadata.ttft_ms / prefilled
+            llmExtra.put("ttftMs", ctx.llmFirstDeltaMs - ctx.llmStartMs);
+        }
+        if (completion.metadata() != null && !completion.metadata().isEmpty()) {
+            llmExtra.set("metadata", mapper.valueToTree(completion.metadata()));
+        }
+        sendDebug(session, "llm", "complete", "LLM streaming finished", ctx.llmStartMs, llmEnd, llmExtra);
+        if (ctx.traceContext != null) {
+            Instant completionTime = Instant.ofEpochMilli(llmEnd);
+            ctx.traceContext.recordLlmCompletion(StringUtils.hasText(done) ? done : finalText, completion.metadata(),
+                    completionTime);
+            ctx.traceContext.recordAssistantMessage(finalText, completionTime);
+        }
+        ctx.ttsChain.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                ObjectNode ttsErrorExtra = mapper.createObjectNode();
+                ttsErrorExtra.put("message", throwable.getMessage());
+                sendDebug(session, "tts", "error", "TTS chain failed", ctx.ttsStartMs, System.currentTimeMillis(), ttsErrorExtra);
                 if (ctx.traceContext != null) {
                     Instant errorTime = Instant.now();
-                    ctx.traceContext.recordError("llm", "LLM_ERROR", ex.getMessage(), ex, errorTime);
-                    if (ctx.traceContext.completeFailure(errorTime, ex.getMessage())) {
+                    ctx.traceContext.recordError("tts", "TTS_CHAIN_ERROR", throwable.getMessage(), throwable, errorTime);
+                    if (ctx.traceContext.completeFailure(errorTime, throwable.getMessage())) {
                         ctx.traceContext = null;
                     }
                 }
-                sendSafely(session, error("LLM_ERROR", ex.getMessage()));
-                ctx.turnActive.set(false);
-                ctx.processing.set(false);
+                sendSafely(session, error("TTS_ERROR", throwable.getMessage()));
+            }
+            long ttsEnd = System.currentTimeMillis();
+            flushOpusOutput(session, ctx);
+            AudioFormat output = ctx.outputFormat;
+            ObjectNode complete = event("tts_complete");
+            complete.set("history", toHistoryArray(ctx.history));
+            complete.put("sampleRate", output != null ? output.sampleRate() : ttsProperties.getSampleRate());
+            complete.put("channels", output != null ? output.channels() : ttsProperties.getChannels());
+            complete.put("codec", ctx.opusOutput ? "opus" : "pcm");
+            sendSafely(session, complete);
+            if (ctx.ttsStartMs > 0) {
+                ObjectNode ttsExtra = mapper.createObjectNode();
+                ttsExtra.put("sentences", ctx.ttsIndex.get());
+                sendDebug(session, "tts", "complete", "TTS playback finished", ctx.ttsStartMs, ttsEnd, ttsExtra);
+            }
+            if (throwable == null && ctx.traceContext != null) {
+                if (ctx.traceContext.completeSuccess(Instant.ofEpochMilli(ttsEnd))) {
+                    ctx.traceContext = null;
+                }
             }
+            ctx.turnActive.set(false);
+            ctx.processing.set(false);
         });
     }
 
     /**
-     * 按句号边界拆分 LLM 增量结果，并即时触发 TTS。
+     * LLM 调用失败：记录追踪错误并通知前端，结束本轮。
      */
-    private void emitSentences(WebSocketSession session, SessionContext ctx, StringBuilder buffer) {
-        int idx;
-        while ((idx = findSentenceBoundary(buffer)) != -1) {
-            String sentence = buffer.substring(0, idx + 1).trim();
-            buffer.delete(0, idx + 1);
-            if (!sentence.isEmpty()) {
-                log.debug("【流式会话】检测到完整句子，准备合成：{}", sentence);
-                enqueueTts(session, ctx, sentence);
+    private void handleLlmFailure(WebSocketSession session, SessionContext ctx, Throwable ex) {
+        log.warn("【流式会话】LLM 流式对话失败，traceId={}，原因：{}", ctx.traceId, ex.getMessage());
+        ObjectNode errExtra = mapper.createObjectNode();
+        errExtra.put("message", ex.getMessage());
+        sendDebug(session, "llm", "error", "LLM streaming failed", ctx.llmStartMs, System.currentTimeMillis(), errExtra);
+        if (ctx.traceContext != null) {
+            Instant errorTime = Instant.now();
+            ctx.traceContext.recordError("llm", "LLM_ERROR", ex.getMessage(), ex, errorTime);
+            if (ctx.traceContext.completeFailure(errorTime, ex.getMessage())) {
+                ctx.traceContext = null;
+            }
+        }
+        sendSafely(session, error("LLM_ERROR", ex.getMessage()));
+        FillerGate fillerGate = ctx.fillerGate;
+        String apology = ctx.ttsStartMs == 0 ? voicePrompts.apology() : null;
+        if (apology == null) {
+            if (fillerGate != null) {
+                fillerGate.cancel();
             }
+            ctx.turnActive.set(false);
+            ctx.processing.set(false);
+            return;
         }
+        // 尚未播放任何回复音频时补一句致歉语，避免用户面对沉默
+        executor.execute(() -> {
+            if (fillerGate != null) {
+                fillerGate.settle();
+            }
+            playPrompt(session, "apology", apology);
+            flushOpusOutput(session, ctx);
+            ctx.turnActive.set(false);
+            ctx.processing.set(false);
+        });
     }
 
     /**
-     * 将剩余未发送的文本作为最后一句补齐。
+     * LLM 开始后按配置延迟播放一句填充语；延迟到期前首个片段已开始合成时不再播放。
      */
-    private void emitResidualSentence(WebSocketSession session, SessionContext ctx, StringBuilder buffer) {
-        String leftover = buffer.toString().trim();
-        buffer.setLength(0);
-        if (!leftover.isEmpty()) {
-            log.debug("【流式会话】补充残余句子进行合成：{}", leftover);
-            enqueueTts(session, ctx, leftover);
-        }
+    private FillerGate scheduleFiller(WebSocketSession session, SessionContext ctx) {
+        FillerGate gate = new FillerGate();
+        String filler = voicePrompts.nextFiller();
+        if (filler == null) {
+            gate.cancel();
+            return gate;
+        }
+        CompletableFuture.delayedExecutor(voicePrompts.fillerDelayMs(), TimeUnit.MILLISECONDS, executor).execute(() -> {
+            if (!gate.claim()) {
+                return;
+            }
+            try {
+                log.debug("【流式会话】首句尚未开始合成，播放填充语，traceId={}", ctx.traceId);
+                playPrompt(session, "filler", filler, gate::stopped);
+            } finally {
+                gate.release();
+            }
+        });
+        return gate;
     }
 
     /**
-     * 通过串行的 CompletableFuture 保证 TTS 语音顺序输出。
+     * 推送提示事件并播放一条预合成短语；失败只记录日志，不影响对话流程。
      */
-    private void enqueueTts(WebSocketSession session, SessionContext ctx, String sentence) {
-        ctx.ttsChain = ctx.ttsChain.thenRunAsync(() -> streamSentenceTts(session, ctx, sentence), executor);
-        log.trace("【流式会话】句子已加入 TTS 队列，当前队列索引={}", ctx.ttsIndex.get());
+    private void playPrompt(WebSocketSession session, String kind, String text) {
+        playPrompt(session, kind, text, () -> false);
     }
 
     /**
-     * 对单句文本执行流式 TTS；若失败则自动回退到阻塞式方案。
+     * 同上，{@code stopped} 返回 {@code true} 后丢弃剩余音频，用于本轮取消时打断正在播放的填充语。
      */
-    private void streamSentenceTts(WebSocketSession session, SessionContext ctx, String sentence) {
-        AtomicBoolean delivered = new AtomicBoolean(false);
-        AtomicInteger chunkCount = new AtomicInteger();
-        CompletableFuture<Void> completed = new CompletableFuture<>();
-        int sentenceIndex = ctx.ttsIndex.incrementAndGet();
-        long start = System.currentTimeMillis();
-        Instant segmentStart = Instant.ofEpochMilli(start);
-        if (ctx.ttsStartMs == 0) {
-            ctx.ttsStartMs = start;
-        }
-        ObjectNode startExtra = mapper.createObjectNode();
-        startExtra.put("sentenceIndex", sentenceIndex);
-        startExtra.put("textLength", sentence.length());
-        startExtra.put("text", sentence);
-        startExtra.put("textPreview", sentence.length() > 160 ? sentence.substring(0, 160) : sentence);
-        sendDebug(session, "tts", "start", "Streaming TTS sentence", start, null, startExtra);
-        log.debug("【流式会话】开始流式合成句子，index={}，traceId={}", sentenceIndex, ctx.traceId);
-        if (ctx.traceContext != null) {
-            ctx.traceContext.recordTtsSentenceStart(sentenceIndex, sentence, segmentStart);
+    private void playPrompt(WebSocketSession session, String kind, String text, BooleanSupplier stopped) {
+        SessionContext ctx = sessions.get(session.getId());
+        if (ctx == null || !session.isOpen() || stopped.getAsBoolean()) {
+            return;
         }
+        ObjectNode prompt = event("prompt");
+        prompt.put("kind", kind);
+        prompt.put("text", text);
+        sendSafely(session, prompt);
         try {
-            streamingTtsClient.streamSynthesize(sentence, null, chunk -> {
-                if (chunk == null || chunk.length == 0) {
-                    return;
+            voicePrompts.play(kind, text, chunk -> {
+                // 在输出锁内检查，停止后 resetTurn 切换格式或关闭编码器时不会再有提示语音频写入
+                synchronized (ctx.outputLock) {
+                    if (stopped.getAsBoolean()) {
+                        return;
+                    }
+                    sendAudioChunk(session, chunk, ttsProperties.getSampleRate(), ttsProperties.getChannels());
                 }
-                delivered.set(true);
-                chunkCount.incrementAndGet();
-                sendAudioChunk(session, chunk, ttsProperties.getSampleRate(), ttsProperties.getChannels());
-            }, () -> completed.complete(null));
-            completed.join();
+            });
         } catch (Exception ex) {
+            log.warn("【流式会话】播放语音提示失败，类型：{}，原因：{}", kind, ex.getMessage());
+        }
+    }
+
+    /**
+     * 为本轮回复打开合成会话：LLM 增量直接追加到会话，由会话切分文本并按顺序输出音频。
+     * 启用自适应分段时，片段长度随所有会话共享的合成负载调整。
+     */
+    private TextToSpeechSession openSpeechSession(WebSocketSession session, SessionContext ctx) {
+        TextSegmenter segmenter = new TextSegmenter(ttsProperties.getSegmentMinChars(), ttsProperties.getSegmentMaxChars());
+        return streamingTtsClient.openSession(null, segmenter, sentenceBatcher, executor, new SpeechListener(session, ctx));
+    }
+
+    /**
+     * 合成会话的输出回调：推送音频、记录每个片段的调试与追踪事件；片段未输出任何音频时回退到阻塞式合成。
+     * 回调由会话按片段顺序依次调用。
+     */
+    private final class SpeechListener implements TextToSpeechSession.Listener {
+
+        private final WebSocketSession session;
+        private final SessionContext ctx;
+        private long start;
+        private Instant segmentStart;
+
+        private SpeechListener(WebSocketSession session, SessionContext ctx) {
+            this.session = session;
+            this.ctx = ctx;
+        }
+
+        @Override
+        public void onSegmentStart(int sentenceIndex, String sentence) {
+            FillerGate fillerGate = ctx.fillerGate;
+            if (sentenceIndex == 1 && fillerGate != null) {
+                fillerGate.settle();
+            }
+            ctx.ttsIndex.set(sentenceIndex);
+            start = System.currentTimeMillis();
+            segmentStart = Instant.ofEpochMilli(start);
+            if (ctx.ttsStartMs == 0) {
+                ctx.ttsStartMs = start;
+            }
+            ObjectNode startExtra = mapper.createObjectNode();
+            startExtra.put("sentenceIndex", sentenceIndex);
+            startExtra.put("textLength", sentence.length());
+            startExtra.put("text", sentence);
+            startExtra.put("textPreview", sentence.length() > 160 ? sentence.substring(0, 160) : sentence);
+            sendDebug(session, "tts", "start", "Streaming TTS sentence", start, null, startExtra);
+            log.debug("【流式会话】开始流式合成句子，index={}，traceId={}", sentenceIndex, ctx.traceId);
+            if (ctx.traceContext != null) {
+                ctx.traceContext.recordTtsSentenceStart(sentenceIndex, sentence, segmentStart);
+            }
+        }
+
+        @Override
+        public void onAudio(byte[] chunk) {
+            sendAudioChunk(session, chunk, ttsProperties.getSampleRate(), ttsProperties.getChannels());
+        }
+
+        @Override
+        public void onAudio(ByteBuffer chunk) {
+            sendAudioChunk(session, chunk, ttsProperties.getSampleRate(), ttsProperties.getChannels());
+        }
+
+        @Override
+        public void onSegmentFailed(int sentenceIndex, String sentence, int chunks, Exception ex) {
             log.warn("【流式会话】流式语音合成失败，准备回退到阻塞模式", ex);
             long errorTime = System.currentTimeMillis();
             ObjectNode errorExtra = mapper.createObjectNode();
@@ -604,10 +1008,34 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
             if (ctx.traceContext != null) {
                 ctx.traceContext.recordError("tts", "STREAMING_TTS_ERROR", ex.getMessage(), ex, Instant.ofEpochMilli(errorTime));
             }
-            completed.completeExceptionally(ex);
+            if (chunks == 0) {
+                fallback(sentenceIndex, sentence);
+            }
+        }
+
+        @Override
+        public void onSegmentComplete(int sentenceIndex, String sentence, int chunks) {
+            if (chunks == 0) {
+                fallback(sentenceIndex, sentence);
+                return;
+            }
+            long end = System.currentTimeMillis();
+            ObjectNode completeExtra = mapper.createObjectNode();
+            completeExtra.put("sentenceIndex", sentenceIndex);
+            completeExtra.put("chunks", chunks);
+            completeExtra.put("textLength", sentence.length());
+            sendDebug(session, "tts", "sentence-complete", "Streaming TTS sentence finished", start, end, completeExtra);
+            if (ctx.traceContext != null) {
+                ctx.traceContext.recordTtsSentenceComplete(sentenceIndex, sentence, segmentStart,
+                        Instant.ofEpochMilli(end), false, chunks);
+            }
+            log.info("【流式会话】流式 TTS 完成，index={}，分片数={}，traceId={}", sentenceIndex, chunks, ctx.traceId);
         }
 
-        if (!delivered.get()) {
+        /**
+         * 以 HTTP 合成补齐没有输出音频的片段：边读取响应边推送音频，不等待整段音频生成完毕。
+         */
+        private void fallback(int sentenceIndex, String sentence) {
             long fallbackStart = System.currentTimeMillis();
             Instant fallbackStartInstant = Instant.ofEpochMilli(fallbackStart);
             ObjectNode fallbackExtra = mapper.createObjectNode();
@@ -616,12 +1044,22 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
             fallbackExtra.put("textPreview", sentence.length() > 160 ? sentence.substring(0, 160) : sentence);
             sendDebug(session, "tts", "fallback-start", "Fallback TTS synthesize", fallbackStart, null, fallbackExtra);
             try {
-                byte[] audio = blockingTtsClient.synthesize(sentence, null);
-                if (audio != null && audio.length > 0) {
-                    log.info("【流式会话】执行阻塞式 TTS 回退，index={}，字节数={}，traceId={}", sentenceIndex, audio.length, ctx.traceId);
-                    chunkAndSendAudio(session, audio);
+                AudioFormat format = blockingTtsClient.outputFormat();
+                long[] bytes = {0L};
+                long[] firstChunkMs = {0L};
+                blockingTtsClient.synthesizeStreaming(sentence, null, chunk -> {
+                    if (firstChunkMs[0] == 0L) {
+                        firstChunkMs[0] = System.currentTimeMillis() - fallbackStart;
+                    }
+                    bytes[0] += chunk.length;
+                    sendAudioChunk(session, chunk, format.sampleRate(), format.channels());
+                });
+                if (bytes[0] > 0) {
+                    log.info("【流式会话】执行阻塞式 TTS 回退，index={}，字节数={}，首片段耗时={}ms，traceId={}",
+                            sentenceIndex, bytes[0], firstChunkMs[0], ctx.traceId);
                     long fallbackEnd = System.currentTimeMillis();
-                    fallbackExtra.put("bytes", audio.length);
+                    fallbackExtra.put("bytes", bytes[0]);
+                    fallbackExtra.put("firstChunkMs", firstChunkMs[0]);
                     sendDebug(session, "tts", "fallback-complete", "Fallback TTS finished", fallbackStart, fallbackEnd, fallbackExtra);
                     if (ctx.traceContext != null) {
                         ctx.traceContext.recordTtsSentenceComplete(sentenceIndex, sentence, fallbackStartInstant,
@@ -644,18 +1082,6 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
                 }
                 sendSafely(session, error("TTS_ERROR", ex.getMessage()));
             }
-        } else {
-            long end = System.currentTimeMillis();
-            ObjectNode completeExtra = mapper.createObjectNode();
-            completeExtra.put("sentenceIndex", sentenceIndex);
-            completeExtra.put("chunks", chunkCount.get());
-            completeExtra.put("textLength", sentence.length());
-            sendDebug(session, "tts", "sentence-complete", "Streaming TTS sentence finished", start, end, completeExtra);
-            if (ctx.traceContext != null) {
-                ctx.traceContext.recordTtsSentenceComplete(sentenceIndex, sentence, segmentStart,
-                        Instant.ofEpochMilli(end), false, chunkCount.get());
-            }
-            log.info("【流式会话】流式 TTS 完成，index={}，分片数={}，traceId={}", sentenceIndex, chunkCount.get(), ctx.traceId);
         }
     }
 
@@ -670,30 +1096,110 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         sendSafely(session, node);
     }
 
+    private void sendAudioChunk(WebSocketSession session, byte[] chunk, int sampleRate, int channels) {
+        sendAudioChunk(session, ByteBuffer.wrap(chunk), sampleRate, channels);
+    }
+
     /**
-     * 按固定窗口切割阻塞式 TTS 的结果，模拟流式输出效果。
+     * 推送一段合成音频。客户端在 {@code start} 中要求了其他格式时，先经会话的 {@link PcmFormatConverter} 转换；
+     * 协商了 Opus 时再经会话的 {@link OpusStreamEncoder} 编码，凑满的包随本片段一起推送。
+     * 转换、编码与发送在同一把锁内完成，片段顺序与编解码状态保持一致。缓冲区只在调用期间被读取，位置不变。
      */
-    private void chunkAndSendAudio(WebSocketSession session, byte[] audio) {
-        AudioFormat format = blockingTtsClient.outputFormat();
-        int bytesPerSample = Math.max(1, format.bitDepth() / 8);
-        int bytesPerFrame = bytesPerSample * Math.max(1, format.channels());
-        int chunkSize = Math.max(bytesPerFrame, format.sampleRate() * bytesPerFrame / 10); // ~100ms
-        int offset = 0;
-        while (offset < audio.length) {
-            int len = Math.min(chunkSize, audio.length - offset);
-            byte[] chunk = new byte[len];
-            System.arraycopy(audio, offset, chunk, 0, len);
-            offset += len;
-            sendAudioChunk(session, chunk, format.sampleRate(), format.channels());
+    private void sendAudioChunk(WebSocketSession session, ByteBuffer chunk, int sampleRate, int channels) {
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        SessionContext ctx = sessions.get(session.getId());
+        AudioFormat output = ctx != null ? ctx.outputFormat : null;
+        boolean sameFormat = output == null || output.sampleRate() == sampleRate && output.channels() == channels;
+        if (sameFormat && (ctx == null || !ctx.opusOutput)) {
+            sendSafely(session, audioChunkMessage(chunk, sampleRate, channels));
+            return;
+        }
+        synchronized (ctx.outputLock) {
+            ByteBuffer pcm = sameFormat ? chunk : ctx.outputConverter(sampleRate, channels, output).convert(chunk);
+            if (!ctx.opusOutput) {
+                if (pcm.hasRemaining()) {
+                    sendSafely(session, audioChunkMessage(pcm, output.sampleRate(), output.channels()));
+                }
+                return;
+            }
+            OpusStreamEncoder encoder = ctx.outputEncoder(output);
+            List<byte[]> packets = new ArrayList<>();
+            encoder.encode(pcm, packet -> packets.add(base64Packet(packet)));
+            if (!packets.isEmpty()) {
+                sendSafely(session, opusChunkMessage(packets, output, encoder.frameMs()));
+            }
         }
     }
 
-    private void sendAudioChunk(WebSocketSession session, byte[] chunk, int sampleRate, int channels) {
-        ObjectNode node = event("tts_chunk");
-        node.put("audioBase64", Base64.getEncoder().encodeToString(chunk));
-        node.put("sampleRate", sampleRate);
-        node.put("channels", channels);
-        sendSafely(session, node);
+    /**
+     * 以静音补足 Opus 编码器中未满的最后一帧并推送，在一段连续播放结束时调用。
+     */
+    private void flushOpusOutput(WebSocketSession session, SessionContext ctx) {
+        if (!ctx.opusOutput || session == null || !session.isOpen()) {
+            return;
+        }
+        synchronized (ctx.outputLock) {
+            OpusStreamEncoder encoder = ctx.outputEncoder;
+            if (encoder == null) {
+                return;
+            }
+            List<byte[]> packets = new ArrayList<>(1);
+            encoder.flush(packet -> packets.add(base64Packet(packet)));
+            if (!packets.isEmpty()) {
+                sendSafely(session, opusChunkMessage(packets, encoder.format(), encoder.frameMs()));
+            }
+        }
+    }
+
+    private static byte[] base64Packet(ByteBuffer packet) {
+        byte[] encoded = new byte[AudioBase64.encodedLength(packet.remaining())];
+        AudioBase64.encode(packet, encoded, 0);
+        return encoded;
+    }
+
+    /**
+     * 拼装 Opus 格式的 {@code tts_chunk} 消息：{@code packets} 为按顺序排列的 Base64 Opus 包，每包 {@code frameMs} 毫秒。
+     */
+    private static TextMessage opusChunkMessage(List<byte[]> packets, AudioFormat format, int frameMs) {
+        byte[] head = ("{\"type\":\"tts_chunk\",\"codec\":\"opus\",\"sampleRate\":" + format.sampleRate()
+                + ",\"channels\":" + format.channels() + ",\"frameMs\":" + frameMs + ",\"packets\":[")
+                .getBytes(StandardCharsets.US_ASCII);
+        int length = head.length + 2;
+        for (byte[] packet : packets) {
+            length += packet.length + 3;
+        }
+        byte[] payload = new byte[length - 1];
+        System.arraycopy(head, 0, payload, 0, head.length);
+        int offset = head.length;
+        for (int i = 0; i < packets.size(); i++) {
+            if (i > 0) {
+                payload[offset++] = ',';
+            }
+            byte[] packet = packets.get(i);
+            payload[offset++] = '"';
+            System.arraycopy(packet, 0, payload, offset, packet.length);
+            offset += packet.length;
+            payload[offset++] = '"';
+        }
+        payload[offset++] = ']';
+        payload[offset] = '}';
+        return new TextMessage(payload);
+    }
+
+    /**
+     * 直接拼装 {@code tts_chunk} 消息的 UTF-8 字节：音频从缓冲区一次编码进消息数组，不经过 JSON 树与 Base64 字符串。
+     */
+    private static TextMessage audioChunkMessage(ByteBuffer chunk, int sampleRate, int channels) {
+        byte[] head = ("{\"type\":\"tts_chunk\",\"sampleRate\":" + sampleRate + ",\"channels\":" + channels
+                + ",\"audioBase64\":\"").getBytes(StandardCharsets.US_ASCII);
+        byte[] payload = new byte[head.length + AudioBase64.encodedLength(chunk.remaining()) + 2];
+        System.arraycopy(head, 0, payload, 0, head.length);
+        int end = head.length + AudioBase64.encode(chunk, payload, head.length);
+        payload[end] = '"';
+        payload[end + 1] = '}';
+        return new TextMessage(payload);
     }
 
     /**
@@ -732,12 +1238,16 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
      * 保护性发送消息，防止并发写导致的 IllegalStateException。
      */
     private void sendSafely(WebSocketSession session, ObjectNode node) {
+        sendSafely(session, new TextMessage(node.toString()));
+    }
+
+    private void sendSafely(WebSocketSession session, TextMessage message) {
         if (session == null || !session.isOpen()) {
             return;
         }
         try {
             synchronized (session) {
-                session.sendMessage(new TextMessage(node.toString()));
+                session.sendMessage(message);
             }
         } catch (IOException ex) {
             log.warn("【流式会话】发送 WebSocket 消息失败", ex);
@@ -759,15 +1269,6 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         return node;
     }
 
-    private int findSentenceBoundary(CharSequence buffer) {
-        for (int i = 0; i < buffer.length(); i++) {
-            if (SENTENCE_BOUNDARY.indexOf(buffer.charAt(i)) >= 0) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
     private String extractProviderId(String beanName, StreamingSpeechToTextClient client) {
         if (client instanceof NamedService named) {
             String id = sanitizeProviderId(named.id());
@@ -805,7 +1306,8 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         if (StringUtils.hasText(normalized)) {
             return sttClients.containsKey(normalized) ? normalized : null;
         }
-        return defaultSttProvider;
+        // 客户端未指定时，按健康分数挑选当前最健康的提供者
+        return healthMonitor.pickHealthiest("stt", availableSttProviders, defaultSttProvider);
     }
 
     private String determineDefaultProvider(Map<String, StreamingSpeechToTextClient> clients) {
@@ -867,6 +1369,67 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         return new AudioFormat(sampleRate, channels, bitDepth, AudioFormat.Endianness.LITTLE);
     }
 
+    /**
+     * 解析客户端要求的合成音频格式（{@code outputSampleRate}、{@code outputChannels}），与合成输出相同或未指定时返回 null。
+     * 只支持把 16-bit PCM 转换为常见采样率的单声道或双声道，不支持的要求被忽略并按合成输出推送。
+     */
+    private AudioFormat parseOutputFormat(JsonNode node) {
+        int sampleRate = node.path("outputSampleRate").asInt(ttsProperties.getSampleRate());
+        int channels = node.path("outputChannels").asInt(ttsProperties.getChannels());
+        if (sampleRate == ttsProperties.getSampleRate() && channels == ttsProperties.getChannels()) {
+            return null;
+        }
+        if (!"pcm".equalsIgnoreCase(ttsProperties.getFormat()) || ttsProperties.getBitDepth() != 16) {
+            log.warn("【流式会话】合成输出不是 16-bit PCM，忽略客户端音频格式要求：{}Hz/{} 声道", sampleRate, channels);
+            return null;
+        }
+        if (!OUTPUT_SAMPLE_RATES.contains(sampleRate) || channels < 1 || channels > 2) {
+            log.warn("【流式会话】不支持的输出音频格式：{}Hz/{} 声道，按合成输出推送", sampleRate, channels);
+            return null;
+        }
+        log.debug("【流式会话】客户端要求输出音频格式：{}Hz/{} 声道，合成输出：{}Hz/{} 声道", sampleRate, channels,
+                ttsProperties.getSampleRate(), ttsProperties.getChannels());
+        return new AudioFormat(sampleRate, channels, 16, AudioFormat.Endianness.LITTLE);
+    }
+
+    /**
+     * 客户端是否在 {@code field}（{@code inputCodec} 或 {@code outputCodec}）中要求 Opus；未指定、{@code pcm}、
+     * 未知取值或 Opus 未启用时按 PCM 处理。
+     */
+    private boolean wantsOpus(JsonNode node, String field) {
+        String codec = node.path(field).asText("pcm");
+        if ("pcm".equalsIgnoreCase(codec)) {
+            return false;
+        }
+        if (!"opus".equalsIgnoreCase(codec)) {
+            log.warn("【流式会话】不支持的音频编码 {}={}，按 PCM 处理", field, codec);
+            return false;
+        }
+        if (!opusProperties.isEnabled()) {
+            log.warn("【流式会话】Opus 未启用，{} 按 PCM 处理", field);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 确定下行 Opus 编码的 PCM 格式：沿用客户端要求或合成输出的格式，采样率不被 Opus 支持时改为 48kHz，
+     * 声道数最多为 2。合成输出不是 16-bit PCM 时返回 null，不启用 Opus。
+     */
+    private AudioFormat opusOutputFormat(AudioFormat requested) {
+        if (!"pcm".equalsIgnoreCase(ttsProperties.getFormat()) || ttsProperties.getBitDepth() != 16) {
+            log.warn("【流式会话】合成输出不是 16-bit PCM，下行不启用 Opus");
+            return null;
+        }
+        int sampleRate = requested != null ? requested.sampleRate() : ttsProperties.getSampleRate();
+        int channels = Math.min(2, requested != null ? requested.channels() : ttsProperties.getChannels());
+        if (!OpusStreamEncoder.SAMPLE_RATES.contains(sampleRate)) {
+            log.debug("【流式会话】Opus 不支持 {}Hz，下行音频重采样为 48000Hz", sampleRate);
+            sampleRate = 48_000;
+        }
+        return new AudioFormat(sampleRate, channels, 16, AudioFormat.Endianness.LITTLE);
+    }
+
     private ArrayNode toHistoryArray(List<ConversationMessage> history) {
         ArrayNode array = mapper.createArrayNode();
         history.forEach(message -> {
@@ -919,13 +1482,27 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
         private final AtomicInteger roundSequence = new AtomicInteger();
         private final StringBuilder transcriptBuffer = new StringBuilder();
         private AudioFormat inputFormat = AudioFormat.PCM16_MONO_16K;
+        private final Object outputLock = new Object();
+        private volatile AudioFormat outputFormat;
+        private PcmFormatConverter outputConverter;
+        private volatile boolean opusOutput;
+        private OpusStreamEncoder outputEncoder;
+        private OpusStreamDecoder inputDecoder;
         private String sttProvider;
         private PipedInputStream audioInput;
         private PipedOutputStream audioOutput;
+        private NoiseGate noiseGate;
+        private long audioBytesIn;
+        private long audioBytesForwarded;
         private CompletableFuture<Void> ttsChain = CompletableFuture.completedFuture(null);
+        private volatile ChatStream llmStream;
         private long asrStartMs;
         private long llmStartMs;
+        private volatile long llmFirstDeltaMs;
         private long ttsStartMs;
+        private volatile FillerGate fillerGate;
+        private volatile FillerGate greetingGate;
+        private boolean greeted;
         private Long userId;
         private Instant sessionStartInstant;
         private AiTraceSessionEntity sessionSnapshot;
@@ -944,9 +1521,63 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
             ttsChain = CompletableFuture.completedFuture(null);
             asrStartMs = 0L;
             llmStartMs = 0L;
+            llmFirstDeltaMs = 0L;
             ttsStartMs = 0L;
             ttsIndex.set(0);
+            fillerGate = null;
             traceContext = null;
+            closeInputDecoder();
+            synchronized (outputLock) {
+                outputConverter = null;
+                opusOutput = false;
+                closeOutputEncoder();
+            }
+        }
+
+        /**
+         * 取得把合成输出转换为客户端格式的转换器，合成输出格式变化（如回退到 HTTP 合成）时重新创建。调用方持有 outputLock。
+         */
+        PcmFormatConverter outputConverter(int sampleRate, int channels, AudioFormat output) {
+            PcmFormatConverter converter = outputConverter;
+            if (converter == null || converter.target() != output || converter.source().sampleRate() != sampleRate
+                    || converter.source().channels() != channels) {
+                converter = new PcmFormatConverter(
+                        new AudioFormat(sampleRate, channels, 16, AudioFormat.Endianness.LITTLE), output);
+                outputConverter = converter;
+                log.debug("【流式会话】创建输出音频转换器：{}Hz/{} 声道 -> {}Hz/{} 声道，算法延迟：{}ms，traceId={}",
+                        sampleRate, channels, output.sampleRate(), output.channels(), converter.latencyMs(), traceId);
+            }
+            return converter;
+        }
+
+        /**
+         * 取得本轮下行的 Opus 编码器，格式变化时重新创建。调用方持有 outputLock。
+         */
+        OpusStreamEncoder outputEncoder(AudioFormat format) {
+            OpusStreamEncoder encoder = outputEncoder;
+            if (encoder == null || !encoder.format().equals(format)) {
+                closeOutputEncoder();
+                encoder = new OpusStreamEncoder(format, opusProperties.getBitrate(), opusProperties.getComplexity(),
+                        opusProperties.getFrameMs(), opusStats);
+                outputEncoder = encoder;
+                log.debug("【流式会话】创建下行 Opus 编码器：{}Hz/{} 声道，traceId={}", format.sampleRate(),
+                        format.channels(), traceId);
+            }
+            return encoder;
+        }
+
+        private void closeOutputEncoder() {
+            if (outputEncoder != null) {
+                outputEncoder.close();
+                outputEncoder = null;
+            }
+        }
+
+        private void closeInputDecoder() {
+            if (inputDecoder != null) {
+                inputDecoder.close();
+                inputDecoder = null;
+            }
         }
 
         /**
@@ -974,7 +1605,25 @@ public class StreamingConversationHandler extends TextWebSocketHandler {
          * 关闭所有资源并尝试标记本轮追踪失败。
          */
         void dispose() {
+            FillerGate gate = fillerGate;
+            if (gate != null) {
+                gate.cancel();
+            }
+            FillerGate greeting = greetingGate;
+            if (greeting != null) {
+                greeting.cancel();
+            }
+            ChatStream stream = llmStream;
+            if (stream != null) {
+                log.info("【流式会话】会话关闭，取消进行中的 LLM 流式对话，traceId={}", traceId);
+                stream.cancel();
+                llmStream = null;
+            }
             failActiveTrace("Session disposed before completion");
+            closeInputDecoder();
+            synchronized (outputLock) {
+                closeOutputEncoder();
+            }
             closeAudioInput();
             if (audioOutput != null) {
                 try {
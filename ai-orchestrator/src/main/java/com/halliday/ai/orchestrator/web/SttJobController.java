@@ -0,0 +1,138 @@
+package com.halliday.ai.orchestrator.web;
+
+import com.halliday.ai.common.audio.AudioFormat;
+import com.halliday.ai.orchestrator.service.SttJob;
+import com.halliday.ai.orchestrator.service.SttJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * 离线批量转写任务接口：提交原始 PCM 后轮询状态与结果，避免为每个文件保持长连接。
+ */
+@RestController
+@RequestMapping(path = "/api/stt/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+public class SttJobController {
+
+    private static final Logger log = LoggerFactory.getLogger(SttJobController.class);
+    private static final AudioFormat DEFAULT_INPUT_FORMAT = AudioFormat.PCM16_MONO_16K;
+
+    private final SttJobService jobService;
+
+    public SttJobController(SttJobService jobService) {
+        this.jobService = jobService;
+        log.debug("【转写任务接口】SttJobController 已创建");
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<JobResponse> submit(@RequestParam(required = false) String provider,
+                                              @RequestParam(required = false) Integer sampleRate,
+                                              @RequestParam(required = false) Integer channels,
+                                              @RequestParam(required = false) Integer bitDepth,
+                                              InputStream body) {
+        AudioFormat format = inputFormat(sampleRate, channels, bitDepth);
+        log.info("【转写任务接口】收到转写任务，提供者：{}，采样率：{}，声道：{}，位深：{}",
+                provider, format.sampleRate(), format.channels(), format.bitDepth());
+        SttJob job;
+        try {
+            job = jobService.submit(provider, format, body);
+        } catch (SttJobService.UploadTooLargeException ex) {
+            throw new ResponseStatusException(PAYLOAD_TOO_LARGE, ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(BAD_REQUEST, ex.getMessage(), ex);
+        } catch (RejectedExecutionException ex) {
+            throw new ResponseStatusException(TOO_MANY_REQUESTS, ex.getMessage(), ex);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/stt/jobs/" + job.id()))
+                .body(JobResponse.from(job));
+    }
+
+    @GetMapping("/{id}")
+    public JobResponse status(@PathVariable String id) {
+        log.debug("【转写任务接口】查询任务状态：{}", id);
+        return JobResponse.from(require(id));
+    }
+
+    @GetMapping("/{id}/result")
+    public JobResult result(@PathVariable String id) {
+        SttJob job = require(id);
+        if (job.status() != SttJob.Status.SUCCEEDED) {
+            log.debug("【转写任务接口】任务 {} 尚无结果，当前状态：{}", id, job.status());
+            throw new ResponseStatusException(CONFLICT, "Job is " + job.status().name().toLowerCase(Locale.ROOT));
+        }
+        return new JobResult(job.id(), job.text().orElse(""));
+    }
+
+    @DeleteMapping("/{id}")
+    public JobResponse cancel(@PathVariable String id) {
+        log.info("【转写任务接口】取消任务：{}", id);
+        return jobService.cancel(id)
+                .map(JobResponse::from)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Unknown job: " + id));
+    }
+
+    private SttJob require(String id) {
+        return jobService.find(id)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Unknown job: " + id));
+    }
+
+    private AudioFormat inputFormat(Integer sampleRate, Integer channels, Integer bitDepth) {
+        int sr = Optional.ofNullable(sampleRate).orElse(DEFAULT_INPUT_FORMAT.sampleRate());
+        int ch = Optional.ofNullable(channels).orElse(DEFAULT_INPUT_FORMAT.channels());
+        int bd = Optional.ofNullable(bitDepth).orElse(DEFAULT_INPUT_FORMAT.bitDepth());
+        try {
+            return new AudioFormat(sr, ch, bd, AudioFormat.Endianness.LITTLE);
+        } catch (IllegalArgumentException ex) {
+            log.error("【转写任务接口】音频格式非法：采样率={}，声道={}，位深={}", sr, ch, bd);
+            throw new ResponseStatusException(BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    public record JobResponse(String id,
+                              String provider,
+                              String status,
+                              long audioDurationMs,
+                              Instant createdAt,
+                              Instant startedAt,
+                              Instant finishedAt,
+                              String error) {
+
+        static JobResponse from(SttJob job) {
+            return new JobResponse(
+                    job.id(),
+                    job.provider(),
+                    job.status().name().toLowerCase(Locale.ROOT),
+                    job.audioDurationMs(),
+                    job.createdAt(),
+                    job.startedAt().orElse(null),
+                    job.finishedAt().orElse(null),
+                    job.error().orElse(null));
+        }
+    }
+
+    public record JobResult(String id, String text) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.halliday.ai.orchestrator.service;
+
+import com.halliday.ai.common.audio.AudioFormat;
+import com.halliday.ai.orchestrator.config.SttJobProperties;
+import com.halliday.ai.stt.core.SpeechToTextClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SttJobServiceTest {
+
+    private static final AudioFormat FORMAT = AudioFormat.PCM16_MONO_16K;
+
+    private SttJobService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void transcribesSpooledFile() throws Exception {
+        SttJobProperties properties = properties(10);
+        service = new SttJobService(Map.of("stub", (SpeechToTextClient) (audio, format) -> "bytes=" + audio.length),
+                properties, new SimpleMeterRegistry());
+
+        SttJob job = service.submit(null, FORMAT, new ByteArrayInputStream(new byte[3200]));
+
+        assertEquals("stub", job.provider());
+        assertEquals(100, job.audioDurationMs());
+        awaitTerminal(job);
+        assertEquals(SttJob.Status.SUCCEEDED, job.status());
+        assertEquals("bytes=3200", job.text().orElseThrow());
+        try (var files = Files.list(Path.of(properties.getStorageDir()))) {
+            assertEquals(0, files.count(), "spooled audio should be deleted after the job finishes");
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFullAndCancelsQueuedJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SpeechToTextClient blocking = (audio, format) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "done";
+        };
+        service = new SttJobService(Map.of("stub", blocking), properties(1), new SimpleMeterRegistry());
+
+        SttJob running = service.submit("stub", FORMAT, new ByteArrayInputStream(new byte[64]));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        SttJob queued = service.submit("stub", FORMAT, new ByteArrayInputStream(new byte[64]));
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submit("stub", FORMAT, new ByteArrayInputStream(new byte[64])));
+
+        assertEquals(SttJob.Status.CANCELLED, service.cancel(queued.id()).orElseThrow().status());
+        release.countDown();
+        awaitTerminal(running);
+        assertEquals(SttJob.Status.SUCCEEDED, running.status());
+        assertEquals(SttJob.Status.CANCELLED, queued.status());
+    }
+
+    @Test
+    void rejectsUnknownProviderAndOversizedUpload() {
+        SttJobProperties properties = properties(10);
+        properties.setMaxUploadBytes(16);
+        service = new SttJobService(Map.of("stub", (SpeechToTextClient) (audio, format) -> ""),
+                properties, new SimpleMeterRegistry());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.submit("missing", FORMAT, new ByteArrayInputStream(new byte[8])));
+        assertThrows(SttJobService.UploadTooLargeException.class,
+                () -> service.submit("stub", FORMAT, new ByteArrayInputStream(new byte[32])));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.submit("stub", FORMAT, new ByteArrayInputStream(new byte[0])));
+    }
+
+    private static SttJobProperties properties(int queueCapacity) {
+        SttJobProperties properties = new SttJobProperties();
+        properties.setQueueCapacity(queueCapacity);
+        properties.setDefaultProviderConcurrency(1);
+        try {
+            properties.setStorageDir(Files.createTempDirectory("stt-job-test").toString());
+        } catch (java.io.IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return properties;
+    }
+
+    private static void awaitTerminal(SttJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.status().terminal() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.halliday.ai.orchestrator.service;
+
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.common.stt.SttResult;
+import com.halliday.ai.orchestrator.config.UpstreamHealthProperties;
+import com.halliday.ai.stt.core.StreamingSpeechToTextClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamHealthMonitorTest {
+
+    @Test
+    void unprobedDefaultCompetesOnNeutralScore() {
+        List<String> providers = List.of("probed", "plain");
+        UpstreamHealthMonitor slow = monitor(true);
+        try {
+            assertEquals("plain", slow.pickHealthiest("stt", providers, "plain"),
+                    "a probe target without results is treated as unknown");
+            slow.health("stt:probed").orElseThrow().recordSuccess(5_000);
+            assertEquals("plain", slow.pickHealthiest("stt", providers, "plain"),
+                    "a slow probed provider must not beat an unprobed default");
+        } finally {
+            slow.shutdown();
+        }
+        UpstreamHealthMonitor fast = monitor(true);
+        try {
+            fast.health("stt:probed").orElseThrow().recordSuccess(50);
+            assertEquals("probed", fast.pickHealthiest("stt", providers, "plain"));
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    @Test
+    void disabledMonitorKeepsDefault() {
+        UpstreamHealthMonitor monitor = monitor(false);
+        try {
+            monitor.health("stt:probed").orElseThrow().recordSuccess(10);
+            assertEquals("plain", monitor.pickHealthiest("stt", List.of("probed", "plain"), "plain"));
+        } finally {
+            monitor.shutdown();
+        }
+    }
+
+    private static UpstreamHealthMonitor monitor(boolean enabled) {
+        UpstreamHealthProperties properties = new UpstreamHealthProperties();
+        properties.setEnabled(enabled);
+        properties.setInitialDelayMs(60_000);
+        return new UpstreamHealthMonitor(Map.of("probed", new ProbedStt(), "plain", (pcm, onResult) -> {
+        }), null, null, properties, new SimpleMeterRegistry());
+    }
+
+    private static final class ProbedStt implements StreamingSpeechToTextClient, HealthProbe {
+
+        @Override
+        public void streamRecognize(InputStream pcmStream, Consumer<SttResult> onResult) {
+        }
+
+        @Override
+        public String probeTarget() {
+            return "stt:probed";
+        }
+
+        @Override
+        public ProbeResult probe(Duration timeout) {
+            return ProbeResult.success(1, 1);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.halliday.ai.orchestrator.service;
+
+import com.halliday.ai.orchestrator.config.VoicePromptProperties;
+import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoicePromptServiceTest {
+
+    private static final StreamingTextToSpeechClient SILENT = (text, voice, onChunk, onComplete) -> onComplete.run();
+
+    @Test
+    void libraryStripsBlanksAndDuplicates() {
+        VoicePromptProperties properties = new VoicePromptProperties();
+        properties.setGreeting(" Hi there. ");
+        properties.setFillers(new ArrayList<>(List.of("Hmm.", "  ", "Okay.", "Hmm.")));
+        properties.setApology("Sorry.");
+        properties.setPhrases(new ArrayList<>(List.of("Okay.", "One moment.")));
+
+        VoicePromptService service = new VoicePromptService(SILENT, properties, new SimpleMeterRegistry());
+
+        assertEquals(List.of("Hi there.", "Hmm.", "Okay.", "Sorry.", "One moment."), service.library());
+    }
+
+    @Test
+    void nextFillerRequiresEnabledPromptsAndConfiguredFillers() {
+        VoicePromptProperties properties = new VoicePromptProperties();
+        properties.setFillers(new ArrayList<>(List.of(" Hmm. ")));
+        VoicePromptService service = new VoicePromptService(SILENT, properties, new SimpleMeterRegistry());
+
+        assertNull(service.nextFiller(), "prompts are disabled by default");
+
+        properties.setEnabled(true);
+        assertEquals("Hmm.", service.nextFiller());
+
+        properties.setFillers(new ArrayList<>());
+        assertNull(service.nextFiller());
+    }
+
+    @Test
+    void playCountsEachKindOnOneCounter() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VoicePromptService service = new VoicePromptService(SILENT, new VoicePromptProperties(), registry);
+
+        service.play("filler", "Hmm.", chunk -> {
+        });
+        service.play("filler", "Okay.", chunk -> {
+        });
+
+        assertEquals(2.0, registry.get("tts.prompts.played").tag("kind", "filler").counter().count());
+        assertEquals(0.0, registry.get("tts.prompts.played").tag("kind", "greeting").counter().count());
+        assertEquals(3, registry.find("tts.prompts.played").counters().size());
+    }
+}
@@ -0,0 +1,67 @@
+package com.halliday.ai.orchestrator.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FillerGateTest {
+
+    @Test
+    void replyArrivingFirstPreventsFiller() {
+        FillerGate gate = new FillerGate();
+
+        gate.settle();
+
+        assertFalse(gate.claim(), "filler must not start once the reply has settled the gate");
+        assertFalse(gate.stopped());
+    }
+
+    @Test
+    void replyWaitsForClaimedFillerToFinish() throws Exception {
+        FillerGate gate = new FillerGate();
+        assertTrue(gate.claim());
+
+        CompletableFuture<Void> reply = CompletableFuture.runAsync(gate::settle);
+        Thread.sleep(50);
+        assertFalse(reply.isDone(), "reply must wait while the filler is playing");
+        assertFalse(gate.stopped(), "settling must not interrupt the filler");
+
+        gate.release();
+        reply.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void cancelStopsClaimedFillerWithoutWaiting() {
+        FillerGate gate = new FillerGate();
+        assertTrue(gate.claim());
+
+        gate.cancel();
+
+        assertTrue(gate.stopped());
+        gate.release();
+        gate.settle();
+    }
+
+    @Test
+    void cancelBeforeClaimPreventsFiller() {
+        FillerGate gate = new FillerGate();
+
+        gate.cancel();
+
+        assertFalse(gate.claim());
+        assertTrue(gate.stopped());
+    }
+
+    @Test
+    void playingOnlyBetweenClaimAndRelease() {
+        FillerGate gate = new FillerGate();
+        assertFalse(gate.playing());
+        assertTrue(gate.claim());
+        assertTrue(gate.playing());
+        gate.release();
+        assertFalse(gate.playing());
+    }
+}
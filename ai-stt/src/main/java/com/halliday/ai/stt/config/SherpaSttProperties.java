@@ -43,6 +43,31 @@ public class SherpaSttProperties {
      */
     private long resultTimeoutMs = 5_000;
 
+    /**
+     * 超过该时长（毫秒）的离线音频启用长音频模式：按静音切分后并行识别。
+     */
+    private long longAudioThresholdMs = 60_000;
+
+    /**
+     * 长音频模式下期望的分段时长，毫秒。
+     */
+    private long longAudioSegmentMs = 30_000;
+
+    /**
+     * 长音频模式下单段最大时长，毫秒；找不到静音时在该范围内最安静处强制切分。
+     */
+    private long longAudioMaxSegmentMs = 45_000;
+
+    /**
+     * 长音频模式下同时建立的 Sherpa 连接数。
+     */
+    private int longAudioParallelism = 4;
+
+    /**
+     * 判定为静音的 RMS 幅度上限（16-bit 采样，0~32767）。
+     */
+    private int silenceThreshold = 500;
+
     public String getWsUrl() {
         String value = wsUrl();
         log.debug("【Sherpa 配置】读取 wsUrl：{}", value);
@@ -97,4 +122,59 @@ public class SherpaSttProperties {
         log.debug("【Sherpa 配置】设置 resultTimeoutMs：{}", resultTimeoutMs);
         resultTimeoutMs(resultTimeoutMs);
     }
+
+    public long getLongAudioThresholdMs() {
+        long value = longAudioThresholdMs();
+        log.debug("【Sherpa 配置】读取 longAudioThresholdMs：{}", value);
+        return value;
+    }
+
+    public void setLongAudioThresholdMs(long longAudioThresholdMs) {
+        log.debug("【Sherpa 配置】设置 longAudioThresholdMs：{}", longAudioThresholdMs);
+        longAudioThresholdMs(longAudioThresholdMs);
+    }
+
+    public long getLongAudioSegmentMs() {
+        long value = longAudioSegmentMs();
+        log.debug("【Sherpa 配置】读取 longAudioSegmentMs：{}", value);
+        return value;
+    }
+
+    public void setLongAudioSegmentMs(long longAudioSegmentMs) {
+        log.debug("【Sherpa 配置】设置 longAudioSegmentMs：{}", longAudioSegmentMs);
+        longAudioSegmentMs(longAudioSegmentMs);
+    }
+
+    public long getLongAudioMaxSegmentMs() {
+        long value = longAudioMaxSegmentMs();
+        log.debug("【Sherpa 配置】读取 longAudioMaxSegmentMs：{}", value);
+        return value;
+    }
+
+    public void setLongAudioMaxSegmentMs(long longAudioMaxSegmentMs) {
+        log.debug("【Sherpa 配置】设置 longAudioMaxSegmentMs：{}", longAudioMaxSegmentMs);
+        longAudioMaxSegmentMs(longAudioMaxSegmentMs);
+    }
+
+    public int getLongAudioParallelism() {
+        int value = longAudioParallelism();
+        log.debug("【Sherpa 配置】读取 longAudioParallelism：{}", value);
+        return value;
+    }
+
+    public void setLongAudioParallelism(int longAudioParallelism) {
+        log.debug("【Sherpa 配置】设置 longAudioParallelism：{}", longAudioParallelism);
+        longAudioParallelism(longAudioParallelism);
+    }
+
+    public int getSilenceThreshold() {
+        int value = silenceThreshold();
+        log.debug("【Sherpa 配置】读取 silenceThreshold：{}", value);
+        return value;
+    }
+
+    public void setSilenceThreshold(int silenceThreshold) {
+        log.debug("【Sherpa 配置】设置 silenceThreshold：{}", silenceThreshold);
+        silenceThreshold(silenceThreshold);
+    }
 }
@@ -1,9 +1,14 @@
 package com.halliday.ai.stt.core;
 
 import com.halliday.ai.common.audio.AudioFormat;
+import com.halliday.ai.common.exception.AiServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public interface SpeechToTextClient {
 
     Logger log = LoggerFactory.getLogger(SpeechToTextClient.class);
@@ -20,4 +25,22 @@ public interface SpeechToTextClient {
      * @return plain-text transcription
      */
     String transcribe(byte[] audio, AudioFormat format);
+
+    /**
+     * Transcribe a raw PCM file. The default implementation loads the file into memory;
+     * implementations that can stream or memory-map large inputs should override it.
+     *
+     * @param audioFile file containing raw PCM audio
+     * @param format    format metadata describing {@code audioFile}
+     * @return plain-text transcription
+     */
+    default String transcribe(Path audioFile, AudioFormat format) {
+        log.debug("【语音识别接口】读取音频文件进行转写：{}", audioFile);
+        try {
+            return transcribe(Files.readAllBytes(audioFile), format);
+        } catch (IOException ex) {
+            log.error("【语音识别接口】读取音频文件失败：{}", audioFile, ex);
+            throw new AiServiceException("Failed to read audio file " + audioFile, ex);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package com.halliday.ai.stt.sherpa;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Sherpa 识别消息的流式解析器。
+ * <p>
+ * 只按 token 扫描顶层的 {@code text}、{@code segment.text}、{@code finished}/{@code final}/{@code is_final}
+ * 与 {@code type} 字段，其余内容直接跳过，不构建 {@code JsonNode} 树。部分结果每秒会到达多次，
+ * 因此解析路径上不输出高于 trace 级别的日志。
+ */
+final class SherpaMessageParser {
+
+    private static final Logger log = LoggerFactory.getLogger(SherpaMessageParser.class);
+    private static final String FINAL_SUFFIX = "_final";
+
+    private final JsonFactory factory;
+
+    SherpaMessageParser(JsonFactory factory) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+    }
+
+    /**
+     * 解析一条 Sherpa 文本消息。
+     *
+     * @param json WebSocket 收到的原始文本
+     * @return 识别文本（缺失时为空字符串）与是否为最终结果
+     * @throws IOException JSON 格式不合法
+     */
+    Message parse(String json) throws IOException {
+        String text = "";
+        String segmentText = "";
+        boolean finished = false;
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                log.trace("【Sherpa 消息解析】消息不是 JSON 对象，忽略");
+                return Message.EMPTY;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "text" -> text = scalarText(parser, value);
+                    case "segment" -> segmentText = segmentText(parser, value);
+                    case "finished", "final", "is_final" -> finished |= truthy(parser, value);
+                    case "type" -> finished |= value == JsonToken.VALUE_STRING && isFinalType(parser.getText());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        String result = text.isBlank() && !segmentText.isEmpty() ? segmentText : text;
+        log.trace("【Sherpa 消息解析】文本长度：{}，是否结束：{}", result.length(), finished);
+        return new Message(result, finished);
+    }
+
+    private String segmentText(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "";
+        }
+        String text = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken nested = parser.nextToken();
+            if ("text".equals(field)) {
+                text = scalarText(parser, nested);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return text;
+    }
+
+    private String scalarText(JsonParser parser, JsonToken value) throws IOException {
+        if (value == null || !value.isScalarValue() || value == JsonToken.VALUE_NULL) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    private boolean truthy(JsonParser parser, JsonToken value) throws IOException {
+        if (value == null) {
+            return false;
+        }
+        return switch (value) {
+            case VALUE_TRUE -> true;
+            case VALUE_NUMBER_INT -> parser.getLongValue() != 0;
+            case VALUE_STRING -> "true".equals(parser.getText().trim());
+            case START_OBJECT, START_ARRAY -> {
+                parser.skipChildren();
+                yield false;
+            }
+            default -> false;
+        };
+    }
+
+    private boolean isFinalType(String type) {
+        return "final".equalsIgnoreCase(type)
+                || "final_result".equalsIgnoreCase(type)
+                || type.regionMatches(true, type.length() - FINAL_SUFFIX.length(), FINAL_SUFFIX, 0, FINAL_SUFFIX.length());
+    }
+
+    /**
+     * 单条识别消息的解析结果。
+     *
+     * @param text     识别文本，缺失时为空字符串
+     * @param finished 是否为最终结果
+     */
+    record Message(String text, boolean finished) {
+
+        static final Message EMPTY = new Message("", false);
+    }
+}
@@ -1,9 +1,11 @@
 package com.halliday.ai.stt.sherpa;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.halliday.ai.common.audio.AudioFormat;
+import com.halliday.ai.common.audio.PcmSilenceSplitter;
 import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.common.http.HttpClientFactory;
+import com.halliday.ai.common.spi.NamedService;
 import com.halliday.ai.stt.config.SherpaSttProperties;
 import com.halliday.ai.stt.core.SpeechToTextClient;
 import okhttp3.OkHttpClient;
@@ -17,34 +19,64 @@ import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
-public class SherpaSpeechToTextClient implements SpeechToTextClient {
+public class SherpaSpeechToTextClient implements SpeechToTextClient, NamedService, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(SherpaSpeechToTextClient.class);
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
 
     private final SherpaSttProperties properties;
-    private final ObjectMapper objectMapper;
+    private final SherpaMessageParser messageParser;
     private final OkHttpClient client;
+    private final ExecutorService longAudioExecutor;
 
     public SherpaSpeechToTextClient(SherpaSttProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, HttpClientFactory.shared());
+    }
+
+    public SherpaSpeechToTextClient(SherpaSttProperties properties, ObjectMapper objectMapper,
+                                    HttpClientFactory httpClientFactory) {
         this.properties = Objects.requireNonNull(properties, "properties");
-        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.messageParser = new SherpaMessageParser(Objects.requireNonNull(objectMapper, "objectMapper").getFactory());
         log.debug("【Sherpa 识别】初始化客户端，目标地址：{}", properties.getWsUrl());
-        this.client = buildClient(properties);
+        this.client = buildClient(properties, Objects.requireNonNull(httpClientFactory, "httpClientFactory"));
+        int parallelism = Math.max(1, properties.getLongAudioParallelism());
+        this.longAudioExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r);
+            thread.setName("sherpa-long-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String id() {
+        log.debug("【Sherpa 识别】返回服务标识：sherpa");
+        return "sherpa";
     }
 
-    private OkHttpClient buildClient(SherpaSttProperties properties) {
+    private OkHttpClient buildClient(SherpaSttProperties properties, HttpClientFactory httpClientFactory) {
         log.debug("【Sherpa 识别】构建 OkHttpClient，连接超时：{}ms，读取超时：{}ms，帧字节数：{}",
                 properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), properties.getFrameBytes());
-        return new OkHttpClient.Builder()
-                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
-                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
-                .writeTimeout(0, TimeUnit.MILLISECONDS)
-                .build();
+        return httpClientFactory.newWebSocketClient(properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), 0);
     }
 
     @Override
@@ -52,6 +84,34 @@ public class SherpaSpeechToTextClient implements SpeechToTextClient {
         log.info("【Sherpa 识别】开始转写音频，数据长度：{}", audio == null ? 0 : audio.length);
         Objects.requireNonNull(audio, "audio");
         Objects.requireNonNull(format, "format");
+        validateFormat(format);
+        return transcribeBuffer(ByteBuffer.wrap(audio), format);
+    }
+
+    /**
+     * 以内存映射方式读取音频文件，避免大文件整体加载到堆内。
+     */
+    @Override
+    public String transcribe(Path audioFile, AudioFormat format) {
+        Objects.requireNonNull(audioFile, "audioFile");
+        Objects.requireNonNull(format, "format");
+        validateFormat(format);
+        try (FileChannel channel = FileChannel.open(audioFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            log.info("【Sherpa 识别】开始转写音频文件：{}，字节数：{}", audioFile, size);
+            if (size > Integer.MAX_VALUE) {
+                log.error("【Sherpa 识别】音频文件过大，无法映射：{} 字节", size);
+                throw new IllegalArgumentException("Audio file exceeds 2 GiB: " + audioFile);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return transcribeBuffer(mapped, format);
+        } catch (IOException ex) {
+            log.error("【Sherpa 识别】映射音频文件失败：{}", audioFile, ex);
+            throw new AiServiceException("Failed to read audio file " + audioFile, ex);
+        }
+    }
+
+    private void validateFormat(AudioFormat format) {
         if (format.bitDepth() != 16) {
             log.error("【Sherpa 识别】音频位深不符合要求：{}", format.bitDepth());
             throw new IllegalArgumentException("Sherpa expects 16-bit PCM audio");
@@ -60,56 +120,189 @@ public class SherpaSpeechToTextClient implements SpeechToTextClient {
             log.error("【Sherpa 识别】音频通道数不符合要求：{}", format.channels());
             throw new IllegalArgumentException("Sherpa demo client currently supports mono audio");
         }
+    }
+
+    private String transcribeBuffer(ByteBuffer pcm, AudioFormat format) {
+        long durationMs = durationMillis(pcm.remaining(), format);
+        if (properties.getLongAudioParallelism() > 1 && durationMs > properties.getLongAudioThresholdMs()) {
+            return transcribeLong(pcm, format, durationMs);
+        }
+        String result = transcribeSegment(pcm, properties.getResultTimeoutMs());
+        log.info("【Sherpa 识别】转写完成，文本长度：{}", result.length());
+        return result;
+    }
+
+    /**
+     * 长音频模式：按静音切分后在多个 Sherpa 连接上并行识别，再按原始顺序拼接文本。
+     * 任一分段失败或调用线程被中断时，取消尚未开始的分段，并直接关闭进行中的 WebSocket，使占用的线程立即释放。
+     */
+    private String transcribeLong(ByteBuffer pcm, AudioFormat format, long durationMs) {
+        long segmentMs = Math.max(1, properties.getLongAudioSegmentMs());
+        long maxSegmentMs = Math.max(segmentMs, properties.getLongAudioMaxSegmentMs());
+        List<PcmSilenceSplitter.Segment> segments =
+                new PcmSilenceSplitter(format, segmentMs, maxSegmentMs, properties.getSilenceThreshold()).split(pcm);
+        log.info("【Sherpa 识别】启用长音频模式，时长：{}ms，分段数：{}，并发连接数：{}",
+                durationMs, segments.size(), properties.getLongAudioParallelism());
+        SocketGroup sockets = new SocketGroup();
+        List<CompletableFuture<String>> futures = new ArrayList<>(segments.size());
+        for (PcmSilenceSplitter.Segment segment : segments) {
+            ByteBuffer slice = segment.slice(pcm);
+            long timeoutMs = properties.getResultTimeoutMs() + durationMillis(segment.length(), format);
+            futures.add(CompletableFuture.supplyAsync(() -> transcribeSegment(slice, timeoutMs, sockets),
+                    longAudioExecutor));
+        }
+        StringBuilder joined = new StringBuilder();
+        try {
+            for (CompletableFuture<String> future : futures) {
+                String text = future.get().trim();
+                if (text.isEmpty()) {
+                    continue;
+                }
+                if (joined.length() > 0) {
+                    joined.append(' ');
+                }
+                joined.append(text);
+            }
+        } catch (InterruptedException ex) {
+            abort(futures, sockets);
+            Thread.currentThread().interrupt();
+            log.warn("【Sherpa 识别】长音频识别被中断，已关闭进行中的连接");
+            throw new AiServiceException("Interrupted while transcribing long audio", ex);
+        } catch (ExecutionException ex) {
+            abort(futures, sockets);
+            Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+            log.error("【Sherpa 识别】长音频分段识别失败，已取消剩余分段", cause);
+            if (cause instanceof AiServiceException serviceException) {
+                throw serviceException;
+            }
+            throw new AiServiceException("Failed to transcribe long audio", cause);
+        }
+        String result = joined.toString();
+        log.info("【Sherpa 识别】长音频转写完成，分段数：{}，文本长度：{}", segments.size(), result.length());
+        return result;
+    }
+
+    private static void abort(List<CompletableFuture<String>> futures, SocketGroup sockets) {
+        // 取消只会跳过尚未开始的分段；进行中的分段阻塞在 WebSocket 上，需要直接关闭连接
+        futures.forEach(future -> future.cancel(false));
+        sockets.cancelAll();
+    }
+
+    private String transcribeSegment(ByteBuffer pcm, long timeoutMs) {
+        return transcribeSegment(pcm, timeoutMs, null);
+    }
+
+    private String transcribeSegment(ByteBuffer pcm, long timeoutMs, SocketGroup sockets) {
         Request request = new Request.Builder().url(properties.getWsUrl()).build();
         CompletableFuture<String> future = new CompletableFuture<>();
         AtomicReference<StringBuilder> finalBuffer = new AtomicReference<>(new StringBuilder());
         AtomicReference<String> interim = new AtomicReference<>("");
         SherpaListener listener = new SherpaListener(future, finalBuffer, interim);
         WebSocket webSocket = client.newWebSocket(request, listener);
-        try {
-            sendAudio(webSocket, audio);
-        } catch (IOException ex) {
-            log.error("【Sherpa 识别】发送音频失败，将关闭连接", ex);
+        if (sockets != null && !sockets.add(webSocket)) {
             webSocket.cancel();
-            throw new AiServiceException("Failed to stream audio to Sherpa", ex);
+            throw new AiServiceException("Long audio transcription was aborted");
+        }
+        try {
+            try {
+                sendAudio(webSocket, pcm);
+            } catch (IOException ex) {
+                log.error("【Sherpa 识别】发送音频失败，将关闭连接", ex);
+                webSocket.cancel();
+                throw new AiServiceException("Failed to stream audio to Sherpa", ex);
+            }
+            try {
+                return awaitResult(future, timeoutMs);
+            } catch (AiServiceException ex) {
+                webSocket.cancel();
+                throw ex;
+            }
+        } finally {
+            if (sockets != null) {
+                sockets.remove(webSocket);
+            }
         }
-        String result = awaitResult(future);
-        log.info("【Sherpa 识别】转写完成，文本长度：{}", result.length());
-        return result;
     }
 
-    private void sendAudio(WebSocket webSocket, byte[] audio) throws IOException {
+    private void sendAudio(WebSocket webSocket, ByteBuffer audio) throws IOException {
         int frameBytes = Math.max(1, properties.getFrameBytes());
         log.debug("【Sherpa 识别】开始分片发送音频，帧大小：{} 字节", frameBytes);
-        int offset = 0;
-        while (offset < audio.length) {
-            int length = Math.min(frameBytes, audio.length - offset);
-            ByteString payload = ByteString.of(audio, offset, length);
+        ByteBuffer view = audio.duplicate();
+        while (view.hasRemaining()) {
+            int offset = view.position();
+            int length = Math.min(frameBytes, view.remaining());
+            ByteString payload = ByteString.of(view.slice(offset, length));
             boolean sent = webSocket.send(payload);
             if (!sent) {
                 log.error("【Sherpa 识别】WebSocket 拒绝发送帧，偏移：{}，长度：{}", offset, length);
                 throw new IOException("WebSocket rejected PCM frame");
             }
-            offset += length;
+            view.position(offset + length);
         }
         log.debug("【Sherpa 识别】音频发送完毕，准备关闭 WebSocket");
         webSocket.close(1000, "eof");
     }
 
-    private String awaitResult(CompletableFuture<String> future) {
+    private String awaitResult(CompletableFuture<String> future, long timeoutMs) {
         try {
-            long timeoutMs = properties.getResultTimeoutMs();
             log.debug("【Sherpa 识别】等待识别结果，超时时长：{}ms", timeoutMs);
             if (timeoutMs > 0) {
                 return future.get(timeoutMs, TimeUnit.MILLISECONDS);
             }
             return future.get();
         } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("【Sherpa 识别】等待识别结果失败", ex);
             throw new AiServiceException("Failed to receive STT result", ex);
         }
     }
 
+    private long durationMillis(long bytes, AudioFormat format) {
+        long bytesPerSecond = (long) format.sampleRate() * format.frameSizeBytes();
+        return bytesPerSecond <= 0 ? 0 : bytes * 1000L / bytesPerSecond;
+    }
+
+    /**
+     * 关闭长音频识别线程池，中断仍在执行的分段。
+     */
+    @Override
+    public void close() {
+        List<Runnable> pending = longAudioExecutor.shutdownNow();
+        log.info("【Sherpa 识别】客户端已关闭，丢弃排队分段数：{}", pending.size());
+    }
+
+    /**
+     * 一次长音频识别中进行中的 WebSocket 连接；中止后新建立的连接会被立即拒绝。
+     */
+    private static final class SocketGroup {
+
+        private final Set<WebSocket> active = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean aborted = new AtomicBoolean();
+
+        boolean add(WebSocket webSocket) {
+            active.add(webSocket);
+            if (aborted.get()) {
+                active.remove(webSocket);
+                return false;
+            }
+            return true;
+        }
+
+        void remove(WebSocket webSocket) {
+            active.remove(webSocket);
+        }
+
+        void cancelAll() {
+            aborted.set(true);
+            for (WebSocket webSocket : active) {
+                webSocket.cancel();
+            }
+            active.clear();
+        }
+    }
+
     private class SherpaListener extends WebSocketListener {
 
         private final CompletableFuture<String> future;
@@ -128,13 +321,13 @@ public class SherpaSpeechToTextClient implements SpeechToTextClient {
         public void onMessage(WebSocket webSocket, String text) {
             log.trace("【Sherpa 识别】收到消息：{}", text);
             try {
-                JsonNode node = objectMapper.readTree(text);
-                String content = extractText(node);
+                SherpaMessageParser.Message message = messageParser.parse(text);
+                String content = message.text();
                 if (StringUtils.hasText(content)) {
                     interim.set(content);
-                    log.debug("【Sherpa 识别】更新临时文本：{}", content);
+                    log.trace("【Sherpa 识别】更新临时文本：{}", content);
                 }
-                if (isFinal(node) && StringUtils.hasText(content)) {
+                if (message.finished() && StringUtils.hasText(content)) {
                     StringBuilder buffer = finalBuffer.get();
                     if (buffer.length() > 0) {
                         buffer.append(' ');
@@ -185,38 +378,4 @@ public class SherpaSpeechToTextClient implements SpeechToTextClient {
             }
         }
     }
-
-    private boolean isFinal(JsonNode node) {
-        boolean result = node.path("finished").asBoolean(false) || node.path("final").asBoolean(false)
-                || node.path("is_final").asBoolean(false);
-        if (result) {
-            log.trace("【Sherpa 识别】检测到最终结果标记");
-            return true;
-        }
-        String type = node.path("type").asText("");
-        boolean matched = "final".equalsIgnoreCase(type) || "final_result".equalsIgnoreCase(type)
-                || type.toLowerCase().endsWith("_final");
-        if (matched) {
-            log.trace("【Sherpa 识别】根据 type 字段判断为最终结果：{}", type);
-        }
-        return matched;
-    }
-
-    private String extractText(JsonNode node) {
-        String text = node.path("text").asText("");
-        if (StringUtils.hasText(text)) {
-            log.trace("【Sherpa 识别】从 text 字段解析到内容，长度：{}", text.length());
-            return text;
-        }
-        JsonNode segment = node.path("segment");
-        if (segment.isObject()) {
-            String segText = segment.path("text").asText("");
-            if (StringUtils.hasText(segText)) {
-                log.trace("【Sherpa 识别】从 segment.text 字段解析到内容，长度：{}", segText.length());
-                return segText;
-            }
-        }
-        log.trace("【Sherpa 识别】未解析到有效文本");
-        return "";
-    }
 }
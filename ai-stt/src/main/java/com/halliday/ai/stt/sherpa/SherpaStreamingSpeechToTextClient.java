@@ -1,7 +1,9 @@
 package com.halliday.ai.stt.sherpa;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.common.http.HttpClientFactory;
 import com.halliday.ai.common.spi.NamedService;
 import com.halliday.ai.common.stt.SttResult;
 import com.halliday.ai.stt.config.SherpaSttProperties;
@@ -17,31 +19,37 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
-public class SherpaStreamingSpeechToTextClient implements StreamingSpeechToTextClient, NamedService {
+public class SherpaStreamingSpeechToTextClient implements StreamingSpeechToTextClient, NamedService, HealthProbe {
 
     private static final Logger log = LoggerFactory.getLogger(SherpaStreamingSpeechToTextClient.class);
 
     private final SherpaSttProperties properties;
-    private final ObjectMapper mapper;
+    private final SherpaMessageParser messageParser;
     private final OkHttpClient client;
     private final ExecutorService executor;
 
     public SherpaStreamingSpeechToTextClient(SherpaSttProperties properties, ObjectMapper mapper) {
+        this(properties, mapper, HttpClientFactory.shared());
+    }
+
+    public SherpaStreamingSpeechToTextClient(SherpaSttProperties properties, ObjectMapper mapper,
+                                             HttpClientFactory httpClientFactory) {
         this.properties = Objects.requireNonNull(properties, "properties");
-        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.messageParser = new SherpaMessageParser(Objects.requireNonNull(mapper, "mapper").getFactory());
         log.debug("【Sherpa 流式识别】初始化客户端，目标地址：{}", properties.getWsUrl());
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
-                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
-                .writeTimeout(0, TimeUnit.MILLISECONDS)
-                .build();
+        this.client = Objects.requireNonNull(httpClientFactory, "httpClientFactory")
+                .newWebSocketClient(properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), 0);
         this.executor = Executors.newCachedThreadPool(r -> {
             Thread t = new Thread(r);
             t.setName("sherpa-stream-" + THREAD_COUNTER.incrementAndGet());
@@ -58,6 +66,67 @@ public class SherpaStreamingSpeechToTextClient implements StreamingSpeechToTextC
         return "sherpa";
     }
 
+    @Override
+    public String probeTarget() {
+        return "stt:" + id();
+    }
+
+    /**
+     * 建立一条探测连接，发送 100ms 静音后关闭，测量握手耗时与首条消息（或关闭握手）耗时。
+     */
+    @Override
+    public ProbeResult probe(Duration timeout) {
+        long start = System.nanoTime();
+        CompletableFuture<Long> opened = new CompletableFuture<>();
+        CompletableFuture<Long> firstResponse = new CompletableFuture<>();
+        byte[] silence = new byte[Math.max(1, properties.getFrameBytes()) * 5];
+        Request request = new Request.Builder().url(properties.getWsUrl()).build();
+        WebSocket webSocket = client.newWebSocket(request, new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                opened.complete(elapsedMs(start));
+                webSocket.send(ByteString.of(silence));
+                webSocket.close(1000, "probe");
+            }
+
+            @Override
+            public void onMessage(WebSocket webSocket, String text) {
+                firstResponse.complete(elapsedMs(start));
+            }
+
+            @Override
+            public void onClosing(WebSocket webSocket, int code, String reason) {
+                firstResponse.complete(elapsedMs(start));
+            }
+
+            @Override
+            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+                opened.completeExceptionally(t);
+                firstResponse.completeExceptionally(t);
+            }
+        });
+        try {
+            long firstMs = firstResponse.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            long connectMs = opened.getNow(0L);
+            log.trace("【Sherpa 流式识别】探测成功，握手耗时：{}ms，首响应耗时：{}ms", connectMs, firstMs);
+            return ProbeResult.success(connectMs, firstMs);
+        } catch (TimeoutException ex) {
+            return ProbeResult.failure(opened.isDone() && !opened.isCompletedExceptionally() ? opened.join() : 0,
+                    elapsedMs(start), "timeout after " + timeout.toMillis() + "ms");
+        } catch (ExecutionException ex) {
+            return ProbeResult.failure(0, elapsedMs(start), String.valueOf(ex.getCause()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return ProbeResult.failure(0, elapsedMs(start), "interrupted");
+        } finally {
+            webSocket.cancel();
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
     @Override
     public void streamRecognize(InputStream pcmStream, Consumer<SttResult> onResult) {
         Objects.requireNonNull(pcmStream, "pcmStream");
@@ -99,11 +168,11 @@ public class SherpaStreamingSpeechToTextClient implements StreamingSpeechToTextC
         public void onMessage(WebSocket webSocket, String text) {
             log.trace("【Sherpa 流式识别】收到消息：{}", text);
             try {
-                JsonNode node = mapper.readTree(text);
-                String transcript = extractText(node);
-                boolean finished = isFinal(node);
+                SherpaMessageParser.Message message = messageParser.parse(text);
+                String transcript = message.text();
+                boolean finished = message.finished();
                 if (!transcript.isEmpty() || finished) {
-                    log.debug("【Sherpa 流式识别】输出识别片段，长度：{}，是否结束：{}", transcript.length(), finished);
+                    log.trace("【Sherpa 流式识别】输出识别片段，长度：{}，是否结束：{}", transcript.length(), finished);
                     consumer.accept(SttResult.builder().text(transcript).finished(finished).idx(0).build());
                 }
             } catch (IOException ex) {
@@ -117,31 +186,4 @@ public class SherpaStreamingSpeechToTextClient implements StreamingSpeechToTextC
             consumer.accept(SttResult.builder().text("").finished(true).idx(0).build());
         }
     }
-
-    private boolean isFinal(JsonNode node) {
-        boolean result = node.path("finished").asBoolean(false) || node.path("final").asBoolean(false) || node.path("is_final").asBoolean(false);
-        if (result) {
-            log.trace("【Sherpa 流式识别】检测到 finished 标记");
-            return true;
-        }
-        String type = node.path("type").asText("");
-        boolean matched = "final".equalsIgnoreCase(type) || "final_result".equalsIgnoreCase(type) || type.toLowerCase().endsWith("_final");
-        if (matched) {
-            log.trace("【Sherpa 流式识别】根据 type 字段判断为最终结果：{}", type);
-        }
-        return matched;
-    }
-
-    private String extractText(JsonNode node) {
-        String text = node.path("text").asText("");
-        if (text == null || text.isEmpty()) {
-            JsonNode segment = node.path("segment");
-            if (segment.isObject()) {
-                text = segment.path("text").asText("");
-            }
-        }
-        String result = text == null ? "" : text;
-        log.trace("【Sherpa 流式识别】解析文本，长度：{}", result.length());
-        return result;
-    }
 }
@@ -0,0 +1,85 @@
+package com.halliday.ai.stt.sherpa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 Sherpa 部分结果的两种解析方式：旧的 {@code readTree} + 树遍历，与 {@link SherpaMessageParser} 的流式解析。
+ * <p>
+ * 运行方式：{@code mvn -pl ai-stt test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.halliday.ai.stt.sherpa.SherpaMessageParserBenchmark}，或在 IDE 中直接运行 {@link #main}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SherpaMessageParserBenchmark {
+
+    @Param({
+            "{\"text\":\"the quick brown fox jumps over the lazy dog\",\"segment\":12,\"finished\":false}",
+            "{\"type\":\"partial\",\"segment\":{\"id\":4,\"start\":1.28,\"text\":\"今天的天气怎么样\",\"tokens\":[\"今\",\"天\",\"的\",\"天\",\"气\"],\"timestamps\":[0.1,0.2,0.3,0.4,0.5]},\"text\":\"\"}",
+            "{\"text\":\"see you tomorrow\",\"type\":\"final_result\",\"is_final\":true}"
+    })
+    public String payload;
+
+    private ObjectMapper mapper;
+    private SherpaMessageParser parser;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper();
+        parser = new SherpaMessageParser(mapper.getFactory());
+    }
+
+    @Benchmark
+    public void treeModel(Blackhole blackhole) throws IOException {
+        JsonNode node = mapper.readTree(payload);
+        String text = node.path("text").asText("");
+        if (text.isEmpty()) {
+            JsonNode segment = node.path("segment");
+            if (segment.isObject()) {
+                text = segment.path("text").asText("");
+            }
+        }
+        boolean finished = node.path("finished").asBoolean(false) || node.path("final").asBoolean(false)
+                || node.path("is_final").asBoolean(false);
+        if (!finished) {
+            String type = node.path("type").asText("");
+            finished = "final".equalsIgnoreCase(type) || "final_result".equalsIgnoreCase(type)
+                    || type.toLowerCase().endsWith("_final");
+        }
+        blackhole.consume(text);
+        blackhole.consume(finished);
+    }
+
+    @Benchmark
+    public SherpaMessageParser.Message streaming() throws IOException {
+        return parser.parse(payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SherpaMessageParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.halliday.ai.stt.sherpa;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SherpaMessageParserTest {
+
+    private final SherpaMessageParser parser = new SherpaMessageParser(new ObjectMapper().getFactory());
+
+    @Test
+    void readsTopLevelTextAndFinishedFlag() throws IOException {
+        SherpaMessageParser.Message message = parser.parse("{\"text\":\"hello world\",\"segment\":3,\"finished\":true}");
+        assertEquals("hello world", message.text());
+        assertTrue(message.finished());
+    }
+
+    @Test
+    void fallsBackToSegmentText() throws IOException {
+        SherpaMessageParser.Message message = parser.parse(
+                "{\"meta\":{\"text\":\"ignored\",\"tokens\":[1,2]},\"text\":\"\",\"segment\":{\"id\":1,\"text\":\"你好\"}}");
+        assertEquals("你好", message.text());
+        assertFalse(message.finished());
+    }
+
+    @Test
+    void detectsFinalityFromTypeAndAlternateFlags() throws IOException {
+        assertTrue(parser.parse("{\"text\":\"a\",\"type\":\"FINAL_RESULT\"}").finished());
+        assertTrue(parser.parse("{\"text\":\"a\",\"type\":\"segment_final\"}").finished());
+        assertTrue(parser.parse("{\"text\":\"a\",\"is_final\":1}").finished());
+        assertTrue(parser.parse("{\"text\":\"a\",\"final\":\"true\"}").finished());
+        assertFalse(parser.parse("{\"text\":\"a\",\"type\":\"partial\",\"final\":false}").finished());
+        assertFalse(parser.parse("{\"text\":\"a\",\"type\":\"fin\"}").finished());
+    }
+
+    @Test
+    void toleratesNonObjectAndNullValues() throws IOException {
+        assertEquals(SherpaMessageParser.Message.EMPTY, parser.parse("[1,2,3]"));
+        SherpaMessageParser.Message message = parser.parse("{\"text\":null,\"segment\":null,\"finished\":null}");
+        assertEquals("", message.text());
+        assertFalse(message.finished());
+    }
+
+    @Test
+    void rejectsMalformedJson() {
+        assertThrows(IOException.class, () -> parser.parse("{\"text\":"));
+    }
+}
@@ -0,0 +1,363 @@
+package com.halliday.ai.tts.cache;
+
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.tts.config.KokoroTtsProperties;
+import com.halliday.ai.tts.config.TtsCacheProperties;
+import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * 为流式合成客户端增加两级音频缓存的装饰器：堆内 LRU 与内存映射的磁盘缓存。
+ * <p>
+ * 缓存键由归一化文本（NFKC、合并空白）、音色、输出格式与采样率组成。命中时按约 100ms 一段通过同一个 {@code onChunk}
+ * 回调下发缓存音频的只读视图，不复制、不调用合成服务；磁盘命中会同时提升到堆内。未命中时调用上游，上游调用了 {@code onComplete} 才写入两级缓存，磁盘写入在后台线程完成。
+ * 开启 single-flight 后，并发的相同请求共享同一次上游调用：后加入者先收到已生成的音频，再随首个请求继续接收。
+ */
+public class CachingStreamingTextToSpeechClient implements StreamingTextToSpeechClient, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingStreamingTextToSpeechClient.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final char SEPARATOR = '\u0001';
+
+    private final StreamingTextToSpeechClient delegate;
+    private final String defaultVoice;
+    private final String format;
+    private final int sampleRate;
+    private final int chunkBytes;
+    private final int maxEntryBytes;
+    private final boolean singleFlight;
+    private final HeapAudioCache heap;
+    private final MappedAudioStore disk;
+    private final ExecutorService diskWriter;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder heapHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param delegate        实际调用合成服务的客户端
+     * @param properties      缓存配置
+     * @param ttsProperties   合成配置，提供默认音色、输出格式与音频参数
+     */
+    public CachingStreamingTextToSpeechClient(StreamingTextToSpeechClient delegate,
+                                              TtsCacheProperties properties,
+                                              KokoroTtsProperties ttsProperties) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        Objects.requireNonNull(properties, "properties");
+        Objects.requireNonNull(ttsProperties, "ttsProperties");
+        this.defaultVoice = ttsProperties.getVoice();
+        this.format = ttsProperties.getFormat();
+        this.sampleRate = ttsProperties.getSampleRate();
+        int bytesPerFrame = Math.max(1, ttsProperties.getBitDepth() / 8) * Math.max(1, ttsProperties.getChannels());
+        this.chunkBytes = Math.max(bytesPerFrame, sampleRate * bytesPerFrame / 10); // ~100ms
+        this.maxEntryBytes = properties.getMaxEntryBytes();
+        this.singleFlight = properties.isSingleFlight();
+        this.heap = new HeapAudioCache(properties.getHeapMaxBytes());
+        this.disk = properties.isDiskEnabled() ? openDisk(properties) : null;
+        this.diskWriter = disk == null ? null
+                : Executors.newSingleThreadExecutor(Thread.ofVirtual().name("tts-cache-writer").factory());
+        log.info("【TTS 缓存】初始化，堆内上限：{} 字节，磁盘缓存：{}，单条上限：{} 字节，single-flight：{}",
+                properties.getHeapMaxBytes(), disk != null, maxEntryBytes, singleFlight);
+    }
+
+    private static MappedAudioStore openDisk(TtsCacheProperties properties) {
+        try {
+            return new MappedAudioStore(Path.of(properties.getDiskDirectory()), properties.getDiskMaxBytes());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("【TTS 缓存】磁盘缓存目录不可用，只使用堆内缓存：{}", ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 生成缓存键；文本只做不影响发音的归一化，大小写与标点保持不变。
+     */
+    public static String keyOf(String text, String voice, String format, int sampleRate) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+        return (voice == null ? "" : voice) + SEPARATOR + (format == null ? "" : format) + SEPARATOR
+                + sampleRate + SEPARATOR + normalized;
+    }
+
+    @Override
+    public void streamSynthesize(String text, String voice, Consumer<byte[]> onChunk, Runnable onComplete) {
+        Objects.requireNonNull(onChunk, "onChunk");
+        streamSynthesizeBuffers(text, voice, chunk -> onChunk.accept(copyOf(chunk)), onComplete);
+    }
+
+    @Override
+    public void streamSynthesizeBuffers(String text, String voice, Consumer<ByteBuffer> onChunk, Runnable onComplete) {
+        Objects.requireNonNull(onChunk, "onChunk");
+        Objects.requireNonNull(onComplete, "onComplete");
+        if (!StringUtils.hasText(text)) {
+            delegate.streamSynthesizeBuffers(text, voice, onChunk, onComplete);
+            return;
+        }
+        String key = keyOf(text, StringUtils.hasText(voice) ? voice : defaultVoice, format, sampleRate);
+        byte[] cached = heap.get(key);
+        if (cached != null) {
+            heapHits.increment();
+            log.debug("【TTS 缓存】命中堆内缓存，字节数：{}，文本长度：{}", cached.length, text.length());
+            replay(ByteBuffer.wrap(cached), onChunk);
+            onComplete.run();
+            return;
+        }
+        if (disk != null) {
+            ByteBuffer mapped = disk.get(key);
+            if (mapped != null) {
+                diskHits.increment();
+                log.debug("【TTS 缓存】命中磁盘缓存，字节数：{}，文本长度：{}", mapped.remaining(), text.length());
+                heap.put(key, copyOf(mapped));
+                replay(mapped, onChunk);
+                onComplete.run();
+                return;
+            }
+        }
+        if (!singleFlight) {
+            misses.increment();
+            Flight flight = new Flight();
+            synthesize(key, text, voice, flight, onChunk, onComplete);
+            return;
+        }
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("【TTS 缓存】相同文本正在合成，合并请求，文本长度：{}", text.length());
+            existing.follow(onChunk);
+            onComplete.run();
+            return;
+        }
+        misses.increment();
+        try {
+            synthesize(key, text, voice, flight, onChunk, onComplete);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void synthesize(String key, String text, String voice, Flight flight,
+                            Consumer<ByteBuffer> onChunk, Runnable onComplete) {
+        AtomicBoolean completed = new AtomicBoolean();
+        try {
+            delegate.streamSynthesizeBuffers(text, voice, chunk -> {
+                if (chunk == null || !chunk.hasRemaining()) {
+                    return;
+                }
+                // 上游的缓冲区只在回调期间有效，缓存保留一份副本，下游仍收到原视图
+                flight.add(copyOf(chunk));
+                onChunk.accept(chunk);
+            }, () -> {
+                completed.set(true);
+                onComplete.run();
+            });
+        } catch (RuntimeException ex) {
+            flight.fail(ex);
+            throw ex;
+        }
+        if (!completed.get()) {
+            // 上游未给出结束信号就返回，音频可能被截断：不写入缓存，跟随的请求按失败处理
+            log.warn("【TTS 缓存】上游未确认合成完成，不缓存，文本长度：{}", text.length());
+            flight.fail(new AiServiceException("TTS stream ended without completion"));
+            return;
+        }
+        byte[] audio = flight.complete();
+        if (audio == null || audio.length == 0) {
+            return;
+        }
+        if (audio.length > maxEntryBytes) {
+            log.debug("【TTS 缓存】音频字节数 {} 超过单条上限 {}，不缓存", audio.length, maxEntryBytes);
+            return;
+        }
+        heap.put(key, audio);
+        if (diskWriter != null) {
+            try {
+                diskWriter.execute(() -> disk.put(key, audio));
+            } catch (RejectedExecutionException ex) {
+                log.debug("【TTS 缓存】缓存已关闭，跳过磁盘写入");
+            }
+        }
+    }
+
+    private void replay(ByteBuffer audio, Consumer<ByteBuffer> onChunk) {
+        for (int offset = audio.position(); offset < audio.limit(); offset += chunkBytes) {
+            onChunk.accept(audio.slice(offset, Math.min(chunkBytes, audio.limit() - offset)).asReadOnlyBuffer());
+        }
+    }
+
+    private static byte[] copyOf(ByteBuffer chunk) {
+        byte[] copy = new byte[chunk.remaining()];
+        chunk.duplicate().get(copy);
+        return copy;
+    }
+
+    public long heapHits() {
+        return heapHits.sum();
+    }
+
+    public long diskHits() {
+        return diskHits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * 并入其他请求的上游调用、未单独调用合成服务的请求数。
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 命中率：（堆内命中 + 磁盘命中）/（命中 + 未命中），合并的请求不计入。
+     */
+    public double hitRatio() {
+        long hit = heapHits() + diskHits();
+        long total = hit + misses();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    public int heapEntries() {
+        return heap.size();
+    }
+
+    public long heapBytes() {
+        return heap.totalBytes();
+    }
+
+    public long heapEvictions() {
+        return heap.evictions();
+    }
+
+    public int diskEntries() {
+        return disk == null ? 0 : disk.size();
+    }
+
+    public long diskBytes() {
+        return disk == null ? 0 : disk.totalBytes();
+    }
+
+    public long diskEvictions() {
+        return disk == null ? 0 : disk.evictions();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (diskWriter != null) {
+            diskWriter.shutdown();
+        }
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * 一次上游合成：记录已生成的音频片段，供并发的相同请求跟随。
+     */
+    private static final class Flight {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final List<byte[]> chunks = new ArrayList<>();
+        private long bytes;
+        private boolean done;
+        private RuntimeException failure;
+
+        void add(byte[] chunk) {
+            lock.lock();
+            try {
+                chunks.add(chunk);
+                bytes += chunk.length;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 标记正常结束并返回完整音频。
+         */
+        byte[] complete() {
+            lock.lock();
+            try {
+                done = true;
+                changed.signalAll();
+                byte[] audio = new byte[(int) Math.min(Integer.MAX_VALUE, bytes)];
+                int offset = 0;
+                for (byte[] chunk : chunks) {
+                    int length = Math.min(chunk.length, audio.length - offset);
+                    System.arraycopy(chunk, 0, audio, offset, length);
+                    offset += length;
+                }
+                return audio;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void fail(RuntimeException ex) {
+            lock.lock();
+            try {
+                done = true;
+                failure = ex;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 依次下发已生成与后续生成的音频片段，直到上游结束；上游失败时抛出异常。
+         */
+        void follow(Consumer<ByteBuffer> onChunk) {
+            int next = 0;
+            while (true) {
+                byte[] chunk;
+                lock.lock();
+                try {
+                    while (next >= chunks.size() && !done) {
+                        changed.await();
+                    }
+                    if (next < chunks.size()) {
+                        chunk = chunks.get(next++);
+                    } else if (failure != null) {
+                        throw new AiServiceException("Coalesced TTS request failed", failure);
+                    } else {
+                        return;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new AiServiceException("Interrupted while waiting for coalesced TTS request", ex);
+                } finally {
+                    lock.unlock();
+                }
+                onChunk.accept(ByteBuffer.wrap(chunk).asReadOnlyBuffer());
+            }
+        }
+    }
+}
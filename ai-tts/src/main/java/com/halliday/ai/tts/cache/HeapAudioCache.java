@@ -0,0 +1,67 @@
+package com.halliday.ai.tts.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 堆内音频缓存：按访问顺序做 LRU 淘汰，限制总字节数。条目数量有限，所有操作在同一把锁内完成。
+ */
+final class HeapAudioCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder evictions = new LongAdder();
+    private long totalBytes;
+
+    HeapAudioCache(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be >= 1");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 查找条目并刷新其 LRU 位置。返回的数组由缓存持有，调用方不得修改。
+     */
+    synchronized byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * 写入条目并按 LRU 顺序淘汰，直到总字节数回到上限以内；单条超过上限时不写入。
+     */
+    synchronized void put(String key, byte[] audio) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(audio, "audio");
+        if (audio.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, audio);
+        totalBytes += audio.length - (previous == null ? 0 : previous.length);
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, byte[]> victim = eldest.next();
+            if (victim.getKey().equals(key)) {
+                continue;
+            }
+            totalBytes -= victim.getValue().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+}
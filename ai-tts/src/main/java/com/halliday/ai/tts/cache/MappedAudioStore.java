@@ -0,0 +1,237 @@
+package com.halliday.ai.tts.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 磁盘音频缓存：每条音频一个文件，文件名为缓存键的 SHA-256，读取时以只读方式内存映射，音频数据不经过堆拷贝。
+ * <p>
+ * 文件格式为 {@code magic(4) | keyLength(4) | key(UTF-8) | audio}，读取时核对完整的缓存键，防止哈希冲突。
+ * 写入先落到临时文件再原子改名，进程中途退出不会留下半个条目。启动时扫描目录重建索引，按文件修改时间恢复 LRU 顺序；
+ * 命中时刷新修改时间，总字节数超过上限时删除最久未使用的文件。
+ */
+final class MappedAudioStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedAudioStore.class);
+
+    private static final int MAGIC = 0x54545331;
+    private static final String SUFFIX = ".audio";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder evictions = new LongAdder();
+    private long totalBytes;
+
+    MappedAudioStore(Path directory, long maxBytes) throws IOException {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be >= 1");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    private void load() throws IOException {
+        record Found(String name, long size, long modified) {
+        }
+        List<Found> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    found.add(new Found(name, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(Found::modified));
+        synchronized (this) {
+            for (Found entry : found) {
+                index.put(entry.name(), entry.size());
+                totalBytes += entry.size();
+            }
+            evict(null);
+        }
+        log.info("【TTS 缓存】载入磁盘缓存，目录：{}，条目：{}，字节数：{}", directory, index.size(), totalBytes);
+    }
+
+    /**
+     * 读取条目，返回映射到音频数据的只读缓冲区；不存在、已损坏或键不一致时返回 {@code null}。
+     */
+    ByteBuffer get(String key) {
+        String name = fileName(key);
+        synchronized (this) {
+            if (index.get(name) == null) {
+                return null;
+            }
+        }
+        Path file = directory.resolve(name);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] expected = key.getBytes(StandardCharsets.UTF_8);
+            if (mapped.remaining() < 8 || mapped.getInt() != MAGIC) {
+                log.warn("【TTS 缓存】磁盘条目格式无效，删除：{}", name);
+                delete(name);
+                return null;
+            }
+            int keyLength = mapped.getInt();
+            if (keyLength != expected.length || mapped.remaining() < keyLength) {
+                return null;
+            }
+            byte[] stored = new byte[keyLength];
+            mapped.get(stored);
+            if (!Arrays.equals(stored, expected)) {
+                return null;
+            }
+            touch(file);
+            return mapped.slice().asReadOnlyBuffer();
+        } catch (NoSuchFileException ex) {
+            forget(name);
+            return null;
+        } catch (IOException ex) {
+            log.warn("【TTS 缓存】读取磁盘条目失败：{}，{}", name, ex.getMessage());
+            delete(name);
+            return null;
+        }
+    }
+
+    /**
+     * 写入条目并按 LRU 顺序淘汰；写入失败只记录日志，不影响合成结果。
+     */
+    void put(String key, byte[] audio) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long size = 8L + keyBytes.length + audio.length;
+        if (size > maxBytes) {
+            return;
+        }
+        String name = fileName(key);
+        Path target = directory.resolve(name);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, name, TEMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(8 + keyBytes.length);
+                header.putInt(MAGIC).putInt(keyBytes.length).put(keyBytes).flip();
+                ByteBuffer body = ByteBuffer.wrap(audio);
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, body});
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            log.warn("【TTS 缓存】写入磁盘条目失败：{}", ex.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // 临时文件在下次启动时清理
+                }
+            }
+            return;
+        }
+        synchronized (this) {
+            Long previous = index.put(name, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evict(name);
+        }
+    }
+
+    /**
+     * 删除最久未使用的文件，直到总字节数回到上限以内；{@code keep} 为刚写入的条目，不参与淘汰。
+     */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> victim = eldest.next();
+            if (victim.getKey().equals(keep)) {
+                continue;
+            }
+            totalBytes -= victim.getValue();
+            eldest.remove();
+            evictions.increment();
+            try {
+                Files.deleteIfExists(directory.resolve(victim.getKey()));
+            } catch (IOException ex) {
+                log.warn("【TTS 缓存】删除磁盘条目失败：{}，{}", victim.getKey(), ex.getMessage());
+            }
+        }
+    }
+
+    private void delete(String name) {
+        forget(name);
+        try {
+            Files.deleteIfExists(directory.resolve(name));
+        } catch (IOException ex) {
+            log.warn("【TTS 缓存】删除磁盘条目失败：{}，{}", name, ex.getMessage());
+        }
+    }
+
+    private synchronized void forget(String name) {
+        Long removed = index.remove(name);
+        if (removed != null) {
+            totalBytes -= removed;
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // 修改时间只用于重启后恢复 LRU 顺序
+        }
+    }
+
+    static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + SUFFIX;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+}
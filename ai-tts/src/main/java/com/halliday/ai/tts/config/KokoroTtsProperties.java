@@ -63,6 +63,76 @@ public class KokoroTtsProperties {
      */
     private String wsUrl;
 
+    /**
+     * 是否在句子之间复用 WebSocket 连接；关闭时每句话新建连接并在结束后关闭。
+     */
+    private boolean wsPoolEnabled = false;
+
+    /**
+     * 连接池中最多保留的空闲连接数。
+     */
+    private int wsPoolMaxIdle = 4;
+
+    /**
+     * 空闲连接的最长保留时间，毫秒，超过后关闭而不再复用。
+     */
+    private long wsPoolMaxIdleMs = 30_000;
+
+    /**
+     * 复用连接的心跳间隔，毫秒；未按时收到 pong 的连接会被判定失效。0 表示不发送心跳。
+     */
+    private long wsPingIntervalMs = 15_000;
+
+    /**
+     * 合成会话中片段的最小字符数：首个片段遇到句末即合成，之后不足该长度的句子与后续句子合并。0 表示逐句合成。
+     */
+    private int segmentMinChars = 0;
+
+    /**
+     * 合成会话中没有句末时片段的最大字符数。
+     */
+    private int segmentMaxChars = 200;
+
+    /**
+     * 按合成负载调整片段长度：排队片段增多或首个音频耗时变长时合并更多文本，减少合成请求数。
+     */
+    private boolean segmentAdaptive = false;
+
+    /**
+     * 自适应分段时片段首个音频耗时的期望值，毫秒；超过后按比例增大片段长度。
+     */
+    private long segmentTargetLatencyMs = 800;
+
+    /**
+     * 自适应分段时视为满负载的排队片段数。
+     */
+    private int segmentQueueThreshold = 3;
+
+    /**
+     * 流式合成每句话等待首个音频片段的上限，毫秒；不大于 0 时只受 readTimeoutMs 约束。
+     */
+    private long firstChunkTimeoutMs = 5_000;
+
+    /**
+     * 流式合成相邻音频片段的最大间隔，毫秒；不大于 0 时只受 readTimeoutMs 约束。
+     */
+    private long chunkGapTimeoutMs = 5_000;
+
+    /**
+     * 流式合成超过 hedgeAfterMs 仍无音频时，并行发起 HTTP 合成，采用先返回音频的一方。
+     */
+    private boolean hedgeEnabled = false;
+
+    /**
+     * 发起 HTTP 对冲前等待流式合成首个音频片段的时间，毫秒。
+     */
+    private long hedgeAfterMs = 1_200;
+
+    /**
+     * HTTP 对冲占全部句子的比例上限。
+     */
+    private double hedgeBudgetRatio = 0.1;
+
     public String getUrl() {
         String value = url();
         log.debug("【Kokoro 配置】读取 url：{}", value);
@@ -161,4 +231,158 @@ public class KokoroTtsProperties {
         log.debug("【Kokoro 配置】设置 wsUrl：{}", wsUrl);
         wsUrl(wsUrl);
     }
+
+    public boolean isWsPoolEnabled() {
+        boolean value = wsPoolEnabled();
+        log.debug("【Kokoro 配置】读取 wsPoolEnabled：{}", value);
+        return value;
+    }
+
+    public void setWsPoolEnabled(boolean wsPoolEnabled) {
+        log.debug("【Kokoro 配置】设置 wsPoolEnabled：{}", wsPoolEnabled);
+        wsPoolEnabled(wsPoolEnabled);
+    }
+
+    public int getWsPoolMaxIdle() {
+        int value = wsPoolMaxIdle();
+        log.debug("【Kokoro 配置】读取 wsPoolMaxIdle：{}", value);
+        return value;
+    }
+
+    public void setWsPoolMaxIdle(int wsPoolMaxIdle) {
+        log.debug("【Kokoro 配置】设置 wsPoolMaxIdle：{}", wsPoolMaxIdle);
+        wsPoolMaxIdle(wsPoolMaxIdle);
+    }
+
+    public long getWsPoolMaxIdleMs() {
+        long value = wsPoolMaxIdleMs();
+        log.debug("【Kokoro 配置】读取 wsPoolMaxIdleMs：{}", value);
+        return value;
+    }
+
+    public void setWsPoolMaxIdleMs(long wsPoolMaxIdleMs) {
+        log.debug("【Kokoro 配置】设置 wsPoolMaxIdleMs：{}", wsPoolMaxIdleMs);
+        wsPoolMaxIdleMs(wsPoolMaxIdleMs);
+    }
+
+    public long getWsPingIntervalMs() {
+        long value = wsPingIntervalMs();
+        log.debug("【Kokoro 配置】读取 wsPingIntervalMs：{}", value);
+        return value;
+    }
+
+    public void setWsPingIntervalMs(long wsPingIntervalMs) {
+        log.debug("【Kokoro 配置】设置 wsPingIntervalMs：{}", wsPingIntervalMs);
+        wsPingIntervalMs(wsPingIntervalMs);
+    }
+
+    public int getSegmentMinChars() {
+        int value = segmentMinChars();
+        log.debug("【Kokoro 配置】读取 segmentMinChars：{}", value);
+        return value;
+    }
+
+    public void setSegmentMinChars(int segmentMinChars) {
+        log.debug("【Kokoro 配置】设置 segmentMinChars：{}", segmentMinChars);
+        segmentMinChars(segmentMinChars);
+    }
+
+    public int getSegmentMaxChars() {
+        int value = segmentMaxChars();
+        log.debug("【Kokoro 配置】读取 segmentMaxChars：{}", value);
+        return value;
+    }
+
+    public void setSegmentMaxChars(int segmentMaxChars) {
+        log.debug("【Kokoro 配置】设置 segmentMaxChars：{}", segmentMaxChars);
+        segmentMaxChars(segmentMaxChars);
+    }
+
+    public boolean isSegmentAdaptive() {
+        boolean value = segmentAdaptive();
+        log.debug("【Kokoro 配置】读取 segmentAdaptive：{}", value);
+        return value;
+    }
+
+    public void setSegmentAdaptive(boolean segmentAdaptive) {
+        log.debug("【Kokoro 配置】设置 segmentAdaptive：{}", segmentAdaptive);
+        segmentAdaptive(segmentAdaptive);
+    }
+
+    public long getSegmentTargetLatencyMs() {
+        long value = segmentTargetLatencyMs();
+        log.debug("【Kokoro 配置】读取 segmentTargetLatencyMs：{}", value);
+        return value;
+    }
+
+    public void setSegmentTargetLatencyMs(long segmentTargetLatencyMs) {
+        log.debug("【Kokoro 配置】设置 segmentTargetLatencyMs：{}", segmentTargetLatencyMs);
+        segmentTargetLatencyMs(segmentTargetLatencyMs);
+    }
+
+    public int getSegmentQueueThreshold() {
+        int value = segmentQueueThreshold();
+        log.debug("【Kokoro 配置】读取 segmentQueueThreshold：{}", value);
+        return value;
+    }
+
+    public void setSegmentQueueThreshold(int segmentQueueThreshold) {
+        log.debug("【Kokoro 配置】设置 segmentQueueThreshold：{}", segmentQueueThreshold);
+        segmentQueueThreshold(segmentQueueThreshold);
+    }
+
+    public long getFirstChunkTimeoutMs() {
+        long value = firstChunkTimeoutMs();
+        log.debug("【Kokoro 配置】读取 firstChunkTimeoutMs：{}", value);
+        return value;
+    }
+
+    public void setFirstChunkTimeoutMs(long firstChunkTimeoutMs) {
+        log.debug("【Kokoro 配置】设置 firstChunkTimeoutMs：{}", firstChunkTimeoutMs);
+        firstChunkTimeoutMs(firstChunkTimeoutMs);
+    }
+
+    public long getChunkGapTimeoutMs() {
+        long value = chunkGapTimeoutMs();
+        log.debug("【Kokoro 配置】读取 chunkGapTimeoutMs：{}", value);
+        return value;
+    }
+
+    public void setChunkGapTimeoutMs(long chunkGapTimeoutMs) {
+        log.debug("【Kokoro 配置】设置 chunkGapTimeoutMs：{}", chunkGapTimeoutMs);
+        chunkGapTimeoutMs(chunkGapTimeoutMs);
+    }
+
+    public boolean isHedgeEnabled() {
+        boolean value = hedgeEnabled();
+        log.debug("【Kokoro 配置】读取 hedgeEnabled：{}", value);
+        return value;
+    }
+
+    public void setHedgeEnabled(boolean hedgeEnabled) {
+        log.debug("【Kokoro 配置】设置 hedgeEnabled：{}", hedgeEnabled);
+        hedgeEnabled(hedgeEnabled);
+    }
+
+    public long getHedgeAfterMs() {
+        long value = hedgeAfterMs();
+        log.debug("【Kokoro 配置】读取 hedgeAfterMs：{}", value);
+        return value;
+    }
+
+    public void setHedgeAfterMs(long hedgeAfterMs) {
+        log.debug("【Kokoro 配置】设置 hedgeAfterMs：{}", hedgeAfterMs);
+        hedgeAfterMs(hedgeAfterMs);
+    }
+
+    public double getHedgeBudgetRatio() {
+        double value = hedgeBudgetRatio();
+        log.debug("【Kokoro 配置】读取 hedgeBudgetRatio：{}", value);
+        return value;
+    }
+
+    public void setHedgeBudgetRatio(double hedgeBudgetRatio) {
+        log.debug("【Kokoro 配置】设置 hedgeBudgetRatio：{}", hedgeBudgetRatio);
+        hedgeBudgetRatio(hedgeBudgetRatio);
+    }
 }
@@ -0,0 +1,132 @@
+package com.halliday.ai.tts.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 合成音频缓存配置。
+ */
+@Getter
+@Setter
+@Accessors(fluent = true)
+@ConfigurationProperties(prefix = "ai.tts.cache")
+public class TtsCacheProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(TtsCacheProperties.class);
+
+    /**
+     * 是否启用合成音频缓存。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 堆内缓存的总字节数上限。
+     */
+    private long heapMaxBytes = 33_554_432;
+
+    /**
+     * 是否启用磁盘缓存；磁盘缓存以内存映射方式读取，重启后仍然有效。
+     */
+    private boolean diskEnabled = true;
+
+    /**
+     * 磁盘缓存目录。
+     */
+    private String diskDirectory = "data/tts-cache";
+
+    /**
+     * 磁盘缓存的总字节数上限。
+     */
+    private long diskMaxBytes = 536_870_912;
+
+    /**
+     * 单条音频超过该字节数时不缓存。
+     */
+    private int maxEntryBytes = 4_194_304;
+
+    /**
+     * 是否合并并发的相同合成请求，只调用一次合成服务。
+     */
+    private boolean singleFlight = true;
+
+    public boolean isEnabled() {
+        boolean value = enabled();
+        log.debug("【TTS 缓存配置】读取 enabled：{}", value);
+        return value;
+    }
+
+    public void setEnabled(boolean enabled) {
+        log.debug("【TTS 缓存配置】设置 enabled：{}", enabled);
+        enabled(enabled);
+    }
+
+    public long getHeapMaxBytes() {
+        long value = heapMaxBytes();
+        log.debug("【TTS 缓存配置】读取 heapMaxBytes：{}", value);
+        return value;
+    }
+
+    public void setHeapMaxBytes(long heapMaxBytes) {
+        log.debug("【TTS 缓存配置】设置 heapMaxBytes：{}", heapMaxBytes);
+        heapMaxBytes(heapMaxBytes);
+    }
+
+    public boolean isDiskEnabled() {
+        boolean value = diskEnabled();
+        log.debug("【TTS 缓存配置】读取 diskEnabled：{}", value);
+        return value;
+    }
+
+    public void setDiskEnabled(boolean diskEnabled) {
+        log.debug("【TTS 缓存配置】设置 diskEnabled：{}", diskEnabled);
+        diskEnabled(diskEnabled);
+    }
+
+    public String getDiskDirectory() {
+        String value = diskDirectory();
+        log.debug("【TTS 缓存配置】读取 diskDirectory：{}", value);
+        return value;
+    }
+
+    public void setDiskDirectory(String diskDirectory) {
+        log.debug("【TTS 缓存配置】设置 diskDirectory：{}", diskDirectory);
+        diskDirectory(diskDirectory);
+    }
+
+    public long getDiskMaxBytes() {
+        long value = diskMaxBytes();
+        log.debug("【TTS 缓存配置】读取 diskMaxBytes：{}", value);
+        return value;
+    }
+
+    public void setDiskMaxBytes(long diskMaxBytes) {
+        log.debug("【TTS 缓存配置】设置 diskMaxBytes：{}", diskMaxBytes);
+        diskMaxBytes(diskMaxBytes);
+    }
+
+    public int getMaxEntryBytes() {
+        int value = maxEntryBytes();
+        log.debug("【TTS 缓存配置】读取 maxEntryBytes：{}", value);
+        return value;
+    }
+
+    public void setMaxEntryBytes(int maxEntryBytes) {
+        log.debug("【TTS 缓存配置】设置 maxEntryBytes：{}", maxEntryBytes);
+        maxEntryBytes(maxEntryBytes);
+    }
+
+    public boolean isSingleFlight() {
+        boolean value = singleFlight();
+        log.debug("【TTS 缓存配置】读取 singleFlight：{}", value);
+        return value;
+    }
+
+    public void setSingleFlight(boolean singleFlight) {
+        log.debug("【TTS 缓存配置】设置 singleFlight：{}", singleFlight);
+        singleFlight(singleFlight);
+    }
+}
@@ -0,0 +1,124 @@
+package com.halliday.ai.tts.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按合成负载调整片段长度的批处理策略，由所有合成会话共享，线程安全。
+ * <p>
+ * 负载取两项中较大者：排队等待合成的片段数与 {@code queueThreshold} 之比，以及最近片段首个音频耗时（指数加权平均）
+ * 与 {@code targetLatencyMs} 之比。负载不超过 1 时目标长度为 {@code baseChars}，超过时按负载等比放大，
+ * 不超过 {@code maxChars}。会话据此提高切分的最小长度，并把尚未开始合成的排队片段与新片段合并，
+ * 以更少的请求合成同样的文本；每个会话的第一个片段不参与合并，首个音频不受影响。
+ */
+public final class AdaptiveSentenceBatcher {
+
+    private static final double ALPHA = 0.2;
+
+    private final int baseChars;
+    private final int maxChars;
+    private final long targetLatencyMs;
+    private final int queueThreshold;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder segments = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private volatile double latencyMs;
+
+    /**
+     * @param baseChars       无负载时的目标片段长度
+     * @param maxChars        目标片段长度上限
+     * @param targetLatencyMs 片段首个音频耗时的期望值，毫秒
+     * @param queueThreshold  视为满负载的排队片段数
+     */
+    public AdaptiveSentenceBatcher(int baseChars, int maxChars, long targetLatencyMs, int queueThreshold) {
+        this.maxChars = Math.max(1, maxChars);
+        this.baseChars = Math.min(Math.max(1, baseChars), this.maxChars);
+        this.targetLatencyMs = Math.max(1, targetLatencyMs);
+        this.queueThreshold = Math.max(1, queueThreshold);
+    }
+
+    /**
+     * 当前负载下的目标片段长度。
+     */
+    public int targetChars() {
+        double load = load();
+        if (load <= 1) {
+            return baseChars;
+        }
+        return (int) Math.min(maxChars, Math.round(baseChars * load));
+    }
+
+    /**
+     * 当前负载，1 表示达到排队或耗时阈值。
+     */
+    public double load() {
+        return Math.max((double) queued.get() / queueThreshold, latencyMs / targetLatencyMs);
+    }
+
+    /**
+     * 切分器产出一个片段。
+     */
+    void onSegment() {
+        segments.increment();
+    }
+
+    /**
+     * 片段并入了尚未开始合成的排队片段。
+     */
+    void onMerged() {
+        merged.increment();
+    }
+
+    /**
+     * 新的合成请求进入队列。
+     */
+    void onQueued() {
+        batches.increment();
+        queued.incrementAndGet();
+    }
+
+    /**
+     * 排队的合成请求开始执行或被放弃。
+     */
+    void onDequeued() {
+        queued.decrementAndGet();
+    }
+
+    /**
+     * 记录一次合成从开始到首个音频（无音频时到结束）的耗时。
+     */
+    synchronized void onLatency(long millis) {
+        double previous = latencyMs;
+        latencyMs = previous == 0 ? millis : previous + ALPHA * (millis - previous);
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public double latencyMs() {
+        return latencyMs;
+    }
+
+    /**
+     * 切分器产出的片段数。
+     */
+    public long segments() {
+        return segments.sum();
+    }
+
+    /**
+     * 实际发起的合成请求数。
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * 并入排队片段、未单独发起请求的片段数。
+     */
+    public long merged() {
+        return merged.sum();
+    }
+}
@@ -0,0 +1,207 @@
+package com.halliday.ai.tts.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 基于 {@link StreamingTextToSpeechClient#streamSynthesizeBuffers} 的合成会话：追加的文本由 {@link TextSegmenter} 切分，
+ * 片段在执行器上依次合成，音频按片段顺序输出。
+ * <p>
+ * 提供 {@link AdaptiveSentenceBatcher} 时，切分的最小长度随合成负载调整，新片段在不超过目标长度时并入尚未开始合成的
+ * 排队片段；第一个片段不参与合并。
+ */
+public final class SegmentingTextToSpeechSession implements TextToSpeechSession {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentingTextToSpeechSession.class);
+
+    private final StreamingTextToSpeechClient client;
+    private final String voice;
+    private final TextSegmenter segmenter;
+    private final Executor executor;
+    private final Listener listener;
+    private final AdaptiveSentenceBatcher batcher;
+    private CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+    private int submitted;
+    private Batch pending;
+    private boolean finished;
+    private volatile boolean cancelled;
+
+    /**
+     * @param client    流式合成客户端
+     * @param voice     音色，为空时使用客户端默认值
+     * @param segmenter 本会话专用的切分器
+     * @param executor  执行合成的执行器
+     * @param listener  音频输出回调
+     */
+    public SegmentingTextToSpeechSession(StreamingTextToSpeechClient client, String voice, TextSegmenter segmenter,
+                                         Executor executor, Listener listener) {
+        this(client, voice, segmenter, null, executor, listener);
+    }
+
+    /**
+     * @param client    流式合成客户端
+     * @param voice     音色，为空时使用客户端默认值
+     * @param segmenter 本会话专用的切分器
+     * @param batcher   共享的批处理策略，为 {@code null} 时按切分结果逐段合成
+     * @param executor  执行合成的执行器
+     * @param listener  音频输出回调
+     */
+    public SegmentingTextToSpeechSession(StreamingTextToSpeechClient client, String voice, TextSegmenter segmenter,
+                                         AdaptiveSentenceBatcher batcher, Executor executor, Listener listener) {
+        this.batcher = batcher;
+        this.client = Objects.requireNonNull(client, "client");
+        this.voice = voice;
+        this.segmenter = Objects.requireNonNull(segmenter, "segmenter");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    @Override
+    public synchronized void append(String text) {
+        if (finished) {
+            log.debug("【合成会话】会话已结束，忽略追加的文本");
+            return;
+        }
+        if (batcher != null) {
+            segmenter.minChars(batcher.targetChars());
+        }
+        for (String segment : segmenter.append(text)) {
+            submit(segment);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (finished) {
+            return;
+        }
+        String rest = segmenter.flush();
+        if (!rest.isEmpty()) {
+            submit(rest);
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> finish() {
+        if (!finished) {
+            flush();
+            finished = true;
+            log.debug("【合成会话】输入结束，共提交片段数：{}", submitted);
+        }
+        return chain;
+    }
+
+    @Override
+    public synchronized void cancel() {
+        cancelled = true;
+        finished = true;
+        segmenter.flush();
+    }
+
+    private void submit(String segment) {
+        if (batcher != null) {
+            batcher.onSegment();
+            Batch last = pending;
+            if (last != null && last.index > 1 && last.merge(segment, batcher.targetChars())) {
+                batcher.onMerged();
+                log.debug("【合成会话】片段并入排队中的片段，index={}", last.index);
+                return;
+            }
+            batcher.onQueued();
+        }
+        Batch batch = new Batch(++submitted, segment);
+        pending = batch;
+        chain = chain.thenRunAsync(() -> run(batch), executor);
+    }
+
+    /**
+     * 片段之间串成一条链，任一阶段抛出异常都会跳过后续所有片段；回调中的异常在这里记录并吞掉，后续片段照常合成。
+     */
+    private void run(Batch batch) {
+        try {
+            synthesize(batch);
+        } catch (RuntimeException ex) {
+            log.warn("【合成会话】片段回调异常，继续合成后续片段，index={}", batch.index, ex);
+        }
+    }
+
+    private void synthesize(Batch batch) {
+        String segment = batch.start();
+        if (batcher != null) {
+            batcher.onDequeued();
+        }
+        if (cancelled) {
+            return;
+        }
+        int index = batch.index;
+        listener.onSegmentStart(index, segment);
+        long start = System.nanoTime();
+        int[] chunks = {0};
+        try {
+            client.streamSynthesizeBuffers(segment, voice, chunk -> {
+                if (chunk == null || !chunk.hasRemaining() || cancelled) {
+                    return;
+                }
+                if (chunks[0]++ == 0 && batcher != null) {
+                    batcher.onLatency((System.nanoTime() - start) / 1_000_000);
+                }
+                listener.onAudio(chunk);
+            }, () -> {
+            });
+        } catch (Exception ex) {
+            log.warn("【合成会话】片段合成失败，index={}：{}", index, ex.getMessage());
+            listener.onSegmentFailed(index, segment, chunks[0], ex);
+            return;
+        }
+        if (chunks[0] == 0 && batcher != null) {
+            batcher.onLatency((System.nanoTime() - start) / 1_000_000);
+        }
+        listener.onSegmentComplete(index, segment, chunks[0]);
+    }
+
+    /**
+     * 一次合成请求的文本；开始合成前可以继续并入后续片段。
+     */
+    private static final class Batch {
+
+        private final int index;
+        private final StringBuilder text;
+        private boolean started;
+
+        private Batch(int index, String text) {
+            this.index = index;
+            this.text = new StringBuilder(text);
+        }
+
+        /**
+         * 尚未开始合成且合并后不超过 {@code limit} 时并入片段。
+         */
+        synchronized boolean merge(String segment, int limit) {
+            boolean space = needsSpace(text.charAt(text.length() - 1), segment.charAt(0));
+            if (started || text.length() + segment.length() + (space ? 1 : 0) > limit) {
+                return false;
+            }
+            if (space) {
+                text.append(' ');
+            }
+            text.append(segment);
+            return true;
+        }
+
+        synchronized String start() {
+            started = true;
+            return text.toString();
+        }
+
+        /**
+         * 片段切分时去掉了首尾空白；两侧都不是中日韩等全角字符时补回一个空格。
+         */
+        private static boolean needsSpace(char previous, char next) {
+            return previous < 0x2E80 && next < 0x2E80;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.halliday.ai.tts.core;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 public interface StreamingTextToSpeechClient {
@@ -13,5 +15,33 @@ public interface StreamingTextToSpeechClient {
         log.debug("【语音合成接口】StreamingTextToSpeechClient 接口已加载");
     }
 
+    /**
+     * 合成一段完整文本，音频通过 {@code onChunk} 输出；方法在合成结束后返回。
+     */
     void streamSynthesize(String text, String voice, Consumer<byte[]> onChunk, Runnable onComplete);
+
+    /**
+     * 与 {@link #streamSynthesize} 相同，音频以只读缓冲区输出。缓冲区可能是接收缓冲的视图，只在回调期间有效，
+     * 需要保留时由调用方复制。默认实现包装 {@link #streamSynthesize} 输出的数组，不额外复制。
+     */
+    default void streamSynthesizeBuffers(String text, String voice, Consumer<ByteBuffer> onChunk, Runnable onComplete) {
+        streamSynthesize(text, voice, chunk -> onChunk.accept(ByteBuffer.wrap(chunk).asReadOnlyBuffer()), onComplete);
+    }
+
+    /**
+     * 打开一个可逐段追加文本的合成会话。默认实现按 {@code segmenter} 切分文本并依次调用 {@link #streamSynthesize}。
+     */
+    default TextToSpeechSession openSession(String voice, TextSegmenter segmenter, Executor executor,
+                                            TextToSpeechSession.Listener listener) {
+        return openSession(voice, segmenter, null, executor, listener);
+    }
+
+    /**
+     * 打开一个按合成负载调整片段长度的合成会话，{@code batcher} 为 {@code null} 时与
+     * {@link #openSession(String, TextSegmenter, Executor, TextToSpeechSession.Listener)} 相同。
+     */
+    default TextToSpeechSession openSession(String voice, TextSegmenter segmenter, AdaptiveSentenceBatcher batcher,
+                                            Executor executor, TextToSpeechSession.Listener listener) {
+        return new SegmentingTextToSpeechSession(this, voice, segmenter, batcher, executor, listener);
+    }
 }
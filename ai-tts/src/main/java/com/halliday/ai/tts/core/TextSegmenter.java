@@ -0,0 +1,141 @@
+package com.halliday.ai.tts.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把逐段到达的文本切分为适合单次合成的片段。
+ * <p>
+ * 片段在句末标点处切分；除第一个片段外，不足 {@code minChars} 的句子与后续句子合并，减少合成请求数与韵律重置，
+ * 第一个片段遇到句末即切出，保证首个音频尽早开始。超过 {@code maxChars} 仍没有句末时，
+ * 在最后一个逗号、顿号等停顿处或空白处切分，都没有时直接截断。
+ * 英文句号、感叹号、问号与分号只有后面紧跟空白时才视为句末，避免把小数、缩写与网址切开。非线程安全。
+ */
+public final class TextSegmenter {
+
+    private static final String CLOSING = "”’\"')）」』】》";
+    private static final String SOFT_BREAKS = "，,、：:；;";
+
+    private int minChars;
+    private final int maxChars;
+    private final StringBuilder buffer = new StringBuilder();
+    private int emitted;
+
+    /**
+     * @param minChars 第一个片段之后，片段的最小字符数；0 表示每个句子单独成段
+     * @param maxChars 没有句末时片段的最大字符数
+     */
+    public TextSegmenter(int minChars, int maxChars) {
+        this.maxChars = Math.max(1, maxChars);
+        this.minChars = Math.min(Math.max(0, minChars), this.maxChars);
+    }
+
+    /**
+     * 调整之后片段的最小字符数，对尚未切出的文本生效。
+     */
+    public void minChars(int minChars) {
+        this.minChars = Math.min(Math.max(0, minChars), maxChars);
+    }
+
+    /**
+     * 追加一段文本，返回已确定的片段，可能为空列表。
+     */
+    public List<String> append(String text) {
+        List<String> segments = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return segments;
+        }
+        buffer.append(text);
+        int cut;
+        while ((cut = nextCut()) > 0) {
+            take(cut, segments);
+        }
+        return segments;
+    }
+
+    /**
+     * 取出缓冲中剩余的文本作为一个片段；没有可朗读内容时返回空字符串。
+     */
+    public String flush() {
+        String rest = buffer.toString().strip();
+        buffer.setLength(0);
+        if (!rest.isEmpty()) {
+            emitted++;
+        }
+        return rest;
+    }
+
+    /**
+     * 已切出的片段数，含 {@link #flush()} 返回的片段。
+     */
+    public int emitted() {
+        return emitted;
+    }
+
+    private void take(int cut, List<String> segments) {
+        String segment = buffer.substring(0, cut).strip();
+        buffer.delete(0, cut);
+        if (!segment.isEmpty()) {
+            segments.add(segment);
+            emitted++;
+        }
+    }
+
+    /**
+     * 返回下一个切分位置（片段的结束下标），暂不切分时返回 -1。
+     */
+    private int nextCut() {
+        int length = buffer.length();
+        int min = emitted == 0 ? 1 : Math.max(1, minChars);
+        for (int i = 0; i < length; i++) {
+            int end = sentenceEnd(i);
+            if (end > 0 && end >= min) {
+                return end;
+            }
+            if (end == 0) {
+                // 还不能判断是否为句末，等待更多输入
+                break;
+            }
+        }
+        if (length <= maxChars) {
+            return -1;
+        }
+        for (int i = maxChars - 1; i > 0; i--) {
+            char c = buffer.charAt(i);
+            if (SOFT_BREAKS.indexOf(c) >= 0 || Character.isWhitespace(c)) {
+                return i + 1;
+            }
+        }
+        return Character.isHighSurrogate(buffer.charAt(maxChars - 1)) ? maxChars - 1 : maxChars;
+    }
+
+    /**
+     * 位置 {@code i} 为句末时返回句子结束下标（含其后的右引号与右括号），不是句末返回 -1，需要更多输入返回 0。
+     */
+    private int sentenceEnd(int i) {
+        char c = buffer.charAt(i);
+        boolean terminal;
+        switch (c) {
+            case '。', '！', '？', '；', '\n' -> terminal = true;
+            case '.', '!', '?', ';' -> {
+                int next = i + 1;
+                while (next < buffer.length() && CLOSING.indexOf(buffer.charAt(next)) >= 0) {
+                    next++;
+                }
+                if (next >= buffer.length()) {
+                    return 0;
+                }
+                terminal = Character.isWhitespace(buffer.charAt(next));
+            }
+            default -> terminal = false;
+        }
+        if (!terminal) {
+            return -1;
+        }
+        int end = i + 1;
+        while (end < buffer.length() && CLOSING.indexOf(buffer.charAt(end)) >= 0) {
+            end++;
+        }
+        return end;
+    }
+}
@@ -4,6 +4,9 @@ import com.halliday.ai.common.audio.AudioFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.function.Consumer;
+
 public interface TextToSpeechClient {
 
     Logger log = LoggerFactory.getLogger(TextToSpeechClient.class);
@@ -21,8 +24,46 @@ public interface TextToSpeechClient {
      */
     byte[] synthesize(String text, String voice);
 
+    /**
+     * 合成文本并以按帧对齐的音频片段逐段输出；方法在全部音频输出后返回。
+     * <p>
+     * 默认实现先调用 {@link #synthesize} 取得完整音频，再按约 100ms 切分，末尾不足一帧的字节被丢弃；
+     * 能够边接收边输出的实现应覆盖此方法。
+     *
+     * @param text    reply text
+     * @param voice   optional voice identifier
+     * @param onChunk 音频片段回调，片段长度为整帧
+     */
+    default void synthesizeStreaming(String text, String voice, Consumer<byte[]> onChunk) {
+        byte[] audio = synthesize(text, voice);
+        if (audio == null) {
+            return;
+        }
+        AudioFormat format = outputFormat();
+        int chunkSize = chunkBytes(format);
+        int length = audio.length - audio.length % bytesPerFrame(format);
+        if (length < audio.length) {
+            log.warn("【语音合成接口】音频末尾存在不完整的帧，丢弃字节数：{}", audio.length - length);
+        }
+        for (int offset = 0; offset < length; offset += chunkSize) {
+            onChunk.accept(Arrays.copyOfRange(audio, offset, Math.min(length, offset + chunkSize)));
+        }
+    }
+
     /**
      * Audio format metadata of the generated speech.
      */
     AudioFormat outputFormat();
+
+    /**
+     * 约 100ms 音频对应的字节数，按整帧取整。
+     */
+    static int chunkBytes(AudioFormat format) {
+        int bytesPerFrame = bytesPerFrame(format);
+        return Math.max(bytesPerFrame, format.sampleRate() / 10 * bytesPerFrame);
+    }
+
+    private static int bytesPerFrame(AudioFormat format) {
+        return Math.max(1, format.bitDepth() / 8) * Math.max(1, format.channels());
+    }
 }
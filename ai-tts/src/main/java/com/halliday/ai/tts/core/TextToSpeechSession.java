@@ -0,0 +1,71 @@
+package com.halliday.ai.tts.core;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 一次连续的语音合成会话：文本可以逐段追加，音频通过 {@link Listener} 持续输出，调用方无需自行按句切分。
+ * <p>
+ * {@link #append(String)} 与 {@link #flush()} 不阻塞；{@link #finish()} 提交剩余文本，返回的 future 在全部音频输出后完成。
+ */
+public interface TextToSpeechSession {
+
+    /**
+     * 追加一段文本。
+     */
+    void append(String text);
+
+    /**
+     * 把已缓冲但尚未成段的文本立即提交合成。
+     */
+    void flush();
+
+    /**
+     * 结束输入并提交剩余文本；返回的 future 在全部音频输出后完成。重复调用返回同一结果。
+     */
+    CompletableFuture<Void> finish();
+
+    /**
+     * 放弃尚未开始合成的文本；正在合成的片段会执行完毕。
+     */
+    void cancel();
+
+    /**
+     * 会话输出回调，按片段顺序依次调用，同一会话的回调不会并发。
+     */
+    interface Listener {
+
+        /**
+         * 一段音频。
+         */
+        void onAudio(byte[] chunk);
+
+        /**
+         * 一段音频，以只读缓冲区提供，只在回调期间有效。默认复制为数组后调用 {@link #onAudio(byte[])}，
+         * 能直接消费缓冲区的实现覆盖此方法即可省去这次复制。
+         */
+        default void onAudio(ByteBuffer chunk) {
+            byte[] copy = new byte[chunk.remaining()];
+            chunk.duplicate().get(copy);
+            onAudio(copy);
+        }
+
+        /**
+         * 开始合成一个片段，{@code index} 从 1 开始。
+         */
+        default void onSegmentStart(int index, String text) {
+        }
+
+        /**
+         * 片段合成结束，{@code chunks} 为输出的音频片段数。
+         */
+        default void onSegmentComplete(int index, String text, int chunks) {
+        }
+
+        /**
+         * 片段合成失败，{@code chunks} 为失败前已输出的音频片段数。会话继续合成后续片段。
+         */
+        default void onSegmentFailed(int index, String text, int chunks, Exception error) {
+        }
+    }
+}
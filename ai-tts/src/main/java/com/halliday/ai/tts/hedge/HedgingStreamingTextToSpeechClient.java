@@ -0,0 +1,258 @@
+package com.halliday.ai.tts.hedge;
+
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
+import com.halliday.ai.tts.core.TextToSpeechClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 在流式合成与 HTTP 合成之间对冲的客户端：流式合成超过 {@code hedgeAfterMs} 仍未输出音频，或在输出音频前失败时，
+ * 并行发起 HTTP 合成，先输出音频的一方胜出，之后只转发胜出方的音频，另一方的音频被丢弃，不会重复播放。
+ * <p>
+ * 超时触发的对冲受令牌桶限制：每句存入 {@code budgetRatio} 个令牌，每次对冲消耗一个，长期对冲比例因此不超过
+ * {@code budgetRatio}，避免合成服务整体变慢时对冲把 HTTP 合成的负载翻倍；流式一方在输出音频前失败时的回退不受限制。
+ * <p>
+ * HTTP 一方落败时中断其响应读取；流式一方落败时由其自身的截止时间结束。胜出方在输出音频后失败时直接抛出异常，
+ * 不再切换到另一方，以免重复已播放的内容。
+ * <p>
+ * 流式一方的音频经 {@link StreamingTextToSpeechClient#streamSynthesizeBuffers} 原样转发，不复制。
+ */
+public class HedgingStreamingTextToSpeechClient implements StreamingTextToSpeechClient, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingStreamingTextToSpeechClient.class);
+
+    static final double DEFAULT_BUDGET_RATIO = 0.1;
+    private static final double MAX_TOKENS = 10;
+
+    /**
+     * 参与对冲的一方。
+     */
+    public enum Lane {
+        STREAM,
+        HTTP
+    }
+
+    private final StreamingTextToSpeechClient stream;
+    private final TextToSpeechClient http;
+    private final long hedgeAfterMs;
+    private final double budgetRatio;
+    private final ExecutorService executor;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder streamWins = new LongAdder();
+    private final LongAdder httpWins = new LongAdder();
+    private final LongAdder budgetRejected = new LongAdder();
+    private double tokens = 1;
+
+    /**
+     * @param stream       首选的流式合成客户端
+     * @param http         对冲使用的 HTTP 合成客户端，通过 {@link TextToSpeechClient#synthesizeStreaming} 边接收边输出
+     * @param hedgeAfterMs 发起对冲前等待流式合成首个音频片段的时间，毫秒
+     */
+    public HedgingStreamingTextToSpeechClient(StreamingTextToSpeechClient stream, TextToSpeechClient http,
+                                              long hedgeAfterMs) {
+        this(stream, http, hedgeAfterMs, DEFAULT_BUDGET_RATIO);
+    }
+
+    /**
+     * @param stream       首选的流式合成客户端
+     * @param http         对冲使用的 HTTP 合成客户端
+     * @param hedgeAfterMs 发起对冲前等待流式合成首个音频片段的时间，毫秒
+     * @param budgetRatio  超时对冲占全部句子的比例上限
+     */
+    public HedgingStreamingTextToSpeechClient(StreamingTextToSpeechClient stream, TextToSpeechClient http,
+                                              long hedgeAfterMs, double budgetRatio) {
+        this.stream = Objects.requireNonNull(stream, "stream");
+        this.http = Objects.requireNonNull(http, "http");
+        this.hedgeAfterMs = Math.max(0, hedgeAfterMs);
+        this.budgetRatio = Math.max(0, budgetRatio);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tts-hedge-", 0).factory());
+        log.info("【TTS 对冲】初始化完成，对冲等待：{}ms，预算比例：{}", this.hedgeAfterMs, this.budgetRatio);
+    }
+
+    @Override
+    public void streamSynthesize(String text, String voice, Consumer<byte[]> onChunk, Runnable onComplete) {
+        Objects.requireNonNull(onChunk, "onChunk");
+        streamSynthesizeBuffers(text, voice, chunk -> {
+            byte[] copy = new byte[chunk.remaining()];
+            chunk.duplicate().get(copy);
+            onChunk.accept(copy);
+        }, onComplete);
+    }
+
+    @Override
+    public void streamSynthesizeBuffers(String text, String voice, Consumer<ByteBuffer> onChunk, Runnable onComplete) {
+        Objects.requireNonNull(onChunk, "onChunk");
+        Objects.requireNonNull(onComplete, "onComplete");
+        if (!StringUtils.hasText(text)) {
+            stream.streamSynthesizeBuffers(text, voice, onChunk, onComplete);
+            return;
+        }
+        requests.increment();
+        deposit();
+        Race race = new Race(onChunk);
+        CompletableFuture<Void> streamRun = CompletableFuture.runAsync(
+                () -> stream.streamSynthesizeBuffers(text, voice, race.lane(Lane.STREAM), () -> {
+                }), executor);
+        try {
+            CompletableFuture.anyOf(race.first, streamRun).get(hedgeAfterMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // 超时或流式合成失败时由下方判断是否对冲
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AiServiceException("Interrupted while waiting for streaming TTS", ex);
+        }
+        CompletableFuture<Void> httpRun = null;
+        boolean streamFailed = streamRun.isCompletedExceptionally();
+        if (!race.first.isDone() && !streamFailed && !tryHedge()) {
+            budgetRejected.increment();
+            log.debug("【TTS 对冲】对冲预算不足，继续等待流式合成，文本长度：{}", text.length());
+        } else if (!race.first.isDone()) {
+            hedges.increment();
+            log.info("【TTS 对冲】流式合成 {}ms 内未输出音频{}，并行发起 HTTP 合成，文本长度：{}",
+                    hedgeAfterMs, streamFailed ? "且已失败" : "", text.length());
+            Consumer<ByteBuffer> httpLane = race.lane(Lane.HTTP);
+            httpRun = CompletableFuture.runAsync(() -> http.synthesizeStreaming(text, voice,
+                    chunk -> httpLane.accept(ByteBuffer.wrap(chunk).asReadOnlyBuffer())), executor);
+        }
+        CompletableFuture<Void> allRuns = httpRun == null ? streamRun : CompletableFuture.allOf(streamRun, httpRun);
+        CompletableFuture.anyOf(race.first, allRuns.exceptionally(ex -> null)).join();
+        Lane winner = race.winner.get();
+        if (winner == null) {
+            // 两方都没有输出音频：优先报告流式一方的失败，都正常结束时视为空音频
+            failIfFailed(streamRun, "Streaming TTS failed");
+            if (httpRun != null) {
+                failIfFailed(httpRun, "Hedged HTTP TTS failed");
+            }
+            onComplete.run();
+            return;
+        }
+        if (winner == Lane.STREAM) {
+            streamWins.increment();
+        } else {
+            httpWins.increment();
+        }
+        if (httpRun != null) {
+            log.debug("【TTS 对冲】{} 一方先输出音频", winner);
+        }
+        failIfFailed(winner == Lane.STREAM ? streamRun : httpRun, "TTS failed after first audio chunk");
+        onComplete.run();
+    }
+
+    private synchronized void deposit() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    private synchronized boolean tryHedge() {
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private static void failIfFailed(CompletableFuture<Void> run, String message) {
+        try {
+            run.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new AiServiceException(message, cause);
+        }
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    /**
+     * 发起 HTTP 对冲的句子数。
+     */
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * 某一方先输出音频的句子数。
+     */
+    public long wins(Lane lane) {
+        return lane == Lane.STREAM ? streamWins.sum() : httpWins.sum();
+    }
+
+    /**
+     * 因对冲预算不足而未发起对冲的句子数。
+     */
+    public long budgetRejected() {
+        return budgetRejected.sum();
+    }
+
+    public long hedgeAfterMs() {
+        return hedgeAfterMs;
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdown();
+        if (stream instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * 一句话的对冲状态：第一个输出音频的一方胜出，之后只转发胜出方的音频。
+     */
+    private static final class Race {
+
+        private final Consumer<ByteBuffer> onChunk;
+        private final AtomicReference<Lane> winner = new AtomicReference<>();
+        private final CompletableFuture<Lane> first = new CompletableFuture<>();
+
+        private Race(Consumer<ByteBuffer> onChunk) {
+            this.onChunk = onChunk;
+        }
+
+        Consumer<ByteBuffer> lane(Lane lane) {
+            return chunk -> {
+                if (chunk == null || !chunk.hasRemaining()) {
+                    return;
+                }
+                if (winner.compareAndSet(null, lane)) {
+                    first.complete(lane);
+                }
+                if (winner.get() == lane) {
+                    onChunk.accept(chunk);
+                } else if (lane == Lane.HTTP) {
+                    // 中断落败的 HTTP 读取，释放连接
+                    throw new LaneAbandoned();
+                }
+            };
+        }
+    }
+
+    /**
+     * 落败一方的读取被主动中断。
+     */
+    private static final class LaneAbandoned extends RuntimeException {
+
+        private LaneAbandoned() {
+            super("Hedged TTS lane lost the race", null, false, false);
+        }
+    }
+}
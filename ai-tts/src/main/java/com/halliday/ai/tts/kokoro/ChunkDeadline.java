@@ -0,0 +1,109 @@
+package com.halliday.ai.tts.kokoro;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * 单句合成的截止时间：首个音频片段须在 {@code firstChunkMs} 内到达，之后相邻片段的间隔不得超过 {@code gapMs}，
+ * 整句不超过 {@code totalMs}。取值不大于 0 的项不限制，只受整句上限约束。
+ */
+final class ChunkDeadline {
+
+    /**
+     * 超过的截止时间类型。
+     */
+    enum Kind {
+        FIRST_CHUNK,
+        CHUNK_GAP,
+        TOTAL
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final long firstChunkNanos;
+    private final long gapNanos;
+    private final long totalNanos;
+    private volatile long lastChunkNanos;
+
+    ChunkDeadline(long firstChunkMs, long gapMs, long totalMs) {
+        this.firstChunkNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, firstChunkMs));
+        this.gapNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, gapMs));
+        this.totalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, totalMs));
+    }
+
+    /**
+     * 包装音频回调，记录每个片段的到达时间。
+     */
+    <T> Consumer<T> track(Consumer<T> onChunk) {
+        return chunk -> {
+            lastChunkNanos = System.nanoTime();
+            onChunk.accept(chunk);
+        };
+    }
+
+    /**
+     * 等待合成结束；超过任一截止时间时抛出 {@link Exceeded}，合成失败时抛出包装原因的 {@link CompletionException}。
+     */
+    void await(CompletableFuture<Void> completion) throws Exceeded, InterruptedException {
+        long totalDeadline = startNanos + totalNanos;
+        while (true) {
+            long last = lastChunkNanos;
+            Kind kind;
+            long deadline;
+            if (last == 0 && firstChunkNanos > 0 && startNanos + firstChunkNanos - totalDeadline < 0) {
+                kind = Kind.FIRST_CHUNK;
+                deadline = startNanos + firstChunkNanos;
+            } else if (last != 0 && gapNanos > 0 && last + gapNanos - totalDeadline < 0) {
+                kind = Kind.CHUNK_GAP;
+                deadline = last + gapNanos;
+            } else {
+                kind = Kind.TOTAL;
+                deadline = totalDeadline;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                // 等待期间可能刚好有片段到达，重新计算一次再判定
+                if (lastChunkNanos != last) {
+                    continue;
+                }
+                throw new Exceeded(kind, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+            try {
+                completion.get(remaining, TimeUnit.NANOSECONDS);
+                return;
+            } catch (TimeoutException ignored) {
+                // 重新计算截止时间
+            } catch (ExecutionException ex) {
+                throw new CompletionException(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * 超过截止时间。
+     */
+    static final class Exceeded extends TimeoutException {
+
+        private final Kind kind;
+
+        Exceeded(Kind kind, long elapsedMs) {
+            super(describe(kind) + " deadline exceeded after " + elapsedMs + "ms");
+            this.kind = kind;
+        }
+
+        Kind kind() {
+            return kind;
+        }
+
+        private static String describe(Kind kind) {
+            return switch (kind) {
+                case FIRST_CHUNK -> "First audio chunk";
+                case CHUNK_GAP -> "Inter-chunk gap";
+                case TOTAL -> "Sentence";
+            };
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.halliday.ai.tts.kokoro;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halliday.ai.common.audio.Pcm16FrameAligner;
 import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.common.http.HttpClientFactory;
 import com.halliday.ai.tts.config.KokoroTtsProperties;
 import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
 import okhttp3.OkHttpClient;
@@ -15,35 +18,99 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
-public class KokoroStreamingTextToSpeechClient implements StreamingTextToSpeechClient {
+/**
+ * 基于 WebSocket 的 Kokoro 流式合成客户端。
+ * <p>
+ * 启用连接复用（{@code ai.tts.wsPoolEnabled}）时，连接由 {@link KokoroWebSocketPool} 管理，句子之间复用同一条连接，
+ * 省去每句话的连接建立开销；复用的连接在收到任何音频之前失效时，会在新连接上重试一次。
+ * 关闭时每句话新建连接并在结束后关闭。两种模式都按新建与复用连接分别统计每句话的首个音频片段耗时。
+ * <p>
+ * 每句话受 {@code firstChunkTimeoutMs}（首个片段）与 {@code chunkGapTimeoutMs}（相邻片段间隔）约束，整句不超过
+ * {@code readTimeoutMs}；超过任一截止时间即断开连接并抛出异常，由调用方回退到其他合成方式。
+ * <p>
+ * 二进制帧以接收缓冲区的只读视图转交给 {@link #streamSynthesizeBuffers} 的回调，不复制；文本帧用流式解析器直接把
+ * Base64 字段解码为音频，不构建 JSON 树。输出格式为 16-bit PCM 时按整帧输出，片段末尾不足一帧的字节并入下一个片段。
+ */
+public class KokoroStreamingTextToSpeechClient implements StreamingTextToSpeechClient, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(KokoroStreamingTextToSpeechClient.class);
+    private static final String[] AUDIO_FIELDS = {"data", "audio", "chunk", "audio_chunk", "audioChunk"};
 
     private final KokoroTtsProperties properties;
     private final ObjectMapper mapper;
     private final OkHttpClient client;
+    private final KokoroWebSocketPool pool;
+    private final LongAdder oneShotConnections = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder firstChunkNewCount = new LongAdder();
+    private final LongAdder firstChunkNewNanos = new LongAdder();
+    private final LongAdder firstChunkReusedCount = new LongAdder();
+    private final LongAdder firstChunkReusedNanos = new LongAdder();
+    private final LongAdder firstChunkTimeouts = new LongAdder();
+    private final LongAdder chunkGapTimeouts = new LongAdder();
+    private final LongAdder totalTimeouts = new LongAdder();
 
     public KokoroStreamingTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper) {
+        this(properties, mapper, HttpClientFactory.shared());
+    }
+
+    public KokoroStreamingTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper,
+                                             HttpClientFactory httpClientFactory) {
+        this(properties, mapper, Objects.requireNonNull(httpClientFactory, "httpClientFactory")
+                .newWebSocketClient(properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), 0));
+    }
+
+    private KokoroStreamingTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper, OkHttpClient client) {
+        this(properties, mapper, client, properties.isWsPoolEnabled() ? newPool(properties, client) : null);
+    }
+
+    /**
+     * 使用给定的连接池，{@code pool} 为 {@code null} 时每句新建连接。
+     */
+    KokoroStreamingTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper, OkHttpClient client,
+                                      KokoroWebSocketPool pool) {
         this.properties = Objects.requireNonNull(properties, "properties");
         this.mapper = Objects.requireNonNull(mapper, "mapper");
-        log.debug("【Kokoro 流式合成】初始化客户端，WebSocket 地址：{}", properties.getWsUrl());
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
-                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
-                .build();
+        this.client = client;
+        this.pool = pool;
+        log.debug("【Kokoro 流式合成】初始化客户端，WebSocket 地址：{}，连接复用：{}", properties.getWsUrl(), pool != null);
+    }
+
+    private static KokoroWebSocketPool newPool(KokoroTtsProperties properties, OkHttpClient client) {
+        OkHttpClient pooledClient = properties.getWsPingIntervalMs() > 0
+                ? client.newBuilder().pingInterval(properties.getWsPingIntervalMs(), TimeUnit.MILLISECONDS).build()
+                : client;
+        log.info("【Kokoro 流式合成】已启用连接复用，最多空闲连接：{}，空闲保留：{}ms，心跳间隔：{}ms",
+                properties.getWsPoolMaxIdle(), properties.getWsPoolMaxIdleMs(), properties.getWsPingIntervalMs());
+        return new KokoroWebSocketPool(pooledClient, properties.getWsUrl(), properties.getWsPoolMaxIdle(),
+                properties.getWsPoolMaxIdleMs(), properties.getConnectTimeoutMs());
     }
 
     @Override
     public void streamSynthesize(String text, String voice, Consumer<byte[]> onChunk, Runnable onComplete) {
+        Objects.requireNonNull(onChunk, "onChunk");
+        streamSynthesizeBuffers(text, voice, chunk -> {
+            byte[] copy = new byte[chunk.remaining()];
+            chunk.duplicate().get(copy);
+            onChunk.accept(copy);
+        }, onComplete);
+    }
+
+    @Override
+    public void streamSynthesizeBuffers(String text, String voice, Consumer<ByteBuffer> onChunk, Runnable onComplete) {
         Objects.requireNonNull(onChunk, "onChunk");
         Objects.requireNonNull(onComplete, "onComplete");
         if (!StringUtils.hasText(text)) {
@@ -61,6 +128,44 @@ public class KokoroStreamingTextToSpeechClient implements StreamingTextToSpeechC
         payload.put("stream", true);
         log.debug("【Kokoro 流式合成】发送请求，文本长度：{}，目标音色：{}", text.length(), payload.get("voice"));
 
+        Pcm16FrameAligner aligner = "pcm".equalsIgnoreCase(properties.getFormat()) && properties.getBitDepth() == 16
+                ? new Pcm16FrameAligner(properties.getChannels())
+                : null;
+        try {
+            synthesize(payload, aligner == null ? onChunk : aligned(aligner, onChunk), onComplete);
+        } finally {
+            if (aligner != null && aligner.pending() > 0) {
+                log.warn("【Kokoro 流式合成】音频结尾不足一帧，丢弃 {} 字节", aligner.reset());
+            }
+        }
+    }
+
+    private static Consumer<ByteBuffer> aligned(Pcm16FrameAligner aligner, Consumer<ByteBuffer> onChunk) {
+        return chunk -> {
+            ByteBuffer frames = aligner.align(chunk);
+            if (frames.hasRemaining()) {
+                onChunk.accept(frames);
+            }
+        };
+    }
+
+    private void synthesize(Map<String, Object> payload, Consumer<ByteBuffer> onChunk, Runnable onComplete) {
+        if (pool != null) {
+            String payloadJson;
+            try {
+                payloadJson = mapper.writeValueAsString(payload);
+            } catch (Exception ex) {
+                log.error("【Kokoro 流式合成】序列化请求载荷失败", ex);
+                throw new AiServiceException("Failed to encode streaming TTS payload", ex);
+            }
+            streamPooled(payloadJson, onChunk, onComplete);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        ChunkDeadline deadline = newDeadline();
+        Consumer<ByteBuffer> timedChunk = deadline.track(firstChunkTimer(startNanos, false, onChunk));
+        oneShotConnections.increment();
         CompletableFuture<Void> completion = new CompletableFuture<>();
         Request request = new Request.Builder().url(properties.getWsUrl()).build();
         WebSocket ws = client.newWebSocket(request, new WebSocketListener() {
@@ -79,7 +184,9 @@ public class KokoroStreamingTextToSpeechClient implements StreamingTextToSpeechC
             @Override
             public void onMessage(WebSocket webSocket, String textMessage) {
                 log.trace("【Kokoro 流式合成】收到文本消息：{}", textMessage);
-                handleStringMessage(textMessage, onChunk, onComplete, completion, webSocket);
+                if (handleStringMessage(textMessage, timedChunk, onComplete, completion)) {
+                    webSocket.close(1000, "done");
+                }
             }
 
             @Override
@@ -87,15 +194,16 @@ public class KokoroStreamingTextToSpeechClient implements StreamingTextToSpeechC
                 if (bytes == null || bytes.size() == 0) {
                     return;
                 }
-                byte[] chunk = bytes.toByteArray();
-                log.trace("【Kokoro 流式合成】收到二进制音频片段，长度：{}", chunk.length);
-                onChunk.accept(chunk);
+                log.trace("【Kokoro 流式合成】收到二进制音频片段，长度：{}", bytes.size());
+                timedChunk.accept(bytes.asByteBuffer());
             }
 
             @Override
             public void onClosed(WebSocket webSocket, int code, String reason) {
                 log.debug("【Kokoro 流式合成】WebSocket 已关闭，code={}，reason={}", code, reason);
-                completion.complete(null);
+                // 收到结束标记后 completion 已完成；此前关闭说明音频不完整
+                completion.completeExceptionally(
+                        new AiServiceException("Kokoro WebSocket closed before end marker: " + code + " " + reason));
             }
 
             @Override
@@ -106,92 +214,339 @@ public class KokoroStreamingTextToSpeechClient implements StreamingTextToSpeechC
         });
 
         try {
-            completion.orTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS).join();
+            deadline.await(completion);
             log.info("【Kokoro 流式合成】流式合成流程完成");
         } catch (Exception ex) {
-            log.error("【Kokoro 流式合成】流式合成超时或失败", ex);
+            Throwable cause = unwrap(ex);
+            recordDeadline(cause);
+            log.error("【Kokoro 流式合成】流式合成超时或失败：{}", cause.getMessage());
             ws.cancel();
-            throw new AiServiceException("Streaming TTS timed out", ex);
+            throw new AiServiceException("Streaming TTS timed out", cause);
         }
     }
 
-    private void handleStringMessage(String message,
-                                     Consumer<byte[]> onChunk,
-                                     Runnable onComplete,
-                                     CompletableFuture<Void> completion,
-                                     WebSocket ws) {
+    private ChunkDeadline newDeadline() {
+        return new ChunkDeadline(properties.getFirstChunkTimeoutMs(), properties.getChunkGapTimeoutMs(),
+                properties.getReadTimeoutMs());
+    }
+
+    private static Throwable unwrap(Exception ex) {
+        if (ex instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private void recordDeadline(Throwable cause) {
+        if (cause instanceof ChunkDeadline.Exceeded exceeded) {
+            switch (exceeded.kind()) {
+                case FIRST_CHUNK -> firstChunkTimeouts.increment();
+                case CHUNK_GAP -> chunkGapTimeouts.increment();
+                case TOTAL -> totalTimeouts.increment();
+            }
+        }
+    }
+
+    /**
+     * 在池化连接上合成一句话。复用的连接在收到任何音频之前失效（例如服务端已关闭空闲连接）时，换一条新连接重试一次。
+     */
+    private void streamPooled(String payloadJson, Consumer<ByteBuffer> onChunk, Runnable onComplete) {
+        long startNanos = System.nanoTime();
+        boolean retried = false;
+        while (true) {
+            KokoroWebSocketPool.PooledSocket socket = pool.acquire();
+            boolean reused = socket.reused();
+            ChunkDeadline deadline = newDeadline();
+            PooledRequest request = new PooledRequest(deadline.track(firstChunkTimer(startNanos, reused, onChunk)),
+                    onComplete);
+            if (!socket.send(request, payloadJson)) {
+                pool.discard(socket, "send-failed");
+                if (reused && !retried) {
+                    retried = true;
+                    retries.increment();
+                    log.debug("【Kokoro 流式合成】复用连接已不可写，改用新连接");
+                    continue;
+                }
+                throw new AiServiceException("Failed to send streaming TTS payload");
+            }
+            try {
+                deadline.await(request.completion);
+                if (request.ended) {
+                    pool.release(socket);
+                } else {
+                    pool.discard(socket, "closed");
+                }
+                log.info("【Kokoro 流式合成】流式合成流程完成，复用连接：{}", reused);
+                return;
+            } catch (Exception ex) {
+                pool.discard(socket, "error");
+                Throwable cause = unwrap(ex);
+                recordDeadline(cause);
+                if (reused && !retried && !request.delivered && !(cause instanceof TimeoutException)) {
+                    retried = true;
+                    retries.increment();
+                    log.warn("【Kokoro 流式合成】复用连接在返回音频前失效，改用新连接重试：{}", cause.getMessage());
+                    continue;
+                }
+                log.error("【Kokoro 流式合成】流式合成超时或失败：{}", cause.getMessage());
+                throw new AiServiceException("Streaming TTS timed out", cause);
+            }
+        }
+    }
+
+    /**
+     * 包装音频回调，在本句第一个片段到达时按连接类型记录首片段耗时。
+     */
+    private Consumer<ByteBuffer> firstChunkTimer(long startNanos, boolean reused, Consumer<ByteBuffer> onChunk) {
+        AtomicBoolean first = new AtomicBoolean(true);
+        return chunk -> {
+            if (first.compareAndSet(true, false)) {
+                long elapsed = System.nanoTime() - startNanos;
+                if (reused) {
+                    firstChunkReusedCount.increment();
+                    firstChunkReusedNanos.add(elapsed);
+                } else {
+                    firstChunkNewCount.increment();
+                    firstChunkNewNanos.add(elapsed);
+                }
+                log.debug("【Kokoro 流式合成】首个音频片段耗时：{}ms，复用连接：{}", elapsed / 1_000_000, reused);
+            }
+            onChunk.accept(chunk);
+        };
+    }
+
+    /**
+     * 处理文本帧，收到结束标记时返回 true。
+     */
+    private boolean handleStringMessage(String message,
+                                        Consumer<ByteBuffer> onChunk,
+                                        Runnable onComplete,
+                                        CompletableFuture<Void> completion) {
         try {
-            JsonNode node = mapper.readTree(message);
-            String marker = resolveMarker(node);
+            TextFrame frame = parseTextFrame(message);
+            String marker = frame.marker();
             switch (marker) {
                 case "started", "ready", "begin" -> log.trace("【Kokoro 流式合成】收到状态帧：{}", marker);
                 case "chunk", "audio", "data" -> {
-                    String base64 = extractAudioBase64(node);
-                    if (!base64.isEmpty()) {
-                        byte[] audio = Base64.getDecoder().decode(base64);
-                        log.trace("【Kokoro 流式合成】收到音频片段（Base64），解码后长度：{}", audio.length);
-                        onChunk.accept(audio);
+                    if (frame.audio() != null && frame.audio().length > 0) {
+                        log.trace("【Kokoro 流式合成】收到音频片段（Base64），解码后长度：{}", frame.audio().length);
+                        onChunk.accept(ByteBuffer.wrap(frame.audio()).asReadOnlyBuffer());
                     }
                 }
                 case "end", "finished", "done", "complete" -> {
                     log.debug("【Kokoro 流式合成】收到结束标记：{}", marker);
+                    onComplete.run();
                     if (!completion.isDone()) {
                         completion.complete(null);
                     }
-                    onComplete.run();
-                    ws.close(1000, "done");
+                    return true;
                 }
                 default -> {
-                    if (node.hasNonNull("message") && !completion.isDone()) {
-                        log.debug("【Kokoro 流式合成】收到 message 字段，提前结束：{}", node.get("message").asText());
-                        completion.complete(null);
+                    if (frame.message() != null && !completion.isDone()) {
+                        log.debug("【Kokoro 流式合成】收到 message 字段，提前结束：{}", frame.message());
                         onComplete.run();
-                        ws.close(1000, "message");
+                        completion.complete(null);
+                        return true;
                     }
                 }
             }
         } catch (Exception parseError) {
             log.warn("【Kokoro 流式合成】解析文本消息失败，将尝试降级处理", parseError);
             if (message.contains("\"event\":\"end\"")) {
+                onComplete.run();
                 if (!completion.isDone()) {
                     completion.complete(null);
                 }
-                onComplete.run();
-                ws.close(1000, "done");
+                return true;
             } else if (!message.isBlank()) {
                 byte[] chunk = message.getBytes(StandardCharsets.UTF_8);
                 log.trace("【Kokoro 流式合成】将纯文本消息作为音频片段处理，长度：{}", chunk.length);
-                onChunk.accept(chunk);
+                onChunk.accept(ByteBuffer.wrap(chunk).asReadOnlyBuffer());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 流式解析文本帧的顶层字段：状态取 {@code event}，其次 {@code type}；音频按 {@link #AUDIO_FIELDS} 的顺序取第一个
+     * 非空字符串字段，直接从解析缓冲区解码 Base64。
+     */
+    private TextFrame parseTextFrame(String message) throws Exception {
+        String event = null;
+        String type = null;
+        String text = null;
+        byte[] audio = null;
+        int audioRank = AUDIO_FIELDS.length;
+        try (JsonParser parser = mapper.getFactory().createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new AiServiceException("Kokoro text frame is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "event" -> event = parser.getValueAsString("");
+                    case "type" -> type = parser.getValueAsString("");
+                    case "message" -> text = parser.getValueAsString("");
+                    default -> {
+                        int rank = audioRank(field);
+                        if (rank < audioRank) {
+                            audioRank = rank;
+                            audio = value == JsonToken.VALUE_STRING ? parser.getBinaryValue() : new byte[0];
+                        }
+                    }
+                }
             }
         }
+        String marker = event != null ? event : type != null ? type : "";
+        return new TextFrame(marker.toLowerCase(), audio, text);
     }
 
-    private String resolveMarker(JsonNode node) {
-        if (node.hasNonNull("event")) {
-            return node.get("event").asText("").toLowerCase();
+    private static int audioRank(String field) {
+        for (int i = 0; i < AUDIO_FIELDS.length; i++) {
+            if (AUDIO_FIELDS[i].equals(field)) {
+                return i;
+            }
         }
-        if (node.hasNonNull("type")) {
-            return node.get("type").asText("").toLowerCase();
+        return AUDIO_FIELDS.length;
+    }
+
+    /**
+     * 是否启用了连接复用。
+     */
+    public boolean pooled() {
+        return pool != null;
+    }
+
+    /**
+     * 新建的 WebSocket 连接数。
+     */
+    public long connectionsOpened() {
+        return oneShotConnections.sum() + (pool == null ? 0 : pool.opened());
+    }
+
+    /**
+     * 复用空闲连接的句子数。
+     */
+    public long connectionsReused() {
+        return pool == null ? 0 : pool.reused();
+    }
+
+    /**
+     * 复用连接失效后在新连接上重试的次数。
+     */
+    public long reconnects() {
+        return retries.sum();
+    }
+
+    public int idleConnections() {
+        return pool == null ? 0 : pool.idleCount();
+    }
+
+    /**
+     * 收到首个音频片段的句子数，按是否复用连接区分。
+     */
+    public long firstChunkCount(boolean reused) {
+        return reused ? firstChunkReusedCount.sum() : firstChunkNewCount.sum();
+    }
+
+    /**
+     * 从发起请求（含借出或建立连接）到首个音频片段的累计耗时，纳秒，按是否复用连接区分。
+     */
+    public long firstChunkTotalNanos(boolean reused) {
+        return reused ? firstChunkReusedNanos.sum() : firstChunkNewNanos.sum();
+    }
+
+    /**
+     * 首个音频片段超过 {@code firstChunkTimeoutMs} 未到达的句子数。
+     */
+    public long firstChunkTimeouts() {
+        return firstChunkTimeouts.sum();
+    }
+
+    /**
+     * 相邻音频片段间隔超过 {@code chunkGapTimeoutMs} 的句子数。
+     */
+    public long chunkGapTimeouts() {
+        return chunkGapTimeouts.sum();
+    }
+
+    /**
+     * 整句合成超过 {@code readTimeoutMs} 的句子数。
+     */
+    public long totalTimeouts() {
+        return totalTimeouts.sum();
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.close();
         }
-        return "";
     }
 
-    private String extractAudioBase64(JsonNode node) {
-        if (node.hasNonNull("data")) {
-            return node.get("data").asText("");
+    /**
+     * 文本帧中与合成相关的字段。
+     */
+    private record TextFrame(String marker, byte[] audio, String message) {
+    }
+
+    /**
+     * 池化连接上的一次合成请求。连接在收到结束标记之前被关闭时视为失败：尚未收到音频时可换连接重试，
+     * 已收到音频时本句不完整，向调用方抛出异常。
+     */
+    private final class PooledRequest implements KokoroWebSocketPool.Handler {
+
+        private final Consumer<ByteBuffer> onChunk;
+        private final Runnable onComplete;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private volatile boolean delivered;
+        private volatile boolean ended;
+
+        private PooledRequest(Consumer<ByteBuffer> onChunk, Runnable onComplete) {
+            this.onChunk = chunk -> {
+                delivered = true;
+                onChunk.accept(chunk);
+            };
+            this.onComplete = onComplete;
         }
-        if (node.hasNonNull("audio")) {
-            return node.get("audio").asText("");
+
+        @Override
+        public void onText(String message) {
+            log.trace("【Kokoro 流式合成】收到文本消息：{}", message);
+            // 结束标记先于 completion 完成，等待方据此判断连接能否归还
+            handleStringMessage(message, onChunk, () -> {
+                ended = true;
+                onComplete.run();
+            }, completion);
         }
-        if (node.hasNonNull("chunk")) {
-            return node.get("chunk").asText("");
+
+        @Override
+        public void onBinary(ByteBuffer chunk) {
+            log.trace("【Kokoro 流式合成】收到二进制音频片段，长度：{}", chunk.remaining());
+            onChunk.accept(chunk);
         }
-        if (node.hasNonNull("audio_chunk")) {
-            return node.get("audio_chunk").asText("");
+
+        @Override
+        public void onClosed(int code, String reason) {
+            log.debug("【Kokoro 流式合成】WebSocket 已关闭，code={}，reason={}", code, reason);
+            if (!ended) {
+                completion.completeExceptionally(new AiServiceException(
+                        "Kokoro WebSocket closed before end marker: " + code + " " + reason));
+            }
         }
-        if (node.hasNonNull("audioChunk")) {
-            return node.get("audioChunk").asText("");
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            log.warn("【Kokoro 流式合成】WebSocket 发生异常：{}", throwable.getMessage());
+            completion.completeExceptionally(throwable);
         }
-        return "";
     }
 }
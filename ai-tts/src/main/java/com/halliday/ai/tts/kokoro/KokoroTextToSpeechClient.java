@@ -3,24 +3,38 @@ package com.halliday.ai.tts.kokoro;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.halliday.ai.common.audio.AudioFormat;
 import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.common.health.HealthProbe;
+import com.halliday.ai.common.health.ProbeResult;
+import com.halliday.ai.common.http.HttpClientFactory;
 import com.halliday.ai.tts.config.KokoroTtsProperties;
 import com.halliday.ai.tts.core.TextToSpeechClient;
+import okhttp3.Call;
+import okhttp3.EventListener;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
-public class KokoroTextToSpeechClient implements TextToSpeechClient {
+public class KokoroTextToSpeechClient implements TextToSpeechClient, HealthProbe {
 
     private static final Logger log = LoggerFactory.getLogger(KokoroTextToSpeechClient.class);
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
@@ -31,10 +45,14 @@ public class KokoroTextToSpeechClient implements TextToSpeechClient {
     private final AudioFormat outputFormat;
 
     public KokoroTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper) {
+        this(properties, mapper, HttpClientFactory.shared());
+    }
+
+    public KokoroTextToSpeechClient(KokoroTtsProperties properties, ObjectMapper mapper, HttpClientFactory httpClientFactory) {
         this.properties = Objects.requireNonNull(properties, "properties");
         this.mapper = Objects.requireNonNull(mapper, "mapper");
         log.debug("【Kokoro 语音合成】初始化客户端，服务地址：{}", properties.getUrl());
-        this.client = buildClient(properties);
+        this.client = buildClient(properties, Objects.requireNonNull(httpClientFactory, "httpClientFactory"));
         this.outputFormat = new AudioFormat(
                 properties.getSampleRate(),
                 properties.getChannels(),
@@ -45,13 +63,10 @@ public class KokoroTextToSpeechClient implements TextToSpeechClient {
                 outputFormat.sampleRate(), outputFormat.channels(), outputFormat.bitDepth());
     }
 
-    private OkHttpClient buildClient(KokoroTtsProperties properties) {
+    private OkHttpClient buildClient(KokoroTtsProperties properties, HttpClientFactory httpClientFactory) {
         log.debug("【Kokoro 语音合成】构建 OkHttpClient，连接超时：{}ms，读取超时：{}ms",
                 properties.getConnectTimeoutMs(), properties.getReadTimeoutMs());
-        return new OkHttpClient.Builder()
-                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
-                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
-                .build();
+        return httpClientFactory.newClient(properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), 0);
     }
 
     @Override
@@ -62,7 +77,7 @@ public class KokoroTextToSpeechClient implements TextToSpeechClient {
         }
         log.info("【Kokoro 语音合成】开始合成语音，文本长度：{}", text.length());
         try {
-            byte[] payload = mapper.writeValueAsBytes(buildPayload(text, voice));
+            byte[] payload = mapper.writeValueAsBytes(buildPayload(text, voice, false));
             Request request = new Request.Builder()
                     .url(properties.getUrl())
                     .post(RequestBody.create(payload, JSON))
@@ -83,7 +98,132 @@ public class KokoroTextToSpeechClient implements TextToSpeechClient {
         }
     }
 
-    private Map<String, Object> buildPayload(String text, String voice) {
+    /**
+     * 以流式响应请求合成，边读取响应体边输出按帧对齐的音频片段，内存占用限定在约 100ms 音频的缓冲区内。
+     * 首个片段凑够一帧即输出，之后每攒满缓冲区输出一次；PCM 之外的格式不做帧对齐。
+     */
+    @Override
+    public void synthesizeStreaming(String text, String voice, Consumer<byte[]> onChunk) {
+        Objects.requireNonNull(onChunk, "onChunk");
+        if (!StringUtils.hasText(text)) {
+            log.error("【Kokoro 语音合成】输入文本为空，拒绝合成");
+            throw new IllegalArgumentException("text must not be blank");
+        }
+        log.info("【Kokoro 语音合成】开始流式读取合成语音，文本长度：{}", text.length());
+        long start = System.nanoTime();
+        try {
+            byte[] payload = mapper.writeValueAsBytes(buildPayload(text, voice, true));
+            Request request = new Request.Builder()
+                    .url(properties.getUrl())
+                    .post(RequestBody.create(payload, JSON))
+                    .build();
+            try (Response response = client.newCall(request).execute()) {
+                log.debug("【Kokoro 语音合成】收到响应，HTTP 状态码：{}", response.code());
+                if (!response.isSuccessful()) {
+                    log.error("【Kokoro 语音合成】调用失败，状态码：{}", response.code());
+                    throw new AiServiceException("TTS request failed with status " + response.code());
+                }
+                ResponseBody body = Objects.requireNonNull(response.body(), "empty TTS body");
+                long bytes = forwardAligned(body.byteStream(), onChunk, start);
+                log.info("【Kokoro 语音合成】流式合成完成，音频字节数：{}，总耗时：{}ms", bytes, elapsedMs(start));
+            }
+        } catch (IOException ex) {
+            log.error("【Kokoro 语音合成】调用服务异常", ex);
+            throw new AiServiceException("Failed to call TTS backend", ex);
+        }
+    }
+
+    /**
+     * 把响应体按整帧转发：首个片段只要凑够一帧就立即输出，之后每凑满约 100ms 输出一次，不足一帧的尾部字节留到下一个片段，
+     * 响应末尾的不完整帧被丢弃。
+     *
+     * @return 已输出的字节数
+     */
+    long forwardAligned(InputStream input, Consumer<byte[]> onChunk, long start) throws IOException {
+        int frameBytes = "pcm".equalsIgnoreCase(properties.getFormat())
+                ? Math.max(1, outputFormat.bitDepth() / 8) * Math.max(1, outputFormat.channels())
+                : 1;
+        byte[] buffer = new byte[TextToSpeechClient.chunkBytes(outputFormat) / frameBytes * frameBytes];
+        int filled = 0;
+        long total = 0;
+        int read;
+        while ((read = input.read(buffer, filled, buffer.length - filled)) >= 0) {
+            filled += read;
+            int aligned = filled - filled % frameBytes;
+            if (aligned == 0 || (total > 0 && filled < buffer.length)) {
+                continue;
+            }
+            if (total == 0) {
+                log.debug("【Kokoro 语音合成】首个音频片段到达，耗时：{}ms", elapsedMs(start));
+            }
+            onChunk.accept(Arrays.copyOf(buffer, aligned));
+            total += aligned;
+            // 不足一帧的尾部字节留到下一个片段
+            System.arraycopy(buffer, aligned, buffer, 0, filled - aligned);
+            filled -= aligned;
+        }
+        int aligned = filled - filled % frameBytes;
+        if (aligned > 0) {
+            onChunk.accept(Arrays.copyOf(buffer, aligned));
+            total += aligned;
+        }
+        if (filled > aligned) {
+            log.warn("【Kokoro 语音合成】响应末尾存在不完整的音频帧，丢弃字节数：{}", filled - aligned);
+        }
+        return total;
+    }
+
+    @Override
+    public String probeTarget() {
+        return "tts:kokoro";
+    }
+
+    /**
+     * 合成一个极短文本，测量建连耗时与首个音频字节到达耗时，读到首字节即断开。
+     */
+    @Override
+    public ProbeResult probe(Duration timeout) {
+        long start = System.nanoTime();
+        AtomicLong connectStart = new AtomicLong();
+        AtomicLong connectMs = new AtomicLong();
+        OkHttpClient probeClient = client.newBuilder()
+                .callTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .eventListener(new EventListener() {
+                    @Override
+                    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+                        connectStart.set(System.nanoTime());
+                    }
+
+                    @Override
+                    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+                        connectMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart.get()));
+                    }
+                })
+                .build();
+        try {
+            Request request = new Request.Builder()
+                    .url(properties.getUrl())
+                    .post(RequestBody.create(mapper.writeValueAsBytes(buildPayload("ok", null, false)), JSON))
+                    .build();
+            try (Response response = probeClient.newCall(request).execute()) {
+                if (!response.isSuccessful()) {
+                    return ProbeResult.failure(connectMs.get(), elapsedMs(start), "HTTP " + response.code());
+                }
+                if (Objects.requireNonNull(response.body()).byteStream().read() < 0) {
+                    return ProbeResult.failure(connectMs.get(), elapsedMs(start), "empty response");
+                }
+                return ProbeResult.success(connectMs.get(), elapsedMs(start));
+            }
+        } catch (IOException | RuntimeException ex) {
+            return ProbeResult.failure(connectMs.get(), elapsedMs(start), ex.getMessage());
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private Map<String, Object> buildPayload(String text, String voice, boolean stream) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("model", "kokoro");
         payload.put("voice", StringUtils.hasText(voice) ? voice : properties.getVoice());
@@ -91,7 +231,7 @@ public class KokoroTextToSpeechClient implements TextToSpeechClient {
         payload.put("response_format", properties.getFormat());
         // Ask backend to render with our desired sample rate when supported
         payload.put("sample_rate", properties.getSampleRate());
-        payload.put("stream", false);
+        payload.put("stream", stream);
         log.debug("【Kokoro 语音合成】构建请求载荷，目标音色：{}", payload.get("voice"));
         return payload;
     }
@@ -0,0 +1,279 @@
+package com.halliday.ai.tts.kokoro;
+
+import com.halliday.ai.common.exception.AiServiceException;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Kokoro 流式合成的 WebSocket 连接池。服务端一条连接同一时刻只处理一个合成请求，因此连接按句子依次借出、归还，
+ * 而不是在一条连接上并发复用。
+ * <p>
+ * 借出时优先取最近归还的空闲连接（后进先出，保持连接活跃）；已关闭、已失败或空闲过久的连接直接丢弃。
+ * 连接的健康状态由 OkHttp 的心跳维护：未按时收到 pong 的连接会触发失败回调并被标记为不可用。
+ */
+final class KokoroWebSocketPool {
+
+    private static final Logger log = LoggerFactory.getLogger(KokoroWebSocketPool.class);
+
+    private final WebSocket.Factory factory;
+    private final String url;
+    private final int maxIdle;
+    private final long maxIdleMs;
+    private final long connectTimeoutMs;
+    private final LongSupplier clock;
+    private final ArrayDeque<PooledSocket> idle = new ArrayDeque<>();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * @param factory          WebSocket 工厂，通常是已设置心跳间隔的 {@code OkHttpClient}
+     * @param url              合成服务的 WebSocket 地址
+     * @param maxIdle          最多保留的空闲连接数
+     * @param maxIdleMs        空闲连接的最长保留时间，毫秒
+     * @param connectTimeoutMs 等待新连接握手完成的时间，毫秒
+     */
+    KokoroWebSocketPool(WebSocket.Factory factory, String url, int maxIdle, long maxIdleMs, long connectTimeoutMs) {
+        this(factory, url, maxIdle, maxIdleMs, connectTimeoutMs, System::currentTimeMillis);
+    }
+
+    KokoroWebSocketPool(WebSocket.Factory factory, String url, int maxIdle, long maxIdleMs, long connectTimeoutMs,
+                        LongSupplier clock) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+        this.url = Objects.requireNonNull(url, "url");
+        this.maxIdle = Math.max(0, maxIdle);
+        this.maxIdleMs = Math.max(1, maxIdleMs);
+        this.connectTimeoutMs = Math.max(1, connectTimeoutMs);
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * 借出一条可用连接：有健康的空闲连接时直接复用，否则新建连接并等待握手完成。
+     */
+    PooledSocket acquire() {
+        long now = clock.getAsLong();
+        List<PooledSocket> stale = new ArrayList<>();
+        PooledSocket socket = null;
+        synchronized (this) {
+            PooledSocket candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                if (candidate.usable() && now - candidate.lastUsedMs <= maxIdleMs) {
+                    socket = candidate;
+                    break;
+                }
+                stale.add(candidate);
+            }
+        }
+        for (PooledSocket candidate : stale) {
+            discard(candidate, "stale");
+        }
+        if (socket != null) {
+            reused.increment();
+            socket.reused = true;
+            log.trace("【Kokoro 连接池】复用空闲连接，空闲时长：{}ms", now - socket.lastUsedMs);
+            return socket;
+        }
+        return open();
+    }
+
+    private PooledSocket open() {
+        if (closed) {
+            throw new AiServiceException("Kokoro WebSocket pool is closed");
+        }
+        PooledSocket socket = new PooledSocket();
+        socket.webSocket = factory.newWebSocket(new Request.Builder().url(url).build(), socket);
+        try {
+            socket.opened.get(connectTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            socket.webSocket.cancel();
+            log.warn("【Kokoro 连接池】建立 WebSocket 连接失败：{}", ex.getMessage());
+            throw new AiServiceException("Failed to open Kokoro WebSocket", ex);
+        }
+        opened.increment();
+        log.debug("【Kokoro 连接池】新建 WebSocket 连接完成");
+        return socket;
+    }
+
+    /**
+     * 请求正常结束后归还连接；连接已不可用或空闲连接已满时关闭。
+     */
+    void release(PooledSocket socket) {
+        socket.handler = null;
+        socket.reused = false;
+        if (socket.usable() && !closed) {
+            socket.lastUsedMs = clock.getAsLong();
+            synchronized (this) {
+                if (idle.size() < maxIdle) {
+                    idle.addFirst(socket);
+                    return;
+                }
+            }
+        }
+        discard(socket, "released");
+    }
+
+    /**
+     * 请求失败或超时后丢弃连接，连接上可能还有未读完的帧，不能再复用。
+     */
+    void discard(PooledSocket socket, String reason) {
+        socket.handler = null;
+        socket.open = false;
+        discarded.increment();
+        if (!socket.webSocket.close(1000, reason)) {
+            socket.webSocket.cancel();
+        }
+        log.trace("【Kokoro 连接池】关闭连接，原因：{}", reason);
+    }
+
+    /**
+     * 关闭连接池及全部空闲连接。
+     */
+    void close() {
+        closed = true;
+        List<PooledSocket> remaining;
+        synchronized (this) {
+            remaining = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (PooledSocket socket : remaining) {
+            discard(socket, "shutdown");
+        }
+        log.info("【Kokoro 连接池】已关闭，释放空闲连接数：{}", remaining.size());
+    }
+
+    synchronized int idleCount() {
+        return idle.size();
+    }
+
+    long opened() {
+        return opened.sum();
+    }
+
+    long reused() {
+        return reused.sum();
+    }
+
+    long discarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * 连接上当前请求的回调。
+     */
+    interface Handler {
+
+        void onText(String message);
+
+        /**
+         * 二进制帧的只读视图，只在回调期间有效。
+         */
+        void onBinary(ByteBuffer chunk);
+
+        void onClosed(int code, String reason);
+
+        void onFailure(Throwable throwable);
+    }
+
+    /**
+     * 池中的一条连接。监听器在连接建立时注册且不可更换，收到的帧转交给当前绑定的请求；没有请求绑定时收到的帧被丢弃。
+     */
+    static final class PooledSocket extends WebSocketListener {
+
+        private final CompletableFuture<Void> opened = new CompletableFuture<>();
+        private volatile WebSocket webSocket;
+        private volatile Handler handler;
+        private volatile boolean open;
+        private volatile boolean reused;
+        private volatile long lastUsedMs;
+
+        /**
+         * 绑定当前请求并发送载荷，连接已不可写时返回 false。
+         */
+        boolean send(Handler handler, String payload) {
+            this.handler = handler;
+            return open && webSocket.send(payload);
+        }
+
+        /**
+         * 是否为复用的空闲连接，而不是本次新建的连接。
+         */
+        boolean reused() {
+            return reused;
+        }
+
+        boolean usable() {
+            return open;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            open = true;
+            opened.complete(null);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            Handler current = handler;
+            if (current == null) {
+                log.debug("【Kokoro 连接池】空闲连接收到文本帧，已忽略：{}", text);
+                return;
+            }
+            current.onText(text);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, ByteString bytes) {
+            Handler current = handler;
+            if (current == null || bytes == null || bytes.size() == 0) {
+                return;
+            }
+            current.onBinary(bytes.asByteBuffer());
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            open = false;
+            webSocket.close(1000, null);
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            open = false;
+            Handler current = handler;
+            if (current != null) {
+                current.onClosed(code, reason);
+            }
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            open = false;
+            opened.completeExceptionally(t);
+            Handler current = handler;
+            if (current != null) {
+                current.onFailure(t);
+            } else {
+                log.debug("【Kokoro 连接池】空闲连接失效：{}", t.getMessage());
+            }
+        }
+    }
+}
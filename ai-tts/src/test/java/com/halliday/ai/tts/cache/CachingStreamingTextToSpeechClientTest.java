@@ -0,0 +1,114 @@
+package com.halliday.ai.tts.cache;
+
+import com.halliday.ai.tts.config.KokoroTtsProperties;
+import com.halliday.ai.tts.config.TtsCacheProperties;
+import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingStreamingTextToSpeechClientTest {
+
+    @Test
+    void hitReplaysAudioWithoutCallingDelegate() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        StreamingTextToSpeechClient delegate = (text, voice, onChunk, onComplete) -> {
+            calls.incrementAndGet();
+            onChunk.accept(new byte[4_000]);
+            onChunk.accept(new byte[]{7, 7});
+            onComplete.run();
+        };
+        try (CachingStreamingTextToSpeechClient client = newClient(delegate)) {
+            byte[] first = synthesize(client, "Hello  there!");
+            AtomicInteger chunks = new AtomicInteger();
+            AtomicInteger completed = new AtomicInteger();
+            ByteArrayOutputStream second = new ByteArrayOutputStream();
+            client.streamSynthesize("Hello there!", null, chunk -> {
+                chunks.incrementAndGet();
+                second.writeBytes(chunk);
+            }, completed::incrementAndGet);
+
+            assertEquals(1, calls.get());
+            assertArrayEquals(first, second.toByteArray());
+            assertEquals(2, chunks.get(), "replayed in ~100ms chunks");
+            assertEquals(1, completed.get());
+            assertEquals(1, client.heapHits());
+            assertEquals(1, client.misses());
+            synthesize(client, "hello there!");
+            assertEquals(2, calls.get(), "case is significant for speech");
+        }
+    }
+
+    @Test
+    void concurrentMissesShareOneSynthesis() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch firstChunkSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StreamingTextToSpeechClient delegate = (text, voice, onChunk, onComplete) -> {
+            calls.incrementAndGet();
+            onChunk.accept(new byte[]{1, 2});
+            firstChunkSent.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            onChunk.accept(new byte[]{3});
+            onComplete.run();
+        };
+        try (CachingStreamingTextToSpeechClient client = newClient(delegate)) {
+            CompletableFuture<byte[]> leader = CompletableFuture.supplyAsync(() -> synthesize(client, "好的"));
+            assertTrue(firstChunkSent.await(5, TimeUnit.SECONDS));
+            CompletableFuture<byte[]> follower = CompletableFuture.supplyAsync(() -> synthesize(client, "好的"));
+            while (client.coalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertArrayEquals(new byte[]{1, 2, 3}, leader.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(new byte[]{1, 2, 3}, follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    void streamWithoutCompletionIsNotCached() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        StreamingTextToSpeechClient delegate = (text, voice, onChunk, onComplete) -> {
+            if (calls.incrementAndGet() == 1) {
+                onChunk.accept(new byte[]{1, 2});
+                return;
+            }
+            onChunk.accept(new byte[]{1, 2, 3, 4});
+            onComplete.run();
+        };
+        try (CachingStreamingTextToSpeechClient client = newClient(delegate)) {
+            assertArrayEquals(new byte[]{1, 2}, synthesize(client, "Truncated."));
+            assertArrayEquals(new byte[]{1, 2, 3, 4}, synthesize(client, "Truncated."));
+            assertArrayEquals(new byte[]{1, 2, 3, 4}, synthesize(client, "Truncated."));
+            assertEquals(2, calls.get(), "only the completed synthesis is cached");
+            assertEquals(1, client.heapHits());
+        }
+    }
+
+    private static CachingStreamingTextToSpeechClient newClient(StreamingTextToSpeechClient delegate) {
+        TtsCacheProperties properties = new TtsCacheProperties();
+        properties.setDiskEnabled(false);
+        return new CachingStreamingTextToSpeechClient(delegate, properties, new KokoroTtsProperties());
+    }
+
+    private static byte[] synthesize(StreamingTextToSpeechClient client, String text) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Consumer<byte[]> onChunk = out::writeBytes;
+        client.streamSynthesize(text, null, onChunk, () -> {
+        });
+        return out.toByteArray();
+    }
+}
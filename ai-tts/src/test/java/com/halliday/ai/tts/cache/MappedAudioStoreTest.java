@@ -0,0 +1,64 @@
+package com.halliday.ai.tts.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedAudioStoreTest {
+
+    @Test
+    void entriesSurviveReopen() throws Exception {
+        Path dir = Files.createTempDirectory("tts-cache");
+        try {
+            MappedAudioStore store = new MappedAudioStore(dir, 1_000_000);
+            store.put("voice\u0001hello", new byte[]{1, 2, 3, 4});
+            assertNull(store.get("voice\u0001other"));
+
+            MappedAudioStore reopened = new MappedAudioStore(dir, 1_000_000);
+            assertEquals(1, reopened.size());
+            ByteBuffer audio = reopened.get("voice\u0001hello");
+            assertNotNull(audio);
+            byte[] bytes = new byte[audio.remaining()];
+            audio.get(bytes);
+            assertArrayEquals(new byte[]{1, 2, 3, 4}, bytes);
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxBytes() throws Exception {
+        Path dir = Files.createTempDirectory("tts-cache");
+        try {
+            // 每条约 8 + 1 + 100 字节，上限容纳两条
+            MappedAudioStore store = new MappedAudioStore(dir, 250);
+            store.put("a", new byte[100]);
+            store.put("b", new byte[100]);
+            assertNotNull(store.get("a"));
+            store.put("c", new byte[100]);
+            assertEquals(2, store.size());
+            assertNotNull(store.get("a"));
+            assertNull(store.get("b"));
+            assertNotNull(store.get("c"));
+            assertEquals(1, store.evictions());
+            store.put("huge", new byte[1_000]);
+            assertNull(store.get("huge"));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.halliday.ai.tts.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveSentenceBatcherTest {
+
+    @Test
+    void targetGrowsWithQueueDepthAndLatency() {
+        AdaptiveSentenceBatcher batcher = new AdaptiveSentenceBatcher(40, 200, 800, 2);
+        assertEquals(40, batcher.targetChars());
+
+        batcher.onQueued();
+        batcher.onQueued();
+        assertEquals(40, batcher.targetChars(), "at the threshold the base length is kept");
+        batcher.onQueued();
+        batcher.onQueued();
+        assertEquals(80, batcher.targetChars());
+        for (int i = 0; i < 4; i++) {
+            batcher.onDequeued();
+        }
+        assertEquals(40, batcher.targetChars());
+
+        batcher.onLatency(4_000);
+        assertEquals(200, batcher.targetChars(), "capped at maxChars");
+        assertEquals(4, batcher.batches());
+    }
+
+    @Test
+    void queuedSegmentsAreMergedButFirstSegmentStaysAlone() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> synthesized = new CopyOnWriteArrayList<>();
+        StreamingTextToSpeechClient client = (text, voice, onChunk, onComplete) -> {
+            synthesized.add(text);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            onChunk.accept(new byte[]{1});
+            onComplete.run();
+        };
+        AdaptiveSentenceBatcher batcher = new AdaptiveSentenceBatcher(10, 200, 100, 100);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            TextToSpeechSession session = client.openSession(null, new TextSegmenter(0, 200), batcher, executor,
+                    chunk -> {
+                    });
+            session.append("Hi. How are you today? ");
+            // 负载升高后切出的短片段并入尚未开始合成的第二个片段
+            batcher.onLatency(400);
+            session.append("I am fine, thanks. ");
+            CompletableFuture<Void> done = session.finish();
+            release.countDown();
+            done.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of("Hi.", "How are you today? I am fine, thanks."), synthesized);
+        assertEquals(3, batcher.segments());
+        assertEquals(1, batcher.merged());
+        assertEquals(2, batcher.batches());
+        assertEquals(0, batcher.queued());
+    }
+}
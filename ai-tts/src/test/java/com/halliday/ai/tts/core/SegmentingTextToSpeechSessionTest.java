@@ -0,0 +1,56 @@
+package com.halliday.ai.tts.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentingTextToSpeechSessionTest {
+
+    @Test
+    void throwingListenerDoesNotDropLaterSegments() throws Exception {
+        StreamingTextToSpeechClient client = (text, voice, onChunk, onComplete) -> {
+            onChunk.accept(new byte[]{1});
+            onComplete.run();
+        };
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+        List<Integer> failed = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            TextToSpeechSession session = client.openSession(null, new TextSegmenter(0, 200), executor,
+                    new TextToSpeechSession.Listener() {
+                        @Override
+                        public void onAudio(byte[] chunk) {
+                        }
+
+                        @Override
+                        public void onSegmentStart(int index, String text) {
+                            if (index == 1) {
+                                throw new IllegalStateException("listener failure");
+                            }
+                        }
+
+                        @Override
+                        public void onSegmentComplete(int index, String text, int chunks) {
+                            completed.add(index);
+                        }
+
+                        @Override
+                        public void onSegmentFailed(int index, String text, int chunks, Exception error) {
+                            failed.add(index);
+                        }
+                    });
+            session.append("First one. Second one. Third one. ");
+            session.finish().get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(2, 3), completed);
+        assertTrue(failed.isEmpty());
+    }
+}
@@ -0,0 +1,41 @@
+package com.halliday.ai.tts.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextSegmenterTest {
+
+    @Test
+    void firstSentenceIsCutImmediatelyAndShortOnesAreMerged() {
+        TextSegmenter segmenter = new TextSegmenter(12, 200);
+        List<String> segments = new ArrayList<>();
+        for (String delta : new String[]{"好的。", "我来", "看看。今天", "晴。明天", "下雨，记得带伞！", "还有"}) {
+            segments.addAll(segmenter.append(delta));
+        }
+        assertEquals(List.of("好的。", "我来看看。今天晴。明天下雨，记得带伞！"), segments);
+        assertEquals("还有", segmenter.flush());
+        assertEquals(3, segmenter.emitted());
+    }
+
+    @Test
+    void asciiTerminatorsNeedFollowingWhitespace() {
+        TextSegmenter segmenter = new TextSegmenter(0, 200);
+        assertEquals(List.of(), segmenter.append("Pi is 3.14 and the site is example.com."));
+        assertEquals(List.of("Pi is 3.14 and the site is example.com."), segmenter.append(" Next"));
+        assertEquals(List.of("Next one.", "He said \"stop!\""), segmenter.append(" one. He said \"stop!\" now"));
+        assertEquals("now", segmenter.flush());
+    }
+
+    @Test
+    void longTextWithoutTerminatorIsCutAtSoftBreak() {
+        TextSegmenter segmenter = new TextSegmenter(0, 10);
+        assertEquals(List.of("abc def,"), segmenter.append("abc def, ghij"));
+        assertEquals(List.of("ghijklmnop"), segmenter.append("klmnopqrs"));
+        assertEquals("qrs", segmenter.flush());
+        assertEquals("", segmenter.flush());
+    }
+}
@@ -0,0 +1,55 @@
+package com.halliday.ai.tts.core;
+
+import com.halliday.ai.common.audio.AudioFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextToSpeechClientTest {
+
+    @Test
+    void defaultStreamingSplitsIntoWholeFrameChunks() {
+        byte[] audio = new byte[3_205];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) i;
+        }
+        List<byte[]> chunks = new ArrayList<>();
+
+        client(audio, AudioFormat.PCM16_MONO_16K).synthesizeStreaming("hi", null, chunks::add);
+
+        assertEquals(List.of(3_200, 4), chunks.stream().map(chunk -> chunk.length).toList());
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        chunks.forEach(joined::writeBytes);
+        assertArrayEquals(Arrays.copyOf(audio, 3_204), joined.toByteArray());
+    }
+
+    @Test
+    void defaultStreamingDropsAudioShorterThanOneFrame() {
+        AudioFormat stereo = new AudioFormat(16_000, 2, 16, AudioFormat.Endianness.LITTLE);
+        List<byte[]> chunks = new ArrayList<>();
+
+        client(new byte[3], stereo).synthesizeStreaming("hi", null, chunks::add);
+        client(null, stereo).synthesizeStreaming("hi", null, chunks::add);
+
+        assertTrue(chunks.isEmpty());
+    }
+
+    private static TextToSpeechClient client(byte[] audio, AudioFormat format) {
+        return new TextToSpeechClient() {
+            @Override
+            public byte[] synthesize(String text, String voice) {
+                return audio;
+            }
+
+            @Override
+            public AudioFormat outputFormat() {
+                return format;
+            }
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package com.halliday.ai.tts.hedge;
+
+import com.halliday.ai.common.audio.AudioFormat;
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.tts.core.StreamingTextToSpeechClient;
+import com.halliday.ai.tts.core.TextToSpeechClient;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingStreamingTextToSpeechClientTest {
+
+    @Test
+    void fastStreamDoesNotHedge() throws Exception {
+        AtomicInteger httpCalls = new AtomicInteger();
+        StreamingTextToSpeechClient stream = (text, voice, onChunk, onComplete) -> {
+            onChunk.accept(new byte[]{1, 1});
+            onChunk.accept(new byte[]{2, 2});
+            onComplete.run();
+        };
+        try (HedgingStreamingTextToSpeechClient client =
+                     new HedgingStreamingTextToSpeechClient(stream, http(httpCalls, null), 500)) {
+            assertArrayEquals(new byte[]{1, 1, 2, 2}, synthesize(client));
+            assertEquals(0, client.hedges());
+            assertEquals(1, client.wins(HedgingStreamingTextToSpeechClient.Lane.STREAM));
+            assertEquals(0, httpCalls.get());
+        }
+    }
+
+    @Test
+    void slowStreamLosesToHttpWithoutDuplicatingAudio() throws Exception {
+        CountDownLatch streamDone = new CountDownLatch(1);
+        StreamingTextToSpeechClient stream = (text, voice, onChunk, onComplete) -> {
+            sleep(300);
+            onChunk.accept(new byte[]{9, 9});
+            onComplete.run();
+            streamDone.countDown();
+        };
+        AtomicInteger httpCalls = new AtomicInteger();
+        try (HedgingStreamingTextToSpeechClient client =
+                     new HedgingStreamingTextToSpeechClient(stream, http(httpCalls, null), 50)) {
+            assertArrayEquals(new byte[]{3, 3, 4, 4}, synthesize(client));
+            assertTrue(streamDone.await(2, TimeUnit.SECONDS));
+            assertEquals(1, client.hedges());
+            assertEquals(1, client.wins(HedgingStreamingTextToSpeechClient.Lane.HTTP));
+            assertEquals(1, httpCalls.get());
+        }
+    }
+
+    @Test
+    void budgetCapsTimeoutHedges() throws Exception {
+        StreamingTextToSpeechClient stream = (text, voice, onChunk, onComplete) -> {
+            sleep(150);
+            onChunk.accept(new byte[]{9, 9});
+            onComplete.run();
+        };
+        AtomicInteger httpCalls = new AtomicInteger();
+        try (HedgingStreamingTextToSpeechClient client =
+                     new HedgingStreamingTextToSpeechClient(stream, http(httpCalls, null), 20, 0)) {
+            assertArrayEquals(new byte[]{3, 3, 4, 4}, synthesize(client));
+            assertArrayEquals(new byte[]{9, 9}, synthesize(client), "without budget the slow stream is awaited");
+            assertEquals(1, client.hedges());
+            assertEquals(1, client.budgetRejected());
+            assertEquals(1, httpCalls.get());
+        }
+    }
+
+    @Test
+    void streamFailureBeforeAudioHedgesImmediately() throws Exception {
+        StreamingTextToSpeechClient stream = (text, voice, onChunk, onComplete) -> {
+            throw new AiServiceException("socket closed");
+        };
+        AtomicInteger httpCalls = new AtomicInteger();
+        try (HedgingStreamingTextToSpeechClient client =
+                     new HedgingStreamingTextToSpeechClient(stream, http(httpCalls, null), 5_000)) {
+            long start = System.nanoTime();
+            assertArrayEquals(new byte[]{3, 3, 4, 4}, synthesize(client));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+            assertEquals(1, client.hedges());
+        }
+        StreamingTextToSpeechClient failing = (text, voice, onChunk, onComplete) -> {
+            throw new AiServiceException("socket closed");
+        };
+        try (HedgingStreamingTextToSpeechClient client = new HedgingStreamingTextToSpeechClient(failing,
+                http(httpCalls, new AiServiceException("http down")), 5_000)) {
+            AiServiceException ex = assertThrows(AiServiceException.class, () -> synthesize(client));
+            assertEquals("socket closed", ex.getMessage(), "stream failure is reported first");
+        }
+    }
+
+    private static byte[] synthesize(StreamingTextToSpeechClient client) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        client.streamSynthesize("Hello there.", null, out::writeBytes, () -> {
+        });
+        return out.toByteArray();
+    }
+
+    private static TextToSpeechClient http(AtomicInteger calls, RuntimeException failure) {
+        return new TextToSpeechClient() {
+            @Override
+            public byte[] synthesize(String text, String voice) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void synthesizeStreaming(String text, String voice, Consumer<byte[]> onChunk) {
+                calls.incrementAndGet();
+                if (failure != null) {
+                    throw failure;
+                }
+                onChunk.accept(new byte[]{3, 3});
+                onChunk.accept(new byte[]{4, 4});
+            }
+
+            @Override
+            public AudioFormat outputFormat() {
+                return AudioFormat.PCM16_MONO_16K;
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.halliday.ai.tts.kokoro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkDeadlineTest {
+
+    @Test
+    void failsWhenFirstChunkIsLate() {
+        ChunkDeadline deadline = new ChunkDeadline(50, 1_000, 5_000);
+
+        ChunkDeadline.Exceeded ex = assertThrows(ChunkDeadline.Exceeded.class,
+                () -> deadline.await(new CompletableFuture<>()));
+
+        assertEquals(ChunkDeadline.Kind.FIRST_CHUNK, ex.kind());
+    }
+
+    @Test
+    void failsWhenGapBetweenChunksIsTooLong() {
+        ChunkDeadline deadline = new ChunkDeadline(1_000, 50, 5_000);
+        Consumer<String> onChunk = deadline.track(chunk -> {
+        });
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> onChunk.accept("a"));
+
+        ChunkDeadline.Exceeded ex = assertThrows(ChunkDeadline.Exceeded.class, () -> deadline.await(completion));
+
+        assertEquals(ChunkDeadline.Kind.CHUNK_GAP, ex.kind());
+    }
+
+    @Test
+    void steadyChunksRunIntoTotalDeadline() {
+        ChunkDeadline deadline = new ChunkDeadline(100, 100, 250);
+        Consumer<String> onChunk = deadline.track(chunk -> {
+        });
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> {
+            while (!completion.isDone()) {
+                onChunk.accept("a");
+                sleep(20);
+            }
+        });
+
+        ChunkDeadline.Exceeded ex = assertThrows(ChunkDeadline.Exceeded.class, () -> deadline.await(completion));
+        completion.complete(null);
+
+        assertEquals(ChunkDeadline.Kind.TOTAL, ex.kind());
+    }
+
+    @Test
+    void returnsOnCompletionAndUnwrapsFailures() throws Exception {
+        ChunkDeadline deadline = new ChunkDeadline(1_000, 1_000, 5_000);
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS).execute(() -> completion.complete(null));
+
+        deadline.await(completion);
+
+        IllegalStateException failure = new IllegalStateException("socket closed");
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> new ChunkDeadline(1_000, 1_000, 5_000).await(CompletableFuture.failedFuture(failure)));
+        assertSame(failure, ex.getCause());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.halliday.ai.tts.kokoro;
+
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 测试用 WebSocket 工厂：连接立即握手成功；收到载荷后按 {@link #replies} 依次回复文本帧，
+ * 被标记为 {@link FakeSocket#dropOnSend} 的连接在发送后报告失败，模拟服务端已悄悄关闭的连接；
+ * {@link #dropNewSockets} 为 true 时新建的连接同样如此；{@link #closeAfterReplies} 为 true 时回复后由服务端关闭连接。
+ */
+final class FakeWebSocketFactory implements WebSocket.Factory {
+
+    final List<FakeSocket> sockets = new CopyOnWriteArrayList<>();
+    volatile List<String> replies = List.of();
+    volatile boolean dropNewSockets;
+    volatile boolean closeAfterReplies;
+
+    @Override
+    public WebSocket newWebSocket(Request request, WebSocketListener listener) {
+        FakeSocket socket = new FakeSocket(request, listener);
+        socket.dropOnSend = dropNewSockets;
+        sockets.add(socket);
+        listener.onOpen(socket, null);
+        return socket;
+    }
+
+    final class FakeSocket implements WebSocket {
+
+        private final Request request;
+        private final WebSocketListener listener;
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        volatile boolean dropOnSend;
+        volatile boolean closed;
+
+        private FakeSocket(Request request, WebSocketListener listener) {
+            this.request = request;
+            this.listener = listener;
+        }
+
+        /**
+         * 模拟服务端主动关闭连接。
+         */
+        void serverClose() {
+            listener.onClosing(this, 1001, "idle");
+        }
+
+        @Override
+        public boolean send(String text) {
+            if (closed) {
+                return false;
+            }
+            sent.add(text);
+            if (dropOnSend) {
+                listener.onFailure(this, new IOException("connection reset"), null);
+                return true;
+            }
+            replies.forEach(reply -> listener.onMessage(this, reply));
+            if (closeAfterReplies) {
+                closed = true;
+                listener.onClosing(this, 1000, "bye");
+                listener.onClosed(this, 1000, "bye");
+            }
+            return true;
+        }
+
+        @Override
+        public boolean send(okio.ByteString bytes) {
+            return false;
+        }
+
+        @Override
+        public boolean close(int code, String reason) {
+            boolean wasOpen = !closed;
+            closed = true;
+            return wasOpen;
+        }
+
+        @Override
+        public void cancel() {
+            closed = true;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public long queueSize() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.halliday.ai.tts.kokoro;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halliday.ai.common.exception.AiServiceException;
+import com.halliday.ai.tts.config.KokoroTtsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KokoroStreamingTextToSpeechClientTest {
+
+    private static final List<String> AUDIO_THEN_END = List.of(
+            "{\"type\":\"chunk\",\"audio\":\"AQI=\"}",
+            "{\"type\":\"end\"}");
+
+    private final FakeWebSocketFactory factory = new FakeWebSocketFactory();
+
+    @Test
+    void retriesOnFreshSocketWhenReusedSocketIsStale() {
+        factory.replies = AUDIO_THEN_END;
+        KokoroWebSocketPool pool = new KokoroWebSocketPool(factory, "ws://kokoro.test/stream", 2, 60_000, 1_000);
+        KokoroStreamingTextToSpeechClient client = client(pool);
+
+        assertArrayEquals(new byte[]{1, 2}, synthesize(client));
+        factory.sockets.get(0).dropOnSend = true;
+        assertArrayEquals(new byte[]{1, 2}, synthesize(client));
+
+        assertEquals(2, factory.sockets.size());
+        assertEquals(1, client.reconnects());
+        assertEquals(1, pool.idleCount(), "the fresh socket is returned to the pool");
+    }
+
+    @Test
+    void doesNotRetryFailureOnFreshSocket() {
+        factory.replies = AUDIO_THEN_END;
+        factory.dropNewSockets = true;
+        KokoroWebSocketPool pool = new KokoroWebSocketPool(factory, "ws://kokoro.test/stream", 2, 60_000, 1_000);
+        KokoroStreamingTextToSpeechClient client = client(pool);
+
+        assertThrows(AiServiceException.class, () -> synthesize(client));
+
+        assertEquals(1, factory.sockets.size());
+        assertEquals(0, client.reconnects());
+        assertEquals(0, pool.idleCount());
+    }
+
+    @Test
+    void closeBeforeEndMarkerFailsWithoutCompleting() {
+        factory.replies = List.of("{\"type\":\"chunk\",\"audio\":\"AQI=\"}");
+        factory.closeAfterReplies = true;
+        KokoroWebSocketPool pool = new KokoroWebSocketPool(factory, "ws://kokoro.test/stream", 2, 60_000, 1_000);
+        KokoroStreamingTextToSpeechClient client = client(pool);
+        AtomicInteger completed = new AtomicInteger();
+
+        assertThrows(AiServiceException.class, () -> client.streamSynthesize("Hello there.", null, chunk -> {
+        }, completed::incrementAndGet));
+
+        assertEquals(0, completed.get());
+        assertEquals(1, factory.sockets.size(), "audio was delivered, so the sentence is not retried");
+        assertEquals(0, pool.idleCount());
+    }
+
+    private static KokoroStreamingTextToSpeechClient client(KokoroWebSocketPool pool) {
+        KokoroTtsProperties properties = new KokoroTtsProperties();
+        properties.setFirstChunkTimeoutMs(1_000);
+        properties.setChunkGapTimeoutMs(1_000);
+        return new KokoroStreamingTextToSpeechClient(properties, new ObjectMapper(), null, pool);
+    }
+
+    private static byte[] synthesize(KokoroStreamingTextToSpeechClient client) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        client.streamSynthesize("Hello there.", null, out::writeBytes, () -> {
+        });
+        return out.toByteArray();
+    }
+}
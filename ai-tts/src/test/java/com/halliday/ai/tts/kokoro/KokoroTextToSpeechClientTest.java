@@ -0,0 +1,65 @@
+package com.halliday.ai.tts.kokoro;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.halliday.ai.tts.config.KokoroTtsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KokoroTextToSpeechClientTest {
+
+    @Test
+    void forwardsWholeFramesAndCarriesPartialFrames() throws Exception {
+        // 100Hz 单声道 16 位：每帧 2 字节，约 100ms 的片段为 20 字节
+        KokoroTtsProperties properties = new KokoroTtsProperties();
+        properties.setSampleRate(100);
+        KokoroTextToSpeechClient client = new KokoroTextToSpeechClient(properties, new ObjectMapper());
+        byte[] audio = new byte[45];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) i;
+        }
+        List<byte[]> chunks = new ArrayList<>();
+
+        long forwarded = client.forwardAligned(trickle(audio, 3), chunks::add, System.nanoTime());
+
+        assertEquals(List.of(2, 20, 20, 2), chunks.stream().map(chunk -> chunk.length).toList(),
+                "first chunk is sent as soon as one frame arrives, then ~100ms at a time");
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        chunks.forEach(joined::writeBytes);
+        assertArrayEquals(Arrays.copyOf(audio, 44), joined.toByteArray(), "trailing partial frame is dropped");
+        assertEquals(44, forwarded);
+    }
+
+    @Test
+    void stereoFramesStayAlignedAcrossReads() throws Exception {
+        KokoroTtsProperties properties = new KokoroTtsProperties();
+        properties.setSampleRate(100);
+        properties.setChannels(2);
+        KokoroTextToSpeechClient client = new KokoroTextToSpeechClient(properties, new ObjectMapper());
+        List<byte[]> chunks = new ArrayList<>();
+
+        long forwarded = client.forwardAligned(trickle(new byte[83], 5), chunks::add, System.nanoTime());
+
+        assertEquals(80, forwarded);
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.length % 4 == 0));
+    }
+
+    /**
+     * 每次最多返回 {@code step} 个字节的输入流，模拟网络分片。
+     */
+    private static InputStream trickle(byte[] data, int step) {
+        return new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, step));
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.halliday.ai.tts.kokoro;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KokoroWebSocketPoolTest {
+
+    private final FakeWebSocketFactory factory = new FakeWebSocketFactory();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void reusesReleasedSocket() {
+        KokoroWebSocketPool pool = pool(2);
+
+        KokoroWebSocketPool.PooledSocket first = pool.acquire();
+        assertFalse(first.reused());
+        pool.release(first);
+        KokoroWebSocketPool.PooledSocket second = pool.acquire();
+
+        assertSame(first, second);
+        assertTrue(second.reused());
+        assertEquals(1, pool.opened());
+        assertEquals(1, pool.reused());
+        assertEquals(1, factory.sockets.size());
+    }
+
+    @Test
+    void discardsSocketIdleLongerThanMaxIdle() {
+        KokoroWebSocketPool pool = pool(2);
+        pool.release(pool.acquire());
+
+        clock.addAndGet(1_001);
+        KokoroWebSocketPool.PooledSocket fresh = pool.acquire();
+
+        assertFalse(fresh.reused());
+        assertEquals(2, pool.opened());
+        assertEquals(1, pool.discarded());
+        assertTrue(factory.sockets.get(0).closed, "expired socket should be closed");
+    }
+
+    @Test
+    void discardsSocketClosedByServerWhileIdle() {
+        KokoroWebSocketPool pool = pool(2);
+        pool.release(pool.acquire());
+
+        factory.sockets.get(0).serverClose();
+        KokoroWebSocketPool.PooledSocket fresh = pool.acquire();
+
+        assertFalse(fresh.reused());
+        assertEquals(2, factory.sockets.size());
+        assertEquals(1, pool.discarded());
+    }
+
+    @Test
+    void keepsAtMostMaxIdleSockets() {
+        KokoroWebSocketPool pool = pool(1);
+        KokoroWebSocketPool.PooledSocket a = pool.acquire();
+        KokoroWebSocketPool.PooledSocket b = pool.acquire();
+
+        pool.release(a);
+        pool.release(b);
+
+        assertEquals(1, pool.idleCount());
+        assertEquals(1, pool.discarded());
+        pool.close();
+        assertEquals(0, pool.idleCount());
+        assertTrue(factory.sockets.stream().allMatch(socket -> socket.closed));
+    }
+
+    private KokoroWebSocketPool pool(int maxIdle) {
+        return new KokoroWebSocketPool(factory, "ws://kokoro.test/stream", maxIdle, 1_000, 1_000, clock::get);
+    }
+}